@@ -8,6 +8,9 @@
 #   ./run-e2e-tests.sh docker             # Tests avec Docker Compose
 #   ./run-e2e-tests.sh <url>              # Tests contre une URL specifique
 #
+# En mode docker, E2E_PROFILING=true ajoute les profils Liberty de mesure
+# (docker-compose.e2e.profiling.yml : /metrics, journal d'acces, traces).
+#
 
 set -e
 
@@ -21,6 +24,10 @@ NC='\033[0m' # No Color
 DEFAULT_URL="http://localhost:9080/site-deontologie"
 RECETTE_URL="https://f56-forms-dsin.rec.apps.paris.mdp/lutece"
 HEADLESS="${HEADLESS:-true}"
+COMPOSE_FILES="-f docker-compose.e2e.yml"
+if [ "${E2E_PROFILING:-false}" = "true" ]; then
+    COMPOSE_FILES="$COMPOSE_FILES -f docker-compose.e2e.profiling.yml"
+fi
 
 log_info() {
     echo -e "${GREEN}[INFO]${NC} $1"
@@ -52,7 +59,7 @@ case "${1:-local}" in
 
         # Demarrer l'environnement Docker
         log_info "Demarrage de l'environnement Docker..."
-        docker-compose -f docker-compose.e2e.yml up -d db lutece
+        docker-compose $COMPOSE_FILES up -d db lutece
 
         # Attendre que Lutece soit pret
         log_info "Attente du demarrage de Lutece..."
@@ -107,7 +114,7 @@ TEST_RESULT=$?
 # Nettoyer Docker si necessaire
 if [ "${1:-local}" = "docker" ]; then
     log_info "Arret de l'environnement Docker..."
-    docker-compose -f docker-compose.e2e.yml down -v
+    docker-compose $COMPOSE_FILES down -v
 fi
 
 # Afficher le resultat
@@ -121,7 +128,7 @@ else
     log_error "  DES TESTS E2E ONT ECHOUE"
     log_error "============================================"
     log_info "Voir les rapports dans: target/surefire-reports/"
-    log_info "Captures d'ecran dans: target/screenshots/"
+    log_info "Artefacts des tests en echec dans: target/artifacts/"
 fi
 
 exit $TEST_RESULT
@@ -0,0 +1,102 @@
+package fr.paris.lutece.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Ecriture asynchrone des artefacts d'echec (zip compresse par test).
+ *
+ * Un thread dedie ecrit les archives hors du thread de test. Un quota disque par run
+ * (test.artifacts.quota.mb) borne le volume total : au-dela, les archives sont abandonnees.
+ */
+final class ArtifactWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactWriter.class);
+
+    private final long quotaBytes;
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "artifact-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ArtifactWriter(long quotaBytes) {
+        this.quotaBytes = quotaBytes;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
+    }
+
+    /**
+     * Planifie l'ecriture d'une archive. Les entrees sont des byte[] ou des fichiers (Path)
+     * temporaires, supprimes une fois archives.
+     */
+    void submit(Path archive, Map<String, Object> entries) {
+        executor.submit(() -> write(archive, entries));
+    }
+
+    /**
+     * Attend la fin des ecritures en cours (fin de JVM).
+     */
+    void flush() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                LOGGER.warn("Ecriture des artefacts interrompue (timeout)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Path archive, Map<String, Object> entries) {
+        Path temp = archive.resolveSibling(archive.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(archive.getParent());
+            try (OutputStream out = Files.newOutputStream(temp);
+                 ZipOutputStream zip = new ZipOutputStream(out)) {
+                for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                    zip.putNextEntry(new ZipEntry(entry.getKey()));
+                    if (entry.getValue() instanceof byte[]) {
+                        zip.write((byte[]) entry.getValue());
+                    } else if (entry.getValue() instanceof Path && Files.exists((Path) entry.getValue())) {
+                        Files.copy((Path) entry.getValue(), zip);
+                    }
+                    zip.closeEntry();
+                }
+            }
+            long size = Files.size(temp);
+            if (writtenBytes.addAndGet(size) > quotaBytes) {
+                writtenBytes.addAndGet(-size);
+                Files.delete(temp);
+                LOGGER.warn("Quota d'artefacts atteint ({} Mo) : {} non ecrit", quotaBytes >> 20, archive);
+            } else {
+                Files.move(temp, archive, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+                LOGGER.info("Artefacts d'echec sauvegardes: {} ({} Ko)", archive, size >> 10);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Impossible d'ecrire {}: {}", archive, e.getMessage());
+        } finally {
+            for (Object value : entries.values()) {
+                if (value instanceof Path) {
+                    try {
+                        Files.deleteIfExists((Path) value);
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package fr.paris.lutece.config;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Tracing;
+import com.microsoft.playwright.Video;
+import com.microsoft.playwright.options.ScreenshotType;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Service d'artefacts de test : rien n'est ecrit sur disque pour un test qui reussit.
+ *
+ * Pendant le test, les captures de debug sont gardees en memoire (JPEG), la trace Playwright
+ * est enregistree par chunk et, si test.artifacts.video=true, la video des contextes crees par
+ * {@link #newContext} dans un repertoire temporaire. En cas d'echec,
+ * {@link fr.paris.lutece.junit.FailureArtifactsExtension} les regroupe avec une capture pleine page
+ * dans une archive ecrite en arriere-plan par {@link ArtifactWriter}.
+ *
+ * Configuration : test.artifacts.path, test.artifacts.trace, test.artifacts.video,
+ * test.artifacts.quota.mb
+ */
+public final class Artifacts {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Artifacts.class);
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final Path ARTIFACTS_PATH = Paths.get(
+        CONFIG.getOptionalValue("test.artifacts.path", String.class).orElse("target/artifacts"));
+    private static final boolean TRACE = CONFIG.getOptionalValue("test.artifacts.trace", Boolean.class).orElse(true);
+    private static final boolean VIDEO = CONFIG.getOptionalValue("test.artifacts.video", Boolean.class).orElse(false);
+    private static final long QUOTA_MB = CONFIG.getOptionalValue("test.artifacts.quota.mb", Long.class).orElse(200L);
+
+    private static final int MAX_CAPTURES_PER_PAGE = 10;
+    private static final int CAPTURE_QUALITY = 60;
+
+    private static final Map<Page, Deque<Map.Entry<String, byte[]>>> CAPTURES =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Set<BrowserContext> TRACED_CONTEXTS =
+        Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    // Pages filmees dont la video n'a pas encore ete conservee ou supprimee
+    private static final List<Page> RECORDED_PAGES = new CopyOnWriteArrayList<>();
+
+    private static ArtifactWriter writer;
+
+    private Artifacts() {
+    }
+
+    /**
+     * Garde en memoire une capture de debug (JPEG basse qualite) ; elle n'est ecrite qu'en cas d'echec.
+     */
+    public static void capture(Page page, String name) {
+        try {
+            byte[] image = page.screenshot(new Page.ScreenshotOptions()
+                .setType(ScreenshotType.JPEG)
+                .setQuality(CAPTURE_QUALITY)
+                .setFullPage(true));
+            Deque<Map.Entry<String, byte[]>> captures = CAPTURES.computeIfAbsent(page, p -> new ArrayDeque<>());
+            synchronized (captures) {
+                captures.addLast(Map.entry(name + ".jpg", image));
+                while (captures.size() > MAX_CAPTURES_PER_PAGE) {
+                    captures.removeFirst();
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Capture {} impossible: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Ajoute l'enregistrement video aux options du contexte si test.artifacts.video=true.
+     */
+    private static Browser.NewContextOptions configureVideo(Browser.NewContextOptions options) {
+        if (VIDEO) {
+            options.setRecordVideoDir(ARTIFACTS_PATH.resolve("tmp-video"));
+        }
+        return options;
+    }
+
+    /**
+     * Cree un contexte dont les videos sont suivies : chacune est ensuite conservee ou supprimee
+     * par {@link #drainVideos}.
+     */
+    public static BrowserContext newContext(Browser browser, Browser.NewContextOptions options) {
+        BrowserContext context = browser.newContext(configureVideo(options));
+        if (VIDEO) {
+            context.onPage(RECORDED_PAGES::add);
+        }
+        return context;
+    }
+
+    /**
+     * Retire et retourne les videos des pages fermees (elles ne sont completes qu'a la fermeture du contexte).
+     */
+    public static List<Video> drainVideos() {
+        List<Video> videos = new ArrayList<>();
+        for (Page page : RECORDED_PAGES) {
+            if (page.isClosed()) {
+                RECORDED_PAGES.remove(page);
+                if (page.video() != null) {
+                    videos.add(page.video());
+                }
+            }
+        }
+        return videos;
+    }
+
+    /**
+     * Demarre un chunk de trace pour le test (la trace du contexte est demarree au premier appel).
+     */
+    public static void startTrace(BrowserContext context, String title) {
+        if (!TRACE || context == null) {
+            return;
+        }
+        try {
+            if (TRACED_CONTEXTS.add(context)) {
+                context.tracing().start(new Tracing.StartOptions()
+                    .setScreenshots(true)
+                    .setSnapshots(true));
+            }
+            context.tracing().startChunk(new Tracing.StartChunkOptions().setTitle(title));
+        } catch (Exception e) {
+            LOGGER.debug("Trace non demarree: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Termine le chunk de trace : il est ecrit dans un fichier temporaire si keep, sinon abandonne.
+     *
+     * @return le fichier temporaire de la trace, ou null
+     */
+    public static Path stopTrace(BrowserContext context, boolean keep) {
+        if (!TRACE || context == null || !TRACED_CONTEXTS.contains(context)) {
+            return null;
+        }
+        try {
+            if (keep) {
+                Path temp = ARTIFACTS_PATH.resolve("tmp-trace").resolve(UUID.randomUUID() + ".zip");
+                context.tracing().stopChunk(new Tracing.StopChunkOptions().setPath(temp));
+                return temp;
+            }
+            context.tracing().stopChunk();
+        } catch (Exception e) {
+            LOGGER.debug("Trace non arretee: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Retire et retourne les captures de debug accumulees pour la page.
+     */
+    public static List<Map.Entry<String, byte[]>> drainCaptures(Page page) {
+        Deque<Map.Entry<String, byte[]>> captures = page == null ? null : CAPTURES.remove(page);
+        if (captures == null) {
+            return List.of();
+        }
+        synchronized (captures) {
+            return new ArrayList<>(captures);
+        }
+    }
+
+    /**
+     * Planifie l'ecriture asynchrone de l'archive d'un test en echec.
+     */
+    public static void persist(String testClass, String testName, Map<String, Object> entries) {
+        Path archive = ARTIFACTS_PATH.resolve(testClass).resolve(testName + ".zip");
+        writer().submit(archive, entries);
+    }
+
+    private static synchronized ArtifactWriter writer() {
+        if (writer == null) {
+            writer = new ArtifactWriter(QUOTA_MB << 20);
+        }
+        return writer;
+    }
+}
@@ -1,16 +1,25 @@
 package fr.paris.lutece.config;
 
 import com.microsoft.playwright.*;
+import fr.paris.lutece.junit.FailureArtifactsExtension;
+import fr.paris.lutece.junit.HarRecordingExtension;
+import fr.paris.lutece.junit.ServerProfileExtension;
+import fr.paris.lutece.junit.StatementDigestExtension;
+import fr.paris.lutece.junit.TimingBreakdownExtension;
+import fr.paris.lutece.junit.TraceExtension;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 /**
  * Classe de base pour tous les tests Playwright.
  * Gère le cycle de vie du navigateur et des contextes.
  * Utilise MicroProfile Config pour la gestion des configurations.
  */
-public abstract class BaseTest {
+@ExtendWith({FailureArtifactsExtension.class, HarRecordingExtension.class, StatementDigestExtension.class,
+    ServerProfileExtension.class, TimingBreakdownExtension.class, TraceExtension.class})
+public abstract class BaseTest implements BrowserSession {
 
     protected static Playwright playwright;
     protected static Browser browser;
@@ -29,16 +38,18 @@ public abstract class BaseTest {
     public static void updateBaseUrl(String url) {
         BASE_URL = url;
     }
+
+    public static String getBaseUrl() {
+        return BASE_URL;
+    }
     protected static final boolean HEADLESS = config.getValue("test.headless", Boolean.class);
     protected static final int TIMEOUT = config.getValue("test.timeout", Integer.class);
     protected static final int SLOW_MO = config.getValue("test.slowmo", Integer.class);
     protected static final int VIEWPORT_WIDTH = config.getValue("test.viewport.width", Integer.class);
     protected static final int VIEWPORT_HEIGHT = config.getValue("test.viewport.height", Integer.class);
     protected static final String LOCALE = config.getValue("test.locale", String.class);
-    protected static final String SCREENSHOTS_PATH = config.getValue("test.screenshots.path", String.class);
 
-    private static final java.nio.file.Path AUTH_STATE_PATH =
-        java.nio.file.Paths.get("target/auth-state.json");
+    private static final java.nio.file.Path AUTH_STATE_PATH = ScenarioContext.AUTH_STATE_PATH;
 
     /**
      * Sauvegarde l'etat d'authentification (cookies, localStorage) apres login.
@@ -54,11 +65,18 @@ public abstract class BaseTest {
      * Evite de refaire le login UI.
      */
     protected BrowserContext createAuthenticatedContext() {
-        return browser.newContext(new Browser.NewContextOptions()
+        return Artifacts.newContext(browser, contextOptions()
+            .setStorageStatePath(AUTH_STATE_PATH));
+    }
+
+    /**
+     * Options communes des contextes navigateur (viewport, locale, HAR) ; la video est ajoutee par Artifacts.newContext.
+     */
+    protected static Browser.NewContextOptions contextOptions() {
+        return HarRecording.configure(new Browser.NewContextOptions()
             .setViewportSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)
             .setLocale(LOCALE)
-            .setIgnoreHTTPSErrors(true)
-            .setStorageStatePath(AUTH_STATE_PATH));
+            .setIgnoreHTTPSErrors(true), getBaseUrl());
     }
 
     /**
@@ -78,13 +96,10 @@ public abstract class BaseTest {
 
     @BeforeEach
     protected void createContextAndPage() {
-        context = browser.newContext(new Browser.NewContextOptions()
-            .setViewportSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)
-            .setLocale(LOCALE)
-            .setIgnoreHTTPSErrors(true));
+        context = Artifacts.newContext(browser, contextOptions());
 
         page = context.newPage();
-        page.setDefaultTimeout(TIMEOUT);
+        TimeoutPolicy.setDefaultTimeout(page, TIMEOUT);
     }
 
     @AfterEach
@@ -104,12 +119,20 @@ public abstract class BaseTest {
         }
     }
 
+    @Override
+    public BrowserContext getBrowserContext() {
+        return context;
+    }
+
+    @Override
+    public Page getPage() {
+        return page;
+    }
+
     /**
-     * Prend une capture d'écran en cas d'échec.
+     * Prend une capture d'écran, gardée en mémoire et écrite uniquement si le test échoue.
      */
     protected void takeScreenshot(String name) {
-        page.screenshot(new Page.ScreenshotOptions()
-            .setPath(java.nio.file.Paths.get(SCREENSHOTS_PATH + "/" + name + ".png"))
-            .setFullPage(true));
+        Artifacts.capture(page, name);
     }
 }
@@ -0,0 +1,14 @@
+package fr.paris.lutece.config;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+
+/**
+ * Session navigateur d'une classe de test, exposee aux extensions JUnit (artefacts d'echec...).
+ */
+public interface BrowserSession {
+
+    BrowserContext getBrowserContext();
+
+    Page getPage();
+}
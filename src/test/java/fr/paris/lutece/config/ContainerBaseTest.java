@@ -1,8 +1,20 @@
 package fr.paris.lutece.config;
 
 import fr.paris.lutece.containers.LuteceContainer;
+import fr.paris.lutece.junit.FailureArtifactsExtension;
+import fr.paris.lutece.junit.HarRecordingExtension;
+import fr.paris.lutece.junit.ServerProfileExtension;
+import fr.paris.lutece.junit.StatementDigestExtension;
+import fr.paris.lutece.junit.TimingBreakdownExtension;
+import fr.paris.lutece.junit.TraceExtension;
+import fr.paris.lutece.monitoring.AccessLog;
+import fr.paris.lutece.monitoring.ContainerStatsSampler;
+import fr.paris.lutece.monitoring.OtlpReceiver;
+import fr.paris.lutece.monitoring.ServerProfile;
+import fr.paris.lutece.monitoring.TestDatabase;
 import com.microsoft.playwright.*;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.MariaDBContainer;
@@ -16,7 +28,9 @@ import org.testcontainers.junit.jupiter.Testcontainers;
  */
 @Testcontainers
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
-public abstract class ContainerBaseTest {
+@ExtendWith({FailureArtifactsExtension.class, HarRecordingExtension.class, StatementDigestExtension.class,
+    ServerProfileExtension.class, TimingBreakdownExtension.class, TraceExtension.class})
+public abstract class ContainerBaseTest implements BrowserSession {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ContainerBaseTest.class);
 
@@ -25,7 +39,6 @@ public abstract class ContainerBaseTest {
     protected static final int VIEWPORT_WIDTH = 1920;
     protected static final int VIEWPORT_HEIGHT = 1080;
     protected static final String LOCALE = "fr-FR";
-    protected static final String SCREENSHOTS_PATH = "target/screenshots";
 
     // Réseau partagé entre les conteneurs
     protected static final Network NETWORK = Network.newNetwork();
@@ -38,7 +51,12 @@ public abstract class ContainerBaseTest {
         .withDatabaseName("lutece")
         .withUsername("lutece")
         .withPassword("lutece")
-        .withInitScript("sql/init-lutece.sql"); // Script d'initialisation optionnel
+        .withInitScript("sql/init-lutece.sql") // Script d'initialisation optionnel
+        .withCommand("--performance-schema=ON",
+            "--performance-schema-consumer-events-statements-current=ON",
+            "--performance-schema-consumer-statements-digest=ON",
+            "--performance-schema-instrument=statement/%=ON",
+            "--performance-schema-instrument=wait/lock/metadata/sql/mdl=ON");
 
     // Conteneur Lutece (démarré après MariaDB)
     protected static LuteceContainer luteceContainer;
@@ -53,8 +71,7 @@ public abstract class ContainerBaseTest {
     protected static String BASE_URL;
 
     // Chemin pour sauvegarder l'état d'authentification
-    private static final java.nio.file.Path AUTH_STATE_PATH =
-        java.nio.file.Paths.get("target/auth-state.json");
+    private static final java.nio.file.Path AUTH_STATE_PATH = ScenarioContext.AUTH_STATE_PATH;
 
     @BeforeAll
     static void startContainersAndBrowser() {
@@ -63,6 +80,7 @@ public abstract class ContainerBaseTest {
         // Démarrer MariaDB d'abord (géré par @Container)
         LOGGER.info("MariaDB démarré sur: {}:{}",
             MARIADB.getHost(), MARIADB.getMappedPort(3306));
+        TestDatabase.attach(MARIADB);
 
         // Démarrer Lutece avec la connexion à MariaDB
         luteceContainer = new LuteceContainer()
@@ -74,11 +92,20 @@ public abstract class ContainerBaseTest {
                 "lutece",            // Utilisateur
                 "lutece"             // Mot de passe
             );
+        if (RequestTimings.isEnabled()) {
+            luteceContainer.withAccessLog();
+        }
+        if (TraceContext.isEnabled()) {
+            luteceContainer.withTelemetry(OtlpReceiver.start(), TraceContext.javaAgent().orElse(null));
+        }
 
         luteceContainer.start();
+        ServerProfile.attach(luteceContainer);
+        AccessLog.attach(luteceContainer);
 
         BASE_URL = luteceContainer.getBaseURL();
         LOGGER.info("Lutece démarré sur: {}", BASE_URL);
+        ContainerStatsSampler.start(luteceContainer, MARIADB);
 
         // Attendre que l'application soit vraiment prête
         waitForApplicationReady();
@@ -121,6 +148,7 @@ public abstract class ContainerBaseTest {
         if (playwright != null) {
             playwright.close();
         }
+        ContainerStatsSampler.stop();
         if (luteceContainer != null && luteceContainer.isRunning()) {
             luteceContainer.stop();
         }
@@ -131,10 +159,12 @@ public abstract class ContainerBaseTest {
      * Crée un nouveau contexte de navigateur.
      */
     protected BrowserContext createContext() {
-        return browser.newContext(new Browser.NewContextOptions()
+        BrowserContext created = Artifacts.newContext(browser, HarRecording.configure(new Browser.NewContextOptions()
             .setViewportSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)
             .setLocale(LOCALE)
-            .setIgnoreHTTPSErrors(true));
+            .setIgnoreHTTPSErrors(true), BASE_URL));
+        RequestTimings.install(created, BASE_URL);
+        return created;
     }
 
     /**
@@ -144,11 +174,13 @@ public abstract class ContainerBaseTest {
         if (!java.nio.file.Files.exists(AUTH_STATE_PATH)) {
             return createContext();
         }
-        return browser.newContext(new Browser.NewContextOptions()
+        BrowserContext created = Artifacts.newContext(browser, HarRecording.configure(new Browser.NewContextOptions()
             .setViewportSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)
             .setLocale(LOCALE)
             .setIgnoreHTTPSErrors(true)
-            .setStorageStatePath(AUTH_STATE_PATH));
+            .setStorageStatePath(AUTH_STATE_PATH), BASE_URL));
+        RequestTimings.install(created, BASE_URL);
+        return created;
     }
 
     /**
@@ -163,23 +195,24 @@ public abstract class ContainerBaseTest {
     }
 
     /**
-     * Prend une capture d'écran.
+     * Prend une capture d'écran, gardée en mémoire et écrite uniquement si le test échoue.
      */
     protected void takeScreenshot(String name) {
         if (page != null) {
-            java.nio.file.Path path = java.nio.file.Paths.get(SCREENSHOTS_PATH, name + ".png");
-            try {
-                java.nio.file.Files.createDirectories(path.getParent());
-                page.screenshot(new Page.ScreenshotOptions()
-                    .setPath(path)
-                    .setFullPage(true));
-                LOGGER.info("Screenshot sauvegardé: {}", path);
-            } catch (Exception e) {
-                LOGGER.warn("Impossible de sauvegarder le screenshot: {}", e.getMessage());
-            }
+            Artifacts.capture(page, name);
         }
     }
 
+    @Override
+    public BrowserContext getBrowserContext() {
+        return context;
+    }
+
+    @Override
+    public Page getPage() {
+        return page;
+    }
+
     /**
      * Retourne l'URL de base de l'application.
      */
@@ -0,0 +1,97 @@
+package fr.paris.lutece.config;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.options.HarContentPolicy;
+import com.microsoft.playwright.options.HarMode;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enregistrement HAR des contextes navigateur (test.har.record=true).
+ *
+ * Chaque contexte configure par {@link #configure} (BaseTest, ContainerBaseTest, LoginContainerTest)
+ * ecrit target/har/&lt;Classe&gt;.har a sa fermeture (&lt;Classe&gt;-&lt;methode&gt;.har pour les classes
+ * PER_METHOD), avec les corps de reponse necessaires a l'extraction des jetons par
+ * {@link fr.paris.lutece.load.HarScenario}. Un fichier .properties voisin conserve l'URL de base du
+ * contexte et le suffixe du run enregistre.
+ */
+public final class HarRecording {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HarRecording.class);
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final boolean ENABLED = CONFIG.getOptionalValue("test.har.record", Boolean.class).orElse(false);
+    private static final Path HAR_PATH = Paths.get(
+        CONFIG.getOptionalValue("test.har.path", String.class).orElse("target/har"));
+
+    private static volatile String currentName;
+    // URL de base des contextes enregistres, par nom d'enregistrement
+    private static final Map<String, String> BASE_URLS = new ConcurrentHashMap<>();
+
+    private HarRecording() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Nom de l'enregistrement des prochains contextes (fixe par HarRecordingExtension).
+     */
+    public static void setCurrentName(String name) {
+        currentName = name;
+    }
+
+    public static Path harFile(String name) {
+        return HAR_PATH.resolve(name + ".har");
+    }
+
+    public static Path metadataFile(String name) {
+        return HAR_PATH.resolve(name + ".properties");
+    }
+
+    /**
+     * Ajoute l'enregistrement HAR aux options du contexte si test.har.record=true.
+     *
+     * @param baseUrl URL de base de l'application testee par ce contexte
+     */
+    public static Browser.NewContextOptions configure(Browser.NewContextOptions options, String baseUrl) {
+        if (ENABLED && currentName != null) {
+            BASE_URLS.put(currentName, baseUrl);
+            options.setRecordHarPath(harFile(currentName))
+                .setRecordHarContent(HarContentPolicy.EMBED)
+                .setRecordHarMode(HarMode.FULL);
+        }
+        return options;
+    }
+
+    /**
+     * Ecrit les metadonnees de l'enregistrement (URL de base du contexte, suffixe du run).
+     */
+    public static void writeMetadata(String name, String runSuffix) {
+        String baseUrl = BASE_URLS.remove(name);
+        if (!ENABLED || baseUrl == null || !Files.exists(harFile(name))) {
+            return;
+        }
+        Properties metadata = new Properties();
+        metadata.setProperty("base.url", baseUrl);
+        metadata.setProperty("run.suffix", runSuffix);
+        try (Writer writer = Files.newBufferedWriter(metadataFile(name))) {
+            metadata.store(writer, "Enregistrement HAR " + name);
+            LOGGER.info("HAR enregistre: {}", harFile(name));
+        } catch (IOException e) {
+            LOGGER.warn("Metadonnees HAR non ecrites ({}): {}", name, e.getMessage());
+        }
+    }
+}
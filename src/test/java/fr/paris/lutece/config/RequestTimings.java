@@ -0,0 +1,310 @@
+package fr.paris.lutece.config;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.options.Timing;
+import fr.paris.lutece.pages.PageActions;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Decomposition du temps des actions des Page Objects : serveur, reseau, navigateur.
+ *
+ * Chaque requete du navigateur vers Lutece recoit un en-tete de correlation ({@link #HEADER}) que
+ * Liberty reporte dans son journal d'acces avec le temps de traitement serveur. Les horaires
+ * Playwright des requetes (Request.timing) sont rattaches a l'action en cours sur la page.
+ * Pour une action :
+ * - serveur : somme des temps %D du journal d'acces des requetes de l'action
+ * - reseau : temps des requetes vu du navigateur moins le temps serveur (et temps complet des
+ *   requetes absentes du journal)
+ * - client : duree de l'action pendant laquelle aucune requete n'etait en cours (rendu, scripts,
+ *   attentes du test)
+ * Les requetes paralleles sont sommees : serveur + reseau + client peut depasser la duree totale.
+ *
+ * Configuration : timing.breakdown.enabled (desactive par defaut : l'interception des requetes
+ * desactive le cache HTTP du navigateur, les temps ne sont donc pas ceux d'un utilisateur reel).
+ */
+public final class RequestTimings {
+
+    public static final String HEADER = "X-Lutece-Request-Id";
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final boolean ENABLED = CONFIG.getOptionalValue("timing.breakdown.enabled", Boolean.class).orElse(false);
+
+    /**
+     * Requete terminee, horaires en millisecondes depuis l'epoque.
+     */
+    private static final class RequestRecord {
+        final String id;
+        final double start;
+        final double end;
+
+        RequestRecord(String id, double start, double end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Execution d'une action de Page Object.
+     */
+    private static final class ActionWindow {
+        final String action;
+        final BrowserContext context;
+        final long start;
+        final long end;
+
+        ActionWindow(String action, BrowserContext context, long start, long end) {
+            this.action = action;
+            this.context = context;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Decomposition d'une execution d'action.
+     */
+    public static final class ActionTiming {
+
+        private final String action;
+        private final double totalMs;
+        private final double serverMs;
+        private final double networkMs;
+        private final double clientMs;
+        private final int requests;
+        private final int unmatched;
+
+        ActionTiming(String action, double totalMs, double serverMs, double networkMs, double clientMs,
+                     int requests, int unmatched) {
+            this.action = action;
+            this.totalMs = totalMs;
+            this.serverMs = serverMs;
+            this.networkMs = networkMs;
+            this.clientMs = clientMs;
+            this.requests = requests;
+            this.unmatched = unmatched;
+        }
+
+        public String action() {
+            return action;
+        }
+
+        public double totalMs() {
+            return totalMs;
+        }
+
+        public double serverMs() {
+            return serverMs;
+        }
+
+        public double networkMs() {
+            return networkMs;
+        }
+
+        public double clientMs() {
+            return clientMs;
+        }
+
+        public int requests() {
+            return requests;
+        }
+
+        /**
+         * Requetes sans entree dans le journal d'acces (temps serveur inconnu).
+         */
+        public int unmatched() {
+            return unmatched;
+        }
+    }
+
+    private static final Map<BrowserContext, List<RequestRecord>> REQUESTS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<Request, String> IDS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final List<ActionWindow> ACTIONS = Collections.synchronizedList(new ArrayList<>());
+    private static final ThreadLocal<Deque<Long>> STARTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final PageActions.Listener LISTENER = new PageActions.Listener() {
+        @Override
+        public void beforeAction(Page page, String action) {
+            STARTS.get().push(System.currentTimeMillis());
+        }
+
+        @Override
+        public void afterAction(Page page, String action, long durationNanos, Throwable error) {
+            Deque<Long> starts = STARTS.get();
+            if (!starts.isEmpty() && page != null && REQUESTS.containsKey(page.context())) {
+                ACTIONS.add(new ActionWindow(action, page.context(), starts.pop(), System.currentTimeMillis()));
+            } else if (!starts.isEmpty()) {
+                starts.pop();
+            }
+        }
+    };
+
+    static {
+        if (ENABLED) {
+            PageActions.addListener(LISTENER);
+        }
+    }
+
+    private RequestTimings() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Pose l'en-tete de correlation sur les requetes du contexte vers le serveur de baseUrl
+     * et enregistre leurs horaires (sans effet si deja installe ou si desactive).
+     */
+    public static void install(BrowserContext context, String baseUrl) {
+        if (!ENABLED || context == null || REQUESTS.containsKey(context)) {
+            return;
+        }
+        REQUESTS.put(context, Collections.synchronizedList(new ArrayList<>()));
+        String origin = origin(baseUrl);
+        context.route(url -> url.startsWith(origin), route -> {
+            String id = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+            IDS.put(route.request(), id);
+            Map<String, String> headers = new HashMap<>(route.request().headers());
+            headers.put(HEADER, id);
+            route.resume(new com.microsoft.playwright.Route.ResumeOptions().setHeaders(headers));
+        });
+        context.onRequestFinished(request -> {
+            String id = IDS.remove(request);
+            Timing timing = request.timing();
+            if (id == null || timing == null || timing.responseEnd < 0) {
+                return;
+            }
+            List<RequestRecord> records = REQUESTS.get(context);
+            if (records != null) {
+                records.add(new RequestRecord(id, timing.startTime, timing.startTime + timing.responseEnd));
+            }
+        });
+    }
+
+    /**
+     * Identifiants de correlation des requetes terminees sur le contexte et pas encore decomposees.
+     */
+    public static List<String> pendingRequestIds(BrowserContext context) {
+        List<RequestRecord> recorded = REQUESTS.get(context);
+        if (recorded == null) {
+            return List.of();
+        }
+        synchronized (recorded) {
+            List<String> ids = new ArrayList<>();
+            recorded.forEach(request -> ids.add(request.id));
+            return ids;
+        }
+    }
+
+    /**
+     * Decompose les actions terminees sur le contexte depuis le dernier appel.
+     *
+     * @param serverMicros temps serveur d'une requete par identifiant de correlation, null si inconnu
+     */
+    public static List<ActionTiming> drain(BrowserContext context, Function<String, Long> serverMicros) {
+        List<ActionWindow> windows = new ArrayList<>();
+        synchronized (ACTIONS) {
+            for (Iterator<ActionWindow> it = ACTIONS.iterator(); it.hasNext(); ) {
+                ActionWindow window = it.next();
+                if (window.context == context) {
+                    windows.add(window);
+                    it.remove();
+                }
+            }
+        }
+        List<RequestRecord> requests;
+        List<RequestRecord> recorded = REQUESTS.get(context);
+        if (recorded == null) {
+            return List.of();
+        }
+        synchronized (recorded) {
+            requests = new ArrayList<>(recorded);
+            recorded.clear();
+        }
+        Map<String, Long> server = new HashMap<>();
+        for (RequestRecord request : requests) {
+            Long micros = serverMicros.apply(request.id);
+            if (micros != null) {
+                server.put(request.id, micros);
+            }
+        }
+
+        List<ActionTiming> timings = new ArrayList<>();
+        for (ActionWindow window : windows) {
+            double serverMs = 0;
+            double networkMs = 0;
+            int count = 0;
+            int unmatched = 0;
+            List<double[]> intervals = new ArrayList<>();
+            for (RequestRecord request : requests) {
+                if (request.start < window.start || request.start > window.end) {
+                    continue;
+                }
+                count++;
+                double wall = request.end - request.start;
+                Long micros = server.get(request.id);
+                if (micros == null) {
+                    unmatched++;
+                    networkMs += wall;
+                } else {
+                    serverMs += micros / 1000.0;
+                    networkMs += Math.max(0, wall - micros / 1000.0);
+                }
+                intervals.add(new double[] {request.start, Math.min(request.end, window.end)});
+            }
+            double total = window.end - window.start;
+            timings.add(new ActionTiming(window.action, total, serverMs, networkMs,
+                Math.max(0, total - union(intervals)), count, unmatched));
+        }
+        return timings;
+    }
+
+    /**
+     * Duree couverte par au moins un intervalle.
+     */
+    private static double union(List<double[]> intervals) {
+        intervals.sort(Comparator.comparingDouble(interval -> interval[0]));
+        double covered = 0;
+        double currentStart = Double.NaN;
+        double currentEnd = Double.NaN;
+        for (double[] interval : intervals) {
+            if (Double.isNaN(currentStart) || interval[0] > currentEnd) {
+                if (!Double.isNaN(currentStart)) {
+                    covered += currentEnd - currentStart;
+                }
+                currentStart = interval[0];
+                currentEnd = interval[1];
+            } else {
+                currentEnd = Math.max(currentEnd, interval[1]);
+            }
+        }
+        if (!Double.isNaN(currentStart)) {
+            covered += currentEnd - currentStart;
+        }
+        return covered;
+    }
+
+    private static String origin(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        return uri.getScheme() + "://" + uri.getRawAuthority() + "/";
+    }
+}
@@ -0,0 +1,63 @@
+package fr.paris.lutece.config;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Etat de scenario partage entre les classes d'une suite ordonnee
+ * (suffixe du run, id du formulaire cree, etat d'authentification).
+ * Persiste dans target/ pour survivre au passage d'une classe a l'autre.
+ */
+public final class ScenarioContext {
+
+    public static final Path RUN_SUFFIX_PATH = Paths.get("target/test-run-suffix.txt");
+    public static final Path FORM_ID_PATH = Paths.get("target/test-form-id.txt");
+    public static final Path AUTH_STATE_PATH = Paths.get("target/auth-state.json");
+
+    /**
+     * Fichiers composant l'etat du scenario (sauvegardes par les checkpoints).
+     */
+    public static final List<Path> FILES = List.of(RUN_SUFFIX_PATH, FORM_ID_PATH, AUTH_STATE_PATH);
+
+    private ScenarioContext() {
+    }
+
+    /**
+     * Partage le suffixe du run avec les autres classes de test.
+     */
+    public static void writeRunSuffix(String runSuffix) {
+        System.setProperty("test.run.suffix", runSuffix);
+        write(RUN_SUFFIX_PATH, runSuffix);
+    }
+
+    public static String readRunSuffix() {
+        try {
+            return Files.readString(RUN_SUFFIX_PATH).trim();
+        } catch (Exception e) {
+            return System.getProperty("test.run.suffix", "0");
+        }
+    }
+
+    public static void writeFormId(String formId) {
+        write(FORM_ID_PATH, formId);
+    }
+
+    public static String readFormId() {
+        try {
+            return Files.readString(FORM_ID_PATH).trim();
+        } catch (Exception e) {
+            return "1"; // Fallback
+        }
+    }
+
+    private static void write(Path path, String value) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, value);
+        } catch (Exception e) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package fr.paris.lutece.config;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
+import fr.paris.lutece.pages.PageActions;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * Politique de timeout adaptative par action de Page Object.
+ *
+ * Le budget d'une action est derive de ses latences historiques : p99 x facteur, borne par
+ * un plancher et un plafond. Tant que l'historique est insuffisant, le timeout par defaut
+ * de la page (test.timeout) s'applique. Les latences des actions reussies, et le budget atteint
+ * par celles qui ont expire (le budget suivant remonte d'autant), sont conservees dans
+ * target/action-latencies.properties (les N dernieres par action).
+ *
+ * Desactivee par defaut ; la politique est installee a la creation de la premiere page
+ * ({@link #setDefaultTimeout}).
+ *
+ * Configuration (microprofile-config.properties ou -D):
+ *   test.timeout.adaptive, test.timeout.adaptive.factor, test.timeout.adaptive.floor,
+ *   test.timeout.adaptive.ceiling, test.timeout.adaptive.min.samples
+ */
+public final class TimeoutPolicy implements PageActions.Listener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeoutPolicy.class);
+
+    private static final Path HISTORY_PATH = Paths.get("target/action-latencies.properties");
+    private static final int MAX_SAMPLES = 200;
+
+    private static TimeoutPolicy instance;
+
+    // Timeout par defaut de chaque page (celui fixe par le test)
+    private static final Map<Page, Integer> PAGE_DEFAULTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final int defaultTimeout;
+    private final double factor;
+    private final int floor;
+    private final int ceiling;
+    private final int minSamples;
+    private final Map<String, Deque<Long>> samples = new TreeMap<>();
+    private final ThreadLocal<Deque<Integer>> budgets = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private TimeoutPolicy(Config config) {
+        this.defaultTimeout = config.getOptionalValue("test.timeout", Integer.class).orElse(10000);
+        this.factor = config.getOptionalValue("test.timeout.adaptive.factor", Double.class).orElse(3.0);
+        this.floor = config.getOptionalValue("test.timeout.adaptive.floor", Integer.class).orElse(3000);
+        this.ceiling = config.getOptionalValue("test.timeout.adaptive.ceiling", Integer.class).orElse(60000);
+        this.minSamples = config.getOptionalValue("test.timeout.adaptive.min.samples", Integer.class).orElse(5);
+        load();
+    }
+
+    /**
+     * Active la politique si test.timeout.adaptive=true.
+     */
+    public static synchronized void installIfEnabled() {
+        Config config = ConfigProvider.getConfig();
+        if (instance == null && config.getOptionalValue("test.timeout.adaptive", Boolean.class).orElse(false)) {
+            instance = new TimeoutPolicy(config);
+            PageActions.addListener(instance);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::save));
+            LOGGER.info("Timeouts adaptatifs actives ({} actions connues)", instance.samples.size());
+        }
+    }
+
+    /**
+     * Fixe le timeout par defaut d'une page ; il s'applique hors action et aux actions sans historique.
+     * A appeler a la creation de chaque page : installe la politique si elle est activee.
+     */
+    public static void setDefaultTimeout(Page page, int timeout) {
+        installIfEnabled();
+        PAGE_DEFAULTS.put(page, timeout);
+        page.setDefaultTimeout(timeout);
+    }
+
+    /**
+     * Budget (ms) d'une action pour une page dont le timeout par defaut est donne.
+     */
+    public synchronized int budgetFor(String action, int pageDefault) {
+        Deque<Long> history = samples.get(action);
+        if (history == null || history.size() < minSamples) {
+            return pageDefault;
+        }
+        List<Long> sorted = new ArrayList<>(history);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) Math.ceil(0.99 * sorted.size()) - 1);
+        return (int) Math.max(floor, Math.min(ceiling, Math.round(p99 * factor)));
+    }
+
+    @Override
+    public void beforeAction(Page page, String action) {
+        int budget = budgetFor(action, pageDefault(page));
+        budgets.get().push(budget);
+        page.setDefaultTimeout(budget);
+    }
+
+    @Override
+    public void afterAction(Page page, String action, long durationNanos, Throwable error) {
+        Deque<Integer> stack = budgets.get();
+        int budget = stack.isEmpty() ? pageDefault(page) : stack.pop();
+        page.setDefaultTimeout(stack.isEmpty() ? pageDefault(page) : stack.peek());
+        if (error == null) {
+            record(action, durationNanos / 1_000_000);
+        } else if (error instanceof TimeoutError) {
+            // Budget atteint : compte comme une mesure, sinon le budget ne ferait que baisser
+            record(action, Math.max(budget, durationNanos / 1_000_000));
+            LOGGER.warn("Action {} expiree (budget {} ms): {}", action, budget, error.getMessage());
+        } else {
+            LOGGER.warn("Action {} en echec (budget {} ms): {}", action, budget, error.getMessage());
+        }
+    }
+
+    private int pageDefault(Page page) {
+        return PAGE_DEFAULTS.getOrDefault(page, defaultTimeout);
+    }
+
+    private synchronized void record(String action, long durationMs) {
+        Deque<Long> history = samples.computeIfAbsent(action, k -> new ArrayDeque<>());
+        history.addLast(durationMs);
+        while (history.size() > MAX_SAMPLES) {
+            history.removeFirst();
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(HISTORY_PATH)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(HISTORY_PATH)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            LOGGER.warn("Historique des latences illisible: {}", e.getMessage());
+            return;
+        }
+        for (String action : properties.stringPropertyNames()) {
+            Deque<Long> history = new ArrayDeque<>();
+            for (String value : properties.getProperty(action).split(",")) {
+                if (!value.isBlank()) {
+                    history.addLast(Long.parseLong(value.trim()));
+                }
+            }
+            samples.put(action, history);
+        }
+    }
+
+    private synchronized void save() {
+        try {
+            Files.createDirectories(HISTORY_PATH.getParent());
+            try (Writer writer = Files.newBufferedWriter(HISTORY_PATH)) {
+                writer.write("# Latences (ms) des dernieres executions de chaque action de Page Object"
+                    + System.lineSeparator());
+                for (Map.Entry<String, Deque<Long>> entry : samples.entrySet()) {
+                    StringJoiner values = new StringJoiner(",");
+                    entry.getValue().forEach(v -> values.add(String.valueOf(v)));
+                    writer.write(entry.getKey() + "=" + values + System.lineSeparator());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Historique des latences non sauvegarde: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package fr.paris.lutece.config;
+
+import com.microsoft.playwright.Page;
+import fr.paris.lutece.pages.PageActions;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Propagation W3C Trace Context depuis les actions des Page Objects.
+ *
+ * Chaque action de premier niveau ouvre une trace : l'en-tete traceparent est pose sur la page
+ * (setExtraHTTPHeaders) pendant l'action, si bien que toutes les requetes qu'elle declenche sont
+ * rattachees a la meme trace, avec l'action comme span parent. Les actions imbriquees restent dans
+ * la trace de l'action englobante. Les traces ouvertes sont lues par TraceExtension.
+ *
+ * Configuration : tracing.enabled (desactive par defaut), tracing.javaagent (agent Java
+ * OpenTelemetry copie dans le conteneur Lutece pour les spans servlets, JSP et JDBC).
+ */
+public final class TraceContext {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraceContext.class);
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final boolean ENABLED = CONFIG.getOptionalValue("tracing.enabled", Boolean.class).orElse(false);
+
+    public static final String HEADER = "traceparent";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * Trace d'une action de premier niveau.
+     */
+    public static final class ActionTrace {
+
+        private final String action;
+        private final String traceId;
+        private final String spanId;
+        private final long startNanos;
+        private long endNanos;
+        private boolean failed;
+
+        ActionTrace(String action, String traceId, String spanId, long startNanos) {
+            this.action = action;
+            this.traceId = traceId;
+            this.spanId = spanId;
+            this.startNanos = startNanos;
+        }
+
+        public String action() {
+            return action;
+        }
+
+        public String traceId() {
+            return traceId;
+        }
+
+        /**
+         * Span de l'action cote navigateur, parent des spans serveur.
+         */
+        public String spanId() {
+            return spanId;
+        }
+
+        /**
+         * Debut de l'action en nanosecondes depuis l'epoque (horloge des spans OTLP).
+         */
+        public long startNanos() {
+            return startNanos;
+        }
+
+        public long endNanos() {
+            return endNanos;
+        }
+
+        public double durationMs() {
+            return (endNanos - startNanos) / 1_000_000.0;
+        }
+
+        public boolean failed() {
+            return failed;
+        }
+    }
+
+    private static final ThreadLocal<List<ActionTrace>> TRACES = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<Integer> DEPTH = ThreadLocal.withInitial(() -> 0);
+
+    private static final PageActions.Listener LISTENER = new PageActions.Listener() {
+        @Override
+        public void beforeAction(Page page, String action) {
+            int depth = DEPTH.get();
+            DEPTH.set(depth + 1);
+            if (depth > 0 || page == null) {
+                return;
+            }
+            ActionTrace trace = new ActionTrace(action, randomHex(16), randomHex(8), epochNanos());
+            TRACES.get().add(trace);
+            setHeader(page, Map.of(HEADER, "00-" + trace.traceId + "-" + trace.spanId + "-01"));
+        }
+
+        @Override
+        public void afterAction(Page page, String action, long durationNanos, Throwable error) {
+            int depth = DEPTH.get() - 1;
+            DEPTH.set(Math.max(0, depth));
+            List<ActionTrace> traces = TRACES.get();
+            if (depth > 0 || page == null || traces.isEmpty()) {
+                return;
+            }
+            ActionTrace trace = traces.get(traces.size() - 1);
+            trace.endNanos = epochNanos();
+            trace.failed = error != null;
+            setHeader(page, Map.of());
+        }
+    };
+
+    static {
+        if (ENABLED) {
+            PageActions.addListener(LISTENER);
+        }
+    }
+
+    private TraceContext() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Agent Java OpenTelemetry a charger dans la JVM Liberty, s'il est configure et present.
+     */
+    public static Optional<Path> javaAgent() {
+        Optional<Path> agent = CONFIG.getOptionalValue("tracing.javaagent", String.class).map(Paths::get);
+        if (agent.isPresent() && !Files.isRegularFile(agent.get())) {
+            LOGGER.warn("Agent OpenTelemetry introuvable: {} (spans mpTelemetry seuls)", agent.get());
+            return Optional.empty();
+        }
+        return agent;
+    }
+
+    /**
+     * Traces des actions terminees sur le thread courant depuis le dernier appel.
+     */
+    public static List<ActionTrace> drain() {
+        List<ActionTrace> traces = TRACES.get();
+        List<ActionTrace> finished = new ArrayList<>();
+        traces.removeIf(trace -> {
+            if (trace.endNanos == 0) {
+                return false;
+            }
+            finished.add(trace);
+            return true;
+        });
+        return finished;
+    }
+
+    private static void setHeader(Page page, Map<String, String> headers) {
+        try {
+            page.setExtraHTTPHeaders(headers);
+        } catch (RuntimeException e) {
+            // Page fermee par l'action (deconnexion, popup)
+            LOGGER.debug("En-tete {} non pose: {}", HEADER, e.getMessage());
+        }
+    }
+
+    private static String randomHex(int bytes) {
+        byte[] value = new byte[bytes];
+        RANDOM.nextBytes(value);
+        return HEX.formatHex(value);
+    }
+
+    private static long epochNanos() {
+        java.time.Instant now = java.time.Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
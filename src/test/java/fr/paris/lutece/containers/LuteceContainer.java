@@ -7,6 +7,7 @@ import org.testcontainers.containers.Network;
 import org.testcontainers.containers.output.Slf4jLogConsumer;
 import org.testcontainers.containers.wait.strategy.Wait;
 import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
 
 import java.time.Duration;
 
@@ -22,7 +23,16 @@ public class LuteceContainer extends GenericContainer<LuteceContainer> {
     public static final int HTTPS_PORT = 9443;
     public static final String DEFAULT_CONTEXT_ROOT = "/lutece";
 
+    private static final String METRICS_DROPIN = "liberty/configDropins/overrides/metrics.xml";
+    private static final String ACCESS_LOG_DROPIN = "liberty/configDropins/overrides/access-log.xml";
+    private static final String TELEMETRY_DROPIN = "liberty/configDropins/overrides/telemetry.xml";
+    private static final String OTEL_AGENT_PATH = "/opt/otel/opentelemetry-javaagent.jar";
+
+    /** Journal d'acces du profil de test (access-log.xml). */
+    public static final String ACCESS_LOG_PATH = "/logs/http_access.log";
+
     private final String contextRoot;
+    private LuteceJvm jvm;
 
     /**
      * Crée un conteneur Lutece avec l'image par défaut.
@@ -77,6 +87,73 @@ public class LuteceContainer extends GenericContainer<LuteceContainer> {
         return this;
     }
 
+    /**
+     * Active le profil de test des métriques : mpMetrics sur /metrics sans authentification
+     * (liberty/configDropins/overrides/metrics.xml).
+     *
+     * @return this
+     */
+    public LuteceContainer withMetrics() {
+        withCopyFileToContainer(MountableFile.forClasspathResource(METRICS_DROPIN), "/config/configDropins/overrides/metrics.xml");
+        return this;
+    }
+
+    /**
+     * Active le journal d'accès NCSA avec temps de traitement serveur et identifiant de corrélation
+     * (liberty/configDropins/overrides/access-log.xml), écrit dans {@link #ACCESS_LOG_PATH}.
+     *
+     * @return this
+     */
+    public LuteceContainer withAccessLog() {
+        withCopyFileToContainer(MountableFile.forClasspathResource(ACCESS_LOG_DROPIN), "/config/configDropins/overrides/access-log.xml");
+        return this;
+    }
+
+    /**
+     * Active le profil de test des traces : mpTelemetry (liberty/configDropins/overrides/telemetry.xml),
+     * export OTLP http/protobuf vers un récepteur sur la machine des tests.
+     *
+     * @param receiverPort port du récepteur OTLP sur l'hôte (exposé au conteneur par Testcontainers)
+     * @param javaAgent    agent Java OpenTelemetry (spans servlets, JSP et JDBC), null pour mpTelemetry seul
+     * @return this
+     */
+    public LuteceContainer withTelemetry(int receiverPort, java.nio.file.Path javaAgent) {
+        org.testcontainers.Testcontainers.exposeHostPorts(receiverPort);
+        withCopyFileToContainer(MountableFile.forClasspathResource(TELEMETRY_DROPIN), "/config/configDropins/overrides/telemetry.xml");
+        withEnv("OTEL_SDK_DISABLED", "false");
+        withEnv("OTEL_SERVICE_NAME", "lutece");
+        withEnv("OTEL_TRACES_EXPORTER", "otlp");
+        withEnv("OTEL_METRICS_EXPORTER", "none");
+        withEnv("OTEL_LOGS_EXPORTER", "none");
+        withEnv("OTEL_EXPORTER_OTLP_PROTOCOL", "http/protobuf");
+        withEnv("OTEL_EXPORTER_OTLP_ENDPOINT", "http://host.testcontainers.internal:" + receiverPort);
+        // Export rapide : les spans d'un test doivent arriver avant la fin du test
+        withEnv("OTEL_BSP_SCHEDULE_DELAY", "200");
+        if (javaAgent != null) {
+            withCopyFileToContainer(MountableFile.forHostPath(javaAgent), OTEL_AGENT_PATH);
+            withEnv("JAVA_TOOL_OPTIONS", "-javaagent:" + OTEL_AGENT_PATH);
+        }
+        return this;
+    }
+
+    /**
+     * Lit la fin d'un fichier du conteneur à partir de l'octet offset (tail -c).
+     */
+    public String readFile(String path, long offset) throws java.io.IOException, InterruptedException {
+        ExecResult result = execInContainer("tail", "-c", "+" + (offset + 1), path);
+        if (result.getExitCode() != 0) {
+            throw new java.io.IOException("tail " + path + " : " + result.getStderr().trim());
+        }
+        return result.getStdout();
+    }
+
+    /**
+     * Retourne l'URL du endpoint de métriques Liberty (hors context root).
+     */
+    public String getMetricsURL() {
+        return String.format("http://%s:%d/metrics", getHost(), getMappedPort(HTTP_PORT));
+    }
+
     /**
      * Configure le conteneur pour utiliser un réseau partagé.
      *
@@ -136,6 +213,16 @@ public class LuteceContainer extends GenericContainer<LuteceContainer> {
         return getMappedPort(HTTPS_PORT);
     }
 
+    /**
+     * Diagnostic de la JVM Liberty (JFR, thread dumps) via jcmd dans le conteneur.
+     */
+    public synchronized LuteceJvm jvm() {
+        if (jvm == null) {
+            jvm = new LuteceJvm(this);
+        }
+        return jvm;
+    }
+
     /**
      * Vérifie si l'application est prête en testant la page de login.
      * La page de login ne fonctionne que si la base de données est initialisée.
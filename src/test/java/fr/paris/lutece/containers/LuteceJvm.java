@@ -0,0 +1,152 @@
+package fr.paris.lutece.containers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.GenericContainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Diagnostic de la JVM Liberty dans le conteneur Lutece via jcmd (execInContainer).
+ *
+ * Les images Open Liberty tournent sur OpenJ9 ou HotSpot : les commandes disponibles sont
+ * detectees par "jcmd &lt;pid&gt; help". JFR (JFR.start / JFR.dump / JFR.stop) est utilise quand la
+ * JVM le propose ; sinon seuls les thread dumps (Thread.print) servent au profilage.
+ */
+public class LuteceJvm {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LuteceJvm.class);
+
+    private static final String RECORDING_DIR = "/tmp";
+
+    private final GenericContainer<?> container;
+    private String pid;
+    private String commands;
+
+    LuteceJvm(GenericContainer<?> container) {
+        this.container = container;
+    }
+
+    /**
+     * Vrai si la JVM accepte les commandes JFR.
+     */
+    public boolean supportsJfr() {
+        return supports("JFR.start");
+    }
+
+    /**
+     * Vrai si la JVM accepte Thread.print.
+     */
+    public boolean supportsThreadDump() {
+        return supports("Thread.print");
+    }
+
+    /**
+     * Demarre un enregistrement JFR nomme.
+     *
+     * @param settings configuration JFR de la JVM ("default" ou "profile")
+     */
+    public void startRecording(String name, String settings) {
+        jcmd("JFR.start", "name=" + name, "settings=" + settings, "filename=" + recordingPath(name));
+        LOGGER.info("Enregistrement JFR '{}' demarre dans le conteneur Lutece", name);
+    }
+
+    /**
+     * Ecrit l'enregistrement en cours et le copie sur l'hote.
+     */
+    public void dumpRecording(String name, Path target) throws IOException {
+        String path = recordingPath(name);
+        jcmd("JFR.dump", "name=" + name, "filename=" + path);
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        container.copyFileFromContainer(path, target.toString());
+        exec("rm", "-f", path);
+        LOGGER.info("Enregistrement JFR '{}' copie: {}", name, target);
+    }
+
+    public void stopRecording(String name) {
+        jcmd("JFR.stop", "name=" + name);
+    }
+
+    /**
+     * Thread dump texte de la JVM (format HotSpot ou OpenJ9).
+     */
+    public String threadDump() {
+        return jcmd("Thread.print");
+    }
+
+    /**
+     * Histogramme des classes du tas (GC.class_histogram, objets vivants apres un GC complet
+     * sur HotSpot ; OpenJ9 accepte la meme commande).
+     */
+    public String classHistogram() {
+        return jcmd("GC.class_histogram");
+    }
+
+    /**
+     * Execute une commande jcmd sur la JVM Liberty et retourne sa sortie.
+     */
+    public String jcmd(String... command) {
+        List<String> args = new ArrayList<>(List.of("jcmd", pid()));
+        args.addAll(Arrays.asList(command));
+        return exec(args.toArray(new String[0]));
+    }
+
+    private boolean supports(String command) {
+        if (commands == null) {
+            try {
+                commands = jcmd("help");
+            } catch (IllegalStateException e) {
+                LOGGER.debug("jcmd indisponible dans le conteneur: {}", e.getMessage());
+                commands = "";
+            }
+        }
+        return commands.contains(command);
+    }
+
+    /**
+     * Pid de la JVM Liberty (premiere JVM listee par "jcmd -l" qui n'est pas jcmd lui-meme).
+     */
+    private synchronized String pid() {
+        if (pid == null) {
+            for (String line : exec("jcmd", "-l").split("\\R")) {
+                String[] parts = line.trim().split("\\s+", 2);
+                if (parts.length == 2 && parts[0].matches("\\d+")
+                        && !parts[1].toLowerCase(Locale.ROOT).contains("jcmd")) {
+                    pid = parts[0];
+                    break;
+                }
+            }
+            if (pid == null) {
+                throw new IllegalStateException("JVM Liberty introuvable dans le conteneur (jcmd -l)");
+            }
+        }
+        return pid;
+    }
+
+    private String exec(String... command) {
+        try {
+            Container.ExecResult result = container.execInContainer(command);
+            if (result.getExitCode() != 0) {
+                throw new IllegalStateException(String.join(" ", command) + " : code " + result.getExitCode()
+                    + " " + result.getStderr().trim());
+            }
+            return result.getStdout();
+        } catch (IOException e) {
+            throw new IllegalStateException(String.join(" ", command) + " : " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.join(" ", command) + " : interrompu", e);
+        }
+    }
+
+    private static String recordingPath(String name) {
+        return RECORDING_DIR + "/" + name + ".jfr";
+    }
+}
@@ -0,0 +1,194 @@
+package fr.paris.lutece.datasets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Comptes administrateurs de test dont le mot de passe est hache avec un nombre d'iterations choisi,
+ * pour mesurer le cout du hachage a la connexion.
+ *
+ * Le compte modele (admin) est recopie dans core_admin_user ; seuls le code d'acces, le nom,
+ * l'email et le mot de passe changent. Le mot de passe suit le format stocke par Lutece,
+ * ALGORITHME:iterations:sel:empreinte : algorithme, longueurs du sel et de l'empreinte et encodage
+ * (hexadecimal ou Base64) sont repris du mot de passe du modele. Lutece relit le nombre d'iterations
+ * dans la valeur stockee : des comptes haches a 10 000 et a 100 000 iterations coexistent.
+ *
+ * Les echecs de connexion sont comptes par adresse IP (core_connections_log) : un tir de mots de
+ * passe errones bloquerait toutes les connexions du generateur. {@link #relaxLockout} leve ce seuil
+ * (parametre access_failures_max) le temps du tir.
+ */
+public final class AdminUserDataset {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdminUserDataset.class);
+
+    private static final String USER_TABLE = "core_admin_user";
+    private static final String PARAMETER_TABLE = "core_user_parameter";
+    private static final String CONNECTIONS_LOG = "core_connections_log";
+    private static final String FAILURES_MAX = "access_failures_max";
+
+    private final Connection connection;
+    private final String schema;
+    private final Rows rows;
+    private final Map<String, Object> template;
+    private final String algorithm;
+    private final int saltBytes;
+    private final int hashBytes;
+    private final boolean hex;
+    private final SecureRandom random = new SecureRandom();
+
+    private AdminUserDataset(Connection connection, String schema, Map<String, Object> template) {
+        this.connection = connection;
+        this.schema = schema;
+        this.rows = new Rows(connection, schema);
+        this.template = template;
+        String[] stored = String.valueOf(template.get("password")).split(":");
+        if (stored.length != 4 || !stored[0].toUpperCase(Locale.ROOT).startsWith("PBKDF2")) {
+            throw new IllegalStateException("Mot de passe du modele non PBKDF2 (ALGORITHME:iterations:sel:empreinte) : "
+                + stored[0]);
+        }
+        this.algorithm = stored[0];
+        this.hex = stored[2].matches("[0-9a-fA-F]+") && stored[3].matches("[0-9a-fA-F]+");
+        this.saltBytes = decode(stored[2]).length;
+        this.hashBytes = decode(stored[3]).length;
+    }
+
+    /**
+     * Jeu de comptes recopies du compte de code d'acces templateAccessCode.
+     */
+    public static AdminUserDataset fromTemplate(Connection connection, String schema, String templateAccessCode)
+            throws SQLException {
+        Map<String, Object> template = new Rows(connection, schema).first(USER_TABLE, "access_code", templateAccessCode);
+        if (template == null) {
+            throw new IllegalStateException("Compte modele introuvable : " + templateAccessCode);
+        }
+        return new AdminUserDataset(connection, schema, template);
+    }
+
+    /**
+     * Nombre d'iterations du mot de passe du modele (celui de l'image testee).
+     */
+    public int templateIterations() {
+        return Integer.parseInt(String.valueOf(template.get("password")).split(":")[1]);
+    }
+
+    /**
+     * Cree count comptes prefix1..prefixN de mot de passe password (remplace les comptes existants).
+     *
+     * @return codes d'acces crees
+     */
+    public List<String> seed(String prefix, int count, String password, int iterations) throws SQLException {
+        delete(prefix);
+        List<String> accessCodes = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 1; i <= count; i++) {
+            String accessCode = prefix + i;
+            rows.copy(USER_TABLE, template, "id_user", Map.of(
+                "access_code", accessCode,
+                "last_name", prefix,
+                "first_name", String.valueOf(i),
+                "email", accessCode + "@load.test",
+                "password", hash(password, iterations)));
+            accessCodes.add(accessCode);
+        }
+        LOGGER.info("{} comptes {}* crees ({} iterations {}) en {} ms", count, prefix, iterations, algorithm,
+            (System.nanoTime() - start) / 1_000_000);
+        return accessCodes;
+    }
+
+    /**
+     * Supprime les comptes dont le code d'acces commence par prefix.
+     */
+    public int delete(String prefix) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM `" + schema + "`.`" + USER_TABLE + "` WHERE access_code LIKE ?")) {
+            statement.setString(1, prefix.replace("_", "\\_") + "%");
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Fixe le seuil d'echecs de connexion par IP et vide le journal des connexions.
+     *
+     * @return seuil precedent, null si le parametre n'existe pas dans cette version
+     */
+    public String relaxLockout(int failuresMax) throws SQLException {
+        String previous = null;
+        if (rows.hasTable(PARAMETER_TABLE)) {
+            Map<String, Object> parameter = rows.first(PARAMETER_TABLE, "parameter_key", FAILURES_MAX);
+            if (parameter != null) {
+                previous = String.valueOf(parameter.get("parameter_value"));
+                setFailuresMax(String.valueOf(failuresMax));
+            }
+        }
+        clearConnectionsLog();
+        LOGGER.info("Seuil d'echecs de connexion : {} -> {}", previous, previous == null ? "-" : failuresMax);
+        return previous;
+    }
+
+    /**
+     * Retablit le seuil d'echecs de connexion releve par {@link #relaxLockout}.
+     */
+    public void restoreLockout(String previous) throws SQLException {
+        if (previous != null) {
+            setFailuresMax(previous);
+        }
+        clearConnectionsLog();
+    }
+
+    private void setFailuresMax(String value) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE `" + schema + "`.`" + PARAMETER_TABLE + "` SET parameter_value = ? WHERE parameter_key = ?")) {
+            statement.setString(1, value);
+            statement.setString(2, FAILURES_MAX);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Vide le journal des connexions (les echecs d'un palier ne comptent plus pour le suivant).
+     */
+    public void clearConnectionsLog() throws SQLException {
+        if (rows.hasTable(CONNECTIONS_LOG)) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM `" + schema + "`.`" + CONNECTIONS_LOG + "`")) {
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private String hash(String password, int iterations) {
+        byte[] salt = new byte[saltBytes];
+        random.nextBytes(salt);
+        try {
+            PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, hashBytes * 8);
+            byte[] hash = SecretKeyFactory.getInstance(algorithm.toUpperCase(Locale.ROOT)
+                    .replace("PBKDF2WITHHMAC", "PBKDF2WithHmac"))
+                .generateSecret(spec).getEncoded();
+            return algorithm + ":" + iterations + ":" + encode(salt) + ":" + encode(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Hachage " + algorithm + " indisponible", e);
+        }
+    }
+
+    private byte[] decode(String value) {
+        return hex ? HexFormat.of().parseHex(value) : Base64.getDecoder().decode(value);
+    }
+
+    private String encode(byte[] value) {
+        return hex ? HexFormat.of().formatHex(value) : Base64.getEncoder().encodeToString(value);
+    }
+}
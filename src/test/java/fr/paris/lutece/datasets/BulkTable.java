@@ -0,0 +1,223 @@
+package fr.paris.lutece.datasets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Chargement en masse d'une table par LOAD DATA LOCAL INFILE, via un fichier TSV tampon.
+ *
+ * Les colonnes sont lues dans information_schema : seules celles fournies par le generateur et
+ * presentes dans la version installee du plugin sont ecrites, plus les colonnes NOT NULL sans
+ * valeur par defaut (remplies avec une valeur neutre du type). Les autres prennent leur defaut SQL.
+ */
+final class BulkTable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkTable.class);
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Colonne ecrite et sa valeur de remplacement si le generateur ne la fournit pas.
+     */
+    private static final class Column {
+        final String name;
+        final Object fallback;
+
+        Column(String name, Object fallback) {
+            this.name = name;
+            this.fallback = fallback;
+        }
+    }
+
+    private final String qualifiedName;
+    private final List<Column> columns;
+    private final Path file;
+    private Writer writer;
+    private long pendingRows;
+    private long loadedRows;
+
+    private BulkTable(String qualifiedName, List<Column> columns, Path file) {
+        this.qualifiedName = qualifiedName;
+        this.columns = columns;
+        this.file = file;
+    }
+
+    /**
+     * Prepare le chargement de schema.table ; null si la table n'existe pas.
+     *
+     * @param provided colonnes que le generateur sait remplir
+     */
+    static BulkTable open(Connection connection, String schema, String table, Set<String> provided, Path directory)
+            throws SQLException {
+        List<Column> columns = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT column_name, data_type, is_nullable, column_default, extra FROM information_schema.columns "
+                    + "WHERE table_schema = ? AND table_name = ? ORDER BY ordinal_position")) {
+            statement.setString(1, schema);
+            statement.setString(2, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1).toLowerCase(Locale.ROOT);
+                    String extra = rs.getString(5);
+                    boolean required = "NO".equals(rs.getString(3)) && rs.getString(4) == null
+                        && (extra == null || !extra.contains("auto_increment"));
+                    if (provided.contains(name) || required) {
+                        columns.add(new Column(name, neutralValue(rs.getString(2))));
+                    }
+                }
+            }
+        }
+        if (columns.isEmpty()) {
+            LOGGER.warn("Table {}.{} absente : non chargee", schema, table);
+            return null;
+        }
+        Set<String> written = columns.stream().map(c -> c.name).collect(Collectors.toSet());
+        provided.stream().filter(name -> !written.contains(name))
+            .forEach(name -> LOGGER.debug("Colonne {}.{} absente de cette version : ignoree", table, name));
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new BulkTable("`" + schema + "`.`" + table + "`", columns, directory.resolve(table + ".tsv"));
+    }
+
+    /**
+     * Ajoute une ligne au fichier tampon (valeurs par nom de colonne, en minuscules).
+     */
+    void add(Map<String, Object> values) {
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                Column column = columns.get(i);
+                if (i > 0) {
+                    writer.write('\t');
+                }
+                writer.write(format(values.containsKey(column.name) ? values.get(column.name) : column.fallback));
+            }
+            writer.write('\n');
+            pendingRows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Charge les lignes en attente et vide le fichier tampon.
+     */
+    long flush(Connection connection) throws SQLException {
+        if (writer == null) {
+            return 0;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writer = null;
+        String columnList = columns.stream().map(c -> "`" + c.name + "`").collect(Collectors.joining(","));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LOAD DATA LOCAL INFILE '" + file.toAbsolutePath().toString().replace("\\", "/").replace("'", "''")
+                + "' INTO TABLE " + qualifiedName + " CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (" + columnList + ")");
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.debug("Fichier tampon {} non supprime: {}", file, e.getMessage());
+            }
+        }
+        long rows = pendingRows;
+        loadedRows += rows;
+        pendingRows = 0;
+        return rows;
+    }
+
+    long loadedRows() {
+        return loadedRows;
+    }
+
+    String qualifiedName() {
+        return qualifiedName;
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "\\N";
+        }
+        if (value instanceof LocalDateTime) {
+            return DATE_TIME.format((LocalDateTime) value);
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        }
+        String text = value.toString();
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static Object neutralValue(String dataType) {
+        switch (dataType.toLowerCase(Locale.ROOT)) {
+            case "tinyint":
+            case "smallint":
+            case "mediumint":
+            case "int":
+            case "bigint":
+            case "decimal":
+            case "float":
+            case "double":
+            case "bit":
+                return 0;
+            case "date":
+                return "1970-01-01";
+            case "datetime":
+            case "timestamp":
+                return LocalDateTime.now();
+            case "time":
+                return "00:00:00";
+            default:
+                return "";
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package fr.paris.lutece.datasets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generation en base de definitions de formulaires volumineuses (etapes, questions, transitions,
+ * affichage conditionnel), pour mesurer l'editeur BO de plugin-forms.
+ *
+ * Le formulaire modele (celui cree par FormsCreationTest) est relu ligne a ligne puis recopie :
+ * - forms_form : une copie par definition generee, titre suffixe par la taille
+ * - forms_step : steps etapes, la premiere initiale, la derniere finale
+ * - genatt_entry / genatt_field / forms_question : questions du modele reprises a tour de role,
+ *   reparties uniformement sur les etapes, codes renumerotes
+ * - forms_display : une ligne par question, a la racine de son etape
+ * - forms_transition : chaine etape n vers etape n+1
+ * - forms_control (+ forms_control_question si present) : une part des questions affichee sous
+ *   condition de la question precedente de la meme etape
+ * Les colonnes propres a la version installee sont conservees telles que dans le modele.
+ */
+public final class FormDefinitionGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FormDefinitionGenerator.class);
+
+    static final String CONTROL_CONDITIONAL_DISPLAY = "conditional_display";
+    static final String COMPOSITE_QUESTION = "question";
+
+    /**
+     * Definition generee : formulaire, etapes dans l'ordre des transitions.
+     */
+    public static final class FormDefinition {
+        private final int formId;
+        private final List<Integer> steps;
+        private final int questions;
+        private final int conditions;
+
+        FormDefinition(int formId, List<Integer> steps, int questions, int conditions) {
+            this.formId = formId;
+            this.steps = steps;
+            this.questions = questions;
+            this.conditions = conditions;
+        }
+
+        public int formId() {
+            return formId;
+        }
+
+        public List<Integer> steps() {
+            return steps;
+        }
+
+        /**
+         * Etape du milieu (la plus representative d'une etape ordinaire).
+         */
+        public int middleStep() {
+            return steps.get(steps.size() / 2);
+        }
+
+        public int questions() {
+            return questions;
+        }
+
+        public int conditions() {
+            return conditions;
+        }
+    }
+
+    private final Rows rows;
+    private final Map<String, Object> form;
+    private final Map<String, Object> step;
+    private final List<Map<String, Object>> questions;
+    private final Map<Integer, Map<String, Object>> entries = new HashMap<>();
+    private final Map<Integer, List<Map<String, Object>>> fields = new HashMap<>();
+    private final Map<String, Object> display;
+    private final Map<String, Object> transition;
+    private final SplittableRandom random;
+
+    private FormDefinitionGenerator(Rows rows, Map<String, Object> form, Map<String, Object> step,
+                                    List<Map<String, Object>> questions, Map<String, Object> display,
+                                    Map<String, Object> transition, long seed) {
+        this.rows = rows;
+        this.form = form;
+        this.step = step;
+        this.questions = questions;
+        this.display = display;
+        this.transition = transition;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Lit le formulaire modele et ses lignes associees.
+     */
+    public static FormDefinitionGenerator fromTemplate(Connection connection, String schema, int templateFormId, long seed)
+            throws SQLException {
+        Rows rows = new Rows(connection, schema);
+        Map<String, Object> form = rows.first("forms_form", "id_form", templateFormId);
+        if (form == null) {
+            throw new IllegalStateException("Formulaire modele " + templateFormId + " absent de " + schema);
+        }
+        List<Map<String, Object>> steps = rows.select("forms_step", "id_form", templateFormId, 1000);
+        if (steps.isEmpty()) {
+            throw new IllegalStateException("Formulaire modele " + templateFormId + " sans etape");
+        }
+        List<Map<String, Object>> questions = new ArrayList<>();
+        Map<String, Object> transition = null;
+        for (Map<String, Object> templateStep : steps) {
+            questions.addAll(rows.select("forms_question", "id_step", templateStep.get("id_step"), 1000));
+            if (transition == null && rows.hasTable("forms_transition")) {
+                transition = rows.first("forms_transition", "from_step", templateStep.get("id_step"));
+            }
+        }
+        if (questions.isEmpty()) {
+            throw new IllegalStateException("Formulaire modele " + templateFormId + " sans question");
+        }
+        Map<String, Object> display = rows.first("forms_display", "id_form", templateFormId);
+        FormDefinitionGenerator generator = new FormDefinitionGenerator(rows, form, steps.get(0), questions,
+            display, transition, seed);
+        for (Map<String, Object> question : questions) {
+            int entryId = ((Number) question.get("id_entry")).intValue();
+            generator.entries.put(entryId, rows.first("genatt_entry", "id_entry", entryId));
+            generator.fields.put(entryId, rows.select("genatt_field", "id_entry", entryId, 1000));
+        }
+        return generator;
+    }
+
+    /**
+     * Cree un formulaire de stepCount etapes et questionCount questions, dont une part
+     * conditionalRatio affichee sous condition (validator : nom du bean de validation du controle).
+     */
+    public FormDefinition generate(int stepCount, int questionCount, double conditionalRatio, String validator)
+            throws SQLException {
+        long start = System.nanoTime();
+        Map<String, Object> formValues = new HashMap<>();
+        formValues.put("title", form.get("title") + " - " + stepCount + " etapes " + questionCount + " questions");
+        int formId = (int) rows.copy("forms_form", form, "id_form", formValues);
+
+        List<Integer> steps = new ArrayList<>();
+        for (int s = 0; s < stepCount; s++) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("id_form", formId);
+            values.put("title", "Etape " + (s + 1));
+            values.put("is_initial", s == 0);
+            values.put("is_final", s == stepCount - 1);
+            steps.add((int) rows.copy("forms_step", step, "id_step", values));
+        }
+
+        int conditions = 0;
+        Map<Integer, Integer> previousInStep = new HashMap<>();
+        Map<Integer, Integer> displayOrder = new HashMap<>();
+        for (int q = 0; q < questionCount; q++) {
+            int stepId = steps.get((int) ((long) q * stepCount / questionCount));
+            Map<String, Object> question = questions.get(q % questions.size());
+            int templateEntry = ((Number) question.get("id_entry")).intValue();
+            String code = "question_" + (q + 1);
+
+            Map<String, Object> entryValues = new HashMap<>();
+            entryValues.put("id_resource", formId);
+            entryValues.put("code", code);
+            int entryId = (int) rows.copy("genatt_entry", entries.get(templateEntry), "id_entry", entryValues);
+            for (Map<String, Object> field : fields.get(templateEntry)) {
+                rows.copy("genatt_field", field, "id_field", Map.of("id_entry", entryId));
+            }
+
+            Map<String, Object> questionValues = new HashMap<>();
+            questionValues.put("id_step", stepId);
+            questionValues.put("id_entry", entryId);
+            questionValues.put("code", code);
+            questionValues.put("title", question.get("title") + " " + (q + 1));
+            int questionId = (int) rows.copy("forms_question", question, "id_question", questionValues);
+
+            int order = displayOrder.merge(stepId, 1, Integer::sum);
+            Map<String, Object> displayValues = new HashMap<>();
+            displayValues.put("id_form", formId);
+            displayValues.put("id_step", stepId);
+            displayValues.put("id_composite", questionId);
+            displayValues.put("id_parent", 0);
+            displayValues.put("display_order", order);
+            displayValues.put("composite_type", COMPOSITE_QUESTION);
+            displayValues.put("display_depth", 0);
+            int displayId = display != null
+                ? (int) rows.copy("forms_display", display, "id_display", displayValues)
+                : (int) rows.insert("forms_display", displayValues);
+
+            Integer previous = previousInStep.put(stepId, questionId);
+            if (previous != null && random.nextDouble() < conditionalRatio) {
+                addConditionalDisplay(displayId, previous, validator);
+                conditions++;
+            }
+        }
+
+        for (int s = 0; s + 1 < stepCount; s++) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("from_step", steps.get(s));
+            values.put("next_step", steps.get(s + 1));
+            values.put("priority", 1);
+            if (transition != null) {
+                rows.copy("forms_transition", transition, "id_transition", values);
+            } else {
+                rows.insert("forms_transition", values);
+            }
+        }
+        LOGGER.info("Formulaire {} genere : {} etapes, {} questions, {} conditions en {} ms", formId, stepCount,
+            questionCount, conditions, (System.nanoTime() - start) / 1_000_000);
+        return new FormDefinition(formId, steps, questionCount, conditions);
+    }
+
+    /**
+     * Affiche la question de displayId selon la reponse a la question conditionQuestion.
+     * Selon la version, la question source est une colonne de forms_control ou une ligne de
+     * forms_control_question.
+     */
+    private void addConditionalDisplay(int displayId, int conditionQuestion, String validator) throws SQLException {
+        Map<String, Object> values = new HashMap<>();
+        values.put("value", "");
+        values.put("error_message", "");
+        values.put("validator_name", validator);
+        values.put("control_type", CONTROL_CONDITIONAL_DISPLAY);
+        values.put("id_control_target", displayId);
+        values.put("id_question", conditionQuestion);
+        int controlId = (int) rows.insert("forms_control", values);
+        if (rows.hasTable("forms_control_question")) {
+            Map<String, Object> link = new HashMap<>();
+            link.put("id_control", controlId);
+            link.put("id_question", conditionQuestion);
+            rows.insert("forms_control_question", link);
+        }
+    }
+}
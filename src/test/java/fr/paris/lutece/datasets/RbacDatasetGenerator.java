@@ -0,0 +1,204 @@
+package fr.paris.lutece.datasets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generation en base de jeux RBAC volumineux (roles, controles de ressources, droits, groupes de
+ * travail), attribues a un administrateur, pour mesurer le cout de l'evaluation des permissions.
+ *
+ * Tables du coeur alimentees :
+ * - core_admin_role et core_user_role : les roles generes, tous attribues a l'administrateur
+ * - core_admin_role_resource : controlsPerRole controles par role, sur les types de ressources deja
+ *   controles (ceux ajoutes par RbacConfigurationTestt) ; le premier porte sur toutes les ressources
+ *   ("*"), les suivants sur des identifiants
+ * - core_admin_right et core_user_right : les droits generes, recopies d'un droit de l'administrateur
+ *   (meme URL, meme groupe de fonctionnalites : le menu BO s'allonge d'autant)
+ * - core_admin_workgroup et core_admin_workgroup_user : les groupes de travail generes
+ * Les cles generees commencent par loadrbac_ (droits : LOADRBAC_), ce qui permet a {@link #clear}
+ * de tout retirer entre deux tailles. Les tables absentes de la version installee sont ignorees.
+ */
+public final class RbacDatasetGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RbacDatasetGenerator.class);
+
+    private static final String PREFIX = "loadrbac_";
+    private static final String RIGHT_PREFIX = "LOADRBAC_";
+    private static final String ALL = "*";
+
+    /**
+     * Volume genere pour une taille.
+     */
+    public static final class RbacDataset {
+        private final int roles;
+        private final int controls;
+        private final int rights;
+        private final int workgroups;
+
+        RbacDataset(int roles, int controls, int rights, int workgroups) {
+            this.roles = roles;
+            this.controls = controls;
+            this.rights = rights;
+            this.workgroups = workgroups;
+        }
+
+        public int roles() {
+            return roles;
+        }
+
+        public int controls() {
+            return controls;
+        }
+
+        public int rights() {
+            return rights;
+        }
+
+        public int workgroups() {
+            return workgroups;
+        }
+    }
+
+    private final Connection connection;
+    private final Rows rows;
+    private final int userId;
+    private final List<String> resourceTypes;
+    private final Map<String, Object> right;
+
+    private RbacDatasetGenerator(Connection connection, String schema, int userId, List<String> resourceTypes,
+                                 Map<String, Object> right) {
+        this.connection = connection;
+        this.rows = new Rows(connection, schema);
+        this.userId = userId;
+        this.resourceTypes = resourceTypes;
+        this.right = right;
+    }
+
+    /**
+     * Generateur pour l'administrateur de code d'acces accessCode.
+     */
+    public static RbacDatasetGenerator forUser(Connection connection, String schema, String accessCode)
+            throws SQLException {
+        Rows rows = new Rows(connection, schema);
+        Map<String, Object> user = rows.first("core_admin_user", "access_code", accessCode);
+        if (user == null) {
+            throw new IllegalStateException("Administrateur introuvable : " + accessCode);
+        }
+        int userId = ((Number) user.get("id_user")).intValue();
+
+        List<String> resourceTypes = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT DISTINCT resource_type FROM `" + schema + "`.core_admin_role_resource ORDER BY resource_type");
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                resourceTypes.add(rs.getString(1));
+            }
+        }
+        if (resourceTypes.isEmpty()) {
+            throw new IllegalStateException("Aucun controle de ressource en base : lancer RbacConfigurationTestt d'abord");
+        }
+
+        Map<String, Object> right = null;
+        Map<String, Object> userRight = rows.first("core_user_right", "id_user", userId);
+        if (userRight != null) {
+            right = rows.first("core_admin_right", "id_right", userRight.get("id_right"));
+        }
+        if (right == null) {
+            LOGGER.warn("Aucun droit attribue a {} : pas de droits generes", accessCode);
+        }
+        LOGGER.info("Generation RBAC pour {} (id {}) : types de ressources {}, droit modele {}", accessCode, userId,
+            resourceTypes, right == null ? "-" : right.get("id_right"));
+        return new RbacDatasetGenerator(connection, schema, userId, resourceTypes, right);
+    }
+
+    public int userId() {
+        return userId;
+    }
+
+    /**
+     * Remplace le jeu genere precedent par un jeu de la taille donnee.
+     */
+    public RbacDataset generate(int roles, int controlsPerRole, int rights, int workgroups) throws SQLException {
+        clear();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        int controls = 0;
+        try {
+            for (int r = 1; r <= roles; r++) {
+                String roleKey = PREFIX + r;
+                rows.insert("core_admin_role", values("role_key", roleKey, "role_description", "Role de charge " + r));
+                rows.insert("core_user_role", values("role_key", roleKey, "id_user", userId));
+                for (int c = 0; c < controlsPerRole; c++) {
+                    rows.insert("core_admin_role_resource", values(
+                        "role_key", roleKey,
+                        "resource_type", resourceTypes.get((r + c) % resourceTypes.size()),
+                        "resource_id", c == 0 ? ALL : String.valueOf(r * 1000 + c),
+                        "permission", ALL));
+                    controls++;
+                }
+            }
+            int generatedRights = 0;
+            if (right != null) {
+                for (int i = 1; i <= rights; i++) {
+                    String rightId = RIGHT_PREFIX + i;
+                    rows.copy("core_admin_right", right, "id_right", values("id_right", rightId));
+                    rows.insert("core_user_right", values("id_right", rightId, "id_user", userId));
+                    generatedRights++;
+                }
+            }
+            int generatedWorkgroups = 0;
+            if (rows.hasTable("core_admin_workgroup")) {
+                for (int w = 1; w <= workgroups; w++) {
+                    String workgroupKey = PREFIX + w;
+                    rows.insert("core_admin_workgroup", values("workgroup_key", workgroupKey,
+                        "workgroup_description", "Groupe de charge " + w));
+                    rows.insert("core_admin_workgroup_user", values("workgroup_key", workgroupKey, "id_user", userId));
+                    generatedWorkgroups++;
+                }
+            }
+            connection.commit();
+            LOGGER.info("RBAC genere : {} roles, {} controles, {} droits, {} groupes en {} ms", roles, controls,
+                generatedRights, generatedWorkgroups, (System.nanoTime() - start) / 1_000_000);
+            return new RbacDataset(roles, controls, generatedRights, generatedWorkgroups);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Retire tout ce qui a ete genere (roles, controles, droits, groupes et leurs attributions).
+     */
+    public void clear() throws SQLException {
+        int deleted = rows.deleteByPrefix("core_user_role", "role_key", PREFIX)
+            + rows.deleteByPrefix("core_admin_role_resource", "role_key", PREFIX)
+            + rows.deleteByPrefix("core_admin_role", "role_key", PREFIX)
+            + rows.deleteByPrefix("core_user_right", "id_right", RIGHT_PREFIX)
+            + rows.deleteByPrefix("core_admin_right", "id_right", RIGHT_PREFIX)
+            + rows.deleteByPrefix("core_admin_workgroup_user", "workgroup_key", PREFIX)
+            + rows.deleteByPrefix("core_admin_workgroup", "workgroup_key", PREFIX);
+        if (deleted > 0) {
+            LOGGER.info("Jeu RBAC precedent supprime : {} lignes", deleted);
+        }
+    }
+
+    private static Map<String, Object> values(Object... keyValues) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            values.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,457 @@
+package fr.paris.lutece.datasets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Jeu de reponses synthetiques pour un formulaire existant, charge en masse dans les tables du
+ * plugin forms (LOAD DATA LOCAL INFILE, par lots).
+ *
+ * La structure du formulaire (etapes, questions, types d'entree, options de choix) et les etats de
+ * son workflow sont lus en base ; chaque reponse generee a :
+ * - forms_response, forms_response_step (toutes les etapes), forms_question_response,
+ *   genatt_response et forms_question_entry_response pour chaque question a saisie ;
+ * - workflow_resource_workflow : etat tire avec un poids decroissant (la moitie a l'etat initial).
+ * Distributions des valeurs : {@link SyntheticValues}. Les identifiants suivent le MAX(id) courant ;
+ * l'historique du workflow (workflow_resource_history) n'est pas genere.
+ *
+ * Usage typique (voir MultiviewScalingBenchmark) :
+ * <pre>
+ *   ResponseDataset dataset = ResponseDataset.forForm(connection, schema, formId, seed);
+ *   dataset.growTo(connection, 100_000, 20_000);
+ * </pre>
+ */
+public final class ResponseDataset {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseDataset.class);
+
+    public static final String RESOURCE_TYPE = "FORMS_FORM_RESPONSE";
+
+    private static final Path BUFFER_PATH = Paths.get("target/datasets/tmp");
+    private static final int HISTORY_DAYS = 730;
+
+    /**
+     * Nature de la saisie d'une question, d'apres la classe de son type d'entree.
+     */
+    private enum Kind {
+        TEXT, LONG_TEXT, NUMBER, DATE, CHOICE, MULTIPLE_CHOICE
+    }
+
+    private static final class Question {
+        final int idQuestion;
+        final int idStep;
+        final int idEntry;
+        final Kind kind;
+        final List<Integer> fields = new ArrayList<>();
+        final List<String> fieldValues = new ArrayList<>();
+
+        Question(int idQuestion, int idStep, int idEntry, Kind kind) {
+            this.idQuestion = idQuestion;
+            this.idStep = idStep;
+            this.idEntry = idEntry;
+            this.kind = kind;
+        }
+    }
+
+    private final String schema;
+    private final int formId;
+    private final int workflowId;
+    private final List<Integer> steps;
+    private final List<Question> questions;
+    private final int[] states;
+    private final double[] stateWeights;
+    private final SyntheticValues values;
+
+    private ResponseDataset(String schema, int formId, int workflowId, List<Integer> steps, List<Question> questions,
+                            int[] states, long seed) {
+        this.schema = schema;
+        this.formId = formId;
+        this.workflowId = workflowId;
+        this.steps = steps;
+        this.questions = questions;
+        this.states = states;
+        this.stateWeights = new double[states.length];
+        for (int i = 0; i < states.length; i++) {
+            // Etat initial : la moitie des reponses, puis poids divise par deux a chaque etat
+            stateWeights[i] = Math.pow(0.5, i);
+        }
+        this.values = new SyntheticValues(seed);
+    }
+
+    /**
+     * Lit la structure du formulaire et de son workflow.
+     *
+     * @param schema schema applicatif de Lutece
+     */
+    public static ResponseDataset forForm(Connection connection, String schema, int formId, long seed)
+            throws SQLException {
+        int workflowId = queryInt(connection, "SELECT id_workflow FROM `" + schema + "`.forms_form WHERE id_form = ?", formId);
+        List<Integer> steps = queryInts(connection,
+            "SELECT id_step FROM `" + schema + "`.forms_step WHERE id_form = ? ORDER BY id_step", formId);
+        if (steps.isEmpty()) {
+            throw new IllegalStateException("Formulaire " + formId + " introuvable ou sans etape dans " + schema);
+        }
+
+        List<Question> questions = new ArrayList<>();
+        Map<Integer, Question> byEntry = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT q.id_question, q.id_step, e.id_entry, t.class_name FROM `" + schema + "`.forms_question q"
+                    + " JOIN `" + schema + "`.forms_step s ON s.id_step = q.id_step"
+                    + " JOIN `" + schema + "`.genatt_entry e ON e.id_entry = q.id_entry"
+                    + " JOIN `" + schema + "`.genatt_entry_type t ON t.id_type = e.id_type"
+                    + " WHERE s.id_form = ? ORDER BY q.id_step, q.id_question")) {
+            statement.setInt(1, formId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Kind kind = kind(rs.getString(4));
+                    if (kind != null) {
+                        Question question = new Question(rs.getInt(1), rs.getInt(2), rs.getInt(3), kind);
+                        questions.add(question);
+                        byEntry.put(question.idEntry, question);
+                    }
+                }
+            }
+        }
+        loadChoices(connection, schema, byEntry);
+
+        int[] states = workflowId > 0
+            ? queryInts(connection, "SELECT id_state FROM `" + schema + "`.workflow_state WHERE id_workflow = ?"
+                + " ORDER BY is_initial_state DESC, id_state", workflowId).stream().mapToInt(Integer::intValue).toArray()
+            : new int[0];
+
+        LOGGER.info("Jeu de reponses du formulaire {} : {} etapes, {} questions a saisie, workflow {} ({} etats)",
+            formId, steps.size(), questions.size(), workflowId, states.length);
+        return new ResponseDataset(schema, formId, workflowId, steps, questions, states, seed);
+    }
+
+    /**
+     * Les reponses generees ensuite sont toutes a l'etat initial du workflow (reponses a traiter).
+     */
+    public ResponseDataset allInInitialState() {
+        Arrays.fill(stateWeights, 0);
+        if (stateWeights.length > 0) {
+            stateWeights[0] = 1;
+        }
+        return this;
+    }
+
+    /**
+     * Reponses du formulaire a l'etat initial de son workflow, au plus limit, par identifiant croissant.
+     */
+    public List<Integer> initialStateResponses(Connection connection, int limit) throws SQLException {
+        if (states.length == 0) {
+            return List.of();
+        }
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id_resource FROM `" + schema + "`.workflow_resource_workflow"
+                    + " WHERE resource_type = ? AND id_workflow = ? AND id_state = ? AND id_external_parent = ?"
+                    + " ORDER BY id_resource LIMIT ?")) {
+            statement.setString(1, RESOURCE_TYPE);
+            statement.setInt(2, workflowId);
+            statement.setInt(3, states[0]);
+            statement.setInt(4, formId);
+            statement.setInt(5, limit);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    public int workflowId() {
+        return workflowId;
+    }
+
+    /**
+     * Nombre de reponses actuellement en base pour le formulaire.
+     */
+    public long count(Connection connection) throws SQLException {
+        return queryInt(connection, "SELECT COUNT(*) FROM `" + schema + "`.forms_response WHERE id_form = ?", formId);
+    }
+
+    /**
+     * Complete le jeu jusqu'a target reponses (rien si deja atteint).
+     *
+     * @return nombre de reponses ajoutees
+     */
+    public long growTo(Connection connection, long target, int batchSize) throws SQLException {
+        long missing = target - count(connection);
+        if (missing <= 0) {
+            return 0;
+        }
+        load(connection, missing, batchSize);
+        return missing;
+    }
+
+    /**
+     * Genere et charge count reponses, par lots de batchSize.
+     */
+    public void load(Connection connection, long count, int batchSize) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION foreign_key_checks = 0, unique_checks = 0");
+        }
+        BulkTable responses = BulkTable.open(connection, schema, "forms_response",
+            Set.of("id_response", "id_form", "creation_date", "update_date", "update_date_status", "from_save"), BUFFER_PATH);
+        BulkTable responseSteps = BulkTable.open(connection, schema, "forms_response_step",
+            Set.of("id_form_response", "id_step", "order_response"), BUFFER_PATH);
+        BulkTable questionResponses = BulkTable.open(connection, schema, "forms_question_response",
+            Set.of("id_question_response", "id_form_response", "id_question", "id_step", "iteration_number"), BUFFER_PATH);
+        BulkTable entryResponses = BulkTable.open(connection, schema, "genatt_response",
+            Set.of("id_response", "response_value", "id_entry", "iteration_number", "id_field", "status"), BUFFER_PATH);
+        BulkTable questionEntryResponses = BulkTable.open(connection, schema, "forms_question_entry_response",
+            Set.of("id_question_response", "id_entry_response"), BUFFER_PATH);
+        BulkTable resourceStates = states.length == 0 ? null : BulkTable.open(connection, schema,
+            "workflow_resource_workflow", Set.of("id_resource", "resource_type", "id_state", "id_workflow",
+                "id_external_parent", "is_associated_workflow"), BUFFER_PATH);
+        if (responses == null) {
+            throw new IllegalStateException("Table forms_response absente de " + schema);
+        }
+        List<BulkTable> tables = new ArrayList<>();
+        for (BulkTable table : Arrays.asList(responses, responseSteps, questionResponses, entryResponses,
+                questionEntryResponses, resourceStates)) {
+            if (table != null) {
+                tables.add(table);
+            }
+        }
+
+        long nextResponse = maxId(connection, "forms_response", "id_response") + 1;
+        long nextQuestionResponse = maxId(connection, "forms_question_response", "id_question_response") + 1;
+        long nextEntryResponse = maxId(connection, "genatt_response", "id_response") + 1;
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        long start = System.nanoTime();
+        Map<String, Object> row = new HashMap<>();
+
+        for (long i = 0; i < count; i++) {
+            long idResponse = nextResponse++;
+            LocalDateTime created = values.submissionTime(now, HISTORY_DAYS);
+            LocalDateTime updated = created.plusSeconds(values.delaySeconds(72));
+            if (updated.isAfter(now)) {
+                updated = now;
+            }
+            row.clear();
+            row.put("id_response", idResponse);
+            row.put("id_form", formId);
+            row.put("creation_date", created);
+            row.put("update_date", updated);
+            row.put("update_date_status", updated);
+            row.put("from_save", 0);
+            responses.add(row);
+
+            for (int order = 0; order < steps.size(); order++) {
+                if (responseSteps != null) {
+                    row.clear();
+                    row.put("id_form_response", idResponse);
+                    row.put("id_step", steps.get(order));
+                    row.put("order_response", order);
+                    responseSteps.add(row);
+                }
+            }
+
+            for (Question question : questions) {
+                long idQuestionResponse = nextQuestionResponse++;
+                if (questionResponses != null) {
+                    row.clear();
+                    row.put("id_question_response", idQuestionResponse);
+                    row.put("id_form_response", idResponse);
+                    row.put("id_question", question.idQuestion);
+                    row.put("id_step", question.idStep);
+                    row.put("iteration_number", 0);
+                    questionResponses.add(row);
+                }
+                for (int field : answers(question)) {
+                    long idEntryResponse = nextEntryResponse++;
+                    if (entryResponses != null) {
+                        row.clear();
+                        row.put("id_response", idEntryResponse);
+                        row.put("id_entry", question.idEntry);
+                        row.put("iteration_number", 0);
+                        row.put("status", 0);
+                        if (field >= 0) {
+                            row.put("id_field", question.fields.get(field));
+                            row.put("response_value", question.fieldValues.get(field));
+                        } else {
+                            row.put("id_field", null);
+                            row.put("response_value", value(question, created));
+                        }
+                        entryResponses.add(row);
+                    }
+                    if (questionEntryResponses != null) {
+                        row.clear();
+                        row.put("id_question_response", idQuestionResponse);
+                        row.put("id_entry_response", idEntryResponse);
+                        questionEntryResponses.add(row);
+                    }
+                }
+            }
+
+            if (resourceStates != null) {
+                row.clear();
+                row.put("id_resource", idResponse);
+                row.put("resource_type", RESOURCE_TYPE);
+                row.put("id_state", states[values.weighted(stateWeights)]);
+                row.put("id_workflow", workflowId);
+                row.put("id_external_parent", formId);
+                row.put("is_associated_workflow", 0);
+                resourceStates.add(row);
+            }
+
+            if ((i + 1) % batchSize == 0 || i + 1 == count) {
+                for (BulkTable table : tables) {
+                    table.flush(connection);
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                LOGGER.info("Reponses chargees : {}/{} ({} lignes/s)", i + 1, count,
+                    Math.round(tables.stream().mapToLong(BulkTable::loadedRows).sum() / Math.max(0.001, seconds)));
+            }
+        }
+
+        // Statistiques de l'optimiseur a jour pour les plans de requetes du multiview
+        try (Statement statement = connection.createStatement()) {
+            for (BulkTable table : tables) {
+                statement.execute("ANALYZE TABLE " + table.qualifiedName());
+            }
+        }
+    }
+
+    /**
+     * Options choisies (indices dans question.fields), ou une saisie libre (-1).
+     */
+    private List<Integer> answers(Question question) {
+        switch (question.kind) {
+            case CHOICE:
+                return question.fields.isEmpty() ? List.of() : List.of(values.choice(question.fields.size()));
+            case MULTIPLE_CHOICE:
+                if (question.fields.isEmpty()) {
+                    return List.of();
+                }
+                Set<Integer> chosen = new TreeSet<>();
+                int wanted = 1 + values.random().nextInt(Math.min(3, question.fields.size()));
+                while (chosen.size() < wanted) {
+                    chosen.add(values.choice(question.fields.size()));
+                }
+                return new ArrayList<>(chosen);
+            default:
+                return List.of(-1);
+        }
+    }
+
+    private String value(Question question, LocalDateTime created) {
+        switch (question.kind) {
+            case LONG_TEXT:
+                return values.text(40, 400);
+            case NUMBER:
+                return String.valueOf(values.number(50));
+            case DATE:
+                return created.toLocalDate().minusDays(values.random().nextInt(3650)).toString();
+            default:
+                return values.text(3, 12);
+        }
+    }
+
+    private static Kind kind(String className) {
+        String type = className == null ? "" : className.toLowerCase(Locale.ROOT);
+        if (type.contains("checkbox")) {
+            return Kind.MULTIPLE_CHOICE;
+        }
+        if (type.contains("radio") || type.contains("select")) {
+            return Kind.CHOICE;
+        }
+        if (type.contains("date")) {
+            return Kind.DATE;
+        }
+        if (type.contains("number")) {
+            return Kind.NUMBER;
+        }
+        if (type.contains("textarea")) {
+            return Kind.LONG_TEXT;
+        }
+        if (type.contains("text")) {
+            return Kind.TEXT;
+        }
+        // Commentaires, groupes, fichiers, images, geolocalisation : pas de saisie generee
+        return null;
+    }
+
+    private static void loadChoices(Connection connection, String schema, Map<Integer, Question> byEntry)
+            throws SQLException {
+        if (byEntry.isEmpty()) {
+            return;
+        }
+        String entries = byEntry.keySet().stream().map(String::valueOf).reduce((a, b) -> a + "," + b).orElse("");
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT * FROM `" + schema + "`.genatt_field WHERE id_entry IN ("
+                 + entries + ") ORDER BY id_entry, id_field")) {
+            boolean hasCode = hasColumn(rs.getMetaData(), "code");
+            while (rs.next()) {
+                Question question = byEntry.get(rs.getInt("id_entry"));
+                // Les champs de parametrage (code renseigne) ne sont pas des options de reponse
+                String code = hasCode ? rs.getString("code") : null;
+                if (question != null && (question.kind == Kind.CHOICE || question.kind == Kind.MULTIPLE_CHOICE)
+                        && (code == null || code.isEmpty() || "answer_choice".equals(code))) {
+                    question.fields.add(rs.getInt("id_field"));
+                    question.fieldValues.add(rs.getString("value"));
+                }
+            }
+        }
+    }
+
+    private long maxId(Connection connection, String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) FROM `" + schema + "`." + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static boolean hasColumn(ResultSetMetaData metadata, String name) throws SQLException {
+        for (int i = 1; i <= metadata.getColumnCount(); i++) {
+            if (name.equalsIgnoreCase(metadata.getColumnLabel(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int queryInt(Connection connection, String sql, int parameter) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, parameter);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static List<Integer> queryInts(Connection connection, String sql, int parameter) throws SQLException {
+        List<Integer> result = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, parameter);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    result.add(rs.getInt(1));
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+package fr.paris.lutece.datasets;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Lecture et insertion de lignes isolees, colonnes resolues dans information_schema.
+ *
+ * Sert aux generateurs qui recopient la definition d'un objet cree par l'IHM (formulaire, workflow) :
+ * la ligne modele est relue telle quelle puis reinseree avec quelques valeurs remplacees, ce qui
+ * conserve les colonnes propres a la version installee des plugins.
+ */
+final class Rows {
+
+    private final Connection connection;
+    private final String schema;
+    private final Map<String, Set<String>> columns = new HashMap<>();
+
+    Rows(Connection connection, String schema) {
+        this.connection = connection;
+        this.schema = schema;
+    }
+
+    boolean hasTable(String table) throws SQLException {
+        return !columns(table).isEmpty();
+    }
+
+    /**
+     * Premiere ligne de table ou column = value, null si aucune (cles en minuscules).
+     */
+    Map<String, Object> first(String table, String column, Object value) throws SQLException {
+        List<Map<String, Object>> rows = select(table, column, value, 1);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Lignes de table ou column = value (au plus limit).
+     */
+    List<Map<String, Object>> select(String table, String column, Object value, int limit) throws SQLException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT * FROM " + qualified(table) + " WHERE `" + column + "` = ? LIMIT " + limit)) {
+            statement.setObject(1, value);
+            try (ResultSet rs = statement.executeQuery()) {
+                ResultSetMetaData metadata = rs.getMetaData();
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 1; i <= metadata.getColumnCount(); i++) {
+                        row.put(metadata.getColumnLabel(i).toLowerCase(Locale.ROOT), rs.getObject(i));
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Insere une ligne (colonnes absentes de la table ignorees) et retourne la cle generee, 0 sans cle.
+     */
+    long insert(String table, Map<String, Object> values) throws SQLException {
+        Set<String> existing = columns(table);
+        List<String> names = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (existing.contains(entry.getKey())) {
+                names.add("`" + entry.getKey() + "`");
+                parameters.add(entry.getValue());
+            }
+        }
+        String sql = "INSERT INTO " + qualified(table) + " (" + String.join(",", names) + ") VALUES ("
+            + String.join(",", Collections.nCopies(names.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                return keys.next() ? keys.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Recopie une ligne modele avec des valeurs remplacees ; idColumn est laisse a l'auto-increment.
+     */
+    long copy(String table, Map<String, Object> template, String idColumn, Map<String, Object> overrides)
+            throws SQLException {
+        Map<String, Object> values = new LinkedHashMap<>(template);
+        values.remove(idColumn);
+        values.putAll(overrides);
+        return insert(table, values);
+    }
+
+    /**
+     * Supprime les lignes de table dont column commence par prefix ; 0 si la table n'existe pas.
+     */
+    int deleteByPrefix(String table, String column, String prefix) throws SQLException {
+        if (!hasTable(table)) {
+            return 0;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM " + qualified(table) + " WHERE `" + column + "` LIKE ?")) {
+            statement.setString(1, prefix.replace("_", "\\_") + "%");
+            return statement.executeUpdate();
+        }
+    }
+
+    private Set<String> columns(String table) throws SQLException {
+        Set<String> cached = columns.get(table);
+        if (cached != null) {
+            return cached;
+        }
+        Set<String> names = new TreeSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT column_name FROM information_schema.columns WHERE table_schema = ? AND table_name = ?")) {
+            statement.setString(1, schema);
+            statement.setString(2, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        columns.put(table, names);
+        return names;
+    }
+
+    private String qualified(String table) {
+        return "`" + schema + "`.`" + table + "`";
+    }
+}
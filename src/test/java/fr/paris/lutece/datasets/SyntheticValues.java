@@ -0,0 +1,143 @@
+package fr.paris.lutece.datasets;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Valeurs synthetiques aux distributions proches de la production, reproductibles par graine.
+ *
+ * - textes : mots tires selon une loi de Zipf dans un vocabulaire administratif, longueur log-normale
+ * - choix : loi de Zipf sur les options (quelques options concentrent la plupart des reponses)
+ * - dates de depot : jours ouvres majoritaires, pics en fin de matinee et en debut d'apres-midi
+ */
+final class SyntheticValues {
+
+    private static final String[] WORDS = {
+        "demande", "dossier", "de", "la", "le", "pour", "une", "un", "et", "des", "du", "en", "a", "les",
+        "service", "usager", "adresse", "paris", "mairie", "arrondissement", "date", "rendez-vous",
+        "declaration", "situation", "interet", "conflit", "fonction", "mandat", "association", "societe",
+        "activite", "remuneration", "agent", "poste", "direction", "bureau", "piece", "justificatif",
+        "complement", "information", "reponse", "avis", "commission", "deontologie", "cumul", "emploi",
+        "public", "prive", "conseil", "projet", "contrat", "periode", "annee", "mois", "montant", "euros",
+        "signature", "attestation", "copie", "document", "transmis", "joint", "suite", "courrier",
+        "precedent", "nouvelle", "modification", "etat", "civil", "naissance", "famille", "domicile",
+        "telephone", "courriel", "urgent", "merci", "cordialement", "madame", "monsieur", "referent",
+    };
+
+    private final SplittableRandom random;
+    private final double[] wordWeights;
+    private final Map<Integer, double[]> choiceWeights = new HashMap<>();
+
+    SyntheticValues(long seed) {
+        this.random = new SplittableRandom(seed);
+        this.wordWeights = zipfWeights(WORDS.length, 1.1);
+    }
+
+    SplittableRandom random() {
+        return random;
+    }
+
+    /**
+     * Texte de longueur log-normale (mediane medianWords mots, au plus maxWords).
+     */
+    String text(int medianWords, int maxWords) {
+        int words = (int) Math.max(1, Math.min(maxWords, Math.round(logNormal(medianWords, 0.8))));
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[weighted(wordWeights)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Entier de distribution log-normale, de mediane median.
+     */
+    long number(double median) {
+        return Math.round(logNormal(median, 1.0));
+    }
+
+    /**
+     * Indice parmi count options, loi de Zipf d'exposant 1.
+     */
+    int choice(int count) {
+        return weighted(choiceWeights.computeIfAbsent(count, n -> zipfWeights(n, 1.0)));
+    }
+
+    /**
+     * Indice tire selon des poids quelconques (non normalises).
+     */
+    int weighted(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < weights.length; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * Instant de depot dans les days jours precedant end : 90 % en jours ouvres, heures de bureau.
+     */
+    LocalDateTime submissionTime(LocalDateTime end, int days) {
+        LocalDate day;
+        do {
+            day = end.toLocalDate().minusDays(random.nextInt(Math.max(1, days)));
+        } while (isWeekend(day) && random.nextDouble() < 0.8);
+        // Melange de deux pics (11 h, 15 h) et d'un fond uniforme
+        double hour;
+        double draw = random.nextDouble();
+        if (draw < 0.4) {
+            hour = 11 + gaussian() * 1.5;
+        } else if (draw < 0.8) {
+            hour = 15 + gaussian() * 1.5;
+        } else {
+            hour = random.nextDouble() * 24;
+        }
+        hour = Math.max(0, Math.min(23.99, hour));
+        LocalDateTime time = day.atStartOfDay().plusSeconds((long) (hour * 3600));
+        return time.isAfter(end) ? end : time;
+    }
+
+    /**
+     * Delai de traitement exponentiel de moyenne meanHours.
+     */
+    long delaySeconds(double meanHours) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanHours * 3600);
+    }
+
+    private double logNormal(double median, double sigma) {
+        return median * Math.exp(sigma * gaussian());
+    }
+
+    private double gaussian() {
+        // Box-Muller
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    private static boolean isWeekend(LocalDate day) {
+        return day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    static double[] zipfWeights(int count, double exponent) {
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1 / Math.pow(i + 1, exponent);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,192 @@
+package fr.paris.lutece.datasets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Generation en base de workflows volumineux (etats, actions, taches), pour mesurer l'editeur
+ * de workflows BO.
+ *
+ * Le workflow modele (celui cree par WorkflowCreationTest, lu via le formulaire qui l'utilise)
+ * est relu ligne a ligne puis recopie :
+ * - workflow_workflow : une copie par definition generee, nom suffixe par la taille
+ * - workflow_state : states etats, le premier initial
+ * - workflow_action (+ workflow_action_state_before si present) : actions reparties sur les etats
+ *   de depart a tour de role, etat d'arrivee tire parmi les etats suivants
+ * - workflow_task : tasksPerAction taches par action, copies des taches du modele
+ * La configuration propre a chaque type de tache (tables workflow_task_*) n'est pas recopiee :
+ * les taches generees s'affichent avec leur configuration par defaut.
+ * Les colonnes uid_* des versions recentes recoivent un UUID neuf.
+ */
+public final class WorkflowDefinitionGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowDefinitionGenerator.class);
+
+    /**
+     * Definition generee : workflow, etats et actions dans l'ordre de creation.
+     */
+    public static final class WorkflowDefinition {
+        private final int workflowId;
+        private final List<Integer> states;
+        private final List<Integer> actions;
+        private final int tasks;
+
+        WorkflowDefinition(int workflowId, List<Integer> states, List<Integer> actions, int tasks) {
+            this.workflowId = workflowId;
+            this.states = states;
+            this.actions = actions;
+            this.tasks = tasks;
+        }
+
+        public int workflowId() {
+            return workflowId;
+        }
+
+        public List<Integer> states() {
+            return states;
+        }
+
+        public List<Integer> actions() {
+            return actions;
+        }
+
+        /**
+         * Action du milieu (la plus representative d'une action ordinaire).
+         */
+        public int middleAction() {
+            return actions.get(actions.size() / 2);
+        }
+
+        public int tasks() {
+            return tasks;
+        }
+    }
+
+    private final Connection connection;
+    private final String schema;
+    private final Rows rows;
+    private final Map<String, Object> workflow;
+    private final Map<String, Object> state;
+    private final Map<String, Object> action;
+    private final List<Map<String, Object>> tasks;
+    private final SplittableRandom random;
+
+    private WorkflowDefinitionGenerator(Connection connection, String schema, Rows rows, Map<String, Object> workflow,
+                                        Map<String, Object> state, Map<String, Object> action,
+                                        List<Map<String, Object>> tasks, long seed) {
+        this.connection = connection;
+        this.schema = schema;
+        this.rows = rows;
+        this.workflow = workflow;
+        this.state = state;
+        this.action = action;
+        this.tasks = tasks;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Lit le workflow du formulaire templateFormId et ses lignes associees.
+     */
+    public static WorkflowDefinitionGenerator fromFormWorkflow(Connection connection, String schema, int templateFormId,
+                                                               long seed) throws SQLException {
+        Rows rows = new Rows(connection, schema);
+        Map<String, Object> form = rows.first("forms_form", "id_form", templateFormId);
+        if (form == null || form.get("id_workflow") == null) {
+            throw new IllegalStateException("Formulaire " + templateFormId + " absent ou sans workflow dans " + schema);
+        }
+        Object workflowId = form.get("id_workflow");
+        Map<String, Object> workflow = rows.first("workflow_workflow", "id_workflow", workflowId);
+        Map<String, Object> state = rows.first("workflow_state", "id_workflow", workflowId);
+        Map<String, Object> action = rows.first("workflow_action", "id_workflow", workflowId);
+        if (workflow == null || state == null || action == null) {
+            throw new IllegalStateException("Workflow modele " + workflowId + " incomplet (etat ou action manquant)");
+        }
+        List<Map<String, Object>> tasks = rows.select("workflow_task", "id_action", action.get("id_action"), 1000);
+        if (tasks.isEmpty()) {
+            throw new IllegalStateException("Action modele " + action.get("id_action") + " sans tache");
+        }
+        return new WorkflowDefinitionGenerator(connection, schema, rows, workflow, state, action, tasks, seed);
+    }
+
+    /**
+     * Cree un workflow de stateCount etats, actionCount actions et tasksPerAction taches par action.
+     */
+    public WorkflowDefinition generate(int stateCount, int actionCount, int tasksPerAction) throws SQLException {
+        long start = System.nanoTime();
+        Map<String, Object> workflowValues = new HashMap<>();
+        workflowValues.put("name", workflow.get("name") + " - " + stateCount + " etats " + actionCount + " actions");
+        workflowValues.put("uid_workflow", UUID.randomUUID().toString());
+        int workflowId = (int) rows.copy("workflow_workflow", workflow, "id_workflow", workflowValues);
+
+        List<Integer> states = new ArrayList<>();
+        for (int s = 0; s < stateCount; s++) {
+            Map<String, Object> values = new HashMap<>();
+            values.put("id_workflow", workflowId);
+            values.put("name", "Etat " + (s + 1));
+            values.put("is_initial_state", s == 0);
+            values.put("display_order", s + 1);
+            values.put("uid_state", UUID.randomUUID().toString());
+            states.add((int) rows.copy("workflow_state", state, "id_state", values));
+        }
+
+        boolean stateBeforeTable = rows.hasTable("workflow_action_state_before");
+        List<Integer> actions = new ArrayList<>();
+        int taskCount = 0;
+        for (int a = 0; a < actionCount; a++) {
+            int from = a % stateCount;
+            int to = from + 1 < stateCount ? from + 1 + random.nextInt(stateCount - from - 1) : 0;
+            Map<String, Object> values = new HashMap<>();
+            values.put("id_workflow", workflowId);
+            values.put("name", "Action " + (a + 1));
+            values.put("id_state_before", states.get(from));
+            values.put("id_state_after", states.get(to));
+            values.put("display_order", a + 1);
+            values.put("uid_action", UUID.randomUUID().toString());
+            int actionId = (int) rows.copy("workflow_action", action, "id_action", values);
+            actions.add(actionId);
+            if (stateBeforeTable) {
+                Map<String, Object> link = new HashMap<>();
+                link.put("id_action", actionId);
+                link.put("id_state_before", states.get(from));
+                rows.insert("workflow_action_state_before", link);
+            }
+            for (int t = 0; t < tasksPerAction; t++) {
+                Map<String, Object> taskValues = new HashMap<>();
+                taskValues.put("id_action", actionId);
+                taskValues.put("display_order", t + 1);
+                taskValues.put("uid_task", UUID.randomUUID().toString());
+                rows.copy("workflow_task", tasks.get(t % tasks.size()), "id_task", taskValues);
+                taskCount++;
+            }
+        }
+        LOGGER.info("Workflow {} genere : {} etats, {} actions, {} taches en {} ms", workflowId, stateCount,
+            actionCount, taskCount, (System.nanoTime() - start) / 1_000_000);
+        return new WorkflowDefinition(workflowId, states, actions, taskCount);
+    }
+
+    /**
+     * Supprime les taches ajoutees a l'action au-dela des keep premieres (taches inserees par
+     * une mesure), pour que chaque echantillon voie la meme action.
+     */
+    public int trimTasks(int actionId, int keep) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM `" + schema + "`.workflow_task WHERE id_action = ? AND id_task NOT IN ("
+                    + "SELECT id_task FROM (SELECT id_task FROM `" + schema + "`.workflow_task WHERE id_action = ?"
+                    + " ORDER BY id_task LIMIT ?) kept)")) {
+            statement.setInt(1, actionId);
+            statement.setInt(2, actionId);
+            statement.setInt(3, keep);
+            return statement.executeUpdate();
+        }
+    }
+}
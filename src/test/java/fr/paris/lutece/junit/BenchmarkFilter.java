@@ -0,0 +1,84 @@
+package fr.paris.lutece.junit;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Filtre JUnit Platform qui choisit le benchmark d'une suite qui en regroupe plusieurs
+ * (ContainerBenchmarkSuite) : les etapes communes de la suite s'executent, suivies des seuls
+ * benchmarks nommes par -Dbenchmark (noms simples separes par des virgules).
+ *
+ * Une suite dont aucun benchmark n'est retenu est ecartee en entier, pour ne pas preparer un
+ * environnement inutile : sans -Dbenchmark, seule une suite a un seul benchmark s'execute.
+ * Les tests hors suite (benchmark lance directement par -Dtest) ne sont pas filtres.
+ * Enregistre via META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter.
+ */
+public class BenchmarkFilter implements PostDiscoveryFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BenchmarkFilter.class);
+
+    private final Set<String> selected;
+    private final Set<String> warnedSuites = ConcurrentHashMap.newKeySet();
+
+    public BenchmarkFilter() {
+        String value = System.getProperty("benchmark", "").trim();
+        this.selected = value.isEmpty() ? Set.of() : Set.copyOf(Arrays.asList(value.split("\\s*,\\s*")));
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        UniqueId suiteId = SuiteGraph.enclosingSuite(descriptor.getUniqueId().toString());
+        if (suiteId == null) {
+            return FilterResult.included("hors suite");
+        }
+        String suite = suiteId.getLastSegment().getValue();
+        List<String> benchmarks = SuiteGraph.get().getSuites().getOrDefault(suite, List.of()).stream()
+            .filter(SuiteGraph::isBenchmark)
+            .collect(Collectors.toList());
+        if (benchmarks.isEmpty()) {
+            return FilterResult.included("suite sans benchmark");
+        }
+        List<String> chosen = selected.isEmpty() && benchmarks.size() == 1
+            ? benchmarks
+            : benchmarks.stream().filter(name -> selected.contains(simpleName(name))).collect(Collectors.toList());
+        if (chosen.isEmpty()) {
+            if (warnedSuites.add(suite)) {
+                LOGGER.warn("{} ignoree : preciser -Dbenchmark parmi {}", simpleName(suite),
+                    benchmarks.stream().map(BenchmarkFilter::simpleName).collect(Collectors.toList()));
+            }
+            return FilterResult.excluded("aucun benchmark choisi pour " + simpleName(suite));
+        }
+        String className = classOf(descriptor.getUniqueId(), suiteId);
+        if (className != null && SuiteGraph.isBenchmark(className) && !chosen.contains(className)) {
+            return FilterResult.excluded(simpleName(className) + " non choisi par -Dbenchmark");
+        }
+        return FilterResult.included("benchmark choisi ou etape commune");
+    }
+
+    /**
+     * Premiere classe sous la suite englobante.
+     */
+    private static String classOf(UniqueId uniqueId, UniqueId suiteId) {
+        List<UniqueId.Segment> segments = uniqueId.getSegments();
+        for (int i = suiteId.getSegments().size(); i < segments.size(); i++) {
+            if ("class".equals(segments.get(i).getType())) {
+                return segments.get(i).getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,79 @@
+package fr.paris.lutece.junit;
+
+import org.junit.jupiter.api.extension.*;
+import org.junit.platform.engine.UniqueId;
+import org.opentest4j.TestAbortedException;
+
+/**
+ * Extension JUnit des classes de scenario ordonnees :
+ * - avec -Dcheckpoint.enabled=true, sauvegarde un checkpoint ({@link Checkpoints}) de la suite en cours
+ *   apres chaque classe dont aucun test n'a echoue (un test interrompu par une hypothese ne compte pas) ;
+ * - avec -Dresume.from=&lt;Classe&gt;, ignore les classes qui la precedent dans la suite en cours
+ *   et restaure le checkpoint avant la premiere classe executee.
+ *
+ * Usage:
+ *   mvn test -Dtest=ContainerIntegrationSuite -Dcheckpoint.enabled=true
+ *   mvn test -Dtest=ContainerIntegrationSuite -Dresume.from=FormsSubmissionTest
+ */
+public class CheckpointExtension implements ExecutionCondition, BeforeAllCallback,
+        AfterTestExecutionCallback, AfterAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+        ExtensionContext.Namespace.create(CheckpointExtension.class);
+    private static final String FAILED = "failed";
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        String resumeFrom = Checkpoints.resumeFrom();
+        if (resumeFrom.isEmpty() || context.getTestMethod().isPresent()) {
+            return ConditionEvaluationResult.enabled("pas de reprise");
+        }
+        String className = context.getRequiredTestClass().getName();
+        String suite = suiteOf(context);
+        if (suite != null && SuiteGraph.get().predecessors(suite, resumeFrom).contains(className)) {
+            return ConditionEvaluationResult.disabled(
+                "Reprise depuis " + resumeFrom + " : etat restaure depuis le checkpoint");
+        }
+        return ConditionEvaluationResult.enabled("classe executee lors de la reprise");
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!Checkpoints.resumeFrom().isEmpty()) {
+            Checkpoints.restoreScenario(suiteOf(context));
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().filter(error -> !(error instanceof TestAbortedException)).isPresent()) {
+            classStore(context).put(FAILED, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        String suite = suiteOf(context);
+        if (Checkpoints.isEnabled() && suite != null
+                && context.getExecutionException().filter(error -> !(error instanceof TestAbortedException)).isEmpty()
+                && classStore(context).get(FAILED) == null) {
+            Checkpoints.save(suite, context.getRequiredTestClass().getName());
+        }
+    }
+
+    /**
+     * Nom qualifie de la suite en cours, null hors suite.
+     */
+    private static String suiteOf(ExtensionContext context) {
+        UniqueId suite = SuiteGraph.enclosingSuite(context.getUniqueId());
+        return suite == null ? null : suite.getLastSegment().getValue();
+    }
+
+    private static ExtensionContext.Store classStore(ExtensionContext context) {
+        ExtensionContext classContext = context;
+        while (classContext.getTestMethod().isPresent() && classContext.getParent().isPresent()) {
+            classContext = classContext.getParent().get();
+        }
+        return classContext.getStore(NAMESPACE);
+    }
+}
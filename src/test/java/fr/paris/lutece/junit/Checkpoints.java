@@ -0,0 +1,186 @@
+package fr.paris.lutece.junit;
+
+import fr.paris.lutece.config.ScenarioContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Checkpoints des suites ordonnees : etat du scenario (fichiers {@link ScenarioContext})
+ * et dump de la base MariaDB apres chaque classe reussie, sous target/checkpoints/&lt;suite&gt;/&lt;classe&gt;.
+ * Desactives par defaut : -Dcheckpoint.enabled=true.
+ *
+ * Avec -Dresume.from=&lt;Classe&gt;, le checkpoint de la classe precedente dans la suite en cours
+ * est restaure et les classes anterieures de la suite sont ignorees (voir {@link CheckpointExtension}).
+ * Sans checkpoint a restaurer, la reprise echoue immediatement.
+ * Le dump n'est disponible qu'en mode conteneur ; en mode externe seul l'etat du scenario est restaure.
+ * Le mot de passe root est lu dans l'environnement du conteneur (MYSQL_PWD), jamais passe en argument.
+ */
+public final class Checkpoints {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Checkpoints.class);
+
+    private static final Path CHECKPOINTS_DIR = Paths.get("target/checkpoints");
+    private static final String DUMP_FILE = "database.sql";
+    private static final String CONTAINER_DUMP_PATH = "/tmp/e2e-checkpoint.sql";
+    // Mot de passe root fixe par Testcontainers dans l'environnement du conteneur
+    private static final String ROOT_PASSWORD = "MYSQL_PWD=\"$MYSQL_ROOT_PASSWORD\"";
+
+    private static MariaDBContainer<?> database;
+    private static boolean scenarioRestored = false;
+
+    private Checkpoints() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("checkpoint.enabled", "false"));
+    }
+
+    /**
+     * Classe de reprise demandee (-Dresume.from), nom simple ou qualifie.
+     */
+    public static String resumeFrom() {
+        String value = System.getProperty("resume.from", "").trim();
+        if (value.isEmpty() || value.contains(".")) {
+            return value;
+        }
+        for (String className : SuiteGraph.get().getTestClasses()) {
+            if (className.endsWith("." + value)) {
+                return className;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Declare la base a sauvegarder/restaurer. Appele par ContainerSetup apres le demarrage de MariaDB.
+     */
+    public static void attachDatabase(MariaDBContainer<?> mariadb) {
+        database = mariadb;
+    }
+
+    /**
+     * Sauvegarde l'etat du scenario et la base apres la reussite d'une classe de la suite.
+     */
+    public static void save(String suite, String className) {
+        Path dir = directory(suite, className);
+        long start = System.currentTimeMillis();
+        try {
+            Files.createDirectories(dir);
+            for (Path file : ScenarioContext.FILES) {
+                if (Files.exists(file)) {
+                    Files.copy(file, dir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (database != null && database.isRunning()) {
+                dumpDatabase(dir.resolve(DUMP_FILE));
+            }
+            LOGGER.info("Checkpoint {} sauvegarde en {} ms", className, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            LOGGER.warn("Checkpoint {} non sauvegarde: {}", className, e.getMessage());
+        }
+    }
+
+    /**
+     * Checkpoint a restaurer pour la reprise : celui de la derniere classe precedant
+     * la classe de reprise dans la suite, null s'il n'existe pas.
+     */
+    static Path checkpointToRestore(String suite) {
+        String resumeFrom = resumeFrom();
+        if (resumeFrom.isEmpty() || suite == null) {
+            return null;
+        }
+        List<String> predecessors = SuiteGraph.get().predecessors(suite, resumeFrom);
+        for (int i = predecessors.size() - 1; i >= 0; i--) {
+            Path dir = directory(suite, predecessors.get(i));
+            if (Files.isDirectory(dir)) {
+                return dir;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Restaure le dump de la base avant le demarrage de Lutece (Liquibase le trouve alors a jour).
+     * Sans reprise demandee, ne fait rien ; sans dump pour la suite en cours, echoue.
+     */
+    public static void restoreDatabase(MariaDBContainer<?> mariadb) {
+        if (resumeFrom().isEmpty()) {
+            return;
+        }
+        String suite = RunningSuite.name();
+        Path checkpoint = checkpointToRestore(suite);
+        if (checkpoint == null || !Files.exists(checkpoint.resolve(DUMP_FILE))) {
+            throw new IllegalStateException("Aucun dump a restaurer pour reprendre " + suite + " depuis "
+                + resumeFrom() + " : relancer la suite complete avec -Dcheckpoint.enabled=true");
+        }
+        long start = System.currentTimeMillis();
+        try {
+            mariadb.copyFileToContainer(MountableFile.forHostPath(checkpoint.resolve(DUMP_FILE)), CONTAINER_DUMP_PATH);
+            Container.ExecResult result = mariadb.execInContainer("sh", "-c",
+                ROOT_PASSWORD + " mariadb -uroot " + mariadb.getDatabaseName() + " < " + CONTAINER_DUMP_PATH);
+            if (result.getExitCode() != 0) {
+                throw new IllegalStateException(result.getStderr());
+            }
+            LOGGER.info("Base restauree depuis {} en {} ms", checkpoint, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            throw new RuntimeException("Restauration du checkpoint " + checkpoint + " impossible", e);
+        }
+    }
+
+    /**
+     * Restaure l'etat du scenario de la suite (une seule fois par JVM) ; echoue sans checkpoint.
+     * En mode conteneur, la session enregistree appartient a l'ancien serveur : elle est ecartee
+     * et les classes suivantes refont un login.
+     */
+    static synchronized void restoreScenario(String suite) {
+        if (scenarioRestored) {
+            return;
+        }
+        Path checkpoint = checkpointToRestore(suite);
+        if (checkpoint == null) {
+            throw new IllegalStateException("Aucun checkpoint pour reprendre " + suite + " depuis " + resumeFrom()
+                + " : relancer la suite complete avec -Dcheckpoint.enabled=true");
+        }
+        scenarioRestored = true;
+        try {
+            for (Path file : ScenarioContext.FILES) {
+                Path saved = checkpoint.resolve(file.getFileName());
+                if (Files.exists(saved)) {
+                    Files.createDirectories(file.getParent());
+                    Files.copy(saved, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (database != null) {
+                Files.deleteIfExists(ScenarioContext.AUTH_STATE_PATH);
+            }
+            LOGGER.info("Scenario restaure depuis {} (suffixe {}, formulaire {})",
+                checkpoint, ScenarioContext.readRunSuffix(), ScenarioContext.readFormId());
+        } catch (IOException e) {
+            throw new RuntimeException("Restauration du checkpoint " + checkpoint + " impossible", e);
+        }
+    }
+
+    private static Path directory(String suite, String className) {
+        return CHECKPOINTS_DIR.resolve(suite).resolve(className);
+    }
+
+    private static void dumpDatabase(Path target) throws IOException, InterruptedException {
+        Container.ExecResult result = database.execInContainer("sh", "-c",
+            ROOT_PASSWORD + " mariadb-dump -uroot --single-transaction --routines " + database.getDatabaseName()
+                + " > " + CONTAINER_DUMP_PATH);
+        if (result.getExitCode() != 0) {
+            throw new IOException("mariadb-dump: " + result.getStderr());
+        }
+        database.copyFileFromContainer(CONTAINER_DUMP_PATH, target.toString());
+    }
+}
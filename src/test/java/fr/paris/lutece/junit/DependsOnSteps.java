@@ -0,0 +1,22 @@
+package fr.paris.lutece.junit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Precise les etapes (@Order) dont depend un test d'une classe ordonnee.
+ *
+ * Sans cette annotation, {@link FailFastExtension} considere qu'une etape depend de toutes
+ * les etapes precedentes. Une liste vide declare une etape independante.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DependsOnSteps {
+
+    /**
+     * Valeurs @Order des etapes prealables.
+     */
+    int[] value();
+}
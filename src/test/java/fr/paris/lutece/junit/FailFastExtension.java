@@ -0,0 +1,176 @@
+package fr.paris.lutece.junit;
+
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.*;
+import org.junit.platform.engine.UniqueId;
+import org.opentest4j.TestAbortedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Extension JUnit qui ignore immediatement les etapes dont un prerequis a echoue,
+ * au lieu de les laisser attendre des elements qui n'apparaitront jamais.
+ *
+ * - Dans une classe @TestMethodOrder, une etape depend des etapes precedentes
+ *   (ou de celles listees par {@link DependsOnSteps}).
+ * - Entre classes, une classe depend de celles qui la precedent dans la suite en cours ({@link SuiteGraph}).
+ *
+ * Les echecs sont memorises par suite (identifiant unique du segment suite) : une classe partagee
+ * par deux suites ne fait pas ignorer la seconde. Un test interrompu par une hypothese
+ * (TestAbortedException, Assumptions.assumeTrue) n'est pas un echec.
+ *
+ * Chaque etape ignoree est tracee avec sa cause dans target/fail-fast-report.txt.
+ * Desactivation : -Dfailfast.enabled=false
+ */
+public class FailFastExtension implements ExecutionCondition, AfterTestExecutionCallback,
+        LifecycleMethodExecutionExceptionHandler, AfterAllCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FailFastExtension.class);
+
+    private static final Path REPORT_PATH = Paths.get("target/fail-fast-report.txt");
+
+    // Classes en echec, par suite (suite/classe) -> cause
+    private static final Map<String, String> FAILED_CLASSES = new ConcurrentHashMap<>();
+    // Etapes en echec par suite/classe -> (@Order -> cause)
+    private static final Map<String, Map<Integer, String>> FAILED_STEPS = new ConcurrentHashMap<>();
+
+    private static boolean reportReset = false;
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!Boolean.parseBoolean(System.getProperty("failfast.enabled", "true"))) {
+            return ConditionEvaluationResult.enabled("fail-fast desactive");
+        }
+        String className = context.getRequiredTestClass().getName();
+        UniqueId suite = suiteOf(context);
+
+        if (context.getTestMethod().isEmpty()) {
+            if (suite != null) {
+                String suiteName = suite.getLastSegment().getValue();
+                for (String predecessor : SuiteGraph.get().predecessors(suiteName, className)) {
+                    String cause = FAILED_CLASSES.get(key(suite, predecessor));
+                    if (cause != null) {
+                        FAILED_CLASSES.putIfAbsent(key(suite, className), cause);
+                        return skip(className, simpleName(predecessor), cause);
+                    }
+                }
+            }
+            return ConditionEvaluationResult.enabled("aucun prerequis en echec");
+        }
+
+        Method method = context.getRequiredTestMethod();
+        Integer order = orderOf(method);
+        Map<Integer, String> failedSteps = FAILED_STEPS.getOrDefault(key(suite, className), Map.of());
+        if (order == null || failedSteps.isEmpty()) {
+            return ConditionEvaluationResult.enabled("aucune etape prealable en echec");
+        }
+        DependsOnSteps dependsOn = method.getAnnotation(DependsOnSteps.class);
+        for (Map.Entry<Integer, String> failed : failedSteps.entrySet()) {
+            boolean prerequisite = dependsOn == null
+                ? failed.getKey() < order
+                : Arrays.stream(dependsOn.value()).anyMatch(o -> o == failed.getKey());
+            if (prerequisite) {
+                failedSteps.putIfAbsent(order, failed.getValue());
+                return skip(className + "#" + method.getName(),
+                    simpleName(className) + " etape " + failed.getKey(), failed.getValue());
+            }
+        }
+        return ConditionEvaluationResult.enabled("prerequis reussis");
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        failure(context).ifPresent(error -> {
+            String className = context.getRequiredTestClass().getName();
+            Integer order = orderOf(context.getRequiredTestMethod());
+            String cause = context.getRequiredTestMethod().getName() + ": " + describe(error);
+            String key = key(suiteOf(context), className);
+            FAILED_STEPS.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                .put(order != null ? order : Integer.MAX_VALUE, cause);
+            FAILED_CLASSES.putIfAbsent(key, simpleName(className) + "#" + cause);
+        });
+    }
+
+    @Override
+    public void handleBeforeAllMethodExecutionException(ExtensionContext context, Throwable throwable)
+            throws Throwable {
+        if (!(throwable instanceof TestAbortedException)) {
+            String className = context.getRequiredTestClass().getName();
+            FAILED_CLASSES.putIfAbsent(key(suiteOf(context), className),
+                simpleName(className) + " @BeforeAll: " + describe(throwable));
+        }
+        throw throwable;
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        failure(context).ifPresent(error -> {
+            String className = context.getRequiredTestClass().getName();
+            FAILED_CLASSES.putIfAbsent(key(suiteOf(context), className), simpleName(className) + ": " + describe(error));
+        });
+    }
+
+    /**
+     * Exception d'execution hors hypotheses non verifiees.
+     */
+    private static Optional<Throwable> failure(ExtensionContext context) {
+        return context.getExecutionException().filter(error -> !(error instanceof TestAbortedException));
+    }
+
+    private static UniqueId suiteOf(ExtensionContext context) {
+        return SuiteGraph.enclosingSuite(context.getUniqueId());
+    }
+
+    private static String key(UniqueId suite, String className) {
+        return suite == null ? className : suite + "/" + className;
+    }
+
+    private static ConditionEvaluationResult skip(String skipped, String prerequisite, String cause) {
+        String reason = "Prerequis en echec (" + prerequisite + ") <- " + cause;
+        LOGGER.warn("Ignore {} : {}", skipped, reason);
+        appendReport(skipped + " ignore : " + reason);
+        return ConditionEvaluationResult.disabled(reason);
+    }
+
+    private static synchronized void appendReport(String line) {
+        try {
+            Files.createDirectories(REPORT_PATH.getParent());
+            if (!reportReset) {
+                Files.deleteIfExists(REPORT_PATH);
+                reportReset = true;
+            }
+            Files.writeString(REPORT_PATH, line + System.lineSeparator(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.debug("Rapport fail-fast non ecrit: {}", e.getMessage());
+        }
+    }
+
+    private static Integer orderOf(Method method) {
+        Order order = method.getAnnotation(Order.class);
+        return order != null ? order.value() : null;
+    }
+
+    private static String describe(Throwable error) {
+        String message = error.getMessage();
+        if (message != null && message.contains("\n")) {
+            message = message.substring(0, message.indexOf('\n'));
+        }
+        return error.getClass().getSimpleName() + (message != null ? " - " + message : "");
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,146 @@
+package fr.paris.lutece.junit;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Video;
+import fr.paris.lutece.config.Artifacts;
+import fr.paris.lutece.config.BrowserSession;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.*;
+import org.opentest4j.TestAbortedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extension JUnit qui ne persiste les artefacts de debug qu'en cas d'echec.
+ *
+ * Chaque test enregistre un chunk de trace Playwright (abandonne s'il reussit). En cas d'echec,
+ * la trace, une capture pleine page et les captures de debug memorisees ({@link Artifacts#capture})
+ * sont archivees dans target/artifacts/&lt;Classe&gt;/&lt;methode&gt;.zip. Les videos des contextes
+ * fermes ({@link Artifacts#newContext}), disponibles a leur fermeture, ne sont conservees que si un
+ * test de la classe (ou de la methode) a echoue ; elles sont supprimees sinon. Un test ignore
+ * (hypothese non verifiee) n'est pas un echec.
+ */
+public class FailureArtifactsExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback,
+        AfterEachCallback, AfterAllCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FailureArtifactsExtension.class);
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+        ExtensionContext.Namespace.create(FailureArtifactsExtension.class);
+    private static final String FAILED = "failed";
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        BrowserSession session = session(context);
+        if (session == null || session.getBrowserContext() == null) {
+            return;
+        }
+        Artifacts.startTrace(session.getBrowserContext(), context.getDisplayName());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        BrowserSession session = session(context);
+        if (session == null) {
+            return;
+        }
+        BrowserContext browserContext = session.getBrowserContext();
+        Page page = session.getPage();
+        boolean failed = context.getExecutionException()
+            .filter(error -> !(error instanceof TestAbortedException))
+            .isPresent();
+
+        Path trace = Artifacts.stopTrace(browserContext, failed);
+        if (!failed) {
+            Artifacts.drainCaptures(page);
+            return;
+        }
+        contextStore(context).put(FAILED, Boolean.TRUE);
+
+        Map<String, Object> entries = new LinkedHashMap<>();
+        if (page != null && !page.isClosed()) {
+            try {
+                entries.put("failure.png", page.screenshot(new Page.ScreenshotOptions().setFullPage(true)));
+            } catch (Exception e) {
+                LOGGER.debug("Capture d'echec impossible: {}", e.getMessage());
+            }
+        }
+        for (Map.Entry<String, byte[]> capture : Artifacts.drainCaptures(page)) {
+            entries.put("captures/" + capture.getKey(), capture.getValue());
+        }
+        if (trace != null) {
+            entries.put("trace.zip", trace);
+        }
+        Artifacts.persist(context.getRequiredTestClass().getSimpleName(),
+            context.getRequiredTestMethod().getName(), entries);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (!isPerClass(context)) {
+            finishVideo(context, context.getRequiredTestMethod().getName() + "-video");
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        if (isPerClass(context)) {
+            finishVideo(context, "video");
+        }
+    }
+
+    /**
+     * Les contextes sont fermes a ce stade : leurs videos sont archivees si un test a echoue, supprimees sinon.
+     */
+    private void finishVideo(ExtensionContext context, String name) {
+        boolean failed = contextStore(context).remove(FAILED) != null;
+        List<Video> videos = Artifacts.drainVideos();
+        if (videos.isEmpty()) {
+            return;
+        }
+        try {
+            if (failed) {
+                Map<String, Object> entries = new LinkedHashMap<>();
+                for (int i = 0; i < videos.size(); i++) {
+                    entries.put(i == 0 ? "video.webm" : "video-" + (i + 1) + ".webm", videos.get(i).path());
+                }
+                Artifacts.persist(context.getRequiredTestClass().getSimpleName(), name, entries);
+            } else {
+                for (Video video : videos) {
+                    video.delete();
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Video non traitee: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Store partage par tous les tests d'un meme contexte navigateur (classe ou methode).
+     */
+    private ExtensionContext.Store contextStore(ExtensionContext context) {
+        ExtensionContext owner = context;
+        if (isPerClass(context) && context.getTestMethod().isPresent()) {
+            owner = context.getParent().orElse(context);
+        }
+        return owner.getStore(NAMESPACE);
+    }
+
+    private boolean isPerClass(ExtensionContext context) {
+        return context.getTestInstanceLifecycle().orElse(TestInstance.Lifecycle.PER_METHOD)
+            == TestInstance.Lifecycle.PER_CLASS;
+    }
+
+    private BrowserSession session(ExtensionContext context) {
+        return context.getTestInstance()
+            .filter(BrowserSession.class::isInstance)
+            .map(BrowserSession.class::cast)
+            .orElse(null);
+    }
+}
@@ -0,0 +1,53 @@
+package fr.paris.lutece.junit;
+
+import fr.paris.lutece.config.HarRecording;
+import fr.paris.lutece.config.ScenarioContext;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.*;
+
+/**
+ * Nomme les enregistrements HAR d'apres la classe (ou la methode) de test et ecrit
+ * leurs metadonnees une fois les contextes fermes.
+ */
+public class HarRecordingExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback,
+        AfterAllCallback {
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        HarRecording.setCurrentName(context.getRequiredTestClass().getSimpleName());
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!isPerClass(context)) {
+            HarRecording.setCurrentName(name(context));
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (!isPerClass(context)) {
+            writeMetadata(name(context));
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        writeMetadata(context.getRequiredTestClass().getSimpleName());
+    }
+
+    private void writeMetadata(String name) {
+        if (HarRecording.isEnabled()) {
+            HarRecording.writeMetadata(name, ScenarioContext.readRunSuffix());
+        }
+    }
+
+    private String name(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "-" + context.getRequiredTestMethod().getName();
+    }
+
+    private boolean isPerClass(ExtensionContext context) {
+        return context.getTestInstanceLifecycle().orElse(TestInstance.Lifecycle.PER_METHOD)
+            == TestInstance.Lifecycle.PER_CLASS;
+    }
+}
@@ -0,0 +1,42 @@
+package fr.paris.lutece.junit;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.Optional;
+
+/**
+ * Suite en cours d'execution, pour le code qui n'a pas acces au contexte JUnit
+ * (ContainerSetup restaure le checkpoint de sa suite avant le demarrage de Lutece).
+ * Enregistre via META-INF/services/org.junit.platform.launcher.TestExecutionListener.
+ */
+public class RunningSuite implements TestExecutionListener {
+
+    private static volatile String current;
+
+    /**
+     * Nom qualifie de la suite en cours, null hors suite.
+     */
+    public static String name() {
+        return current;
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        suiteOf(testIdentifier).ifPresent(suite -> current = suite);
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+        suiteOf(testIdentifier).filter(suite -> suite.equals(current)).ifPresent(suite -> current = null);
+    }
+
+    private static Optional<String> suiteOf(TestIdentifier testIdentifier) {
+        return testIdentifier.getSource()
+            .filter(ClassSource.class::isInstance)
+            .map(source -> ((ClassSource) source).getClassName())
+            .filter(name -> SuiteGraph.get().isSuite(name));
+    }
+}
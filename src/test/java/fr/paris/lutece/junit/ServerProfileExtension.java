@@ -0,0 +1,32 @@
+package fr.paris.lutece.junit;
+
+import fr.paris.lutece.monitoring.ServerProfile;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.nio.file.Paths;
+
+/**
+ * Profil serveur de la JVM Lutece par classe de test ({@link ServerProfile}) -> target/profiles.
+ *
+ * Le profil demarre au premier test de la classe (les conteneurs de ContainerBaseTest ne sont
+ * demarres qu'apres les callbacks BeforeAll des extensions) et s'arrete a la fin de la classe.
+ */
+public class ServerProfileExtension implements BeforeEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+        ExtensionContext.Namespace.create(ServerProfileExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!ServerProfile.isAvailable()) {
+            return;
+        }
+        ExtensionContext classContext = context.getParent().orElse(context);
+        String className = context.getRequiredTestClass().getSimpleName();
+        classContext.getStore(NAMESPACE).getOrComputeIfAbsent("profile", key -> {
+            ServerProfile profile = ServerProfile.start(className, Paths.get("target/profiles"));
+            return (ExtensionContext.Store.CloseableResource) profile::close;
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package fr.paris.lutece.junit;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Filtre JUnit Platform qui ne conserve que les tests du shard courant.
+ * Inactif tant que -Dshard.count n'est pas superieur a 1.
+ *
+ * Un test appartient a l'unite de sa suite englobante si elle existe, sinon a sa classe :
+ * une suite n'est jamais decoupee entre deux shards.
+ * Enregistre via META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardFilter.class);
+
+    private final ShardPlanner planner;
+    private final int shardIndex;
+
+    public ShardFilter() {
+        int count = ShardPlanner.shardCount();
+        this.shardIndex = ShardPlanner.shardIndex();
+        this.planner = count > 1 ? ShardPlanner.fromSystemProperties() : null;
+        if (planner != null) {
+            LOGGER.info("Sharding actif: shard {}/{} - classes: {}",
+                shardIndex, count, planner.classesOf(shardIndex));
+        }
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (planner == null) {
+            return FilterResult.included("sharding desactive");
+        }
+        String unit = unitOf(descriptor.getUniqueId());
+        if (unit == null) {
+            return FilterResult.included("hors classe de test");
+        }
+        int shard = planner.shardOf(unit);
+        return shard == shardIndex
+            ? FilterResult.included(unit + " -> shard " + shard)
+            : FilterResult.excluded(unit + " -> shard " + shard);
+    }
+
+    /**
+     * Premiere suite englobante, sinon premiere classe du chemin.
+     */
+    private static String unitOf(UniqueId uniqueId) {
+        String firstClass = null;
+        for (UniqueId.Segment segment : uniqueId.getSegments()) {
+            if ("suite".equals(segment.getType())) {
+                return segment.getValue();
+            }
+            if (firstClass == null && "class".equals(segment.getType())) {
+                firstClass = segment.getValue();
+            }
+        }
+        return firstClass;
+    }
+}
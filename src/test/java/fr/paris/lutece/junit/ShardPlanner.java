@@ -0,0 +1,193 @@
+package fr.paris.lutece.junit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Repartit les classes de test en K shards equilibres selon leur duree historique.
+ *
+ * L'unite de repartition est la suite (jamais decoupee, duree = somme de ses classes) ou la classe
+ * de test autonome (*Test, comme l'include de Surefire, hors classes membres d'une suite). Les suites de benchmark ne sont pas
+ * reparties. shard.include / shard.exclude (motifs sur le nom simple, ex. *Container*) restreignent
+ * les unites planifiees. Les unites sont affectees par ordre de duree decroissante au shard le
+ * moins charge (heuristique LPT), ce qui donne un plan deterministe pour un historique donne :
+ * chaque agent ou fork calcule le meme plan et n'execute que son shard.
+ *
+ * Le plan echoue si une classe *Test retenue par les filtres n'est couverte par aucun shard
+ * (ni unite autonome, ni membre d'une suite planifiee).
+ *
+ * Usage:
+ *   mvn test-compile exec:java@shard-plan -Dshard.count=3 -Dshard.index=0
+ *   mvn test -Dtest="$(cat target/shard-plan.txt)" -Dshard.count=3 -Dshard.index=0
+ */
+public final class ShardPlanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardPlanner.class);
+
+    private static final String STANDALONE_SUFFIX = "Test";
+
+    private final int shardCount;
+    private final Map<String, Integer> shardOfUnit = new TreeMap<>();
+    private final long[] loads;
+
+    public ShardPlanner(SuiteGraph graph, TestDurations durations, int shardCount) {
+        this(graph, durations, shardCount, List.of(), List.of());
+    }
+
+    /**
+     * @param includes motifs de noms simples retenus (vide : toutes les unites)
+     * @param excludes motifs de noms simples ecartes
+     */
+    public ShardPlanner(SuiteGraph graph, TestDurations durations, int shardCount,
+                        List<String> includes, List<String> excludes) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shard.count doit etre >= 1: " + shardCount);
+        }
+        this.shardCount = shardCount;
+        this.loads = new long[shardCount];
+
+        Map<String, Long> unitWeights = new TreeMap<>();
+        Set<String> expected = new TreeSet<>();
+        Set<String> covered = new TreeSet<>();
+        for (String className : graph.getTestClasses()) {
+            String simpleName = simpleName(className);
+            if (!matches(simpleName, includes, true) || matches(simpleName, excludes, false)) {
+                continue;
+            }
+            if (graph.isSuite(className)) {
+                if (!graph.isBenchmarkSuite(className)) {
+                    List<String> members = graph.getSuites().get(className);
+                    unitWeights.put(className, members.stream().mapToLong(durations::estimate).sum());
+                    covered.addAll(members);
+                }
+            } else if (simpleName.endsWith(STANDALONE_SUFFIX)) {
+                expected.add(className);
+                if (!graph.isSuiteMember(className)) {
+                    unitWeights.put(className, durations.estimate(className));
+                    covered.add(className);
+                }
+            }
+        }
+        expected.removeAll(covered);
+        if (!expected.isEmpty()) {
+            throw new IllegalStateException("Classes de test absentes de tous les shards: " + expected);
+        }
+
+        List<Map.Entry<String, Long>> units = new ArrayList<>(unitWeights.entrySet());
+        units.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+        for (Map.Entry<String, Long> unit : units) {
+            int target = 0;
+            for (int i = 1; i < shardCount; i++) {
+                if (loads[i] < loads[target]) {
+                    target = i;
+                }
+            }
+            shardOfUnit.put(unit.getKey(), target);
+            loads[target] += unit.getValue();
+        }
+    }
+
+    /**
+     * Plan courant, construit a partir des proprietes systeme shard.* et de l'historique.
+     */
+    public static ShardPlanner fromSystemProperties() {
+        return new ShardPlanner(SuiteGraph.get(), TestDurations.load(), shardCount(),
+            patterns("shard.include"), patterns("shard.exclude"));
+    }
+
+    public static int shardCount() {
+        return Integer.parseInt(System.getProperty("shard.count", "1"));
+    }
+
+    public static int shardIndex() {
+        return Integer.parseInt(System.getProperty("shard.index", "0"));
+    }
+
+    /**
+     * Shard auquel appartient l'unite (suite ou classe). Une unite inconnue du plan est repartie par hachage.
+     */
+    public int shardOf(String unit) {
+        Integer shard = shardOfUnit.get(unit);
+        return shard != null ? shard : Math.floorMod(unit.hashCode(), shardCount);
+    }
+
+    /**
+     * Duree estimee (ms) de chaque shard.
+     */
+    public long[] getLoads() {
+        return loads.clone();
+    }
+
+    /**
+     * Unites (suites et classes autonomes) affectees a un shard.
+     */
+    public List<String> classesOf(int shard) {
+        List<String> classes = new ArrayList<>();
+        shardOfUnit.forEach((unit, target) -> {
+            if (target == shard) {
+                classes.add(unit);
+            }
+        });
+        return classes;
+    }
+
+    /**
+     * Affiche le plan de repartition ; avec un argument, ecrit dans ce fichier la liste -Dtest
+     * (noms simples separes par des virgules) du shard shard.index.
+     * Execution : mvn test-compile exec:java@shard-plan -Dshard.count=3 -Dshard.index=0
+     */
+    public static void main(String[] args) throws IOException {
+        ShardPlanner planner = fromSystemProperties();
+        for (int shard = 0; shard < planner.shardCount; shard++) {
+            LOGGER.info("Shard {} (~{} s): {}", shard, planner.loads[shard] / 1000, planner.classesOf(shard));
+        }
+        if (args.length > 0) {
+            Path file = Paths.get(args[0]);
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            String tests = planner.classesOf(shardIndex()).stream()
+                .map(ShardPlanner::simpleName)
+                .collect(Collectors.joining(","));
+            Files.writeString(file, tests);
+            LOGGER.info("Shard {} -> {} : {}", shardIndex(), file, tests.isEmpty() ? "(vide)" : tests);
+        }
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static List<String> patterns(String property) {
+        String value = System.getProperty(property, "").trim();
+        return value.isEmpty() ? List.of() : Arrays.asList(value.split("\\s*,\\s*"));
+    }
+
+    private static boolean matches(String simpleName, List<String> globs, boolean emptyMatches) {
+        if (globs.isEmpty()) {
+            return emptyMatches;
+        }
+        for (String glob : globs) {
+            String regex = Arrays.stream(glob.split("\\*", -1)).map(Pattern::quote).collect(Collectors.joining(".*"));
+            if (simpleName.matches(regex)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
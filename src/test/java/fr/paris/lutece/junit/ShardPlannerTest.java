@@ -0,0 +1,170 @@
+package fr.paris.lutece.junit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.suite.api.SelectClasses;
+import org.junit.platform.suite.api.Suite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests unitaires du plan de repartition, sur un graphe de classes fictives
+ * (classes imbriquees, ignorees par le scan de SuiteGraph et par Surefire).
+ */
+@DisplayName("ShardPlanner : unites, repartition LPT et filtres")
+class ShardPlannerTest {
+
+    private static final SuiteGraph GRAPH = new SuiteGraph(List.of(
+        AlphaTest.class, BetaTest.class, GammaTest.class,
+        SetupStep.class, StepOneTest.class, StepTwoTest.class, SampleSuite.class,
+        SoloTest.class, LoadBenchmark.class, LoadSuite.class));
+
+    @Test
+    @DisplayName("Les unites les plus longues vont au shard le moins charge")
+    void plansLongestUnitsFirst() {
+        ShardPlanner planner = new ShardPlanner(GRAPH, durations(), 2);
+
+        assertArrayEquals(new long[] {70, 55}, planner.getLoads());
+        assertEquals(List.of(AlphaTest.class.getName(), SampleSuite.class.getName()), planner.classesOf(0));
+        assertEquals(List.of(BetaTest.class.getName(), GammaTest.class.getName(), SoloTest.class.getName()),
+            planner.classesOf(1));
+    }
+
+    @Test
+    @DisplayName("Une suite est une unite indivisible, ses membres ne sont pas planifies seuls")
+    void keepsSuitesWhole() {
+        ShardPlanner planner = new ShardPlanner(GRAPH, durations(), 3);
+
+        List<String> units = allUnits(planner, 3);
+        assertTrue(units.contains(SampleSuite.class.getName()));
+        assertFalse(units.contains(StepOneTest.class.getName()));
+        assertFalse(units.contains(SetupStep.class.getName()));
+        assertEquals(units.size(), new TreeSet<>(units).size(), "Unite planifiee deux fois : " + units);
+    }
+
+    @Test
+    @DisplayName("Les suites de benchmark ne sont pas reparties et n'absorbent pas leurs classes *Test")
+    void ignoresBenchmarkSuites() {
+        ShardPlanner planner = new ShardPlanner(GRAPH, durations(), 2);
+
+        List<String> units = allUnits(planner, 2);
+        assertFalse(units.contains(LoadSuite.class.getName()));
+        assertFalse(units.contains(LoadBenchmark.class.getName()));
+        assertTrue(units.contains(SoloTest.class.getName()));
+        assertFalse(GRAPH.isSuiteMember(SoloTest.class.getName()));
+        assertTrue(GRAPH.isSuiteMember(StepOneTest.class.getName()));
+    }
+
+    @Test
+    @DisplayName("shard.include et shard.exclude filtrent les unites sur le nom simple")
+    void filtersUnitsByName() {
+        ShardPlanner included = new ShardPlanner(GRAPH, durations(), 2, List.of("*Alpha*", "*Solo*"), List.of());
+        assertEquals(Set.of(AlphaTest.class.getName(), SoloTest.class.getName()),
+            new TreeSet<>(allUnits(included, 2)));
+
+        ShardPlanner excluded = new ShardPlanner(GRAPH, durations(), 2, List.of(), List.of("*Test$*Test"));
+        assertEquals(Set.of(SampleSuite.class.getName()), new TreeSet<>(allUnits(excluded, 2)));
+    }
+
+    @Test
+    @DisplayName("Le plan echoue si une classe *Test retenue n'est couverte par aucun shard")
+    void failsOnUncoveredClass() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> new ShardPlanner(GRAPH, durations(), 2, List.of("*Step*"), List.of()));
+        assertTrue(error.getMessage().contains(StepOneTest.class.getName()), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Un nombre de shards inferieur a 1 est refuse")
+    void rejectsInvalidShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardPlanner(GRAPH, durations(), 0));
+    }
+
+    private static TestDurations durations() {
+        TestDurations durations = new TestDurations();
+        durations.record(AlphaTest.class.getName(), 50);
+        durations.record(BetaTest.class.getName(), 30);
+        durations.record(GammaTest.class.getName(), 20);
+        durations.record(SetupStep.class.getName(), 4);
+        durations.record(StepOneTest.class.getName(), 8);
+        durations.record(StepTwoTest.class.getName(), 8);
+        durations.record(SoloTest.class.getName(), 5);
+        durations.record(LoadBenchmark.class.getName(), 1000);
+        return durations;
+    }
+
+    private static List<String> allUnits(ShardPlanner planner, int shardCount) {
+        List<String> units = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            units.addAll(planner.classesOf(shard));
+        }
+        return units;
+    }
+
+    static class AlphaTest {
+        @Test
+        void test() {
+        }
+    }
+
+    static class BetaTest {
+        @Test
+        void test() {
+        }
+    }
+
+    static class GammaTest {
+        @Test
+        void test() {
+        }
+    }
+
+    static class SetupStep {
+        @Test
+        void test() {
+        }
+    }
+
+    static class StepOneTest {
+        @Test
+        void test() {
+        }
+    }
+
+    static class StepTwoTest {
+        @Test
+        void test() {
+        }
+    }
+
+    static class SoloTest {
+        @Test
+        void test() {
+        }
+    }
+
+    static class LoadBenchmark {
+        @Test
+        void test() {
+        }
+    }
+
+    @Suite
+    @SelectClasses({SetupStep.class, StepOneTest.class, StepTwoTest.class})
+    static class SampleSuite {
+    }
+
+    @Suite
+    @SelectClasses({SoloTest.class, LoadBenchmark.class})
+    static class LoadSuite {
+    }
+}
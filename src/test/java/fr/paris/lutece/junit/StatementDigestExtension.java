@@ -0,0 +1,175 @@
+package fr.paris.lutece.junit;
+
+import fr.paris.lutece.monitoring.StatementDigests;
+import fr.paris.lutece.monitoring.TestDatabase;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Extension JUnit qui mesure les requetes SQL executees par Lutece pendant chaque test
+ * (performance_schema, statement digests).
+ *
+ * Pour chaque test : top des requetes par latence totale et par lignes examinees dans
+ * target/db-digests/&lt;Classe&gt;/&lt;methode&gt;.txt, et nombre de requetes dans target/query-counts.properties.
+ * Un test dont le nombre de requetes depasse la reference (db/query-count-baseline.properties)
+ * au-dela de la tolerance echoue ; les tests absents de la reference ne sont pas controles.
+ * -Ddb.query.baseline.update=true reecrit la reference.
+ *
+ * Desactivee par defaut (-Ddb.digest.enabled=true), et inactive si aucune base n'est observable
+ * ({@link TestDatabase}).
+ */
+public class StatementDigestExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementDigestExtension.class);
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final boolean ENABLED = CONFIG.getOptionalValue("db.digest.enabled", Boolean.class).orElse(false);
+    private static final int TOP = CONFIG.getOptionalValue("db.digest.top", Integer.class).orElse(10);
+    private static final double TOLERANCE = CONFIG.getOptionalValue("db.query.tolerance", Double.class).orElse(0.2);
+    private static final long SLACK = CONFIG.getOptionalValue("db.query.slack", Long.class).orElse(20L);
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("db.query.baseline.update");
+
+    private static final String BASELINE_RESOURCE = "db/query-count-baseline.properties";
+    private static final Path BASELINE_SOURCE = Paths.get("src/test/resources", BASELINE_RESOURCE);
+    private static final Path DIGESTS_PATH = Paths.get("target/db-digests");
+    private static final Path COUNTS_PATH = Paths.get("target/query-counts.properties");
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+        ExtensionContext.Namespace.create(StatementDigestExtension.class);
+
+    private static Properties baseline;
+    private static final Map<String, Long> COUNTS = new TreeMap<>();
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (!ENABLED || !TestDatabase.isAvailable()) {
+            return;
+        }
+        try (Connection connection = TestDatabase.connect()) {
+            context.getStore(NAMESPACE).put("before", StatementDigests.snapshot(connection, TestDatabase.schema()));
+        } catch (Exception e) {
+            LOGGER.debug("Instantane performance_schema impossible: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        StatementDigests before = context.getStore(NAMESPACE).remove("before", StatementDigests.class);
+        if (before == null) {
+            return;
+        }
+        StatementDigests delta;
+        try (Connection connection = TestDatabase.connect()) {
+            delta = StatementDigests.snapshot(connection, TestDatabase.schema()).since(before);
+        } catch (Exception e) {
+            LOGGER.debug("Instantane performance_schema impossible: {}", e.getMessage());
+            return;
+        }
+
+        String className = context.getRequiredTestClass().getSimpleName();
+        String testKey = className + "#" + context.getRequiredTestMethod().getName();
+        writeReport(className, context.getRequiredTestMethod().getName(), delta);
+        recordCount(testKey, delta.totalCount());
+
+        if (context.getExecutionException().isPresent() || UPDATE_BASELINE) {
+            return;
+        }
+        String reference = baseline().getProperty(testKey);
+        if (reference != null) {
+            long expected = Long.parseLong(reference.trim());
+            long limit = Math.round(expected * (1 + TOLERANCE)) + SLACK;
+            if (delta.totalCount() > limit) {
+                throw new AssertionFailedError(String.format(
+                    "Regression du nombre de requetes SQL pour %s : %d (reference %d, limite %d). Voir %s",
+                    testKey, delta.totalCount(), expected, limit, DIGESTS_PATH.resolve(className)));
+            }
+        }
+    }
+
+    private void writeReport(String className, String methodName, StatementDigests delta) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Requetes: %d - latence totale: %.1f ms - lignes examinees: %d%n",
+            delta.totalCount(), delta.totalLatencyMs(), delta.totalRowsExamined()));
+        appendTop(report, "Top par latence totale", delta.top(StatementDigests.byLatency(), TOP));
+        appendTop(report, "Top par lignes examinees", delta.top(StatementDigests.byRowsExamined(), TOP));
+        appendTop(report, "Top par nombre d'executions (N+1 probables)", delta.top(StatementDigests.byCount(), TOP));
+        try {
+            Path dir = DIGESTS_PATH.resolve(className);
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve(methodName + ".txt"), report);
+        } catch (IOException e) {
+            LOGGER.warn("Rapport SQL non ecrit pour {}.{}: {}", className, methodName, e.getMessage());
+        }
+    }
+
+    private static void appendTop(StringBuilder report, String title, List<StatementDigests.Digest> digests) {
+        report.append(System.lineSeparator()).append("== ").append(title).append(" ==").append(System.lineSeparator());
+        report.append(String.format("%8s %10s %12s %10s  %s%n", "exec", "total ms", "examinees", "envoyees", "requete"));
+        for (StatementDigests.Digest digest : digests) {
+            report.append(String.format(Locale.ROOT, "%8d %10.1f %12d %10d  %s%n",
+                digest.count(), digest.totalLatencyMs(), digest.rowsExamined(), digest.rowsSent(),
+                digest.text() == null ? "?" : digest.text().replaceAll("\\s+", " ")));
+        }
+    }
+
+    private static synchronized void recordCount(String testKey, long count) {
+        COUNTS.put(testKey, count);
+        write(COUNTS_PATH, COUNTS, "Nombre de requetes SQL par test (dernier run)");
+        if (UPDATE_BASELINE) {
+            Map<String, Long> updated = new TreeMap<>();
+            baseline().forEach((k, v) -> updated.put((String) k, Long.parseLong(((String) v).trim())));
+            updated.put(testKey, count);
+            baseline().setProperty(testKey, String.valueOf(count));
+            write(BASELINE_SOURCE, updated, "Nombre de requetes SQL de reference par test (StatementDigestExtension)");
+        }
+    }
+
+    private static synchronized Properties baseline() {
+        if (baseline == null) {
+            baseline = new Properties();
+            try (InputStream in = StatementDigestExtension.class.getClassLoader().getResourceAsStream(BASELINE_RESOURCE)) {
+                if (in != null) {
+                    baseline.load(in);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Reference du nombre de requetes illisible: {}", e.getMessage());
+            }
+        }
+        return baseline;
+    }
+
+    private static void write(Path file, Map<String, Long> values, String comment) {
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                // Ordre stable pour faciliter les diffs
+                writer.write("# " + comment + System.lineSeparator());
+                for (Map.Entry<String, Long> entry : values.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + System.lineSeparator());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Fichier {} non ecrit: {}", file, e.getMessage());
+        }
+    }
+}
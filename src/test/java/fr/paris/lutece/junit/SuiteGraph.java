@@ -0,0 +1,176 @@
+package fr.paris.lutece.junit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.suite.api.SelectClasses;
+import org.junit.platform.suite.api.Suite;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Graphe des dependances entre classes de test, deduit des suites (@SelectClasses).
+ *
+ * Dans une suite, chaque classe depend des classes qui la precedent (etat partage via
+ * target/ : suffixe, id du formulaire, authentification) : une suite s'execute en entier dans
+ * une meme JVM. Deux suites qui partagent une classe (ContainerSetup, RbacConfigurationTestt...)
+ * restent independantes : chacune rejoue ses propres etapes.
+ *
+ * Les benchmarks (*Benchmark) ne sont pas des classes de test : ils sont lances explicitement,
+ * par leur suite Container*Suite.
+ */
+public final class SuiteGraph {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SuiteGraph.class);
+
+    private static final String ROOT_PACKAGE = "fr.paris.lutece";
+    private static final String BENCHMARK_SUFFIX = "Benchmark";
+
+    private static SuiteGraph instance;
+
+    private final Set<String> testClasses = new TreeSet<>();
+    private final Map<String, List<String>> suites = new TreeMap<>();
+
+    SuiteGraph(Collection<Class<?>> classes) {
+        for (Class<?> clazz : classes) {
+            if (clazz.isAnnotationPresent(Suite.class) && clazz.isAnnotationPresent(SelectClasses.class)) {
+                List<String> members = Arrays.stream(clazz.getAnnotation(SelectClasses.class).value())
+                    .map(Class::getName)
+                    .collect(Collectors.toList());
+                suites.put(clazz.getName(), members);
+                testClasses.add(clazz.getName());
+            } else if (hasTestMethods(clazz) && !isBenchmark(clazz.getName())) {
+                testClasses.add(clazz.getName());
+            }
+        }
+    }
+
+    /**
+     * Retourne le graphe des classes de test du projet (calcule une seule fois).
+     */
+    public static synchronized SuiteGraph get() {
+        if (instance == null) {
+            instance = new SuiteGraph(scanTestClasses());
+            LOGGER.debug("SuiteGraph: {} classes, {} suites", instance.testClasses.size(), instance.suites.size());
+        }
+        return instance;
+    }
+
+    /**
+     * Classes de test connues (suites comprises).
+     */
+    public Set<String> getTestClasses() {
+        return Collections.unmodifiableSet(testClasses);
+    }
+
+    /**
+     * Suites connues et leurs classes, dans l'ordre d'execution.
+     */
+    public Map<String, List<String>> getSuites() {
+        return Collections.unmodifiableMap(suites);
+    }
+
+    public boolean isSuite(String className) {
+        return suites.containsKey(className);
+    }
+
+    /**
+     * Vrai si la classe fait partie d'au moins une suite hors benchmark (elle depend alors des etapes
+     * qui la precedent). Les suites de benchmark n'etant pas reparties, y figurer ne compte pas.
+     */
+    public boolean isSuiteMember(String className) {
+        return suites.entrySet().stream()
+            .anyMatch(suite -> !isBenchmarkSuite(suite.getKey()) && suite.getValue().contains(className));
+    }
+
+    /**
+     * Vrai si la suite lance un benchmark (tir de charge lance explicitement, jamais reparti).
+     */
+    public boolean isBenchmarkSuite(String suiteName) {
+        return suiteName != null && suites.getOrDefault(suiteName, List.of()).stream().anyMatch(SuiteGraph::isBenchmark);
+    }
+
+    /**
+     * Classes qui precedent la classe donnee dans la suite, dans l'ordre d'execution.
+     */
+    public List<String> predecessors(String suiteName, String className) {
+        List<String> members = suites.getOrDefault(suiteName, List.of());
+        int index = members.indexOf(className);
+        return index <= 0 ? List.of() : members.subList(0, index);
+    }
+
+    /**
+     * Identifiant unique de la suite la plus proche qui englobe le test, null hors suite.
+     * La valeur du dernier segment est le nom qualifie de la suite.
+     */
+    static UniqueId enclosingSuite(String uniqueId) {
+        UniqueId id = UniqueId.parse(uniqueId);
+        while (id.getSegments().size() > 1) {
+            if ("suite".equals(id.getLastSegment().getType())) {
+                return id;
+            }
+            id = id.removeLastSegment();
+        }
+        return null;
+    }
+
+    static boolean isBenchmark(String className) {
+        return className.endsWith(BENCHMARK_SUFFIX);
+    }
+
+    private static boolean hasTestMethods(Class<?> clazz) {
+        if (Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface()) {
+            return false;
+        }
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Test.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Class<?>> scanTestClasses() {
+        List<Class<?>> classes = new ArrayList<>();
+        try {
+            Path root = Paths.get(SuiteGraph.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            Path packageDir = root.resolve(ROOT_PACKAGE.replace('.', '/'));
+            if (!Files.isDirectory(packageDir)) {
+                return classes;
+            }
+            try (Stream<Path> files = Files.walk(packageDir)) {
+                files.filter(f -> f.toString().endsWith(".class") && !f.getFileName().toString().contains("$"))
+                    .map(f -> root.relativize(f).toString().replace('/', '.').replace('\\', '.'))
+                    .map(name -> name.substring(0, name.length() - ".class".length()))
+                    .sorted()
+                    .forEach(name -> {
+                        try {
+                            classes.add(Class.forName(name, false, SuiteGraph.class.getClassLoader()));
+                        } catch (Throwable e) {
+                            LOGGER.debug("Classe ignoree {}: {}", name, e.getMessage());
+                        }
+                    });
+            }
+        } catch (URISyntaxException | java.io.IOException | SecurityException e) {
+            LOGGER.warn("Impossible de scanner les classes de test: {}", e.getMessage());
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,53 @@
+package fr.paris.lutece.junit;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enregistre la duree de chaque classe de test executee dans l'historique
+ * utilise par {@link ShardPlanner}.
+ * Enregistre via META-INF/services/org.junit.platform.launcher.TestExecutionListener.
+ */
+public class TestDurationRecorder implements TestExecutionListener {
+
+    private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+    private final Map<String, Long> measured = new ConcurrentHashMap<>();
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        classNameOf(testIdentifier).ifPresent(name ->
+            startTimes.put(testIdentifier.getUniqueId(), System.nanoTime()));
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+        Long start = startTimes.remove(testIdentifier.getUniqueId());
+        if (start != null) {
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            classNameOf(testIdentifier).ifPresent(name -> measured.merge(name, durationMs, Math::max));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (measured.isEmpty()) {
+            return;
+        }
+        TestDurations durations = TestDurations.load();
+        measured.forEach(durations::record);
+        durations.save();
+    }
+
+    private static java.util.Optional<String> classNameOf(TestIdentifier testIdentifier) {
+        return testIdentifier.getSource()
+            .filter(ClassSource.class::isInstance)
+            .map(source -> ((ClassSource) source).getClassName())
+            .filter(name -> !SuiteGraph.get().isSuite(name));
+    }
+}
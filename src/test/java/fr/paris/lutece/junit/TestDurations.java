@@ -0,0 +1,121 @@
+package fr.paris.lutece.junit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Historique des durees d'execution par classe de test (en millisecondes).
+ *
+ * Lu depuis target/test-durations.properties (ou -Dshard.durations.file), avec repli sur
+ * le fichier de reference shards/test-durations.properties du classpath.
+ * Les nouvelles mesures sont lissees (moyenne exponentielle) pour absorber les runs atypiques.
+ */
+public final class TestDurations {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestDurations.class);
+
+    private static final String DEFAULT_FILE = "target/test-durations.properties";
+    private static final String REFERENCE_RESOURCE = "shards/test-durations.properties";
+    private static final double SMOOTHING = 0.3;
+    private static final long DEFAULT_DURATION_MS = 60_000;
+
+    private final Map<String, Long> durations = new TreeMap<>();
+
+    TestDurations() {
+    }
+
+    public static Path historyFile() {
+        return Paths.get(System.getProperty("shard.durations.file", DEFAULT_FILE));
+    }
+
+    /**
+     * Charge l'historique (fichier local, sinon reference du classpath).
+     */
+    public static TestDurations load() {
+        TestDurations result = new TestDurations();
+        Properties properties = new Properties();
+        Path file = historyFile();
+        try {
+            if (Files.exists(file)) {
+                try (Reader reader = Files.newBufferedReader(file)) {
+                    properties.load(reader);
+                }
+            } else {
+                try (InputStream in = TestDurations.class.getClassLoader().getResourceAsStream(REFERENCE_RESOURCE)) {
+                    if (in != null) {
+                        properties.load(in);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Historique des durees illisible ({}): {}", file, e.getMessage());
+        }
+        for (String name : properties.stringPropertyNames()) {
+            try {
+                result.durations.put(name, Long.parseLong(properties.getProperty(name).trim()));
+            } catch (NumberFormatException e) {
+                LOGGER.debug("Duree invalide pour {}: {}", name, properties.getProperty(name));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Duree estimee d'une classe ; a defaut d'historique, la mediane des durees connues.
+     */
+    public long estimate(String className) {
+        Long known = durations.get(className);
+        if (known != null) {
+            return known;
+        }
+        if (durations.isEmpty()) {
+            return DEFAULT_DURATION_MS;
+        }
+        List<Long> values = new ArrayList<>(durations.values());
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    /**
+     * Integre une nouvelle mesure a l'historique.
+     */
+    public void record(String className, long durationMs) {
+        Long previous = durations.get(className);
+        long value = previous == null
+            ? durationMs
+            : Math.round(previous * (1 - SMOOTHING) + durationMs * SMOOTHING);
+        durations.put(className, value);
+    }
+
+    public void save() {
+        Path file = historyFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                // Ordre stable pour faciliter les diffs
+                writer.write("# Durees d'execution par classe de test (ms)" + System.lineSeparator());
+                for (Map.Entry<String, Long> entry : durations.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + System.lineSeparator());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Impossible d'ecrire l'historique des durees ({}): {}", file, e.getMessage());
+        }
+    }
+}
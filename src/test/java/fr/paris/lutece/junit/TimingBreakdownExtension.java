@@ -0,0 +1,149 @@
+package fr.paris.lutece.junit;
+
+import com.microsoft.playwright.BrowserContext;
+import fr.paris.lutece.config.BaseTest;
+import fr.paris.lutece.config.BrowserSession;
+import fr.paris.lutece.config.RequestTimings;
+import fr.paris.lutece.monitoring.AccessLog;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+/**
+ * Extension JUnit qui decompose le temps de chaque action des Page Objects en temps serveur,
+ * reseau et navigateur ({@link RequestTimings}, temps serveur lus dans le journal d'acces Liberty).
+ *
+ * Par test : target/timings/&lt;Classe&gt;/&lt;methode&gt;.csv (une ligne par execution d'action).
+ * Tous tests confondus : target/timings/actions.csv (moyennes par action).
+ *
+ * Inactive si timing.breakdown.enabled=false ou si la session n'expose pas de contexte navigateur.
+ * Sans journal d'acces ({@link AccessLog}), tout le temps des requetes est compte en reseau.
+ */
+public class TimingBreakdownExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingBreakdownExtension.class);
+
+    private static final Path TIMINGS_PATH = Paths.get("target/timings");
+    private static final long ACCESS_LOG_DELAY_MS = 500;
+
+    /**
+     * Cumul par action sur l'ensemble des tests.
+     */
+    private static final class Totals {
+        long count;
+        long requests;
+        long unmatched;
+        double total;
+        double server;
+        double network;
+        double client;
+    }
+
+    private static final Map<String, Totals> TOTALS = new TreeMap<>();
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        BrowserContext browserContext = browserContext(context);
+        if (browserContext != null) {
+            RequestTimings.install(browserContext, BaseTest.getBaseUrl());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        BrowserContext browserContext = browserContext(context);
+        if (browserContext == null) {
+            return;
+        }
+        // Liberty ecrit son journal d'acces en differe : une seconde lecture si des requetes manquent
+        AccessLog.refresh();
+        if (AccessLog.isAvailable() && !RequestTimings.pendingRequestIds(browserContext).stream().allMatch(AccessLog::contains)) {
+            try {
+                Thread.sleep(ACCESS_LOG_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            AccessLog.refresh();
+        }
+        List<RequestTimings.ActionTiming> timings = RequestTimings.drain(browserContext, id -> {
+            OptionalLong micros = AccessLog.serverMicros(id);
+            return micros.isPresent() ? micros.getAsLong() : null;
+        });
+        if (timings.isEmpty()) {
+            return;
+        }
+        writeTest(context.getRequiredTestClass().getSimpleName(), context.getRequiredTestMethod().getName(), timings);
+        record(timings);
+    }
+
+    private static BrowserContext browserContext(ExtensionContext context) {
+        if (!RequestTimings.isEnabled()) {
+            return null;
+        }
+        return context.getTestInstance()
+            .filter(BrowserSession.class::isInstance)
+            .map(instance -> ((BrowserSession) instance).getBrowserContext())
+            .orElse(null);
+    }
+
+    private static void writeTest(String className, String methodName, List<RequestTimings.ActionTiming> timings) {
+        try {
+            Path dir = TIMINGS_PATH.resolve(className);
+            Files.createDirectories(dir);
+            try (Writer writer = Files.newBufferedWriter(dir.resolve(methodName + ".csv"))) {
+                writer.write("action,total_ms,server_ms,network_ms,client_ms,requests,unmatched" + System.lineSeparator());
+                for (RequestTimings.ActionTiming timing : timings) {
+                    writer.write(String.format(Locale.ROOT, "%s,%.1f,%.1f,%.1f,%.1f,%d,%d%n",
+                        timing.action(), timing.totalMs(), timing.serverMs(), timing.networkMs(), timing.clientMs(),
+                        timing.requests(), timing.unmatched()));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Decomposition des temps non ecrite pour {}.{}: {}", className, methodName, e.getMessage());
+        }
+    }
+
+    private static synchronized void record(List<RequestTimings.ActionTiming> timings) {
+        for (RequestTimings.ActionTiming timing : timings) {
+            Totals totals = TOTALS.computeIfAbsent(timing.action(), action -> new Totals());
+            totals.count++;
+            totals.requests += timing.requests();
+            totals.unmatched += timing.unmatched();
+            totals.total += timing.totalMs();
+            totals.server += timing.serverMs();
+            totals.network += timing.networkMs();
+            totals.client += timing.clientMs();
+        }
+        Path file = TIMINGS_PATH.resolve("actions.csv");
+        try {
+            Files.createDirectories(TIMINGS_PATH);
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                writer.write("action,count,total_avg_ms,server_avg_ms,network_avg_ms,client_avg_ms,server_share,"
+                    + "requests_avg,unmatched" + System.lineSeparator());
+                for (Map.Entry<String, Totals> entry : TOTALS.entrySet()) {
+                    Totals totals = entry.getValue();
+                    double parts = totals.server + totals.network + totals.client;
+                    writer.write(String.format(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f,%.1f,%.2f,%.1f,%d%n",
+                        entry.getKey(), totals.count, totals.total / totals.count, totals.server / totals.count,
+                        totals.network / totals.count, totals.client / totals.count,
+                        parts > 0 ? totals.server / parts : 0, totals.requests / (double) totals.count, totals.unmatched));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Fichier {} non ecrit: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package fr.paris.lutece.junit;
+
+import fr.paris.lutece.config.TraceContext;
+import fr.paris.lutece.monitoring.OtlpReceiver;
+import fr.paris.lutece.monitoring.TraceSpan;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Extension JUnit qui rassemble, pour chaque action de Page Object du test, les spans exportes par
+ * Liberty dans la trace ouverte par {@link TraceContext} (recepteur {@link OtlpReceiver}).
+ *
+ * Par test : target/traces/&lt;Classe&gt;/&lt;methode&gt;.txt (arbre des spans par action, puis spans les plus
+ * couteux en duree propre) et &lt;methode&gt;-spans.csv (tous les spans).
+ *
+ * Inactive si tracing.enabled=false. Les spans arrivent en differe (export par lots de Liberty) :
+ * l'extension attend jusqu'a tracing.flush.ms que leur nombre se stabilise.
+ */
+public class TraceExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraceExtension.class);
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final long FLUSH_MS = CONFIG.getOptionalValue("tracing.flush.ms", Long.class).orElse(3000L);
+    private static final int TOP = CONFIG.getOptionalValue("tracing.top", Integer.class).orElse(15);
+    private static final long POLL_MS = 250;
+
+    private static final Path TRACES_PATH = Paths.get("target/traces");
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (!TraceContext.isEnabled()) {
+            return;
+        }
+        OtlpReceiver.start();
+        // Actions des @BeforeEach (connexion...) : hors perimetre du test
+        TraceContext.drain();
+        OtlpReceiver.clear();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (!TraceContext.isEnabled()) {
+            return;
+        }
+        List<TraceContext.ActionTrace> actions = TraceContext.drain();
+        if (actions.isEmpty()) {
+            return;
+        }
+        awaitSpans(actions);
+        Map<TraceContext.ActionTrace, List<TraceSpan>> spans = new LinkedHashMap<>();
+        for (TraceContext.ActionTrace action : actions) {
+            spans.put(action, OtlpReceiver.take(action.traceId()));
+        }
+        write(context.getRequiredTestClass().getSimpleName(), context.getRequiredTestMethod().getName(), spans);
+    }
+
+    /**
+     * Attend que le nombre de spans recus cesse d'augmenter, dans la limite de tracing.flush.ms.
+     */
+    private static void awaitSpans(List<TraceContext.ActionTrace> actions) {
+        long deadline = System.currentTimeMillis() + FLUSH_MS;
+        int previous = -1;
+        while (System.currentTimeMillis() < deadline) {
+            int received = actions.stream().mapToInt(action -> OtlpReceiver.count(action.traceId())).sum();
+            if (received > 0 && received == previous) {
+                return;
+            }
+            previous = received;
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void write(String className, String methodName, Map<TraceContext.ActionTrace, List<TraceSpan>> traces) {
+        StringBuilder report = new StringBuilder();
+        StringBuilder csv = new StringBuilder(
+            "action,trace_id,span_id,parent_span_id,service,name,offset_ms,duration_ms,self_ms" + System.lineSeparator());
+        Map<String, double[]> selfByLabel = new HashMap<>();
+
+        for (Map.Entry<TraceContext.ActionTrace, List<TraceSpan>> entry : traces.entrySet()) {
+            TraceContext.ActionTrace action = entry.getKey();
+            List<TraceSpan> spans = new ArrayList<>(entry.getValue());
+            spans.sort(Comparator.comparingLong(TraceSpan::startNanos));
+            Map<String, List<TraceSpan>> children = new HashMap<>();
+            Set<String> ids = new HashSet<>();
+            spans.forEach(span -> ids.add(span.spanId()));
+            for (TraceSpan span : spans) {
+                // Racines cote serveur : enfants du span de l'action, ou parent non recu
+                String parent = ids.contains(span.parentSpanId()) ? span.parentSpanId() : action.spanId();
+                children.computeIfAbsent(parent, id -> new ArrayList<>()).add(span);
+            }
+            double serverMs = children.getOrDefault(action.spanId(), List.of()).stream()
+                .mapToDouble(TraceSpan::durationMs).sum();
+
+            report.append(String.format(Locale.ROOT, "== %s - %.1f ms (serveur %.1f ms, %d spans)%s - trace %s%n",
+                action.action(), action.durationMs(), serverMs, spans.size(), action.failed() ? " - ECHEC" : "",
+                action.traceId()));
+            if (spans.isEmpty()) {
+                report.append("   aucun span recu (telemetry.xml actif ? requetes hors Lutece ?)").append(System.lineSeparator());
+            }
+            appendTree(report, csv, selfByLabel, action, children, action.spanId(), 1);
+            report.append(System.lineSeparator());
+        }
+
+        report.append(String.format("== Top %d par duree propre ==%n", TOP));
+        report.append(String.format("%8s %10s  %s%n", "nombre", "propre ms", "span"));
+        selfByLabel.entrySet().stream()
+            .sorted(Comparator.comparingDouble((Map.Entry<String, double[]> e) -> e.getValue()[1]).reversed())
+            .limit(TOP)
+            .forEach(e -> report.append(String.format(Locale.ROOT, "%8d %10.1f  %s%n",
+                (long) e.getValue()[0], e.getValue()[1], e.getKey())));
+
+        try {
+            Path dir = TRACES_PATH.resolve(className);
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve(methodName + ".txt"), report);
+            try (Writer writer = Files.newBufferedWriter(dir.resolve(methodName + "-spans.csv"))) {
+                writer.write(csv.toString());
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Traces non ecrites pour {}.{}: {}", className, methodName, e.getMessage());
+        }
+    }
+
+    private static void appendTree(StringBuilder report, StringBuilder csv, Map<String, double[]> selfByLabel,
+                                   TraceContext.ActionTrace action, Map<String, List<TraceSpan>> children,
+                                   String parentId, int depth) {
+        for (TraceSpan span : children.getOrDefault(parentId, List.of())) {
+            List<TraceSpan> nested = children.getOrDefault(span.spanId(), List.of());
+            double selfMs = Math.max(0, span.durationMs() - nested.stream().mapToDouble(TraceSpan::durationMs).sum());
+            double offsetMs = (span.startNanos() - action.startNanos()) / 1_000_000.0;
+            report.append(String.format(Locale.ROOT, "%s%8.1f ms  +%.1f  %s%n",
+                "  ".repeat(depth), span.durationMs(), offsetMs, span.label()));
+            csv.append(String.format(Locale.ROOT, "%s,%s,%s,%s,%s,\"%s\",%.1f,%.2f,%.2f%n",
+                action.action(), span.traceId(), span.spanId(), span.parentSpanId(), span.service(),
+                span.label().replace("\"", "\"\""), offsetMs, span.durationMs(), selfMs));
+            double[] totals = selfByLabel.computeIfAbsent(span.label(), label -> new double[2]);
+            totals[0]++;
+            totals[1] += selfMs;
+            appendTree(report, csv, selfByLabel, action, children, span.spanId(), depth + 1);
+        }
+    }
+}
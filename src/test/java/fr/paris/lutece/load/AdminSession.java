@@ -0,0 +1,46 @@
+package fr.paris.lutece.load;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * Connexion au back office au niveau HTTP (equivalent de LoginPage.loginAs).
+ */
+public final class AdminSession {
+
+    private static final String LOGIN_BUTTON = "Se connecter";
+
+    private AdminSession() {
+    }
+
+    /**
+     * Ouvre une session HTTP authentifiee sur le back office.
+     */
+    public static HttpSession login(String baseUrl, String username, String password)
+            throws java.io.IOException, InterruptedException {
+        return login(new HttpSession(), baseUrl, username, password);
+    }
+
+    /**
+     * Authentifie une session existante sur le back office.
+     */
+    public static HttpSession login(HttpSession session, String baseUrl, String username, String password)
+            throws java.io.IOException, InterruptedException {
+        Document loginPage = session.get(baseUrl + "/jsp/admin/AdminLogin.jsp").assertOk().document();
+        HtmlForm form = HtmlForm.withButton(loginPage, LOGIN_BUTTON)
+            .fillByLabel("Code d'acces", username, "text")
+            .fillByLabel("Mot de passe", password, "password");
+        Document result = session.submit(form.submit(LOGIN_BUTTON)).assertOk().document();
+        if (isLoginPage(result)) {
+            throw new LoadException("Connexion BO refusee pour " + username);
+        }
+        return session;
+    }
+
+    /**
+     * Vrai si la page est le formulaire de connexion (session expiree ou refusee).
+     */
+    public static boolean isLoginPage(Document document) {
+        return document.selectFirst("input[type=password]") != null
+            && document.location().contains("AdminLogin");
+    }
+}
@@ -0,0 +1,53 @@
+package fr.paris.lutece.load;
+
+import org.jsoup.nodes.Document;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Navigation d'un administrateur : liste des formulaires (ManageForms.jsp) puis liste des
+ * reponses (MultiviewForms).
+ *
+ * Les sessions BO authentifiees sont reutilisees d'une iteration a l'autre (un administrateur
+ * ne se reconnecte pas a chaque page) ; la connexion n'est mesuree que pour les nouvelles sessions.
+ */
+public final class BackOfficeBrowsingScenario implements Scenario {
+
+    public static final String STEP_LOGIN = "bo-login";
+    public static final String STEP_MANAGE_FORMS = "bo-manage-forms";
+    public static final String STEP_MULTIVIEW = "bo-multiview";
+
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final String multiviewPath;
+    private final BlockingQueue<HttpSession> sessions = new LinkedBlockingQueue<>();
+
+    public BackOfficeBrowsingScenario(String baseUrl, String username, String password, String multiviewPath) {
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.password = password;
+        this.multiviewPath = multiviewPath;
+    }
+
+    @Override
+    public void run(VirtualUser user) throws Exception {
+        HttpSession existing = sessions.poll();
+        HttpSession session = existing != null
+            ? existing
+            : user.step(STEP_LOGIN, () -> AdminSession.login(baseUrl, username, password));
+
+        user.step(STEP_MANAGE_FORMS, () -> authenticated(session.get(baseUrl + "/jsp/admin/plugins/forms/ManageForms.jsp")));
+        user.step(STEP_MULTIVIEW, () -> authenticated(session.get(baseUrl + multiviewPath)));
+        sessions.offer(session);
+    }
+
+    private static Document authenticated(HttpSession.Response response) {
+        Document document = response.assertOk().document();
+        if (AdminSession.isLoginPage(document)) {
+            throw new LoadException("Session BO perdue sur " + response.uri());
+        }
+        return document;
+    }
+}
@@ -0,0 +1,219 @@
+package fr.paris.lutece.load;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sonde HTTP de la page d'administration des caches Lutece : statistiques, vidage, activation.
+ *
+ * La ligne de chaque cache est reperee par son nom (PageCacheService, PortletCacheService...) ;
+ * son bouton ou lien cache.toggle.enable.label / cache.toggle.disable.label / cache.reset.label est
+ * actionne s'il est present (absent : le cache est deja dans l'etat voulu). Comparaison sans
+ * accents ni casse. Les statistiques (succes, defauts, nombre d'objets) sont lues dans la page
+ * d'informations du cache (lien cache.info.label) ou, a defaut, dans sa ligne.
+ */
+public final class CacheAdmin {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheAdmin.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    public static final String UNCHANGED = "inchange";
+    public static final String TOGGLED = "actionne";
+    public static final String NOT_FOUND = "introuvable";
+
+    private static final Pattern HITS = Pattern.compile("(?i)hits?\\b\\D{0,30}?(\\d[\\d\\s]*)");
+    private static final Pattern MISSES = Pattern.compile("(?i)miss(?:es)?\\b\\D{0,30}?(\\d[\\d\\s]*)");
+    private static final Pattern SIZE = Pattern.compile("(?i)(?:size|objets?|elements?|entries)\\b\\D{0,30}?(\\d[\\d\\s]*)");
+    private static final Pattern NUMBER = Pattern.compile("^\\d[\\d\\s]*$");
+
+    /**
+     * Statistiques d'un cache a un instant donne (-1 : non publiee par la page).
+     */
+    public static final class CacheStats {
+        private final String name;
+        private final long hits;
+        private final long misses;
+        private final long size;
+
+        CacheStats(String name, long hits, long misses, long size) {
+            this.name = name;
+            this.hits = hits;
+            this.misses = misses;
+            this.size = size;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long hits() {
+            return hits;
+        }
+
+        public long misses() {
+            return misses;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        /**
+         * Succes et defauts survenus depuis before (compteurs inconnus : -1).
+         */
+        public CacheStats since(CacheStats before) {
+            return new CacheStats(name, delta(hits, before == null ? 0 : before.hits),
+                delta(misses, before == null ? 0 : before.misses), size);
+        }
+
+        /**
+         * Taux de succes, NaN sans compteurs ou sans acces.
+         */
+        public double hitRatio() {
+            return hits < 0 || misses < 0 || hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+        }
+
+        private static long delta(long after, long before) {
+            return after < 0 || before < 0 ? -1 : after - before;
+        }
+    }
+
+    private CacheAdmin() {
+    }
+
+    /**
+     * Statistiques des caches demandes (absents de la page : ignores).
+     */
+    public static Map<String, CacheStats> stats(HttpSession admin, String baseUrl, List<String> caches)
+            throws IOException, InterruptedException {
+        String manageUrl = baseUrl + config.getValue("cache.manage.path", String.class);
+        String infoLabel = HtmlForm.normalize(config.getValue("cache.info.label", String.class));
+        Document page = authenticated(admin.get(manageUrl));
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        for (String cache : caches) {
+            Element row = row(page, cache);
+            if (row == null) {
+                continue;
+            }
+            String text = row.text();
+            for (Element link : row.select("a[href]")) {
+                if (HtmlForm.normalize(link.text() + " " + link.attr("title")).contains(infoLabel)) {
+                    text = authenticated(admin.get(link.absUrl("href"))).text();
+                    break;
+                }
+            }
+            long size = find(SIZE, text);
+            if (size < 0) {
+                size = row.select("td").stream().map(Element::text).filter(cell -> NUMBER.matcher(cell.trim()).matches())
+                    .findFirst().map(cell -> Long.parseLong(cell.replaceAll("\\s", ""))).orElse(-1L);
+            }
+            stats.put(cache, new CacheStats(cache, find(HITS, text), find(MISSES, text), size));
+        }
+        return stats;
+    }
+
+    /**
+     * Vide les caches demandes (bouton ou lien cache.reset.label de leur ligne).
+     */
+    public static Map<String, String> reset(HttpSession admin, String baseUrl, List<String> caches)
+            throws IOException, InterruptedException {
+        return press(admin, baseUrl, caches, config.getValue("cache.reset.label", String.class));
+    }
+
+    /**
+     * Met les caches dans l'etat voulu et retourne, par cache, ce qui a ete fait.
+     */
+    public static Map<String, String> setEnabled(HttpSession admin, String baseUrl, List<String> caches, boolean enabled)
+            throws IOException, InterruptedException {
+        Map<String, String> outcome = press(admin, baseUrl, caches,
+            config.getValue(enabled ? "cache.toggle.enable.label" : "cache.toggle.disable.label", String.class));
+        LOGGER.info("Caches {} : {}", enabled ? "actives" : "desactives", outcome);
+        return outcome;
+    }
+
+    /**
+     * Actionne, dans la ligne de chaque cache, le bouton ou lien dont le texte commence par label.
+     */
+    private static Map<String, String> press(HttpSession admin, String baseUrl, List<String> caches, String label)
+            throws IOException, InterruptedException {
+        String wanted = HtmlForm.normalize(label);
+        String manageUrl = baseUrl + config.getValue("cache.manage.path", String.class);
+        Map<String, String> outcome = new LinkedHashMap<>();
+        for (String cache : caches) {
+            Document page = authenticated(admin.get(manageUrl));
+            Element row = row(page, cache);
+            if (row == null) {
+                LOGGER.warn("Cache {} introuvable dans {}", cache, manageUrl);
+                outcome.put(cache, NOT_FOUND);
+                continue;
+            }
+            Element target = null;
+            for (Element candidate : row.select("a[href], button, input[type=submit]")) {
+                String text = HtmlForm.normalize(candidate.tagName().equals("input") ? candidate.attr("value")
+                    : candidate.text() + " " + candidate.attr("title"));
+                // "activer" est contenu dans "desactiver" : le libelle doit commencer le texte
+                if (text.startsWith(wanted)) {
+                    target = candidate;
+                    break;
+                }
+            }
+            if (target == null) {
+                outcome.put(cache, UNCHANGED);
+                continue;
+            }
+            if (target.tagName().equals("a")) {
+                authenticated(admin.get(target.absUrl("href")));
+            } else {
+                Element form = target.closest("form");
+                if (form == null) {
+                    outcome.put(cache, NOT_FOUND);
+                    continue;
+                }
+                String button = target.tagName().equals("input") ? target.attr("value") : target.text();
+                authenticated(admin.submit(HtmlForm.of(form).submit(button)));
+            }
+            outcome.put(cache, TOGGLED);
+        }
+        return outcome;
+    }
+
+    /**
+     * Plus petit bloc (ligne de tableau, element de liste, carte) contenant le nom du cache.
+     */
+    private static Element row(Document page, String cache) {
+        for (Element element : page.select("tr, li, .card, .list-group-item")) {
+            if (element.ownText().contains(cache) || element.select("td, th, .card-title, strong, span").stream()
+                    .anyMatch(child -> child.ownText().contains(cache))) {
+                if (element.tagName().equals("tr") || element.select("tr").isEmpty()) {
+                    return element;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long find(Pattern pattern, String text) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? Long.parseLong(matcher.group(1).replaceAll("\\s", "")) : -1;
+    }
+
+    private static Document authenticated(HttpSession.Response response) {
+        Document document = response.assertOk().document();
+        if (AdminSession.isLoginPage(document)) {
+            throw new LoadException("Session BO perdue sur " + response.uri());
+        }
+        return document;
+    }
+}
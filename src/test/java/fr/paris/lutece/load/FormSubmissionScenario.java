@@ -0,0 +1,75 @@
+package fr.paris.lutece.load;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * Soumission d'un formulaire en front office, rejouee au niveau HTTP.
+ *
+ * Memes etapes que FormsSubmissionTest : ouverture (formView), remplissage de l'etape 1 puis
+ * "Etape suivante", "Voir le recapitulatif", "Valider le recapitulatif". Le jeton CSRF et les
+ * champs caches de chaque page sont reportes dans la requete suivante par {@link HtmlForm}.
+ */
+public final class FormSubmissionScenario implements Scenario {
+
+    public static final String STEP_OPEN = "open";
+    public static final String STEP_FILL = "step1-next";
+    public static final String STEP_SUMMARY = "summary";
+    public static final String STEP_VALIDATE = "validate";
+
+    private static final String BUTTON_NEXT = "Etape suivante";
+    private static final String BUTTON_SUMMARY = "Voir le recapitulatif";
+    private static final String BUTTON_VALIDATE = "Valider le recapitulatif";
+
+    private final String formUrl;
+    private final String textLabel;
+    private final String textValue;
+    private final String numberLabel;
+    private final String numberValue;
+    private final String dateValue;
+
+    public FormSubmissionScenario(String baseUrl, String formId,
+                                  String textLabel, String textValue,
+                                  String numberLabel, String numberValue,
+                                  String dateValue) {
+        this.formUrl = baseUrl + "/jsp/site/Portal.jsp?page=forms&view=formView&id_form=" + formId;
+        this.textLabel = textLabel;
+        this.textValue = textValue;
+        this.numberLabel = numberLabel;
+        this.numberValue = numberValue;
+        this.dateValue = dateValue;
+    }
+
+    @Override
+    public void run(VirtualUser user) throws Exception {
+        HttpSession session = user.session();
+
+        Document step1 = user.step(STEP_OPEN, () -> session.get(formUrl).assertOk().document());
+
+        Document step2 = user.step(STEP_FILL, () -> {
+            HtmlForm form = HtmlForm.withButton(step1, BUTTON_NEXT)
+                .fillByLabel(textLabel, textValue, "text", "textarea")
+                .fillByLabel(numberLabel, numberValue, "number");
+            if (step1.selectFirst("input.flatpickr-input[name], input[type=date][name]") != null) {
+                form.fillBySelector("input.flatpickr-input[name], input[type=date][name]", dateValue);
+            }
+            return checked(session.submit(form.submit(BUTTON_NEXT)));
+        });
+
+        Document summary = user.step(STEP_SUMMARY, () ->
+            checked(session.submit(HtmlForm.withButton(step2, BUTTON_SUMMARY).submit(BUTTON_SUMMARY))));
+
+        user.step(STEP_VALIDATE, () ->
+            checked(session.submit(HtmlForm.withButton(summary, BUTTON_VALIDATE).submit(BUTTON_VALIDATE))));
+    }
+
+    /**
+     * Une page de retour avec une alerte d'erreur compte comme un echec de l'etape.
+     */
+    private static Document checked(HttpSession.Response response) {
+        Document document = response.assertOk().document();
+        if (document.selectFirst(".alert-danger, .alert-error") != null) {
+            throw new LoadException("Erreur applicative: " + document.selectFirst(".alert-danger, .alert-error").text());
+        }
+        return document;
+    }
+}
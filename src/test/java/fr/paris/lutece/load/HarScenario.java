@@ -0,0 +1,362 @@
+package fr.paris.lutece.load;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scenario HTTP parametre, construit a partir du HAR d'un test Playwright.
+ *
+ * A la construction :
+ * - les ressources statiques (css, js, images, polices) et les requetes hors application sont ignorees ;
+ * - les redirections enregistrees sont fusionnees avec la requete d'origine (HttpSession les suit) ;
+ * - un parametre dont la valeur apparait dans une reponse precedente (jeton CSRF, id_workflow...)
+ *   devient une extraction : il est relu par son nom dans la reponse rejouee ;
+ * - le suffixe du run enregistre est remplace a chaque iteration par un suffixe unique dans les
+ *   valeurs enregistrees (chemins et parametres litteraux), pas dans les valeurs extraites.
+ *
+ * Si le HAR contient des pages d'administration sans la connexion (etat d'authentification
+ * reutilise), l'iteration commence par une connexion BO.
+ */
+public final class HarScenario implements Scenario {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HarScenario.class);
+
+    private static final Pattern STATIC_RESOURCE = Pattern.compile(
+        ".*\\.(css|js|map|png|jpe?g|gif|svg|ico|woff2?|ttf|eot)(\\?.*)?$", Pattern.CASE_INSENSITIVE);
+    private static final AtomicLong SUFFIX_SEQUENCE = new AtomicLong(System.currentTimeMillis() % 100000);
+
+    /**
+     * Parametre d'une requete : valeur litterale, a extraire, ou contenant le suffixe du run.
+     */
+    static final class Param {
+        final String name;
+        final String value;
+        final int sourceStep;
+
+        Param(String name, String value, int sourceStep) {
+            this.name = name;
+            this.value = value;
+            this.sourceStep = sourceStep;
+        }
+    }
+
+    /**
+     * Requete rejouee.
+     */
+    static final class Step {
+        final String name;
+        final String method;
+        final String path;
+        final boolean multipart;
+        final List<Param> query = new ArrayList<>();
+        final List<Param> body = new ArrayList<>();
+        String recordedResponse = "";
+        private Document recordedDocument;
+
+        Document recordedDocument() {
+            if (recordedDocument == null) {
+                recordedDocument = Jsoup.parse(recordedResponse);
+            }
+            return recordedDocument;
+        }
+
+        Step(String name, String method, String path, boolean multipart) {
+            this.name = name;
+            this.method = method;
+            this.path = path;
+            this.multipart = multipart;
+        }
+    }
+
+    private final String baseUrl;
+    private final String recordedSuffix;
+    private final List<Step> steps = new ArrayList<>();
+    private final boolean needsLogin;
+    private final String username;
+    private final String password;
+
+    private HarScenario(String baseUrl, String recordedSuffix, boolean needsLogin, String username, String password) {
+        this.baseUrl = baseUrl;
+        this.recordedSuffix = recordedSuffix;
+        this.needsLogin = needsLogin;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Construit le scenario a partir d'un HAR.
+     *
+     * @param recordedBaseUrl URL de base au moment de l'enregistrement
+     * @param recordedSuffix  suffixe du run enregistre (null si aucun)
+     * @param baseUrl         URL de base de l'instance ciblee par le tir
+     */
+    public static HarScenario fromHar(Path har, String recordedBaseUrl, String recordedSuffix,
+                                      String baseUrl, String username, String password) throws IOException {
+        JsonArray entries;
+        try (Reader reader = Files.newBufferedReader(har)) {
+            entries = JsonParser.parseReader(reader).getAsJsonObject()
+                .getAsJsonObject("log").getAsJsonArray("entries");
+        }
+
+        List<JsonObject> kept = new ArrayList<>();
+        for (JsonElement element : entries) {
+            JsonObject entry = element.getAsJsonObject();
+            String url = entry.getAsJsonObject("request").get("url").getAsString();
+            if (url.startsWith(recordedBaseUrl) && !isStatic(entry, url)) {
+                kept.add(entry);
+            }
+        }
+
+        boolean adminPages = false;
+        boolean loginRecorded = false;
+        List<Step> steps = new ArrayList<>();
+        String pendingRedirect = null;
+        for (JsonObject entry : kept) {
+            JsonObject request = entry.getAsJsonObject("request");
+            JsonObject response = entry.getAsJsonObject("response");
+            String url = request.get("url").getAsString();
+            String method = request.get("method").getAsString();
+            String responseText = responseText(response);
+
+            // Redirection suivie : la reponse finale complete l'etape d'origine
+            if (pendingRedirect != null && pendingRedirect.equals(url) && method.equals("GET") && !steps.isEmpty()) {
+                steps.get(steps.size() - 1).recordedResponse = responseText;
+                pendingRedirect = redirectTarget(url, response);
+                continue;
+            }
+            pendingRedirect = redirectTarget(url, response);
+
+            String relative = url.substring(recordedBaseUrl.length());
+            String path = relative.contains("?") ? relative.substring(0, relative.indexOf('?')) : relative;
+            adminPages |= path.contains("/jsp/admin/");
+            loginRecorded |= path.contains("AdminLogin") && method.equals("POST");
+
+            JsonObject postData = request.getAsJsonObject("postData");
+            String mimeType = postData == null || !postData.has("mimeType") ? "" : postData.get("mimeType").getAsString();
+            String stepName = String.format("%02d %s %s", steps.size() + 1, method,
+                path.substring(path.lastIndexOf('/') + 1));
+            Step step = new Step(stepName, method, path, mimeType.startsWith("multipart/"));
+            for (Map.Entry<String, String> param : queryParams(relative)) {
+                step.query.add(parameterize(param.getKey(), param.getValue(), steps, recordedSuffix));
+            }
+            for (Map.Entry<String, String> param : bodyParams(postData, mimeType)) {
+                step.body.add(parameterize(param.getKey(), param.getValue(), steps, recordedSuffix));
+            }
+            step.recordedResponse = responseText;
+            steps.add(step);
+        }
+
+        HarScenario scenario = new HarScenario(baseUrl, recordedSuffix, adminPages && !loginRecorded,
+            username, password);
+        scenario.steps.addAll(steps);
+        long extracted = steps.stream().flatMap(s -> s.query.stream()).filter(p -> p.sourceStep >= 0).count()
+            + steps.stream().flatMap(s -> s.body.stream()).filter(p -> p.sourceStep >= 0).count();
+        LOGGER.info("Scenario HAR {} : {} requetes retenues sur {}, {} parametres extraits{}",
+            har.getFileName(), steps.size(), entries.size(), extracted,
+            scenario.needsLogin ? ", connexion BO ajoutee" : "");
+        return scenario;
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    @Override
+    public void run(VirtualUser user) throws Exception {
+        HttpSession session = user.session();
+        String suffix = String.valueOf(SUFFIX_SEQUENCE.incrementAndGet());
+        if (needsLogin) {
+            user.step("00 login", () -> AdminSession.login(session, baseUrl, username, password));
+        }
+        List<HttpSession.Response> responses = new ArrayList<>(steps.size());
+        for (Step step : steps) {
+            HttpSession.Response replayed = user.step(step.name, () -> {
+                List<Map.Entry<String, String>> query = resolve(step.query, responses, suffix);
+                List<Map.Entry<String, String>> form = resolve(step.body, responses, suffix);
+                String path = substitute(step.path, suffix);
+                HttpSession.Response response;
+                if (step.method.equals("GET")) {
+                    response = session.submit(new HtmlForm.Submission(URI.create(baseUrl + path), "get", false, query));
+                } else {
+                    String uri = baseUrl + path + (query.isEmpty() ? ""
+                        : "?" + new HtmlForm.Submission(null, "get", false, query).urlEncoded());
+                    response = session.submit(new HtmlForm.Submission(URI.create(uri), step.method, step.multipart, form));
+                }
+                return response.assertOk();
+            });
+            responses.add(replayed);
+        }
+    }
+
+    private List<Map.Entry<String, String>> resolve(List<Param> params, List<HttpSession.Response> responses,
+                                                    String suffix) {
+        List<Map.Entry<String, String>> values = new ArrayList<>(params.size());
+        for (Param param : params) {
+            String value = null;
+            if (param.sourceStep >= 0 && param.sourceStep < responses.size()) {
+                HttpSession.Response source = responses.get(param.sourceStep);
+                value = extract(source.document(), source.body(), param.name);
+                if (value == null) {
+                    LOGGER.debug("Parametre {} introuvable dans la reponse {}, valeur enregistree conservee",
+                        param.name, param.sourceStep + 1);
+                }
+            }
+            // Le suffixe n'est remplace que dans les valeurs enregistrees, jamais dans une valeur relue
+            values.add(new AbstractMap.SimpleEntry<>(param.name, value != null ? value : substitute(param.value, suffix)));
+        }
+        return values;
+    }
+
+    private String substitute(String value, String suffix) {
+        return recordedSuffix == null ? value : value.replace(recordedSuffix, suffix);
+    }
+
+    /**
+     * Valeur d'un parametre dans une reponse : champ de formulaire de meme nom, sinon parametre d'URL.
+     */
+    static String extract(Document document, String html, String name) {
+        Element input = document.selectFirst("[name=" + cssEscape(name) + "][value]");
+        if (input != null) {
+            return input.attr("value");
+        }
+        Matcher matcher = Pattern.compile("[?&;]" + Pattern.quote(name) + "=([^&\"'#\\s<]+)").matcher(html);
+        if (matcher.find()) {
+            return URLDecoder.decode(matcher.group(1).replace("&amp;", "&"), StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    /**
+     * Un parametre est extrait s'il apparait sous son nom dans une reponse precedente.
+     */
+    private static Param parameterize(String name, String value, List<Step> previous, String recordedSuffix) {
+        boolean containsSuffix = recordedSuffix != null && recordedSuffix.length() >= 3 && value.contains(recordedSuffix);
+        if (!value.isEmpty() && !containsSuffix) {
+            for (int i = previous.size() - 1; i >= 0; i--) {
+                Step step = previous.get(i);
+                if (value.equals(extract(step.recordedDocument(), step.recordedResponse, name))) {
+                    return new Param(name, value, i);
+                }
+            }
+        }
+        return new Param(name, value, -1);
+    }
+
+    private static boolean isStatic(JsonObject entry, String url) {
+        if (STATIC_RESOURCE.matcher(url).matches()) {
+            return true;
+        }
+        JsonObject content = entry.getAsJsonObject("response").getAsJsonObject("content");
+        String mimeType = content != null && content.has("mimeType") ? content.get("mimeType").getAsString() : "";
+        return mimeType.startsWith("image/") || mimeType.startsWith("font/") || mimeType.contains("css")
+            || mimeType.contains("javascript");
+    }
+
+    private static String redirectTarget(String url, JsonObject response) {
+        int status = response.get("status").getAsInt();
+        String location = response.has("redirectURL") ? response.get("redirectURL").getAsString() : "";
+        if (status < 300 || status >= 400 || location.isEmpty()) {
+            return null;
+        }
+        return URI.create(url).resolve(location).toString();
+    }
+
+    private static String responseText(JsonObject response) {
+        JsonObject content = response.getAsJsonObject("content");
+        if (content == null || !content.has("text")) {
+            return "";
+        }
+        String text = content.get("text").getAsString();
+        if (content.has("encoding") && "base64".equals(content.get("encoding").getAsString())) {
+            return new String(Base64.getDecoder().decode(text), StandardCharsets.UTF_8);
+        }
+        return text;
+    }
+
+    private static List<Map.Entry<String, String>> queryParams(String relative) {
+        int index = relative.indexOf('?');
+        return index < 0 ? List.of() : urlDecoded(relative.substring(index + 1));
+    }
+
+    private static List<Map.Entry<String, String>> bodyParams(JsonObject postData, String mimeType) {
+        if (postData == null || !postData.has("text")) {
+            return List.of();
+        }
+        String text = postData.get("text").getAsString();
+        if (mimeType.startsWith("multipart/")) {
+            return multipart(text, mimeType);
+        }
+        return urlDecoded(text);
+    }
+
+    private static List<Map.Entry<String, String>> urlDecoded(String encoded) {
+        List<Map.Entry<String, String>> params = new ArrayList<>();
+        for (String pair : encoded.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.add(new AbstractMap.SimpleEntry<>(
+                URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8)));
+        }
+        return params;
+    }
+
+    /**
+     * Champs texte d'un corps multipart (les fichiers joints ne sont pas rejoues).
+     */
+    private static List<Map.Entry<String, String>> multipart(String text, String mimeType) {
+        List<Map.Entry<String, String>> params = new ArrayList<>();
+        Matcher boundaryMatcher = Pattern.compile("boundary=\"?([^\";]+)\"?").matcher(mimeType);
+        if (!boundaryMatcher.find()) {
+            return params;
+        }
+        Pattern name = Pattern.compile("name=\"([^\"]*)\"");
+        for (String part : text.split(Pattern.quote("--" + boundaryMatcher.group(1)))) {
+            int separator = part.indexOf("\r\n\r\n");
+            if (separator < 0) {
+                continue;
+            }
+            String headers = part.substring(0, separator);
+            Matcher nameMatcher = name.matcher(headers);
+            if (!nameMatcher.find() || headers.contains("filename=")) {
+                continue;
+            }
+            String value = part.substring(separator + 4);
+            if (value.endsWith("\r\n")) {
+                value = value.substring(0, value.length() - 2);
+            }
+            params.add(new AbstractMap.SimpleEntry<>(nameMatcher.group(1), value));
+        }
+        return params;
+    }
+
+    private static String cssEscape(String name) {
+        return "\"" + name.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,132 @@
+package fr.paris.lutece.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests unitaires de HarScenario : un petit HAR enregistre (har/portal-form.har) est rejoue
+ * contre un serveur HTTP local qui sert d'autres jetons et identifiants que ceux enregistres.
+ */
+@DisplayName("HarScenario : filtrage, extraction et substitution du suffixe")
+class HarScenarioTest {
+
+    private static final String RECORDED_BASE_URL = "http://recorded.test/lutece";
+    private static final String RECORDED_SUFFIX = "R4821";
+
+    /** Jeton servi au rejeu : contient le suffixe enregistre, qui ne doit pas etre remplace. */
+    private static final String LIVE_TOKEN = "live-" + RECORDED_SUFFIX;
+
+    private static final String PORTAL_PAGE = "<html><body><form action=\"Portal.jsp\" method=\"post\">"
+        + "<input type=\"hidden\" name=\"token\" value=\"" + LIVE_TOKEN + "\"></form>"
+        + "<a href=\"Portal.jsp?page=forms&amp;id_form=34\">Formulaire</a></body></html>";
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/lutece/jsp/site/Portal.jsp", this::handle);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/lutece";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Ressources statiques, requetes externes et redirections ne deviennent pas des etapes")
+    void keepsApplicationRequestsOnly() throws Exception {
+        assertEquals(2, scenario().size());
+    }
+
+    @Test
+    @DisplayName("Un GET sans parametre est rejoue sans '?' final")
+    void replaysGetWithoutEmptyQuery() throws Exception {
+        scenario().run(new VirtualUser(0, new LatencyRecorder()));
+        assertEquals("GET /lutece/jsp/site/Portal.jsp", requests.get(0));
+
+        // Le client HTTP n'envoie pas un '?' vide : l'URI de la requete construite est verifiee
+        HttpSession.Response response = new HttpSession().submit(
+            new HtmlForm.Submission(URI.create(baseUrl + "/jsp/site/Portal.jsp"), "get", false, List.of()));
+        assertEquals(URI.create(baseUrl + "/jsp/site/Portal.jsp"), response.uri());
+    }
+
+    @Test
+    @DisplayName("Jeton et identifiant sont relus dans la reponse rejouee, le suffixe remplace dans les litteraux")
+    void extractsValuesAndSubstitutesSuffix() throws Exception {
+        HarScenario scenario = scenario();
+        scenario.run(new VirtualUser(0, new LatencyRecorder()));
+        scenario.run(new VirtualUser(1, new LatencyRecorder()));
+
+        assertEquals(6, requests.size(), requests.toString());
+        String post = requests.get(1);
+        assertTrue(post.startsWith("POST /lutece/jsp/site/Portal.jsp?page=forms&id_form=34 "), post);
+        assertTrue(post.contains("token=" + LIVE_TOKEN + "&"), post);
+        assertTrue(post.contains("comment=sans suffixe"), post);
+        assertFalse(post.contains("Formulaire " + RECORDED_SUFFIX), post);
+        assertTrue(post.matches(".*title=Formulaire \\d+&.*"), post);
+        assertEquals("GET /lutece/jsp/site/Portal.jsp?page=forms&view=done", requests.get(2));
+
+        String secondPost = requests.get(4);
+        assertNotEquals(title(post), title(secondPost), "Suffixe identique pour deux iterations");
+    }
+
+    private HarScenario scenario() throws IOException, URISyntaxException {
+        Path har = Paths.get(HarScenarioTest.class.getResource("/har/portal-form.har").toURI());
+        return HarScenario.fromHar(har, RECORDED_BASE_URL, RECORDED_SUFFIX, baseUrl, "admin", "admin");
+    }
+
+    private static String title(String request) {
+        int start = request.indexOf("title=");
+        return request.substring(start, request.indexOf('&', start));
+    }
+
+    /**
+     * Journalise "METHODE uri [corps decode]" ; le POST redirige comme dans l'enregistrement.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String uri = exchange.getRequestURI().toString();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requests.add(method + " " + uri + (body.isEmpty() ? "" : " " + URLDecoder.decode(body, StandardCharsets.UTF_8)));
+
+        if (method.equals("POST")) {
+            exchange.getResponseHeaders().add("Location", "Portal.jsp?page=forms&view=done");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+            return;
+        }
+        byte[] page = (uri.contains("view=done") ? "<html><body>Merci</body></html>" : PORTAL_PAGE)
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(200, page.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(page);
+        }
+    }
+}
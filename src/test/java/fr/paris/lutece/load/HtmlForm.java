@@ -0,0 +1,245 @@
+package fr.paris.lutece.load;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Formulaire HTML rempli cote protocole, equivalent HTTP des Page Objects.
+ *
+ * Les champs caches (jeton CSRF "token", identifiants d'etape...) sont repris tels quels ;
+ * les champs visibles sont retrouves par leur libelle, avec les memes strategies de repli
+ * que {@link fr.paris.lutece.pages.FormsFrontOfficePage}. Les libelles sont compares sans
+ * accents ni casse ("Etape suivante" = "Étape suivante").
+ */
+public final class HtmlForm {
+
+    private final Element form;
+    private final List<Map.Entry<String, String>> fields = new ArrayList<>();
+
+    /**
+     * Requete de soumission prete a etre envoyee par {@link HttpSession#submit}.
+     */
+    public static final class Submission {
+
+        private final URI uri;
+        private final String method;
+        private final boolean multipart;
+        private final List<Map.Entry<String, String>> fields;
+        private final String boundary = "----lutece-load-" + UUID.randomUUID();
+
+        Submission(URI uri, String method, boolean multipart, List<Map.Entry<String, String>> fields) {
+            this.uri = uri;
+            this.method = method;
+            this.multipart = multipart;
+            this.fields = fields;
+        }
+
+        public URI uri() {
+            return uri;
+        }
+
+        public String method() {
+            return method;
+        }
+
+        public boolean multipart() {
+            return multipart;
+        }
+
+        public String boundary() {
+            return boundary;
+        }
+
+        public String urlEncoded() {
+            StringJoiner body = new StringJoiner("&");
+            for (Map.Entry<String, String> field : fields) {
+                body.add(URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8) + "="
+                    + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8));
+            }
+            return body.toString();
+        }
+
+        public byte[] multipartBody() {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            for (Map.Entry<String, String> field : fields) {
+                String part = "--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"" + field.getKey() + "\"\r\n\r\n"
+                    + field.getValue() + "\r\n";
+                body.writeBytes(part.getBytes(StandardCharsets.UTF_8));
+            }
+            body.writeBytes(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+            return body.toByteArray();
+        }
+    }
+
+    private HtmlForm(Element form) {
+        this.form = form;
+        for (Element input : form.select("input[name], select[name], textarea[name]")) {
+            String name = input.attr("name");
+            switch (input.tagName()) {
+                case "select":
+                    Element option = input.selectFirst("option[selected]");
+                    if (option == null) {
+                        option = input.selectFirst("option");
+                    }
+                    if (option != null) {
+                        fields.add(new AbstractMap.SimpleEntry<>(name, option.attr("value")));
+                    }
+                    break;
+                case "textarea":
+                    fields.add(new AbstractMap.SimpleEntry<>(name, input.text()));
+                    break;
+                default:
+                    String type = input.attr("type").toLowerCase(Locale.ROOT);
+                    if (type.equals("submit") || type.equals("button") || type.equals("image")
+                            || type.equals("file") || type.equals("reset")) {
+                        break;
+                    }
+                    if ((type.equals("checkbox") || type.equals("radio")) && !input.hasAttr("checked")) {
+                        break;
+                    }
+                    fields.add(new AbstractMap.SimpleEntry<>(name, input.attr("value")));
+            }
+        }
+    }
+
+    /**
+     * Formulaire de la page contenant le bouton de libelle donne.
+     */
+    public static HtmlForm withButton(Document document, String buttonLabel) {
+        for (Element form : document.select("form")) {
+            if (findButton(form, buttonLabel) != null) {
+                return new HtmlForm(form);
+            }
+        }
+        throw new LoadException("Aucun formulaire avec le bouton '" + buttonLabel + "' sur " + document.location());
+    }
+
+    /**
+     * Formulaire donne (plusieurs formulaires de la page portent le meme bouton, une ligne de tableau
+     * par exemple).
+     */
+    public static HtmlForm of(Element form) {
+        return new HtmlForm(form);
+    }
+
+    /**
+     * Fixe la valeur d'un champ par son nom (remplace les valeurs existantes).
+     */
+    public HtmlForm set(String name, String value) {
+        fields.removeIf(field -> field.getKey().equals(name));
+        fields.add(new AbstractMap.SimpleEntry<>(name, value));
+        return this;
+    }
+
+    /**
+     * Ajoute une valeur sans remplacer les existantes (cases a cocher de meme nom).
+     */
+    public HtmlForm add(String name, String value) {
+        fields.add(new AbstractMap.SimpleEntry<>(name, value));
+        return this;
+    }
+
+    /**
+     * Retire toutes les valeurs d'un champ.
+     */
+    public HtmlForm remove(String name) {
+        fields.removeIf(field -> field.getKey().equals(name));
+        return this;
+    }
+
+    /**
+     * Remplit le champ dont le libelle contient label ; a defaut, le premier champ du type donne.
+     *
+     * @param types types d'input acceptes en repli (text, number, date...)
+     */
+    public HtmlForm fillByLabel(String label, String value, String... types) {
+        String wanted = normalize(label);
+        for (Element labelElement : form.select("label[for]")) {
+            if (normalize(labelElement.text()).contains(wanted)) {
+                Element input = form.getElementById(labelElement.attr("for"));
+                if (input != null && input.hasAttr("name")) {
+                    return set(input.attr("name"), value);
+                }
+            }
+        }
+        for (Element input : form.select("input[aria-label], input[placeholder]")) {
+            if (normalize(input.attr("aria-label") + " " + input.attr("placeholder")).contains(wanted)) {
+                return set(input.attr("name"), value);
+            }
+        }
+        for (String type : types) {
+            Element input = form.selectFirst(type.equals("textarea")
+                ? "textarea[name]"
+                : "input[type=" + type + "][name]");
+            if (input != null) {
+                return set(input.attr("name"), value);
+            }
+        }
+        throw new LoadException("Aucun champ pour le libelle '" + label + "'");
+    }
+
+    /**
+     * Remplit le premier champ correspondant au selecteur CSS (ex. "input.flatpickr-input").
+     */
+    public HtmlForm fillBySelector(String cssQuery, String value) {
+        Element input = form.selectFirst(cssQuery);
+        if (input == null || !input.hasAttr("name")) {
+            throw new LoadException("Aucun champ pour le selecteur '" + cssQuery + "'");
+        }
+        return set(input.attr("name"), value);
+    }
+
+    /**
+     * Prepare la soumission par le bouton de libelle donne (son nom/valeur est ajoute aux champs).
+     */
+    public Submission submit(String buttonLabel) {
+        Element button = findButton(form, buttonLabel);
+        if (button == null) {
+            throw new LoadException("Bouton '" + buttonLabel + "' introuvable");
+        }
+        List<Map.Entry<String, String>> data = new ArrayList<>(fields);
+        if (button.hasAttr("name")) {
+            data.add(new AbstractMap.SimpleEntry<>(button.attr("name"), button.attr("value")));
+        }
+        String action = button.hasAttr("formaction") ? button.absUrl("formaction") : form.absUrl("action");
+        if (action.isEmpty()) {
+            action = form.ownerDocument() != null ? form.ownerDocument().location() : "";
+        }
+        String method = form.attr("method").isEmpty() ? "get" : form.attr("method");
+        boolean multipart = form.attr("enctype").toLowerCase(Locale.ROOT).startsWith("multipart/");
+        return new Submission(URI.create(action), method, multipart, data);
+    }
+
+    private static Element findButton(Element form, String label) {
+        String wanted = normalize(label);
+        for (Element button : form.select("button, input[type=submit]")) {
+            String text = button.tagName().equals("button") ? button.text() : button.attr("value");
+            if (normalize(text).contains(wanted)
+                    || normalize(button.attr("title")).contains(wanted)) {
+                return button;
+            }
+        }
+        return null;
+    }
+
+    static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT)
+            .trim();
+    }
+}
@@ -0,0 +1,129 @@
+package fr.paris.lutece.load;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests unitaires de HtmlForm sur un extrait HTML statique (sans serveur).
+ */
+@DisplayName("HtmlForm : lecture des champs et encodage de la soumission")
+class HtmlFormTest {
+
+    private static final String BASE_URI = "http://localhost:8080/lutece/jsp/site/Portal.jsp?page=forms";
+
+    private static final String HTML = "<html><body>"
+        + "<form action=\"search\"><button>Rechercher</button></form>"
+        + "<form action=\"Portal.jsp\" method=\"post\">"
+        + "  <input type=\"hidden\" name=\"token\" value=\"abc+123\">"
+        + "  <input type=\"hidden\" name=\"id_step\" value=\"7\">"
+        + "  <label for=\"nom\">Nom de l'&eacute;tablissement</label>"
+        + "  <input type=\"text\" id=\"nom\" name=\"attribute_1\" value=\"\">"
+        + "  <input type=\"text\" name=\"attribute_2\" placeholder=\"Commune\">"
+        + "  <select name=\"attribute_3\"><option value=\"a\">A</option>"
+        + "    <option value=\"b\" selected>B</option></select>"
+        + "  <input type=\"checkbox\" name=\"optin\" value=\"1\">"
+        + "  <input type=\"checkbox\" name=\"cgu\" value=\"1\" checked>"
+        + "  <textarea name=\"attribute_4\">Premiere ligne</textarea>"
+        + "  <input type=\"file\" name=\"piece\">"
+        + "  <button name=\"action_nextStep\" value=\"next\">&Eacute;tape suivante</button>"
+        + "  <input type=\"submit\" name=\"action_prevStep\" value=\"Precedent\">"
+        + "</form>"
+        + "</body></html>";
+
+    @Test
+    @DisplayName("Les champs remplis par defaut suivent les regles du navigateur")
+    void readsDefaultFields() {
+        HtmlForm.Submission submission = form().submit("Etape suivante");
+
+        assertEquals("token=abc%2B123&id_step=7&attribute_1=&attribute_2=&attribute_3=b&cgu=1"
+            + "&attribute_4=Premiere+ligne&action_nextStep=next", submission.urlEncoded());
+    }
+
+    @Test
+    @DisplayName("Les libelles sont compares sans accents ni casse, avec repli sur le placeholder")
+    void fillsByLabel() {
+        HtmlForm form = form()
+            .fillByLabel("NOM DE L'ETABLISSEMENT", "Ecole & college")
+            .fillByLabel("commune", "Paris 5e");
+
+        String body = form.submit("Étape suivante").urlEncoded();
+        assertTrue(body.contains("attribute_1=Ecole+%26+college"), body);
+        assertTrue(body.contains("attribute_2=Paris+5e"), body);
+        assertFalse(body.contains("attribute_1=&"), body);
+    }
+
+    @Test
+    @DisplayName("set remplace, add cumule, remove retire")
+    void editsFields() {
+        String body = form()
+            .set("attribute_3", "a")
+            .add("optin", "1")
+            .add("optin", "2")
+            .remove("cgu")
+            .submit("Etape suivante")
+            .urlEncoded();
+
+        assertTrue(body.contains("attribute_3=a"), body);
+        assertFalse(body.contains("attribute_3=b"), body);
+        assertTrue(body.contains("optin=1&optin=2"), body);
+        assertFalse(body.contains("cgu="), body);
+    }
+
+    @Test
+    @DisplayName("La soumission vise l'action absolue du formulaire avec sa methode")
+    void resolvesActionAndMethod() {
+        HtmlForm.Submission submission = form().submit("Precedent");
+
+        assertEquals(URI.create("http://localhost:8080/lutece/jsp/site/Portal.jsp"), submission.uri());
+        assertEquals("post", submission.method());
+        assertFalse(submission.multipart());
+        assertTrue(submission.urlEncoded().endsWith("&action_prevStep=Precedent"), submission.urlEncoded());
+
+        HtmlForm.Submission search = HtmlForm.withButton(document(), "Rechercher").submit("Rechercher");
+        assertEquals(URI.create("http://localhost:8080/lutece/jsp/site/search"), search.uri());
+        assertEquals("get", search.method());
+        assertEquals("", search.urlEncoded());
+    }
+
+    @Test
+    @DisplayName("Le corps multipart contient une partie par champ et la borne finale")
+    void encodesMultipart() {
+        Document document = Jsoup.parse("<form action=\"/upload\" method=\"post\" enctype=\"multipart/form-data\">"
+            + "<input type=\"hidden\" name=\"token\" value=\"t&eacute;\"><button>Envoyer</button></form>", BASE_URI);
+        HtmlForm.Submission submission = HtmlForm.withButton(document, "Envoyer").submit("Envoyer");
+
+        assertTrue(submission.multipart());
+        String body = new String(submission.multipartBody(), StandardCharsets.UTF_8);
+        assertEquals("--" + submission.boundary() + "\r\n"
+            + "Content-Disposition: form-data; name=\"token\"\r\n\r\n"
+            + "té\r\n"
+            + "--" + submission.boundary() + "--\r\n", body);
+    }
+
+    @Test
+    @DisplayName("Un bouton ou un champ introuvable est une erreur explicite")
+    void rejectsUnknownButtonOrField() {
+        assertThrows(LoadException.class, () -> HtmlForm.withButton(document(), "Valider"));
+        assertThrows(LoadException.class, () -> form().submit("Valider"));
+        assertThrows(LoadException.class, () -> form().fillByLabel("Code postal", "75005"));
+        assertThrows(LoadException.class, () -> form().fillBySelector("input.flatpickr-input", "01/01/2026"));
+    }
+
+    private static Document document() {
+        return Jsoup.parse(HTML, BASE_URI);
+    }
+
+    private static HtmlForm form() {
+        return HtmlForm.withButton(document(), "Etape suivante");
+    }
+}
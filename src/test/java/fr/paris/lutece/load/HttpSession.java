@@ -0,0 +1,128 @@
+package fr.paris.lutece.load;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Session HTTP d'un utilisateur virtuel (cookies JSESSIONID compris).
+ *
+ * Le client HTTP est partage par toutes les sessions ; seuls les cookies sont propres a chacune.
+ * Les redirections sont suivies ici pour que les cookies poses par une reponse 302 soient conserves.
+ */
+public final class HttpSession {
+
+    private static final int MAX_REDIRECTS = 5;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(
+        Long.getLong("load.request.timeout.seconds", 30));
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    private final CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+
+    /**
+     * Reponse d'une requete, apres redirections.
+     */
+    public static final class Response {
+
+        private final URI uri;
+        private final int status;
+        private final String body;
+        private Document document;
+
+        Response(URI uri, int status, String body) {
+            this.uri = uri;
+            this.status = status;
+            this.body = body;
+        }
+
+        public URI uri() {
+            return uri;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        public String body() {
+            return body;
+        }
+
+        public Document document() {
+            if (document == null) {
+                document = Jsoup.parse(body, uri.toString());
+            }
+            return document;
+        }
+
+        /**
+         * Leve une exception si le statut HTTP est une erreur.
+         */
+        public Response assertOk() {
+            if (status >= 400) {
+                throw new LoadException("HTTP " + status + " sur " + uri);
+            }
+            return this;
+        }
+    }
+
+    public Response get(String url) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(url)).GET(), 0);
+    }
+
+    /**
+     * Soumet un formulaire (urlencoded ou multipart selon son enctype).
+     */
+    public Response submit(HtmlForm.Submission submission) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(submission.uri());
+        if ("get".equalsIgnoreCase(submission.method())) {
+            String uri = submission.uri().toString();
+            String query = submission.urlEncoded();
+            request = HttpRequest.newBuilder(URI.create(query.isEmpty() ? uri
+                : uri + (uri.contains("?") ? "&" : "?") + query)).GET();
+        } else if (submission.multipart()) {
+            request.header("Content-Type", "multipart/form-data; boundary=" + submission.boundary())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(submission.multipartBody()));
+        } else {
+            request.header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(submission.urlEncoded()));
+        }
+        return send(request, 0);
+    }
+
+    private Response send(HttpRequest.Builder builder, int redirects) throws IOException, InterruptedException {
+        builder.timeout(REQUEST_TIMEOUT);
+        HttpRequest request = builder.build();
+        URI uri = request.uri();
+        for (Map.Entry<String, List<String>> header : cookies.get(uri, Map.of()).entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                builder.header(header.getKey(), String.join("; ", header.getValue()));
+            }
+        }
+        HttpResponse<String> response = CLIENT.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        cookies.put(uri, response.headers().map());
+
+        int status = response.statusCode();
+        if (status >= 300 && status < 400 && redirects < MAX_REDIRECTS) {
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (location != null) {
+                return send(HttpRequest.newBuilder(uri.resolve(location)).GET(), redirects + 1);
+            }
+        }
+        return new Response(uri, status, response.body());
+    }
+}
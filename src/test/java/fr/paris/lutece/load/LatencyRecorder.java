@@ -0,0 +1,97 @@
+package fr.paris.lutece.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latences par etape en histogrammes HDR (microsecondes, 3 chiffres significatifs).
+ *
+ * Un recorder differe ({@link #deferred()}) garde les mesures d'une iteration et ne les reporte
+ * dans son recorder parent qu'a l'appel de {@link #commit()}.
+ */
+public final class LatencyRecorder {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, Histogram> histograms = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, String> lastErrors = new ConcurrentHashMap<>();
+
+    private final LatencyRecorder parent;
+    private final List<Runnable> pending;
+
+    public LatencyRecorder() {
+        this(null);
+    }
+
+    private LatencyRecorder(LatencyRecorder parent) {
+        this.parent = parent;
+        this.pending = parent == null ? null : new ArrayList<>();
+    }
+
+    /**
+     * Recorder differe pour une iteration (un seul thread) : ses mesures ne sont reportees dans
+     * ce recorder qu'a l'appel de {@link #commit()}, et perdues sinon.
+     */
+    public LatencyRecorder deferred() {
+        return new LatencyRecorder(this);
+    }
+
+    /**
+     * Reporte dans le recorder parent les mesures d'un recorder differe.
+     */
+    public void commit() {
+        if (parent == null) {
+            throw new IllegalStateException("Recorder non differe");
+        }
+        pending.forEach(Runnable::run);
+        pending.clear();
+    }
+
+    public void record(String step, long durationNanos) {
+        if (parent != null) {
+            pending.add(() -> parent.record(step, durationNanos));
+            return;
+        }
+        long micros = Math.min(HIGHEST_MICROS, Math.max(0, durationNanos / 1000));
+        histogram(step).recordValue(micros);
+    }
+
+    public void recordError(String step, Throwable error) {
+        if (parent != null) {
+            pending.add(() -> parent.recordError(step, error));
+            return;
+        }
+        histogram(step);
+        errors.computeIfAbsent(step, k -> new LongAdder()).increment();
+        lastErrors.put(step, String.valueOf(error.getMessage()));
+    }
+
+    public Map<String, Histogram> histograms() {
+        synchronized (histograms) {
+            return new LinkedHashMap<>(histograms);
+        }
+    }
+
+    public long errors(String step) {
+        LongAdder count = errors.get(step);
+        return count == null ? 0 : count.sum();
+    }
+
+    public String lastError(String step) {
+        return lastErrors.get(step);
+    }
+
+    private Histogram histogram(String step) {
+        return histograms.computeIfAbsent(step, k -> new ConcurrentHistogram(HIGHEST_MICROS, 3));
+    }
+}
@@ -0,0 +1,11 @@
+package fr.paris.lutece.load;
+
+/**
+ * Echec fonctionnel d'une etape de charge (statut HTTP, element attendu absent...).
+ */
+public class LoadException extends RuntimeException {
+
+    public LoadException(String message) {
+        super(message);
+    }
+}
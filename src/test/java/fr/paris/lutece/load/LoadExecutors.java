@@ -0,0 +1,40 @@
+package fr.paris.lutece.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executeurs des utilisateurs virtuels.
+ *
+ * Le projet compile en Java 17 : les threads virtuels (Java 21+) sont obtenus par reflexion
+ * lorsque la JVM d'execution les fournit, avec repli sur des threads plateforme.
+ */
+public final class LoadExecutors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadExecutors.class);
+
+    private LoadExecutors() {
+    }
+
+    /**
+     * Un thread (virtuel si possible) par tache.
+     */
+    public static ExecutorService perTask(String name) {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Threads virtuels indisponibles (Java {}) : repli sur des threads plateforme pour {}",
+                Runtime.version().feature(), name);
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
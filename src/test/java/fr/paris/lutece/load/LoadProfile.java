@@ -0,0 +1,103 @@
+package fr.paris.lutece.load;
+
+import org.eclipse.microprofile.config.Config;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Profil de charge en modele ouvert : taux d'arrivee (iterations/s) en fonction du temps.
+ *
+ * - ramp  : progression lineaire de from a to sur toute la duree
+ * - step  : paliers de from a to, +step toutes les stepDuration
+ * - spike : taux de base from, pic a to au milieu du tir pendant spikeDuration
+ */
+public abstract class LoadProfile {
+
+    private final Duration duration;
+
+    protected LoadProfile(Duration duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Taux d'arrivee vise (par seconde) a l'instant donne depuis le debut du tir.
+     */
+    public abstract double rateAt(double seconds);
+
+    public abstract String describe();
+
+    public Duration duration() {
+        return duration;
+    }
+
+    public static LoadProfile ramp(double from, double to, Duration duration) {
+        return new LoadProfile(duration) {
+            @Override
+            public double rateAt(double seconds) {
+                return from + (to - from) * Math.min(1, seconds / duration.toSeconds());
+            }
+
+            @Override
+            public String describe() {
+                return String.format(Locale.ROOT, "rampe %.1f -> %.1f/s sur %d s", from, to, duration.toSeconds());
+            }
+        };
+    }
+
+    public static LoadProfile step(double from, double to, double step, Duration stepDuration) {
+        int steps = (int) Math.floor((to - from) / step) + 1;
+        return new LoadProfile(stepDuration.multipliedBy(steps)) {
+            @Override
+            public double rateAt(double seconds) {
+                long index = (long) (seconds / stepDuration.toSeconds());
+                return Math.min(to, from + index * step);
+            }
+
+            @Override
+            public String describe() {
+                return String.format(Locale.ROOT, "paliers %.1f -> %.1f/s par %.1f, %d s par palier",
+                    from, to, step, stepDuration.toSeconds());
+            }
+        };
+    }
+
+    public static LoadProfile spike(double base, double peak, Duration spikeDuration, Duration duration) {
+        double spikeStart = (duration.toSeconds() - spikeDuration.toSeconds()) / 2.0;
+        double spikeEnd = spikeStart + spikeDuration.toSeconds();
+        return new LoadProfile(duration) {
+            @Override
+            public double rateAt(double seconds) {
+                return seconds >= spikeStart && seconds < spikeEnd ? peak : base;
+            }
+
+            @Override
+            public String describe() {
+                return String.format(Locale.ROOT, "pic %.1f/s (base %.1f/s) pendant %d s sur %d s",
+                    peak, base, spikeDuration.toSeconds(), duration.toSeconds());
+            }
+        };
+    }
+
+    /**
+     * Profil decrit par la configuration (load.open.*).
+     */
+    public static LoadProfile fromConfig(Config config) {
+        String type = config.getValue("load.open.profile", String.class);
+        double from = config.getValue("load.open.rate.from", Double.class);
+        double to = config.getValue("load.open.rate.to", Double.class);
+        Duration duration = Duration.ofSeconds(config.getValue("load.duration", Integer.class));
+        switch (type) {
+            case "ramp":
+                return ramp(from, to, duration);
+            case "step":
+                return step(from, to, config.getValue("load.open.rate.step", Double.class),
+                    Duration.ofSeconds(config.getValue("load.open.step.duration", Integer.class)));
+            case "spike":
+                return spike(from, to,
+                    Duration.ofSeconds(config.getValue("load.open.spike.duration", Integer.class)), duration);
+            default:
+                throw new IllegalArgumentException("Profil de charge inconnu: " + type + " (ramp, step, spike)");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package fr.paris.lutece.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests unitaires des fonctions de taux d'arrivee des profils de charge.
+ */
+@DisplayName("LoadProfile : taux d'arrivee des profils ramp, step et spike")
+class LoadProfileTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    @DisplayName("ramp progresse lineairement de from a to puis reste a to")
+    void rampIsLinear() {
+        LoadProfile profile = LoadProfile.ramp(10, 50, Duration.ofSeconds(100));
+
+        assertEquals(Duration.ofSeconds(100), profile.duration());
+        assertEquals(10, profile.rateAt(0), DELTA);
+        assertEquals(20, profile.rateAt(25), DELTA);
+        assertEquals(30, profile.rateAt(50), DELTA);
+        assertEquals(50, profile.rateAt(100), DELTA);
+        assertEquals(50, profile.rateAt(150), DELTA);
+    }
+
+    @Test
+    @DisplayName("ramp accepte une pente descendante")
+    void rampCanDecrease() {
+        LoadProfile profile = LoadProfile.ramp(40, 0, Duration.ofSeconds(40));
+
+        assertEquals(40, profile.rateAt(0), DELTA);
+        assertEquals(10, profile.rateAt(30), DELTA);
+        assertEquals(0, profile.rateAt(40), DELTA);
+    }
+
+    @Test
+    @DisplayName("step monte par paliers et sa duree couvre tous les paliers")
+    void stepHoldsEachLevel() {
+        LoadProfile profile = LoadProfile.step(5, 20, 5, Duration.ofSeconds(30));
+
+        assertEquals(Duration.ofSeconds(120), profile.duration());
+        assertEquals(5, profile.rateAt(0), DELTA);
+        assertEquals(5, profile.rateAt(29.9), DELTA);
+        assertEquals(10, profile.rateAt(30), DELTA);
+        assertEquals(15, profile.rateAt(75), DELTA);
+        assertEquals(20, profile.rateAt(90), DELTA);
+        assertEquals(20, profile.rateAt(119.9), DELTA);
+    }
+
+    @Test
+    @DisplayName("step ne depasse pas to quand le pas ne tombe pas juste")
+    void stepIsCappedAtTarget() {
+        LoadProfile profile = LoadProfile.step(5, 12, 5, Duration.ofSeconds(10));
+
+        assertEquals(Duration.ofSeconds(20), profile.duration());
+        assertEquals(10, profile.rateAt(15), DELTA);
+        assertEquals(12, profile.rateAt(25), DELTA);
+    }
+
+    @Test
+    @DisplayName("spike applique le pic au milieu du tir pendant spikeDuration")
+    void spikeIsCentered() {
+        LoadProfile profile = LoadProfile.spike(10, 100, Duration.ofSeconds(20), Duration.ofSeconds(100));
+
+        assertEquals(Duration.ofSeconds(100), profile.duration());
+        assertEquals(10, profile.rateAt(0), DELTA);
+        assertEquals(10, profile.rateAt(39.9), DELTA);
+        assertEquals(100, profile.rateAt(40), DELTA);
+        assertEquals(100, profile.rateAt(59.9), DELTA);
+        assertEquals(10, profile.rateAt(60), DELTA);
+        assertEquals(10, profile.rateAt(99.9), DELTA);
+    }
+}
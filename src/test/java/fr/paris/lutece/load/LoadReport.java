@@ -0,0 +1,86 @@
+package fr.paris.lutece.load;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rapport d'un tir de charge : debit et percentiles par etape, dans target/load/&lt;nom&gt;/.
+ *
+ * - summary.txt : tableau debit / p50 / p90 / p99 / p99.9 / max (ms)
+ * - &lt;etape&gt;.hgrm : distribution complete (format HdrHistogram, lisible par HistogramLogAnalyzer)
+ */
+public final class LoadReport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadReport.class);
+
+    private static final Path LOAD_PATH = Paths.get("target/load");
+
+    private LoadReport() {
+    }
+
+    public static Path directory(String name) {
+        return LOAD_PATH.resolve(name);
+    }
+
+    /**
+     * Ecrit le rapport et le retourne sous forme de texte.
+     *
+     * @param elapsedNanos duree de la phase mesuree (hors montee en charge)
+     */
+    public static String write(String name, String header, LatencyRecorder recorder, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder summary = new StringBuilder(header).append(System.lineSeparator());
+        summary.append(String.format(Locale.ROOT, "%-24s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+            "etape", "ok", "erreurs", "debit/s", "p50", "p90", "p99", "p99.9", "max"));
+        for (Map.Entry<String, Histogram> entry : recorder.histograms().entrySet()) {
+            Histogram histogram = entry.getValue();
+            summary.append(String.format(Locale.ROOT, "%-24s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                entry.getKey(),
+                histogram.getTotalCount(),
+                recorder.errors(entry.getKey()),
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())));
+            if (recorder.lastError(entry.getKey()) != null) {
+                summary.append("    derniere erreur: ").append(recorder.lastError(entry.getKey()))
+                    .append(System.lineSeparator());
+            }
+        }
+
+        Path directory = directory(name);
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("summary.txt"))) {
+                writer.write(summary.toString());
+            }
+            for (Map.Entry<String, Histogram> entry : recorder.histograms().entrySet()) {
+                try (PrintStream out = new PrintStream(
+                        Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")))) {
+                    // Valeurs en microsecondes, sortie en millisecondes
+                    entry.getValue().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Rapport de charge non ecrit ({}): {}", directory, e.getMessage());
+        }
+        LOGGER.info("Rapport de charge {}:{}{}", name, System.lineSeparator(), summary);
+        return summary.toString();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,42 @@
+package fr.paris.lutece.load;
+
+/**
+ * Resultat global d'un tir de charge.
+ */
+public final class LoadResult {
+
+    private final long iterations;
+    private final long failedIterations;
+    private final long elapsedNanos;
+    private final LatencyRecorder recorder;
+
+    LoadResult(long iterations, long failedIterations, long elapsedNanos, LatencyRecorder recorder) {
+        this.iterations = iterations;
+        this.failedIterations = failedIterations;
+        this.elapsedNanos = elapsedNanos;
+        this.recorder = recorder;
+    }
+
+    public long iterations() {
+        return iterations;
+    }
+
+    public long failedIterations() {
+        return failedIterations;
+    }
+
+    /**
+     * Iterations par seconde pendant la phase mesuree (duree reellement ecoulee, pas celle du profil).
+     */
+    public double throughput() {
+        return elapsedNanos <= 0 ? 0 : iterations / (elapsedNanos / 1e9);
+    }
+
+    public double errorRate() {
+        return iterations == 0 ? 0 : (double) failedIterations / iterations;
+    }
+
+    public LatencyRecorder recorder() {
+        return recorder;
+    }
+}
@@ -0,0 +1,124 @@
+package fr.paris.lutece.load;
+
+import fr.paris.lutece.monitoring.LibertyMetricsScraper;
+import fr.paris.lutece.monitoring.LockMonitor;
+import fr.paris.lutece.monitoring.ServerProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tir de charge en modele ferme : N utilisateurs virtuels rejouent le scenario en boucle.
+ *
+ * Les utilisateurs demarrent progressivement pendant la montee en charge ; seules les iterations
+ * commencees apres la montee et terminees avant la fin du tir sont comptees, avec les latences de
+ * leurs etapes. Chaque iteration utilise une nouvelle session
+ * (un nouvel usager du front office).
+ */
+public final class LoadRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadRunner.class);
+
+    private final String name;
+    private final Scenario scenario;
+    private final int users;
+    private final Duration rampUp;
+    private final Duration duration;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder failedIterations = new LongAdder();
+
+    public LoadRunner(String name, Scenario scenario, int users, Duration rampUp, Duration duration) {
+        this.name = name;
+        this.scenario = scenario;
+        this.users = users;
+        this.rampUp = rampUp;
+        this.duration = duration;
+    }
+
+    /**
+     * Execute le tir et ecrit le rapport ({@link LoadReport}).
+     */
+    public LoadResult run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + rampUp.toNanos();
+        long end = measureFrom + duration.toNanos();
+        LatencyRecorder warmup = new LatencyRecorder();
+        AtomicInteger started = new AtomicInteger();
+
+        LOGGER.info("Tir {} : {} utilisateurs, montee {} s, mesure {} s",
+            name, users, rampUp.toSeconds(), duration.toSeconds());
+        ExecutorService executor = LoadExecutors.perTask("load-" + name);
+        LockMonitor locks = LockMonitor.start(LoadReport.directory(name).resolve("locks"));
+        ServerProfile serverProfile = ServerProfile.start(name.replace('/', '-'), LoadReport.directory(name));
+        LibertyMetricsScraper metrics = LibertyMetricsScraper.start(LoadReport.directory(name));
+        try {
+            for (int i = 0; i < users; i++) {
+                long startAt = start + (users > 1 ? rampUp.toNanos() * i / users : 0);
+                int id = i;
+                executor.submit(() -> {
+                    sleepUntil(startAt);
+                    started.incrementAndGet();
+                    while (System.nanoTime() < end) {
+                        boolean measured = System.nanoTime() >= measureFrom;
+                        LatencyRecorder steps = measured ? recorder.deferred() : warmup;
+                        VirtualUser user = new VirtualUser(id, steps);
+                        boolean failed = false;
+                        try {
+                            scenario.run(user);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            failed = true;
+                        }
+                        // Une iteration terminee apres la fin de la fenetre de mesure n'est pas comptee
+                        if (measured && System.nanoTime() <= end) {
+                            steps.commit();
+                            iterations.increment();
+                            if (failed) {
+                                failedIterations.increment();
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            long remaining = end - System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            if (!executor.awaitTermination(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+                executor.shutdownNow();
+            }
+            locks.close();
+            serverProfile.close();
+            metrics.close();
+        }
+
+        long measured = Math.min(System.nanoTime(), end) - measureFrom;
+        LoadResult result = new LoadResult(iterations.sum(), failedIterations.sum(), measured, recorder);
+        String header = String.format(Locale.ROOT, "Tir %s - modele ferme - %d utilisateurs (%d demarres) - %d s mesurees%n"
+                + "Iterations: %d (echecs: %d) - debit: %.1f iterations/s",
+            name, users, started.get(), duration.toSeconds(),
+            result.iterations(), result.failedIterations(), result.throughput());
+        LoadReport.write(name, header, recorder, measured);
+        return result;
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long delay = nanoTime - System.nanoTime();
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package fr.paris.lutece.load;
+
+import org.jsoup.nodes.Document;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Connexion au back office d'un navigateur neuf : page de connexion puis envoi des identifiants.
+ *
+ * Les trois cas de LoginTest : identifiants valides (session ouverte, puis fermee par logoutPath
+ * pour ne pas accumuler de sessions), mot de passe errone et utilisateur inexistant (retour sur la
+ * page de connexion attendu). Chaque iteration tire un compte parmi accessCodes.
+ */
+public final class LoginScenario implements Scenario {
+
+    public static final String STEP_LOGIN_PAGE = "login-page";
+    public static final String STEP_SUBMIT = "login-submit";
+
+    private static final String LOGIN_BUTTON = "Se connecter";
+
+    private final String baseUrl;
+    private final List<String> accessCodes;
+    private final String password;
+    private final boolean expectSuccess;
+    private final String logoutPath;
+
+    /**
+     * @param logoutPath page de deconnexion apres un succes (vide : la session est abandonnee)
+     */
+    public LoginScenario(String baseUrl, List<String> accessCodes, String password, boolean expectSuccess,
+                         String logoutPath) {
+        this.baseUrl = baseUrl;
+        this.accessCodes = accessCodes;
+        this.password = password;
+        this.expectSuccess = expectSuccess;
+        this.logoutPath = logoutPath;
+    }
+
+    @Override
+    public void run(VirtualUser user) throws Exception {
+        HttpSession session = user.session();
+        String accessCode = accessCodes.get(ThreadLocalRandom.current().nextInt(accessCodes.size()));
+        Document loginPage = user.step(STEP_LOGIN_PAGE,
+            () -> session.get(baseUrl + "/jsp/admin/AdminLogin.jsp").assertOk().document());
+        HtmlForm form = HtmlForm.withButton(loginPage, LOGIN_BUTTON)
+            .fillByLabel("Code d'acces", accessCode, "text")
+            .fillByLabel("Mot de passe", password, "password");
+        Document result = user.step(STEP_SUBMIT, () -> session.submit(form.submit(LOGIN_BUTTON)).assertOk().document());
+        if (AdminSession.isLoginPage(result) == expectSuccess) {
+            throw new LoadException(expectSuccess
+                ? "Connexion BO refusee pour " + accessCode
+                : "Connexion BO acceptee pour " + accessCode + " avec un mot de passe errone");
+        }
+        if (expectSuccess && !logoutPath.isEmpty()) {
+            session.get(baseUrl + logoutPath);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package fr.paris.lutece.load;
+
+import fr.paris.lutece.monitoring.LibertyMetricsScraper;
+import fr.paris.lutece.monitoring.LockMonitor;
+import fr.paris.lutece.monitoring.ServerProfile;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tir de charge en modele ouvert : les iterations arrivent selon un taux ({@link LoadProfile}),
+ * independamment des reponses du serveur.
+ *
+ * Chaque arrivee a une heure de depart prevue ; son temps de reponse est mesure depuis cette
+ * heure prevue et non depuis son depart effectif, ce qui corrige l'omission coordonnee
+ * (un serveur sature ne "ralentit" pas le generateur). Les resultats sont agreges par fenetre
+ * de temps pour tracer la courbe latence / debit (curve.csv).
+ *
+ * Aucune arrivee n'est perdue : une arrivee refusee (max en cours atteint) est comptee en erreur
+ * (colonne rejected) ; une iteration encore en cours a l'arret du tir est abandonnee, comptee en
+ * erreur (colonne abandoned) avec pour latence le temps ecoule depuis son heure prevue.
+ */
+public final class OpenModelScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenModelScheduler.class);
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final String name;
+    private final WorkloadMix mix;
+    private final LoadProfile profile;
+    private final int windowSeconds;
+    private final int maxInFlight;
+    private final boolean poisson;
+
+    private final LatencyRecorder steps = new LatencyRecorder();
+    private final LatencyRecorder responses = new LatencyRecorder();
+    private final Histogram startDelays = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final Map<Integer, Arrival> running = new ConcurrentHashMap<>();
+
+    private Window[] windows;
+
+    /**
+     * Resultats d'une fenetre de temps (par heure d'arrivee prevue).
+     */
+    private static final class Window {
+        final LongAdder offered = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder abandoned = new LongAdder();
+        final Histogram latencies = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    }
+
+    /**
+     * Iteration lancee, retiree de {@link #running} par celui qui enregistre son resultat.
+     */
+    private static final class Arrival {
+        final long intended;
+        final Window window;
+        final String name;
+
+        Arrival(long intended, Window window, String name) {
+            this.intended = intended;
+            this.window = window;
+            this.name = name;
+        }
+    }
+
+    /**
+     * @param windowSeconds taille des fenetres d'agregation de la courbe
+     * @param maxInFlight   iterations simultanees max ; au-dela l'arrivee est refusee (erreur)
+     * @param poisson       arrivees poissonniennes (sinon regulierement espacees)
+     */
+    public OpenModelScheduler(String name, WorkloadMix mix, LoadProfile profile,
+                              int windowSeconds, int maxInFlight, boolean poisson) {
+        this.name = name;
+        this.mix = mix;
+        this.profile = profile;
+        this.windowSeconds = windowSeconds;
+        this.maxInFlight = maxInFlight;
+        this.poisson = poisson;
+    }
+
+    public LoadResult run() throws InterruptedException {
+        double durationSeconds = profile.duration().toSeconds();
+        windows = new Window[(int) Math.ceil(durationSeconds / windowSeconds)];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new Window();
+        }
+
+        LOGGER.info("Tir {} : modele ouvert, {}, melange {}", name, profile.describe(), mix.describe());
+        ExecutorService executor = LoadExecutors.perTask("load-" + name);
+        LockMonitor locks = LockMonitor.start(LoadReport.directory(name).resolve("locks"));
+        ServerProfile serverProfile = ServerProfile.start(name.replace('/', '-'), LoadReport.directory(name));
+        LibertyMetricsScraper metrics = LibertyMetricsScraper.start(LoadReport.directory(name));
+        long start = System.nanoTime();
+        int userId = 0;
+        try {
+            double t = 0;
+            while (t < durationSeconds) {
+                double rate = profile.rateAt(t);
+                if (rate <= 0) {
+                    t += 0.1;
+                    continue;
+                }
+                long intended = start + (long) (t * 1e9);
+                parkUntil(intended);
+
+                Window window = windows[Math.min(windows.length - 1, (int) (t / windowSeconds))];
+                window.offered.increment();
+                WorkloadMix.Entry entry = mix.pick();
+                if (inFlight.incrementAndGet() > maxInFlight) {
+                    inFlight.decrementAndGet();
+                    dropped.increment();
+                    window.errors.increment();
+                    window.rejected.increment();
+                    responses.recordError(entry.name(), new LoadException("iteration non lancee (max en cours atteint)"));
+                } else {
+                    int id = userId++;
+                    running.put(id, new Arrival(intended, window, entry.name()));
+                    executor.submit(() -> {
+                        long actualStart = System.nanoTime();
+                        startDelays.recordValue(Math.min(HIGHEST_MICROS, Math.max(0, (actualStart - intended) / 1000)));
+                        try {
+                            entry.scenario().run(new VirtualUser(id, steps));
+                            complete(id, null);
+                        } catch (Exception e) {
+                            complete(id, e);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+
+                double interval = 1.0 / rate;
+                t += poisson ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * interval : interval;
+            }
+        } finally {
+            executor.shutdown();
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                LOGGER.warn("Tir {} : {} iterations encore en cours apres 60 s, abandonnees", name, running.size());
+                abandonRunning();
+                executor.shutdownNow();
+            }
+            locks.close();
+            serverProfile.close();
+            metrics.close();
+        }
+
+        // Duree reelle : inclut l'attente des dernieres iterations apres la fin du profil
+        long elapsed = System.nanoTime() - start;
+        LoadResult result = new LoadResult(iterations.sum() + dropped.sum(), failures.sum() + dropped.sum(),
+            elapsed, responses);
+        long abandoned = 0;
+        for (Window window : windows) {
+            abandoned += window.abandoned.sum();
+        }
+        String header = String.format(Locale.ROOT,
+            "Tir %s - modele ouvert - %s%nMelange: %s%n"
+                + "Arrivees: %d (echecs: %d, non lancees: %d, abandonnees: %d) - debit: %.1f/s"
+                + " - retard de depart p99: %.1f ms%n"
+                + "Temps de reponse mesures depuis l'heure d'arrivee prevue (correction de l'omission coordonnee)",
+            name, profile.describe(), mix.describe(),
+            result.iterations(), result.failedIterations(), dropped.sum(), abandoned, result.throughput(),
+            startDelays.getValueAtPercentile(99) / 1000.0);
+        LoadReport.write(name, header, responses, elapsed);
+        LoadReport.write(name + "/steps", "Tir " + name + " - temps de service par etape", steps, elapsed);
+        writeCurve(LoadReport.directory(name).resolve("curve.csv"));
+        return result;
+    }
+
+    /**
+     * Enregistre le resultat d'une iteration, sauf si elle a deja ete comptee comme abandonnee.
+     */
+    private void complete(int id, Exception error) {
+        Arrival arrival = running.remove(id);
+        if (arrival == null) {
+            return;
+        }
+        iterations.increment();
+        if (error == null) {
+            long responseTime = System.nanoTime() - arrival.intended;
+            responses.record(arrival.name, responseTime);
+            arrival.window.latencies.recordValue(Math.min(HIGHEST_MICROS, responseTime / 1000));
+            arrival.window.completed.increment();
+        } else {
+            responses.recordError(arrival.name, error);
+            arrival.window.errors.increment();
+            failures.increment();
+        }
+    }
+
+    /**
+     * Compte en erreur les iterations encore en cours a l'arret du tir, avec pour latence
+     * (borne basse) le temps ecoule depuis leur heure prevue.
+     */
+    private void abandonRunning() {
+        for (Integer id : running.keySet()) {
+            Arrival arrival = running.remove(id);
+            if (arrival == null) {
+                continue;
+            }
+            long elapsed = System.nanoTime() - arrival.intended;
+            iterations.increment();
+            failures.increment();
+            responses.recordError(arrival.name,
+                new LoadException("iteration abandonnee a l'arret du tir apres " + elapsed / 1_000_000 + " ms"));
+            arrival.window.latencies.recordValue(Math.min(HIGHEST_MICROS, elapsed / 1000));
+            arrival.window.errors.increment();
+            arrival.window.abandoned.increment();
+        }
+    }
+
+    /**
+     * Courbe latence / debit : une ligne par fenetre (taux offert, debit obtenu, erreurs dont arrivees
+     * refusees et iterations abandonnees, percentiles).
+     */
+    private void writeCurve(Path file) {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("window_start_s,offered_per_s,throughput_per_s,errors,rejected,abandoned,p50_ms,p90_ms,p99_ms,p999_ms,max_ms"
+                + System.lineSeparator());
+            for (int i = 0; i < windows.length; i++) {
+                Window window = windows[i];
+                Histogram latencies = window.latencies;
+                writer.write(String.format(Locale.ROOT, "%d,%.2f,%.2f,%d,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                    i * windowSeconds,
+                    window.offered.sum() / (double) windowSeconds,
+                    window.completed.sum() / (double) windowSeconds,
+                    window.errors.sum(),
+                    window.rejected.sum(),
+                    window.abandoned.sum(),
+                    latencies.getValueAtPercentile(50) / 1000.0,
+                    latencies.getValueAtPercentile(90) / 1000.0,
+                    latencies.getValueAtPercentile(99) / 1000.0,
+                    latencies.getValueAtPercentile(99.9) / 1000.0,
+                    latencies.getMaxValue() / 1000.0));
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Courbe latence/debit non ecrite ({}): {}", file, e.getMessage());
+        }
+        LOGGER.info("Courbe latence/debit: {}", file);
+    }
+
+    private static void parkUntil(long nanoTime) {
+        long delay;
+        while ((delay = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(delay);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package fr.paris.lutece.load;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Validation d'une reponse en back office : liste des reponses (MultiviewForms), ouverture d'une
+ * reponse, action de workflow (test.workflow.action.name) puis confirmation si l'action affiche
+ * un formulaire de tache.
+ *
+ * La reponse est tiree au hasard parmi celles de la premiere page pour eviter que tous les
+ * administrateurs virtuels traitent la meme. Une reponse deja validee n'a plus l'action : l'iteration
+ * echoue alors sur l'etape "bo-validate-action". Sessions BO reutilisees comme dans
+ * {@link BackOfficeBrowsingScenario}.
+ *
+ * Variante {@link #forResponses} : les reponses sont prises dans une file partagee et ouvertes
+ * directement par leur identifiant (pas de liste), chacune traitee une seule fois.
+ */
+public final class ResponseValidationScenario implements Scenario {
+
+    public static final String STEP_LOGIN = "bo-login";
+    public static final String STEP_LIST = "bo-validate-list";
+    public static final String STEP_OPEN = "bo-validate-open";
+    public static final String STEP_ACTION = "bo-validate-action";
+    public static final String STEP_CONFIRM = "bo-validate-confirm";
+
+    private static final String BUTTON_CONFIRM = "Valider";
+
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final String multiviewPath;
+    private final String actionLabel;
+    private final String responsePath;
+    private final Queue<Integer> responses;
+    private final BlockingQueue<HttpSession> sessions = new LinkedBlockingQueue<>();
+
+    public ResponseValidationScenario(String baseUrl, String username, String password,
+                                      String multiviewPath, String actionLabel) {
+        this(baseUrl, username, password, multiviewPath, actionLabel, null, null);
+    }
+
+    private ResponseValidationScenario(String baseUrl, String username, String password, String multiviewPath,
+                                       String actionLabel, String responsePath, Queue<Integer> responses) {
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.password = password;
+        this.multiviewPath = multiviewPath;
+        this.actionLabel = actionLabel;
+        this.responsePath = responsePath;
+        this.responses = responses;
+    }
+
+    /**
+     * Traitement des reponses de la file, ouvertes par responsePath ({response} : identifiant).
+     * Une iteration sur file vide echoue (LoadException) sans requete.
+     */
+    public static ResponseValidationScenario forResponses(String baseUrl, String username, String password,
+                                                          String responsePath, String actionLabel,
+                                                          Queue<Integer> responses) {
+        return new ResponseValidationScenario(baseUrl, username, password, null, actionLabel, responsePath, responses);
+    }
+
+    @Override
+    public void run(VirtualUser user) throws Exception {
+        HttpSession existing = sessions.poll();
+        HttpSession session = existing != null
+            ? existing
+            : user.step(STEP_LOGIN, () -> AdminSession.login(baseUrl, username, password));
+
+        try {
+            validate(user, session);
+        } finally {
+            sessions.offer(session);
+        }
+    }
+
+    private void validate(VirtualUser user, HttpSession session) throws Exception {
+        String responseUrl = responses != null ? nextResponseUrl() : pickResponseUrl(user, session);
+
+        Document details = user.step(STEP_OPEN, () -> authenticated(session.get(responseUrl)));
+
+        // Sans l'action, l'echec est compte sur l'etape action
+        Document task = user.step(STEP_ACTION, () -> {
+            Element action = findAction(details);
+            if (action == null) {
+                throw new LoadException("Action '" + actionLabel + "' indisponible sur " + responseUrl);
+            }
+            return authenticated(session.get(action.absUrl("href")));
+        });
+
+        HtmlForm confirmation = taskForm(task);
+        if (confirmation != null) {
+            user.step(STEP_CONFIRM, () -> authenticated(session.submit(confirmation.submit(BUTTON_CONFIRM))));
+        }
+    }
+
+    /**
+     * Reponse tiree au hasard dans la premiere page de la liste.
+     */
+    private String pickResponseUrl(VirtualUser user, HttpSession session) throws Exception {
+        Document list = user.step(STEP_LIST, () -> authenticated(session.get(baseUrl + multiviewPath)));
+        Elements links = list.select("a[href*=id_form_response]");
+        if (links.isEmpty()) {
+            throw new LoadException("Aucune reponse dans " + multiviewPath);
+        }
+        return links.get(ThreadLocalRandom.current().nextInt(links.size())).absUrl("href");
+    }
+
+    private String nextResponseUrl() {
+        Integer id = responses.poll();
+        if (id == null) {
+            throw new LoadException("File de reponses a traiter vide");
+        }
+        return baseUrl + responsePath.replace("{response}", String.valueOf(id));
+    }
+
+    /**
+     * Formulaire de la tache affiche par l'action, null si l'action a ete executee directement.
+     */
+    private static HtmlForm taskForm(Document task) {
+        try {
+            return HtmlForm.withButton(task, BUTTON_CONFIRM);
+        } catch (LoadException e) {
+            return null;
+        }
+    }
+
+    private Element findAction(Document details) {
+        String wanted = HtmlForm.normalize(actionLabel);
+        for (Element link : details.select("a[href*=id_action]")) {
+            if (HtmlForm.normalize(link.text()).contains(wanted)
+                    || HtmlForm.normalize(link.attr("title")).contains(wanted)) {
+                return link;
+            }
+        }
+        return null;
+    }
+
+    private static Document authenticated(HttpSession.Response response) {
+        Document document = response.assertOk().document();
+        if (AdminSession.isLoginPage(document)) {
+            throw new LoadException("Session BO perdue sur " + response.uri());
+        }
+        return document;
+    }
+}
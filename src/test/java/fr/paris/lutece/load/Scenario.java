@@ -0,0 +1,10 @@
+package fr.paris.lutece.load;
+
+/**
+ * Parcours joue par un utilisateur virtuel. Chaque etape est mesuree via {@link VirtualUser#step}.
+ */
+@FunctionalInterface
+public interface Scenario {
+
+    void run(VirtualUser user) throws Exception;
+}
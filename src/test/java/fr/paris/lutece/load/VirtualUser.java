@@ -0,0 +1,48 @@
+package fr.paris.lutece.load;
+
+import fr.paris.lutece.monitoring.ActiveSteps;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Utilisateur virtuel : une session HTTP et l'enregistrement des latences de ses etapes.
+ *
+ * Les etapes en cours sont declarees a {@link ActiveSteps} pour l'attribution des attentes de verrous.
+ */
+public final class VirtualUser {
+
+    private final int id;
+    private final HttpSession session = new HttpSession();
+    private final LatencyRecorder recorder;
+
+    public VirtualUser(int id, LatencyRecorder recorder) {
+        this.id = id;
+        this.recorder = recorder;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public HttpSession session() {
+        return session;
+    }
+
+    /**
+     * Execute et mesure une etape ; une erreur est comptee puis propagee (fin de l'iteration).
+     */
+    public <T> T step(String name, Callable<T> body) throws Exception {
+        ActiveSteps.enter(name);
+        long start = System.nanoTime();
+        try {
+            T result = body.call();
+            recorder.record(name, System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            recorder.recordError(name, e);
+            throw e;
+        } finally {
+            ActiveSteps.exit(name);
+        }
+    }
+}
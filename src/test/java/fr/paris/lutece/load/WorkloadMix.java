@@ -0,0 +1,72 @@
+package fr.paris.lutece.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Melange pondere de scenarios (ex. 95 % soumissions FO, 5 % navigation BO).
+ */
+public final class WorkloadMix {
+
+    /**
+     * Scenario nomme et son poids dans le melange.
+     */
+    public static final class Entry {
+
+        private final String name;
+        private final Scenario scenario;
+        private final double weight;
+
+        Entry(String name, Scenario scenario, double weight) {
+            this.name = name;
+            this.scenario = scenario;
+            this.weight = weight;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Scenario scenario() {
+            return scenario;
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private double totalWeight;
+
+    public WorkloadMix add(String name, Scenario scenario, double weight) {
+        if (weight > 0) {
+            entries.add(new Entry(name, scenario, weight));
+            totalWeight += weight;
+        }
+        return this;
+    }
+
+    /**
+     * Tire un scenario selon les poids.
+     */
+    public Entry pick() {
+        double draw = ThreadLocalRandom.current().nextDouble(totalWeight);
+        for (Entry entry : entries) {
+            draw -= entry.weight;
+            if (draw < 0) {
+                return entry;
+            }
+        }
+        return entries.get(entries.size() - 1);
+    }
+
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        for (Entry entry : entries) {
+            if (description.length() > 0) {
+                description.append(", ");
+            }
+            description.append(String.format(Locale.ROOT, "%s %.0f%%", entry.name, 100 * entry.weight / totalWeight));
+        }
+        return description.toString();
+    }
+}
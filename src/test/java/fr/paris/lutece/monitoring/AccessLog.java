@@ -0,0 +1,94 @@
+package fr.paris.lutece.monitoring;
+
+import fr.paris.lutece.containers.LuteceContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lecture incrementale du journal d'acces Liberty du conteneur Lutece (profil access-log.xml).
+ *
+ * Chaque ligne porte le temps de traitement serveur (%D, en microsecondes) et l'identifiant de
+ * correlation pose par le navigateur de test ; les temps sont indexes par cet identifiant.
+ * Seules les nouvelles lignes sont lues a chaque {@link #refresh()} (tail -c depuis le dernier octet lu).
+ */
+public final class AccessLog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccessLog.class);
+
+    // ... "GET /lutece/jsp/admin/Foo.jsp HTTP/1.1" 200 5123 18234 3f2a9c
+    private static final Pattern ENTRY = Pattern.compile("\"[^\"]*\" (\\d{3}) \\S+ (\\d+) (\\S+)\\s*$");
+
+    private static final Map<String, Long> SERVER_MICROS = new ConcurrentHashMap<>();
+
+    private static LuteceContainer container;
+    private static long offset;
+    private static String partialLine = "";
+
+    private AccessLog() {
+    }
+
+    /**
+     * Declare le conteneur Lutece. Appele par ContainerSetup apres son demarrage.
+     */
+    public static synchronized void attach(LuteceContainer lutece) {
+        container = lutece;
+        offset = 0;
+        partialLine = "";
+        SERVER_MICROS.clear();
+    }
+
+    public static boolean isAvailable() {
+        return container != null && container.isRunning();
+    }
+
+    /**
+     * Lit les lignes ecrites depuis le dernier appel.
+     */
+    public static synchronized void refresh() {
+        if (!isAvailable()) {
+            return;
+        }
+        String chunk;
+        try {
+            chunk = container.readFile(LuteceContainer.ACCESS_LOG_PATH, offset);
+        } catch (Exception e) {
+            LOGGER.debug("Journal d'acces illisible: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        offset += chunk.getBytes(StandardCharsets.UTF_8).length;
+        String text = partialLine + chunk;
+        int lastNewline = text.lastIndexOf('\n');
+        partialLine = text.substring(lastNewline + 1);
+        if (lastNewline < 0) {
+            return;
+        }
+        for (String line : text.substring(0, lastNewline).split("\\R")) {
+            Matcher matcher = ENTRY.matcher(line);
+            if (matcher.find() && !"-".equals(matcher.group(3))) {
+                SERVER_MICROS.put(matcher.group(3), Long.parseLong(matcher.group(2)));
+            }
+        }
+    }
+
+    public static boolean contains(String requestId) {
+        return SERVER_MICROS.containsKey(requestId);
+    }
+
+    /**
+     * Temps de traitement serveur de la requete d'identifiant donne, retire de l'index.
+     */
+    public static OptionalLong serverMicros(String requestId) {
+        Long micros = SERVER_MICROS.remove(requestId);
+        return micros == null ? OptionalLong.empty() : OptionalLong.of(micros);
+    }
+}
@@ -0,0 +1,73 @@
+package fr.paris.lutece.monitoring;
+
+import com.microsoft.playwright.Page;
+import fr.paris.lutece.pages.PageActions;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Etapes en cours d'execution, tous threads confondus.
+ *
+ * Les etapes des utilisateurs virtuels ({@link fr.paris.lutece.load.VirtualUser#step}) et les
+ * actions des Page Objects ({@link PageActions}) y sont declarees pendant leur execution, ce qui
+ * permet aux moniteurs qui echantillonnent la base d'attribuer une attente a ce qui tournait alors.
+ */
+public final class ActiveSteps {
+
+    private static final Map<String, AtomicInteger> ACTIVE = new ConcurrentHashMap<>();
+
+    private static final PageActions.Listener PAGE_ACTIONS = new PageActions.Listener() {
+        @Override
+        public void beforeAction(Page page, String action) {
+            enter(action);
+        }
+
+        @Override
+        public void afterAction(Page page, String action, long durationNanos, Throwable error) {
+            exit(action);
+        }
+    };
+
+    private static final AtomicBoolean INSTALLED = new AtomicBoolean();
+
+    private ActiveSteps() {
+    }
+
+    /**
+     * Suit aussi les actions des Page Objects (appele par les moniteurs a leur demarrage).
+     */
+    public static void install() {
+        if (INSTALLED.compareAndSet(false, true)) {
+            PageActions.addListener(PAGE_ACTIONS);
+        }
+    }
+
+    public static void enter(String step) {
+        ACTIVE.computeIfAbsent(step, s -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public static void exit(String step) {
+        AtomicInteger count = ACTIVE.get(step);
+        if (count != null) {
+            count.decrementAndGet();
+        }
+    }
+
+    /**
+     * Noms des etapes en cours a cet instant.
+     */
+    public static Set<String> snapshot() {
+        Set<String> steps = new TreeSet<>();
+        ACTIVE.forEach((step, count) -> {
+            if (count.get() > 0) {
+                steps.add(step);
+            }
+        });
+        return steps;
+    }
+}
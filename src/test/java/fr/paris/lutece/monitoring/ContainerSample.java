@@ -0,0 +1,41 @@
+package fr.paris.lutece.monitoring;
+
+/**
+ * Mesure des ressources d'un conteneur a un instant donne.
+ *
+ * Les compteurs reseau, disque et throttling sont cumules depuis le demarrage du conteneur ;
+ * les resumes par test utilisent leur difference entre debut et fin du test.
+ */
+public final class ContainerSample {
+
+    final long timestampMs;
+    final double cpuPercent;
+    final long rssBytes;
+    final long throttledMs;
+    final long netRxBytes;
+    final long netTxBytes;
+    final long blockReadBytes;
+    final long blockWriteBytes;
+
+    ContainerSample(long timestampMs, double cpuPercent, long rssBytes, long throttledMs,
+                    long netRxBytes, long netTxBytes, long blockReadBytes, long blockWriteBytes) {
+        this.timestampMs = timestampMs;
+        this.cpuPercent = cpuPercent;
+        this.rssBytes = rssBytes;
+        this.throttledMs = throttledMs;
+        this.netRxBytes = netRxBytes;
+        this.netTxBytes = netTxBytes;
+        this.blockReadBytes = blockReadBytes;
+        this.blockWriteBytes = blockWriteBytes;
+    }
+
+    static String csvHeader() {
+        return "timestamp_ms,container,cpu_percent,rss_mb,throttled_ms,net_rx_kb,net_tx_kb,block_read_kb,block_write_kb";
+    }
+
+    String toCsv(String container) {
+        return String.format(java.util.Locale.ROOT, "%d,%s,%.1f,%.1f,%d,%d,%d,%d,%d",
+            timestampMs, container, cpuPercent, rssBytes / 1048576.0, throttledMs,
+            netRxBytes >> 10, netTxBytes >> 10, blockReadBytes >> 10, blockWriteBytes >> 10);
+    }
+}
@@ -0,0 +1,189 @@
+package fr.paris.lutece.monitoring;
+
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.BlkioStatEntry;
+import com.github.dockerjava.api.model.CpuStatsConfig;
+import com.github.dockerjava.api.model.MemoryStatsConfig;
+import com.github.dockerjava.api.model.StatisticNetworksConfig;
+import com.github.dockerjava.api.model.Statistics;
+import fr.paris.lutece.containers.LuteceContainer;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Echantillonnage en tache de fond des ressources des conteneurs (API stats de Docker).
+ *
+ * Docker publie une mesure par seconde et par conteneur ; elle est retenue toutes les
+ * monitoring.interval.ms. Les series sont lues par {@link ResourceTelemetryListener} en fin de run.
+ * Chaque classe qui demarre ses conteneurs (ContainerSetup, ContainerBaseTest, LoginContainerTest)
+ * appelle {@link #start(LuteceContainer, GenericContainer)} puis {@link #stop()} a leur arret : les
+ * mesures successives d'un meme nom logique s'ajoutent a la meme serie.
+ *
+ * Configuration : monitoring.enabled, monitoring.interval.ms
+ */
+public final class ContainerStatsSampler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContainerStatsSampler.class);
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final boolean ENABLED = CONFIG.getOptionalValue("monitoring.enabled", Boolean.class).orElse(true);
+    private static final long INTERVAL_MS = CONFIG.getOptionalValue("monitoring.interval.ms", Long.class).orElse(1000L);
+
+    private static final Map<String, List<ContainerSample>> SERIES = new ConcurrentHashMap<>();
+    private static final Map<String, Closeable> STREAMS = new HashMap<>();
+
+    private ContainerStatsSampler() {
+    }
+
+    /**
+     * Demarre l'echantillonnage de Lutece et de sa base (noms logiques lutece et mariadb).
+     */
+    public static void start(LuteceContainer lutece, GenericContainer<?> mariadb) {
+        start(Map.of("lutece", lutece.getContainerId(), "mariadb", mariadb.getContainerId()));
+    }
+
+    /**
+     * Demarre l'echantillonnage des conteneurs (nom logique -> id du conteneur). Un flux deja ouvert
+     * pour le meme nom est ferme.
+     */
+    public static synchronized void start(Map<String, String> containers) {
+        if (!ENABLED) {
+            return;
+        }
+        for (Map.Entry<String, String> container : containers.entrySet()) {
+            close(STREAMS.remove(container.getKey()));
+            List<ContainerSample> series = SERIES.computeIfAbsent(container.getKey(),
+                name -> Collections.synchronizedList(new ArrayList<>()));
+            ResultCallback.Adapter<Statistics> callback = new ResultCallback.Adapter<>() {
+                private long last;
+
+                @Override
+                public void onNext(Statistics statistics) {
+                    long now = System.currentTimeMillis();
+                    if (now - last >= INTERVAL_MS && statistics.getCpuStats() != null) {
+                        last = now;
+                        series.add(sample(now, statistics));
+                    }
+                }
+            };
+            STREAMS.put(container.getKey(), DockerClientFactory.instance().client()
+                .statsCmd(container.getValue())
+                .exec(callback));
+        }
+        LOGGER.info("Telemetrie des conteneurs demarree: {} (intervalle {} ms)", containers.keySet(), INTERVAL_MS);
+    }
+
+    /**
+     * Arrete les flux de statistiques.
+     */
+    public static synchronized void stop() {
+        STREAMS.values().forEach(ContainerStatsSampler::close);
+        STREAMS.clear();
+    }
+
+    private static void close(Closeable stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            LOGGER.debug("Flux stats non ferme: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Copie des series par conteneur.
+     */
+    public static Map<String, List<ContainerSample>> series() {
+        Map<String, List<ContainerSample>> copy = new TreeMap<>();
+        SERIES.forEach((name, samples) -> {
+            synchronized (samples) {
+                copy.put(name, new ArrayList<>(samples));
+            }
+        });
+        return copy;
+    }
+
+    /**
+     * CPU moyen d'un conteneur (en % d'un coeur) entre deux instants, vide sans mesure.
+     */
+    public static OptionalDouble meanCpuPercent(String container, long fromMs, long toMs) {
+        List<ContainerSample> samples = series().getOrDefault(container, List.of());
+        return samples.stream()
+            .filter(sample -> sample.timestampMs >= fromMs && sample.timestampMs <= toMs)
+            .mapToDouble(sample -> sample.cpuPercent)
+            .average();
+    }
+
+    private static ContainerSample sample(long now, Statistics statistics) {
+        CpuStatsConfig cpu = statistics.getCpuStats();
+        CpuStatsConfig previous = statistics.getPreCpuStats();
+        double cpuPercent = 0;
+        if (previous != null && previous.getCpuUsage() != null && cpu.getCpuUsage() != null
+                && cpu.getSystemCpuUsage() != null && previous.getSystemCpuUsage() != null) {
+            long cpuDelta = value(cpu.getCpuUsage().getTotalUsage()) - value(previous.getCpuUsage().getTotalUsage());
+            long systemDelta = cpu.getSystemCpuUsage() - previous.getSystemCpuUsage();
+            long cpus = cpu.getOnlineCpus() != null ? cpu.getOnlineCpus() : 1;
+            if (systemDelta > 0 && cpuDelta > 0) {
+                cpuPercent = 100.0 * cpuDelta / systemDelta * cpus;
+            }
+        }
+        long throttledMs = cpu.getThrottlingData() == null ? 0
+            : value(cpu.getThrottlingData().getThrottledTime()) / 1_000_000;
+
+        long rx = 0;
+        long tx = 0;
+        if (statistics.getNetworks() != null) {
+            for (StatisticNetworksConfig network : statistics.getNetworks().values()) {
+                rx += value(network.getRxBytes());
+                tx += value(network.getTxBytes());
+            }
+        }
+        long read = 0;
+        long write = 0;
+        if (statistics.getBlkioStats() != null && statistics.getBlkioStats().getIoServiceBytesRecursive() != null) {
+            for (BlkioStatEntry entry : statistics.getBlkioStats().getIoServiceBytesRecursive()) {
+                if ("read".equalsIgnoreCase(entry.getOp())) {
+                    read += value(entry.getValue());
+                } else if ("write".equalsIgnoreCase(entry.getOp())) {
+                    write += value(entry.getValue());
+                }
+            }
+        }
+        return new ContainerSample(now, cpuPercent, rss(statistics.getMemoryStats()), throttledMs, rx, tx, read, write);
+    }
+
+    /**
+     * RSS : compteur rss en cgroup v1, sinon utilisation moins le cache de fichiers inactif (cgroup v2).
+     */
+    private static long rss(MemoryStatsConfig memory) {
+        if (memory == null) {
+            return 0;
+        }
+        if (memory.getStats() != null && memory.getStats().getRss() != null) {
+            return memory.getStats().getRss();
+        }
+        long inactiveFile = memory.getStats() == null ? 0 : value(memory.getStats().getInactiveFile());
+        return Math.max(0, value(memory.getUsage()) - inactiveFile);
+    }
+
+    private static long value(Long value) {
+        return value == null ? 0 : value;
+    }
+}
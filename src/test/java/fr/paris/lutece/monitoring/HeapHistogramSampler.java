@@ -0,0 +1,83 @@
+package fr.paris.lutece.monitoring;
+
+import fr.paris.lutece.containers.LuteceJvm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Echantillonne l'histogramme des classes de la JVM Lutece a intervalle fixe pendant un tir d'endurance.
+ *
+ * Chaque echantillon est associe au nombre de soumissions terminees a cet instant, pour rapporter
+ * la croissance du tas au trafic plutot qu'au temps ({@link LeakReport}).
+ */
+public final class HeapHistogramSampler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HeapHistogramSampler.class);
+
+    private final LuteceJvm jvm;
+    private final LongSupplier submissions;
+    private final Duration interval;
+    private final List<HeapSample> samples = new ArrayList<>();
+    private final Thread thread;
+    private final long start = System.currentTimeMillis();
+    private volatile boolean running = true;
+
+    private HeapHistogramSampler(LuteceJvm jvm, LongSupplier submissions, Duration interval) {
+        this.jvm = jvm;
+        this.submissions = submissions;
+        this.interval = interval;
+        this.thread = new Thread(this::run, "heap-histogram-sampler");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Demarre l'echantillonnage (un premier histogramme est pris immediatement).
+     */
+    public static HeapHistogramSampler start(LuteceJvm jvm, LongSupplier submissions, Duration interval) {
+        HeapHistogramSampler sampler = new HeapHistogramSampler(jvm, submissions, interval);
+        sampler.thread.start();
+        return sampler;
+    }
+
+    /**
+     * Arrete l'echantillonnage apres un dernier histogramme et retourne la serie.
+     */
+    public List<HeapSample> stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(60_000);
+        sample();
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            sample();
+            try {
+                Thread.sleep(interval.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void sample() {
+        try {
+            long done = submissions.getAsLong();
+            HeapSample sample = HeapSample.parse(System.currentTimeMillis() - start, done, jvm.classHistogram());
+            synchronized (samples) {
+                samples.add(sample);
+            }
+            LOGGER.info("Tas Lutece: {} Mo vivants apres {} soumissions", sample.totalBytes() >> 20, done);
+        } catch (IllegalStateException e) {
+            LOGGER.warn("Histogramme des classes impossible: {}", e.getMessage());
+        }
+    }
+}
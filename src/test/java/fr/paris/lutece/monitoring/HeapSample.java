@@ -0,0 +1,74 @@
+package fr.paris.lutece.monitoring;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Histogramme des classes du tas a un instant du tir d'endurance.
+ */
+public final class HeapSample {
+
+    // HotSpot : "   1:   12345   1234567  [B (java.base@17)" ; OpenJ9 : "   1:   12345   1234567  [B"
+    private static final Pattern LINE = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+)");
+
+    private final long elapsedMs;
+    private final long submissions;
+    private final Map<String, long[]> classes;
+
+    HeapSample(long elapsedMs, long submissions, Map<String, long[]> classes) {
+        this.elapsedMs = elapsedMs;
+        this.submissions = submissions;
+        this.classes = classes;
+    }
+
+    /**
+     * @param histogram sortie de jcmd GC.class_histogram
+     */
+    static HeapSample parse(long elapsedMs, long submissions, String histogram) {
+        Map<String, long[]> classes = new TreeMap<>();
+        for (String line : histogram.split("\\R")) {
+            Matcher matcher = LINE.matcher(line);
+            if (matcher.find()) {
+                long[] values = classes.computeIfAbsent(matcher.group(3), c -> new long[2]);
+                values[0] += Long.parseLong(matcher.group(1));
+                values[1] += Long.parseLong(matcher.group(2));
+            }
+        }
+        return new HeapSample(elapsedMs, submissions, classes);
+    }
+
+    public long elapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * Soumissions FO terminees au moment de l'echantillon.
+     */
+    public long submissions() {
+        return submissions;
+    }
+
+    public long instances(String className) {
+        long[] values = classes.get(className);
+        return values == null ? 0 : values[0];
+    }
+
+    public long bytes(String className) {
+        long[] values = classes.get(className);
+        return values == null ? 0 : values[1];
+    }
+
+    public Iterable<String> classNames() {
+        return classes.keySet();
+    }
+
+    public long totalBytes() {
+        return classes.values().stream().mapToLong(values -> values[1]).sum();
+    }
+
+    public long totalInstances() {
+        return classes.values().stream().mapToLong(values -> values[0]).sum();
+    }
+}
@@ -0,0 +1,142 @@
+package fr.paris.lutece.monitoring;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resume texte d'un enregistrement JFR : methodes les plus echantillonnees (CPU), sites
+ * d'allocation et contention de verrous (moniteurs et park).
+ */
+public final class JfrSummary {
+
+    private static final String APPLICATION_PACKAGE = "fr.paris.lutece.";
+
+    private JfrSummary() {
+    }
+
+    public static String summarize(Path recording, int top) throws IOException {
+        ProfileTable selfCpu = new ProfileTable();
+        ProfileTable luteceCpu = new ProfileTable();
+        ProfileTable allocations = new ProfileTable();
+        ProfileTable monitors = new ProfileTable();
+        ProfileTable parks = new ProfileTable();
+        long samples = 0;
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                RecordedStackTrace stack = event.getStackTrace();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample":
+                        samples++;
+                        selfCpu.add(topFrame(stack), 1);
+                        luteceCpu.add(firstApplicationFrame(stack), 1);
+                        break;
+                    case "jdk.ObjectAllocationSample":
+                        allocations.add(allocationSite(event, stack), event.getLong("weight"));
+                        break;
+                    case "jdk.ObjectAllocationInNewTLAB":
+                        allocations.add(allocationSite(event, stack), event.getLong("tlabSize"));
+                        break;
+                    case "jdk.ObjectAllocationOutsideTLAB":
+                        allocations.add(allocationSite(event, stack), event.getLong("allocationSize"));
+                        break;
+                    case "jdk.JavaMonitorEnter":
+                        monitors.add(className(event, "monitorClass") + " <- " + topFrame(stack),
+                            event.getDuration().toNanos());
+                        break;
+                    case "jdk.ThreadPark":
+                        parks.add(className(event, "parkedClass") + " <- " + firstApplicationFrame(stack),
+                            event.getDuration().toNanos());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Echantillons CPU: %d%n", samples));
+        selfCpu.append(summary, "Methodes les plus echantillonnees (CPU, frame du haut)", top, "echant.", 1);
+        luteceCpu.append(summary, "Premiere frame Lutece des echantillons CPU", top, "echant.", 1);
+        allocations.append(summary, "Sites d'allocation (Mo, type <- frame)", top, "Mo", 1 << 20);
+        monitors.append(summary, "Contention de moniteurs (ms bloques, classe <- frame)", top, "ms", 1_000_000);
+        parks.append(summary, "Attentes park (ms, classe <- premiere frame Lutece)", top, "ms", 1_000_000);
+        return summary.toString();
+    }
+
+    private static String allocationSite(RecordedEvent event, RecordedStackTrace stack) {
+        return className(event, "objectClass") + " <- " + topFrame(stack);
+    }
+
+    private static String className(RecordedEvent event, String field) {
+        RecordedClass type = event.hasField(field) ? event.getValue(field) : null;
+        return type == null ? "?" : type.getName();
+    }
+
+    private static String topFrame(RecordedStackTrace stack) {
+        if (stack == null || stack.getFrames().isEmpty()) {
+            return "?";
+        }
+        return frame(stack.getFrames().get(0));
+    }
+
+    private static String firstApplicationFrame(RecordedStackTrace stack) {
+        if (stack == null) {
+            return "?";
+        }
+        List<RecordedFrame> frames = stack.getFrames();
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod() != null && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return frame(frame);
+            }
+        }
+        return "(hors Lutece) " + topFrame(stack);
+    }
+
+    private static String frame(RecordedFrame frame) {
+        if (frame.getMethod() == null) {
+            return "?";
+        }
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+            + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+
+    /**
+     * Cumul d'une valeur par cle, affiche par valeur decroissante.
+     */
+    static final class ProfileTable {
+
+        private final Map<String, Long> values = new HashMap<>();
+        private long total;
+
+        void add(String key, long value) {
+            values.merge(key, value, Long::sum);
+            total += value;
+        }
+
+        void append(StringBuilder out, String title, int top, String unit, double divisor) {
+            out.append(String.format("%n== %s ==%n", title));
+            if (values.isEmpty()) {
+                out.append("(aucun evenement)").append(System.lineSeparator());
+                return;
+            }
+            values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .forEach(entry -> out.append(String.format(Locale.ROOT, "%12.1f %-7s %5.1f%%  %s%n",
+                    entry.getValue() / divisor, unit, 100.0 * entry.getValue() / Math.max(1, total),
+                    entry.getKey())));
+        }
+    }
+}
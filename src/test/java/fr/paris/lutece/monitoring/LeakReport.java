@@ -0,0 +1,180 @@
+package fr.paris.lutece.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToLongFunction;
+
+/**
+ * Suspects de fuite memoire d'un tir d'endurance, a partir d'une serie d'histogrammes de classes.
+ *
+ * Une classe est suspecte si son nombre d'instances vivantes ne baisse (presque) jamais d'un
+ * echantillon a l'autre (part des intervalles sans baisse >= monotonicRatio) et augmente au total.
+ * Les suspects sont classes par croissance en octets pour 1 000 soumissions (pente des moindres
+ * carres en fonction du nombre de soumissions). Les premiers echantillons (montee en charge,
+ * remplissage des caches) sont ignores.
+ *
+ * Ecrit heap.csv (taille du tas vivant par echantillon) et leak-suspects.txt.
+ */
+public final class LeakReport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LeakReport.class);
+
+    /**
+     * Classe dont le nombre d'instances croit avec le trafic.
+     */
+    public static final class Suspect {
+
+        private final String className;
+        private final double instancesPer1000;
+        private final double bytesPer1000;
+        private final long firstInstances;
+        private final long lastInstances;
+        private final double monotonicRatio;
+
+        Suspect(String className, double instancesPer1000, double bytesPer1000,
+                long firstInstances, long lastInstances, double monotonicRatio) {
+            this.className = className;
+            this.instancesPer1000 = instancesPer1000;
+            this.bytesPer1000 = bytesPer1000;
+            this.firstInstances = firstInstances;
+            this.lastInstances = lastInstances;
+            this.monotonicRatio = monotonicRatio;
+        }
+
+        public String className() {
+            return className;
+        }
+
+        public double instancesPer1000() {
+            return instancesPer1000;
+        }
+
+        public double bytesPer1000() {
+            return bytesPer1000;
+        }
+    }
+
+    private LeakReport() {
+    }
+
+    /**
+     * Analyse la serie et ecrit le rapport dans directory.
+     *
+     * @param warmupSamples  echantillons ignores en debut de tir
+     * @param monotonicRatio part minimale des intervalles sans baisse (1.0 = strictement monotone)
+     * @return les suspects, du plus fort au plus faible
+     */
+    public static List<Suspect> write(Path directory, List<HeapSample> samples, int warmupSamples,
+                                      double monotonicRatio, int top) {
+        List<HeapSample> series = samples.size() > warmupSamples + 2
+            ? samples.subList(warmupSamples, samples.size())
+            : samples;
+        List<Suspect> suspects = analyze(series, monotonicRatio);
+        try {
+            Files.createDirectories(directory);
+            writeHeap(directory.resolve("heap.csv"), samples);
+            writeSuspects(directory.resolve("leak-suspects.txt"), series, suspects, top);
+        } catch (IOException e) {
+            LOGGER.warn("Rapport de fuites non ecrit ({}): {}", directory, e.getMessage());
+        }
+        return suspects;
+    }
+
+    static List<Suspect> analyze(List<HeapSample> series, double monotonicRatio) {
+        List<Suspect> suspects = new ArrayList<>();
+        if (series.size() < 3) {
+            return suspects;
+        }
+        Set<String> classNames = new TreeSet<>();
+        series.forEach(sample -> sample.classNames().forEach(classNames::add));
+        HeapSample first = series.get(0);
+        HeapSample last = series.get(series.size() - 1);
+
+        for (String className : classNames) {
+            int notDecreasing = 0;
+            for (int i = 1; i < series.size(); i++) {
+                if (series.get(i).instances(className) >= series.get(i - 1).instances(className)) {
+                    notDecreasing++;
+                }
+            }
+            double ratio = notDecreasing / (double) (series.size() - 1);
+            if (ratio < monotonicRatio || last.instances(className) <= first.instances(className)) {
+                continue;
+            }
+            double instancesSlope = slope(series, sample -> sample.instances(className));
+            double bytesSlope = slope(series, sample -> sample.bytes(className));
+            if (instancesSlope > 0) {
+                suspects.add(new Suspect(className, instancesSlope * 1000, bytesSlope * 1000,
+                    first.instances(className), last.instances(className), ratio));
+            }
+        }
+        suspects.sort(Comparator.comparingDouble(Suspect::bytesPer1000).reversed());
+        return suspects;
+    }
+
+    /**
+     * Pente des moindres carres de la valeur en fonction du nombre de soumissions.
+     */
+    private static double slope(List<HeapSample> series, ToLongFunction<HeapSample> value) {
+        double meanX = series.stream().mapToLong(HeapSample::submissions).average().orElse(0);
+        double meanY = series.stream().mapToLong(value).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (HeapSample sample : series) {
+            double dx = sample.submissions() - meanX;
+            covariance += dx * (value.applyAsLong(sample) - meanY);
+            variance += dx * dx;
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    private static void writeHeap(Path file, List<HeapSample> samples) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("elapsed_s,submissions,live_bytes,live_instances" + System.lineSeparator());
+            for (HeapSample sample : samples) {
+                writer.write(String.format("%d,%d,%d,%d%n", sample.elapsedMs() / 1000, sample.submissions(),
+                    sample.totalBytes(), sample.totalInstances()));
+            }
+        }
+    }
+
+    private static void writeSuspects(Path file, List<HeapSample> series, List<Suspect> suspects, int top)
+            throws IOException {
+        StringBuilder report = new StringBuilder();
+        if (series.size() < 3) {
+            report.append(String.format("Echantillons insuffisants (%d) : allonger le tir ou reduire l'intervalle%n",
+                series.size()));
+        } else {
+            HeapSample first = series.get(0);
+            HeapSample last = series.get(series.size() - 1);
+            report.append(String.format(Locale.ROOT,
+                "Echantillons analyses: %d - soumissions: %d -> %d - tas vivant: %.1f Mo -> %.1f Mo (%.1f Ko / 1000 soumissions)%n",
+                series.size(), first.submissions(), last.submissions(),
+                first.totalBytes() / 1048576.0, last.totalBytes() / 1048576.0,
+                slope(series, HeapSample::totalBytes) * 1000 / 1024));
+            report.append(String.format("Suspects: %d classes a croissance monotone%n%n", suspects.size()));
+            report.append(String.format("%4s %14s %14s %12s %12s %7s  %s%n",
+                "rang", "Ko/1000 soum.", "inst/1000", "inst debut", "inst fin", "monot.", "classe"));
+            int rank = 1;
+            for (Suspect suspect : suspects.subList(0, Math.min(top, suspects.size()))) {
+                report.append(String.format(Locale.ROOT, "%4d %14.1f %14.1f %12d %12d %6.0f%%  %s%n",
+                    rank++, suspect.bytesPer1000 / 1024, suspect.instancesPer1000,
+                    suspect.firstInstances, suspect.lastInstances, suspect.monotonicRatio * 100,
+                    suspect.className));
+            }
+        }
+        Files.writeString(file, report);
+        LOGGER.info("Suspects de fuite: {} ({})", suspects.size(), file);
+    }
+}
@@ -0,0 +1,249 @@
+package fr.paris.lutece.monitoring;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Releve periodique des metriques Liberty (/metrics, profil liberty/configDropins/overrides/metrics.xml)
+ * pendant un tir de charge.
+ *
+ * Par intervalle : connexions du pool jdbc/lutece utilisees et libres, demandes mises en attente
+ * et temps d'attente moyen, threads actifs de l'executeur Liberty, sessions HTTP actives, debit et
+ * temps de reponse moyen des servlets. Un intervalle est marque sature si :
+ * - pool : aucune connexion libre avec des demandes en attente, ou attente moyenne > metrics.pool.wait.ms
+ * - executeur : threads actifs >= metrics.executor.saturation x taille du pool
+ * Liberty n'expose pas la profondeur de file de l'executeur : l'occupation des threads en tient lieu.
+ *
+ * A la fermeture, ecrit metrics.csv (elapsed_s aligne sur curve.csv) et saturation.txt.
+ * Inactif si metrics.enabled=false ou si /metrics ne repond pas (profil non active hors suites de benchmark).
+ */
+public final class LibertyMetricsScraper implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibertyMetricsScraper.class);
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final boolean ENABLED = CONFIG.getOptionalValue("metrics.enabled", Boolean.class).orElse(true);
+    private static final long INTERVAL_MS = CONFIG.getOptionalValue("metrics.interval.ms", Long.class).orElse(1000L);
+    private static final String DATASOURCE = CONFIG.getOptionalValue("metrics.datasource", String.class).orElse("jdbc_lutece");
+    private static final String EXECUTOR = CONFIG.getOptionalValue("metrics.executor", String.class).orElse("Default_Executor");
+    private static final double POOL_WAIT_MS = CONFIG.getOptionalValue("metrics.pool.wait.ms", Double.class).orElse(50.0);
+    private static final double EXECUTOR_SATURATION = CONFIG.getOptionalValue("metrics.executor.saturation", Double.class).orElse(0.9);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    /**
+     * Valeurs brutes d'un releve (compteurs cumules compris).
+     */
+    private static final class Reading {
+        final long elapsedMs;
+        final double poolManaged;
+        final double poolFree;
+        final double poolQueued;
+        final double poolWaitSeconds;
+        final double executorActive;
+        final double executorSize;
+        final double sessions;
+        final double requests;
+        final double responseSeconds;
+
+        Reading(long elapsedMs, PrometheusText metrics) {
+            this.elapsedMs = elapsedMs;
+            this.poolManaged = metrics.sum("connectionpool_managedConnections", "datasource", DATASOURCE);
+            this.poolFree = metrics.sum("connectionpool_freeConnections", "datasource", DATASOURCE);
+            this.poolQueued = metrics.sum("connectionpool_queuedRequests_total", "datasource", DATASOURCE);
+            this.poolWaitSeconds = metrics.sum("connectionpool_waitTime_total_seconds", "datasource", DATASOURCE);
+            this.executorActive = metrics.sum("threadpool_activeThreads", "pool", EXECUTOR);
+            this.executorSize = metrics.sum("threadpool_size", "pool", EXECUTOR);
+            this.sessions = metrics.sum("session_activeSessions");
+            this.requests = metrics.sum("servlet_request_total");
+            this.responseSeconds = metrics.sum("servlet_responseTime_total_seconds");
+        }
+    }
+
+    private final URI endpoint;
+    private final Path directory;
+    private final List<Reading> readings = new ArrayList<>();
+    private final long start = System.currentTimeMillis();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private LibertyMetricsScraper(URI endpoint, Path directory) {
+        this.endpoint = endpoint;
+        this.directory = directory;
+        this.thread = new Thread(this::poll, "liberty-metrics");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Demarre le releve ; le rapport est ecrit dans directory a la fermeture.
+     */
+    public static LibertyMetricsScraper start(Path directory) {
+        Optional<URI> endpoint = endpoint();
+        LibertyMetricsScraper scraper = new LibertyMetricsScraper(endpoint.orElse(null), directory);
+        if (ENABLED && endpoint.isPresent()) {
+            scraper.thread.start();
+        }
+        return scraper;
+    }
+
+    /**
+     * metrics.url, sinon /metrics a la racine du serveur de lutece.base.url.
+     */
+    private static Optional<URI> endpoint() {
+        Optional<String> url = CONFIG.getOptionalValue("metrics.url", String.class);
+        if (url.isPresent()) {
+            return url.map(URI::create);
+        }
+        return CONFIG.getOptionalValue("lutece.base.url", String.class).map(base -> URI.create(base).resolve("/metrics"));
+    }
+
+    @Override
+    public void close() {
+        if (!thread.isAlive()) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (readings) {
+            if (readings.size() > 1) {
+                write();
+            }
+        }
+    }
+
+    private void poll() {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+            .header("Accept", "text/plain")
+            .timeout(Duration.ofSeconds(5))
+            .GET()
+            .build();
+        int failures = 0;
+        while (running) {
+            try {
+                HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    Reading reading = new Reading(System.currentTimeMillis() - start, PrometheusText.parse(response.body()));
+                    synchronized (readings) {
+                        readings.add(reading);
+                    }
+                } else if (failures++ == 0) {
+                    LOGGER.warn("Metriques Liberty indisponibles ({} sur {}) : profil metrics.xml absent ?",
+                        response.statusCode(), endpoint);
+                }
+                Thread.sleep(INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                if (failures++ == 0) {
+                    LOGGER.warn("Metriques Liberty indisponibles sur {}: {}", endpoint, e.getMessage());
+                }
+                try {
+                    Thread.sleep(INTERVAL_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void write() {
+        List<String> saturations = new ArrayList<>();
+        String openPeriod = null;
+        long openSince = 0;
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("metrics.csv"))) {
+                writer.write("elapsed_s,pool_in_use,pool_free,pool_queued_per_s,pool_wait_avg_ms,executor_active,"
+                    + "executor_size,sessions_active,requests_per_s,server_response_avg_ms,saturation"
+                    + System.lineSeparator());
+                for (int i = 1; i < readings.size(); i++) {
+                    Reading previous = readings.get(i - 1);
+                    Reading current = readings.get(i);
+                    double seconds = Math.max(0.001, (current.elapsedMs - previous.elapsedMs) / 1000.0);
+                    double queued = delta(current.poolQueued, previous.poolQueued);
+                    double waitMs = queued > 0 ? delta(current.poolWaitSeconds, previous.poolWaitSeconds) * 1000 / queued : 0;
+                    double requests = delta(current.requests, previous.requests);
+                    double responseMs = requests > 0
+                        ? delta(current.responseSeconds, previous.responseSeconds) * 1000 / requests : 0;
+
+                    List<String> flags = new ArrayList<>();
+                    if ((current.poolFree == 0 && queued > 0) || waitMs > POOL_WAIT_MS) {
+                        flags.add("pool");
+                    }
+                    if (current.executorSize > 0 && current.executorActive >= EXECUTOR_SATURATION * current.executorSize) {
+                        flags.add("executor");
+                    }
+                    String saturation = String.join("+", flags);
+
+                    writer.write(String.format(Locale.ROOT, "%d,%s,%s,%.2f,%.1f,%s,%s,%s,%.2f,%.1f,%s%n",
+                        current.elapsedMs / 1000, value(current.poolManaged - current.poolFree), value(current.poolFree),
+                        queued / seconds, waitMs, value(current.executorActive), value(current.executorSize),
+                        value(current.sessions), requests / seconds, responseMs, saturation));
+
+                    // Periodes de saturation consecutives regroupees
+                    if (!saturation.equals(openPeriod == null ? "" : openPeriod)) {
+                        if (openPeriod != null) {
+                            saturations.add(period(openPeriod, openSince, previous.elapsedMs));
+                        }
+                        openPeriod = saturation.isEmpty() ? null : saturation;
+                        openSince = previous.elapsedMs;
+                    }
+                }
+                if (openPeriod != null) {
+                    saturations.add(period(openPeriod, openSince, readings.get(readings.size() - 1).elapsedMs));
+                }
+            }
+            StringBuilder report = new StringBuilder(String.format(
+                "Saturation Liberty (pool %s, executeur %s) - seuils : attente pool > %.0f ms, threads actifs >= %.0f%%%n",
+                DATASOURCE, EXECUTOR, POOL_WAIT_MS, EXECUTOR_SATURATION * 100));
+            if (saturations.isEmpty()) {
+                report.append("Aucune saturation detectee").append(System.lineSeparator());
+            }
+            saturations.forEach(line -> report.append(line).append(System.lineSeparator()));
+            Files.writeString(directory.resolve("saturation.txt"), report);
+            if (!saturations.isEmpty()) {
+                LOGGER.warn("Saturation Liberty detectee, premiere periode: {}", saturations.get(0));
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Metriques Liberty non ecrites ({}): {}", directory, e.getMessage());
+        }
+    }
+
+    private static String period(String kind, long fromMs, long toMs) {
+        return String.format("%s : de %d s a %d s", kind, fromMs / 1000, toMs / 1000);
+    }
+
+    private static double delta(double current, double previous) {
+        if (Double.isNaN(current) || Double.isNaN(previous)) {
+            return 0;
+        }
+        return Math.max(0, current - previous);
+    }
+
+    private static String value(double value) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.0f", value);
+    }
+}
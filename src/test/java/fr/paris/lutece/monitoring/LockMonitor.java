@@ -0,0 +1,354 @@
+package fr.paris.lutece.monitoring;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Surveille la contention de verrous sur la base de test pendant un tir de charge ou un run parallele.
+ *
+ * Un thread interroge periodiquement (monitoring.locks.interval.ms) :
+ * - information_schema.innodb_lock_waits / innodb_trx / innodb_locks : attentes de verrous de lignes,
+ *   avec la requete en attente et celle de la transaction bloquante
+ * - performance_schema.metadata_locks : verrous de metadonnees en attente (DDL, LOCK TABLES...)
+ * - SHOW ENGINE INNODB STATUS : dernier deadlock detecte
+ *
+ * Chaque observation est attribuee aux etapes en cours a cet instant ({@link ActiveSteps}) ;
+ * en concurrence, ce sont des candidates, la repetition sur un tir designe la coupable.
+ * Le polling ne voit que le dernier deadlock entre deux interrogations : le nombre reel est lu
+ * dans le compteur Innodb_deadlocks.
+ *
+ * A la fermeture, ecrit dans le repertoire donne : lock-waits.csv, deadlocks.txt, locks-by-step.txt.
+ */
+public final class LockMonitor implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LockMonitor.class);
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final boolean ENABLED = CONFIG.getOptionalValue("monitoring.locks.enabled", Boolean.class).orElse(true);
+    private static final long INTERVAL_MS = CONFIG.getOptionalValue("monitoring.locks.interval.ms", Long.class).orElse(250L);
+
+    private static final String ROW_LOCK_WAITS =
+        "SELECT r.trx_id AS waiting_trx, b.trx_id AS blocking_trx, r.trx_query AS waiting_query, "
+            + "b.trx_query AS blocking_query, l.lock_table, l.lock_index, l.lock_mode, "
+            + "TIMESTAMPDIFF(MICROSECOND, r.trx_wait_started, NOW(6)) DIV 1000 AS waited_ms "
+            + "FROM information_schema.innodb_lock_waits w "
+            + "JOIN information_schema.innodb_trx r ON r.trx_id = w.requesting_trx_id "
+            + "JOIN information_schema.innodb_trx b ON b.trx_id = w.blocking_trx_id "
+            + "LEFT JOIN information_schema.innodb_locks l ON l.lock_id = w.requested_lock_id";
+
+    private static final String METADATA_LOCK_WAITS =
+        "SELECT m.OWNER_THREAD_ID, m.OBJECT_TYPE, m.OBJECT_SCHEMA, m.OBJECT_NAME, m.LOCK_TYPE, s.SQL_TEXT, "
+            + "s.TIMER_WAIT DIV 1000000000 AS waited_ms "
+            + "FROM performance_schema.metadata_locks m "
+            + "LEFT JOIN performance_schema.events_statements_current s ON s.THREAD_ID = m.OWNER_THREAD_ID "
+            + "WHERE m.LOCK_STATUS = 'PENDING'";
+
+    private static final String DEADLOCK_SECTION = "LATEST DETECTED DEADLOCK";
+
+    /**
+     * Attente de verrou observee sur un ou plusieurs cycles de polling.
+     */
+    private static final class LockWait {
+        final String kind;
+        final String object;
+        final String mode;
+        final String waitingQuery;
+        final long firstSeenMs;
+        final Set<String> steps = new TreeSet<>();
+        String blockingQuery;
+        long lastSeenMs;
+        long waitedMs;
+
+        LockWait(String kind, String object, String mode, String waitingQuery, long now) {
+            this.kind = kind;
+            this.object = object;
+            this.mode = mode;
+            this.waitingQuery = waitingQuery;
+            this.firstSeenMs = now;
+            this.lastSeenMs = now;
+        }
+
+        long durationMs() {
+            return Math.max(waitedMs, lastSeenMs - firstSeenMs);
+        }
+    }
+
+    /**
+     * Deadlock detecte par InnoDB.
+     */
+    private static final class Deadlock {
+        final long detectedMs;
+        final Set<String> steps;
+        final String report;
+
+        Deadlock(long detectedMs, Set<String> steps, String report) {
+            this.detectedMs = detectedMs;
+            this.steps = steps;
+            this.report = report;
+        }
+    }
+
+    private final Path directory;
+    private final Map<String, LockWait> waits = new LinkedHashMap<>();
+    private final List<Deadlock> deadlocks = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private boolean observed;
+    private String lastDeadlock;
+    private long deadlocksAtStart = -1;
+    private long deadlocksAtEnd = -1;
+
+    private LockMonitor(Path directory) {
+        this.directory = directory;
+        this.thread = new Thread(this::poll, "lock-monitor");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Demarre la surveillance ; le rapport est ecrit dans directory a la fermeture.
+     * Sans base observable ({@link TestDatabase}), le moniteur attend qu'elle le devienne.
+     */
+    public static LockMonitor start(Path directory) {
+        LockMonitor monitor = new LockMonitor(directory);
+        if (ENABLED) {
+            ActiveSteps.install();
+            monitor.thread.start();
+        }
+        return monitor;
+    }
+
+    @Override
+    public void close() {
+        if (!ENABLED) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (observed) {
+                write();
+            }
+        }
+    }
+
+    private void poll() {
+        Connection connection = null;
+        try {
+            while (running) {
+                try {
+                    if (connection == null && TestDatabase.isAvailable()) {
+                        connection = TestDatabase.connect();
+                        if (deadlocksAtStart < 0) {
+                            lastDeadlock = latestDeadlock(connection);
+                            deadlocksAtStart = deadlockCount(connection);
+                        }
+                    }
+                    if (connection != null) {
+                        sample(connection);
+                    }
+                } catch (SQLException e) {
+                    LOGGER.debug("Interrogation des verrous impossible: {}", e.getMessage());
+                    closeQuietly(connection);
+                    connection = null;
+                }
+                Thread.sleep(INTERVAL_MS);
+            }
+        } catch (InterruptedException e) {
+            // arret demande
+        } finally {
+            if (connection != null) {
+                try {
+                    deadlocksAtEnd = deadlockCount(connection);
+                    sample(connection);
+                } catch (SQLException e) {
+                    LOGGER.debug("Dernier releve des verrous impossible: {}", e.getMessage());
+                }
+            }
+            closeQuietly(connection);
+        }
+    }
+
+    private synchronized void sample(Connection connection) throws SQLException {
+        observed = true;
+        long now = System.currentTimeMillis();
+        Set<String> steps = ActiveSteps.snapshot();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(ROW_LOCK_WAITS)) {
+                while (rs.next()) {
+                    String key = "row:" + rs.getString("waiting_trx") + ">" + rs.getString("blocking_trx");
+                    String object = rs.getString("lock_table")
+                        + (rs.getString("lock_index") != null ? " (" + rs.getString("lock_index") + ")" : "");
+                    String mode = safe(rs, "lock_mode");
+                    String query = safe(rs, "waiting_query");
+                    LockWait wait = waits.computeIfAbsent(key, k -> new LockWait("row", object, mode, query, now));
+                    update(wait, now, steps, rs.getLong("waited_ms"));
+                    if (wait.blockingQuery == null) {
+                        wait.blockingQuery = rs.getString("blocking_query");
+                    }
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(METADATA_LOCK_WAITS)) {
+                while (rs.next()) {
+                    String object = rs.getString("OBJECT_TYPE") + " " + rs.getString("OBJECT_SCHEMA")
+                        + "." + rs.getString("OBJECT_NAME");
+                    String key = "mdl:" + rs.getLong("OWNER_THREAD_ID") + ">" + object;
+                    String mode = safe(rs, "LOCK_TYPE");
+                    String query = safe(rs, "SQL_TEXT");
+                    LockWait wait = waits.computeIfAbsent(key, k -> new LockWait("metadata", object, mode, query, now));
+                    update(wait, now, steps, rs.getLong("waited_ms"));
+                }
+            } catch (SQLException e) {
+                // instrument wait/lock/metadata/sql/mdl desactive : verrous de metadonnees non suivis
+                LOGGER.trace("metadata_locks indisponible: {}", e.getMessage());
+            }
+        }
+        String deadlock = latestDeadlock(connection);
+        if (deadlock != null && !deadlock.equals(lastDeadlock)) {
+            lastDeadlock = deadlock;
+            deadlocks.add(new Deadlock(now, steps, deadlock));
+            LOGGER.warn("Deadlock InnoDB detecte (etapes en cours: {})", steps);
+        }
+    }
+
+    private static void update(LockWait wait, long now, Set<String> steps, long waitedMs) {
+        wait.lastSeenMs = now;
+        wait.waitedMs = Math.max(wait.waitedMs, waitedMs);
+        wait.steps.addAll(steps);
+    }
+
+    /**
+     * Section "LATEST DETECTED DEADLOCK" de SHOW ENGINE INNODB STATUS, null si aucun deadlock depuis le demarrage.
+     */
+    private static String latestDeadlock(Connection connection) throws SQLException {
+        String status;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW ENGINE INNODB STATUS")) {
+            if (!rs.next()) {
+                return null;
+            }
+            status = rs.getString("Status");
+        }
+        int start = status.indexOf(DEADLOCK_SECTION);
+        if (start < 0) {
+            return null;
+        }
+        // La section est encadree par des lignes de tirets ; elle s'arrete au titre suivant (TRANSACTIONS)
+        int bodyStart = status.indexOf('\n', status.indexOf('\n', start) + 1) + 1;
+        int end = status.indexOf("\nTRANSACTIONS", bodyStart);
+        String section = end < 0 ? status.substring(bodyStart) : status.substring(bodyStart, end);
+        int lastRule = section.lastIndexOf("\n---");
+        return (lastRule > 0 ? section.substring(0, lastRule) : section).trim();
+    }
+
+    private static long deadlockCount(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW GLOBAL STATUS LIKE 'Innodb_deadlocks'")) {
+            return rs.next() ? rs.getLong(2) : -1;
+        }
+    }
+
+    private void write() {
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("lock-waits.csv"))) {
+                writer.write("kind,first_seen,duration_ms,object,mode,waiting_query,blocking_query,steps"
+                    + System.lineSeparator());
+                for (LockWait wait : waits.values()) {
+                    writer.write(String.join(",", wait.kind, Instant.ofEpochMilli(wait.firstSeenMs).toString(),
+                        String.valueOf(wait.durationMs()), csv(wait.object), csv(wait.mode),
+                        csv(wait.waitingQuery), csv(wait.blockingQuery), csv(String.join(" | ", wait.steps)))
+                        + System.lineSeparator());
+                }
+            }
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("deadlocks.txt"))) {
+                writer.write(String.format("Deadlocks InnoDB pendant la surveillance: %s (%d detailles)%n",
+                    deadlocksAtStart >= 0 && deadlocksAtEnd >= 0 ? deadlocksAtEnd - deadlocksAtStart : "?",
+                    deadlocks.size()));
+                for (Deadlock deadlock : deadlocks) {
+                    writer.write(String.format("%n=== %s - etapes en cours: %s ===%n%s%n",
+                        Instant.ofEpochMilli(deadlock.detectedMs), deadlock.steps, deadlock.report));
+                }
+            }
+            Files.writeString(directory.resolve("locks-by-step.txt"), byStep());
+        } catch (IOException e) {
+            LOGGER.warn("Rapport de verrous non ecrit ({}): {}", directory, e.getMessage());
+        }
+        LOGGER.info("Verrous: {} attentes, {} deadlocks detailles -> {}", waits.size(), deadlocks.size(), directory);
+    }
+
+    /**
+     * Attentes et deadlocks cumules par etape candidate, les plus couteuses en premier.
+     */
+    private String byStep() {
+        Map<String, long[]> totals = new HashMap<>();
+        for (LockWait wait : waits.values()) {
+            for (String step : wait.steps) {
+                long[] total = totals.computeIfAbsent(step, s -> new long[3]);
+                total[0]++;
+                total[1] += wait.durationMs();
+            }
+        }
+        for (Deadlock deadlock : deadlocks) {
+            for (String step : deadlock.steps) {
+                totals.computeIfAbsent(step, s -> new long[3])[2]++;
+            }
+        }
+        List<Map.Entry<String, long[]>> sorted = new ArrayList<>(totals.entrySet());
+        sorted.sort(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[1]).reversed()
+            .thenComparing(Map.Entry::getKey));
+        StringBuilder report = new StringBuilder(String.format("%8s %12s %10s  %s%n",
+            "attentes", "attente ms", "deadlocks", "etape"));
+        for (Map.Entry<String, long[]> entry : sorted) {
+            long[] total = entry.getValue();
+            report.append(String.format("%8d %12d %10d  %s%n", total[0], total[1], total[2], entry.getKey()));
+        }
+        return report.toString();
+    }
+
+    private static String safe(ResultSet rs, String column) throws SQLException {
+        String value = rs.getString(column);
+        return value == null ? "" : value;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replaceAll("\\s+", " ").replace("\"", "\"\"") + "\"";
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package fr.paris.lutece.monitoring;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.nio.file.Paths;
+
+/**
+ * Surveille les verrous de la base pendant tout le run ({@link LockMonitor}) -> target/locks.
+ *
+ * Le test en cours est declare comme etape, en plus des actions des Page Objects, afin que les
+ * attentes observees lors d'un run parallele soient attribuees aux tests concurrents.
+ *
+ * Enregistre via META-INF/services/org.junit.platform.launcher.TestExecutionListener.
+ */
+public class LockMonitorListener implements TestExecutionListener {
+
+    private LockMonitor monitor;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        monitor = LockMonitor.start(Paths.get("target/locks"));
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (ResourceTelemetryListener.isTestMethod(testIdentifier)) {
+            ActiveSteps.enter(ResourceTelemetryListener.testName(testIdentifier));
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+        if (ResourceTelemetryListener.isTestMethod(testIdentifier)) {
+            ActiveSteps.exit(ResourceTelemetryListener.testName(testIdentifier));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (monitor != null) {
+            monitor.close();
+        }
+    }
+}
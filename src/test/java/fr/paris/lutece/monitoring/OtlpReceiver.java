@@ -0,0 +1,126 @@
+package fr.paris.lutece.monitoring;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Recepteur OTLP/HTTP local (POST /v1/traces, protobuf) tenant lieu de collecteur pour les tests.
+ *
+ * Demarre dans la JVM des tests sur tracing.receiver.port (0 : port libre) ; Liberty y exporte ses
+ * spans (LuteceContainer.withTelemetry, ou OTEL_EXPORTER_OTLP_ENDPOINT de docker-compose.e2e.yml).
+ * Les spans sont indexes par trace et retires a la lecture.
+ */
+public final class OtlpReceiver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OtlpReceiver.class);
+
+    private static final Map<String, List<TraceSpan>> TRACES = new ConcurrentHashMap<>();
+
+    private static HttpServer server;
+
+    private OtlpReceiver() {
+    }
+
+    /**
+     * Demarre le recepteur (une seule fois par JVM) et retourne son port.
+     */
+    public static synchronized int start() {
+        if (server == null) {
+            try {
+                int port = ConfigProvider.getConfig().getOptionalValue("tracing.receiver.port", Integer.class).orElse(4318);
+                server = HttpServer.create(new InetSocketAddress(port), 0);
+            } catch (IOException e) {
+                throw new IllegalStateException("Recepteur OTLP non demarre", e);
+            }
+            server.createContext("/v1/traces", OtlpReceiver::handle);
+            server.start();
+            LOGGER.info("Recepteur OTLP sur le port {}", server.getAddress().getPort());
+        }
+        return server.getAddress().getPort();
+    }
+
+    public static synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    /**
+     * Spans recus pour la trace, retires de l'index.
+     */
+    public static List<TraceSpan> take(String traceId) {
+        List<TraceSpan> spans = TRACES.remove(traceId);
+        return spans == null ? List.of() : spans;
+    }
+
+    /**
+     * Nombre de spans recus pour la trace, sans les retirer.
+     */
+    public static int count(String traceId) {
+        List<TraceSpan> spans = TRACES.get(traceId);
+        if (spans == null) {
+            return 0;
+        }
+        synchronized (spans) {
+            return spans.size();
+        }
+    }
+
+    /**
+     * Oublie les traces non lues (traces de requetes hors actions suivies).
+     */
+    public static void clear() {
+        TRACES.clear();
+    }
+
+    static void accept(List<TraceSpan> spans) {
+        for (TraceSpan span : spans) {
+            List<TraceSpan> trace = TRACES.computeIfAbsent(span.traceId(), id -> new ArrayList<>());
+            synchronized (trace) {
+                trace.add(span);
+            }
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body;
+            try (InputStream in = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                    ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            try {
+                accept(OtlpTraces.decode(body));
+            } catch (RuntimeException e) {
+                LOGGER.warn("Export OTLP illisible ({} octets, {}): {}", body.length,
+                    exchange.getRequestHeaders().getFirst("Content-Type"), e.getMessage());
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            // ExportTraceServiceResponse vide
+            exchange.getResponseHeaders().set("Content-Type", "application/x-protobuf");
+            exchange.sendResponseHeaders(200, -1);
+        }
+    }
+}
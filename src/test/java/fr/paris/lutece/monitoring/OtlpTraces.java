@@ -0,0 +1,254 @@
+package fr.paris.lutece.monitoring;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodage d'un ExportTraceServiceRequest OTLP encode en protobuf (opentelemetry-proto, trace/v1).
+ *
+ * Lecture directe du format binaire protobuf, limitee aux champs utiles (identifiants, nom, horaires,
+ * attributs scalaires, service.name), pour ne pas dependre des classes generees d'opentelemetry-proto.
+ */
+final class OtlpTraces {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private OtlpTraces() {
+    }
+
+    static List<TraceSpan> decode(byte[] body) {
+        List<TraceSpan> spans = new ArrayList<>();
+        Reader request = new Reader(body, 0, body.length);
+        while (request.hasMore()) {
+            int tag = request.tag();
+            if (tag >>> 3 == 1) {
+                resourceSpans(request.message(), spans);
+            } else {
+                request.skip(tag);
+            }
+        }
+        return spans;
+    }
+
+    // ResourceSpans : 1 resource, 2 scope_spans
+    private static void resourceSpans(Reader reader, List<TraceSpan> spans) {
+        String service = "";
+        List<Reader> scopes = new ArrayList<>();
+        while (reader.hasMore()) {
+            int tag = reader.tag();
+            switch (tag >>> 3) {
+                case 1:
+                    service = attributes(reader.message(), 1).getOrDefault("service.name", "");
+                    break;
+                case 2:
+                    scopes.add(reader.message());
+                    break;
+                default:
+                    reader.skip(tag);
+            }
+        }
+        for (Reader scope : scopes) {
+            // ScopeSpans : 2 spans
+            while (scope.hasMore()) {
+                int tag = scope.tag();
+                if (tag >>> 3 == 2) {
+                    spans.add(span(scope.message(), service));
+                } else {
+                    scope.skip(tag);
+                }
+            }
+        }
+    }
+
+    // Span : 1 trace_id, 2 span_id, 4 parent_span_id, 5 name, 7 start, 8 end, 9 attributes
+    private static TraceSpan span(Reader reader, String service) {
+        String traceId = "";
+        String spanId = "";
+        String parentSpanId = "";
+        String name = "";
+        long start = 0;
+        long end = 0;
+        Map<String, String> attributes = new HashMap<>();
+        while (reader.hasMore()) {
+            int tag = reader.tag();
+            switch (tag >>> 3) {
+                case 1:
+                    traceId = HEX.formatHex(reader.bytes());
+                    break;
+                case 2:
+                    spanId = HEX.formatHex(reader.bytes());
+                    break;
+                case 4:
+                    parentSpanId = HEX.formatHex(reader.bytes());
+                    break;
+                case 5:
+                    name = reader.string();
+                    break;
+                case 7:
+                    start = reader.fixed64();
+                    break;
+                case 8:
+                    end = reader.fixed64();
+                    break;
+                case 9:
+                    keyValue(reader.message(), attributes);
+                    break;
+                default:
+                    reader.skip(tag);
+            }
+        }
+        return new TraceSpan(service, traceId, spanId, parentSpanId, name, start, end, attributes);
+    }
+
+    private static Map<String, String> attributes(Reader reader, int field) {
+        Map<String, String> attributes = new HashMap<>();
+        while (reader.hasMore()) {
+            int tag = reader.tag();
+            if (tag >>> 3 == field) {
+                keyValue(reader.message(), attributes);
+            } else {
+                reader.skip(tag);
+            }
+        }
+        return attributes;
+    }
+
+    // KeyValue : 1 key, 2 value (AnyValue : 1 string, 2 bool, 3 int, 4 double)
+    private static void keyValue(Reader reader, Map<String, String> attributes) {
+        String key = null;
+        String value = null;
+        while (reader.hasMore()) {
+            int tag = reader.tag();
+            if (tag >>> 3 == 1) {
+                key = reader.string();
+            } else if (tag >>> 3 == 2) {
+                value = anyValue(reader.message());
+            } else {
+                reader.skip(tag);
+            }
+        }
+        if (key != null && value != null) {
+            attributes.put(key, value);
+        }
+    }
+
+    private static String anyValue(Reader reader) {
+        String value = null;
+        while (reader.hasMore()) {
+            int tag = reader.tag();
+            switch (tag >>> 3) {
+                case 1:
+                    value = reader.string();
+                    break;
+                case 2:
+                    value = String.valueOf(reader.varint() != 0);
+                    break;
+                case 3:
+                    value = String.valueOf(reader.varint());
+                    break;
+                case 4:
+                    value = String.valueOf(Double.longBitsToDouble(reader.fixed64()));
+                    break;
+                default:
+                    reader.skip(tag);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Lecteur du format binaire protobuf sur une portion de tableau.
+     */
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+        private final int limit;
+
+        Reader(byte[] buffer, int offset, int limit) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        boolean hasMore() {
+            return position < limit;
+        }
+
+        int tag() {
+            return (int) varint();
+        }
+
+        long varint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("varint invalide");
+        }
+
+        long fixed64() {
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result |= (buffer[position++] & 0xFFL) << (8 * i);
+            }
+            return result;
+        }
+
+        byte[] bytes() {
+            int length = length();
+            byte[] bytes = new byte[length];
+            System.arraycopy(buffer, position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+
+        String string() {
+            int length = length();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        Reader message() {
+            int length = length();
+            Reader message = new Reader(buffer, position, position + length);
+            position += length;
+            return message;
+        }
+
+        void skip(int tag) {
+            switch (tag & 7) {
+                case 0:
+                    varint();
+                    break;
+                case 1:
+                    position += 8;
+                    break;
+                case 2:
+                    position += length();
+                    break;
+                case 5:
+                    position += 4;
+                    break;
+                default:
+                    throw new IllegalArgumentException("type de champ protobuf non gere: " + (tag & 7));
+            }
+        }
+
+        private int length() {
+            int length = (int) varint();
+            if (length < 0 || position + length > limit) {
+                throw new IllegalArgumentException("longueur protobuf invalide");
+            }
+            return length;
+        }
+    }
+}
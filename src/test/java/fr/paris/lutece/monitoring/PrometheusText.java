@@ -0,0 +1,83 @@
+package fr.paris.lutece.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lecture du format texte Prometheus expose par mpMetrics sur /metrics.
+ *
+ * Les prefixes de portee des anciennes versions de mpMetrics (vendor_, base_, application_)
+ * sont retires pour que les noms soient les memes quelle que soit la version de Liberty.
+ */
+final class PrometheusText {
+
+    private static final Pattern SAMPLE = Pattern.compile("^([a-zA-Z_:][a-zA-Z0-9_:]*)(\\{(.*)\\})?\\s+(\\S+)");
+    private static final Pattern LABEL = Pattern.compile("(\\w+)=\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final String[] SCOPE_PREFIXES = {"vendor_", "base_", "application_"};
+
+    private final Map<String, List<Map.Entry<Map<String, String>, Double>>> samples = new HashMap<>();
+
+    private PrometheusText() {
+    }
+
+    static PrometheusText parse(String text) {
+        PrometheusText metrics = new PrometheusText();
+        for (String line : text.split("\\R")) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = SAMPLE.matcher(line);
+            if (!matcher.find()) {
+                continue;
+            }
+            double value;
+            try {
+                value = Double.parseDouble(matcher.group(4));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            Map<String, String> labels = new HashMap<>();
+            if (matcher.group(3) != null) {
+                Matcher label = LABEL.matcher(matcher.group(3));
+                while (label.find()) {
+                    labels.put(label.group(1), label.group(2));
+                }
+            }
+            metrics.samples.computeIfAbsent(stripScope(matcher.group(1)), n -> new ArrayList<>())
+                .add(Map.entry(labels, value));
+        }
+        return metrics;
+    }
+
+    /**
+     * Somme des series du nom donne dont le label vaut la valeur (toutes si label est null) ;
+     * NaN si aucune serie ne correspond.
+     */
+    double sum(String name, String label, String value) {
+        double total = Double.NaN;
+        for (Map.Entry<Map<String, String>, Double> sample : samples.getOrDefault(name, Collections.emptyList())) {
+            if (label == null || value.equals(sample.getKey().get(label))) {
+                total = Double.isNaN(total) ? sample.getValue() : total + sample.getValue();
+            }
+        }
+        return total;
+    }
+
+    double sum(String name) {
+        return sum(name, null, null);
+    }
+
+    private static String stripScope(String name) {
+        for (String prefix : SCOPE_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return name.substring(prefix.length());
+            }
+        }
+        return name;
+    }
+}
@@ -0,0 +1,104 @@
+package fr.paris.lutece.monitoring;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Graphiques HTML/SVG autonomes de la telemetrie d'un run (aucune dependance JavaScript).
+ */
+final class ResourceChart {
+
+    private static final int WIDTH = 1200;
+    private static final int HEIGHT = 240;
+    private static final int MARGIN = 40;
+    private static final String[] COLORS = {"#1f77b4", "#d62728", "#2ca02c", "#9467bd", "#ff7f0e"};
+
+    private ResourceChart() {
+    }
+
+    static String render(Map<String, List<ContainerSample>> series,
+                         List<ResourceTelemetryListener.TestWindow> tests) {
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (List<ContainerSample> samples : series.values()) {
+            if (!samples.isEmpty()) {
+                start = Math.min(start, samples.get(0).timestampMs);
+                end = Math.max(end, samples.get(samples.size() - 1).timestampMs);
+            }
+        }
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\">"
+            + "<title>Ressources des conteneurs</title><style>body{font-family:sans-serif}"
+            + "text{font-size:11px}</style></head><body><h1>Ressources des conteneurs</h1>");
+        html.append(legend(series));
+        html.append("<h2>CPU (%)</h2>")
+            .append(chart(series, tests, start, end, s -> s.cpuPercent));
+        html.append("<h2>RSS (Mo)</h2>")
+            .append(chart(series, tests, start, end, s -> s.rssBytes / 1048576.0));
+        html.append("<p>Bandes grises : tests (survol pour le nom), rouges : tests en echec.</p></body></html>");
+        return html.toString();
+    }
+
+    private static String legend(Map<String, List<ContainerSample>> series) {
+        StringBuilder legend = new StringBuilder("<p>");
+        int index = 0;
+        for (String name : series.keySet()) {
+            legend.append(String.format("<span style=\"color:%s\">&#9632; %s</span> ",
+                COLORS[index++ % COLORS.length], name));
+        }
+        return legend.append("</p>").toString();
+    }
+
+    private static String chart(Map<String, List<ContainerSample>> series,
+                                List<ResourceTelemetryListener.TestWindow> tests,
+                                long start, long end, ToDoubleFunction<ContainerSample> metric) {
+        double max = 1;
+        for (List<ContainerSample> samples : series.values()) {
+            for (ContainerSample sample : samples) {
+                max = Math.max(max, metric.applyAsDouble(sample));
+            }
+        }
+        double span = Math.max(1, end - start);
+        double plotWidth = WIDTH - 2.0 * MARGIN;
+        double plotHeight = HEIGHT - 2.0 * MARGIN;
+
+        StringBuilder svg = new StringBuilder(String.format(
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\">", WIDTH, HEIGHT));
+        int index = 0;
+        for (ResourceTelemetryListener.TestWindow test : tests) {
+            double x1 = MARGIN + plotWidth * Math.max(0, test.startMs - start) / span;
+            double x2 = MARGIN + plotWidth * Math.min(span, test.endMs - start) / span;
+            String fill = "FAILED".equals(test.status) ? "#f4cccc" : (index++ % 2 == 0 ? "#eeeeee" : "#e0e0e0");
+            svg.append(String.format(Locale.ROOT,
+                "<rect x=\"%.1f\" y=\"%d\" width=\"%.1f\" height=\"%.1f\" fill=\"%s\"><title>%s (%d ms)</title></rect>",
+                x1, MARGIN, Math.max(1, x2 - x1), plotHeight, fill, escape(test.name), test.endMs - test.startMs));
+        }
+        svg.append(String.format(Locale.ROOT,
+            "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"#000\"/>"
+                + "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"#000\"/>"
+                + "<text x=\"2\" y=\"%d\">%.0f</text><text x=\"2\" y=\"%d\">0</text>"
+                + "<text x=\"%d\" y=\"%d\">%d s</text>",
+            MARGIN, HEIGHT - MARGIN, WIDTH - MARGIN, HEIGHT - MARGIN,
+            MARGIN, MARGIN, MARGIN, HEIGHT - MARGIN,
+            MARGIN + 4, max, HEIGHT - MARGIN,
+            WIDTH - MARGIN - 30, HEIGHT - MARGIN + 15, (end - start) / 1000));
+
+        int color = 0;
+        for (List<ContainerSample> samples : series.values()) {
+            StringBuilder points = new StringBuilder();
+            for (ContainerSample sample : samples) {
+                points.append(String.format(Locale.ROOT, "%.1f,%.1f ",
+                    MARGIN + plotWidth * (sample.timestampMs - start) / span,
+                    HEIGHT - MARGIN - plotHeight * metric.applyAsDouble(sample) / max));
+            }
+            svg.append(String.format("<polyline fill=\"none\" stroke=\"%s\" stroke-width=\"1.5\" points=\"%s\"/>",
+                COLORS[color++ % COLORS.length], points.toString().trim()));
+        }
+        return svg.append("</svg>").toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
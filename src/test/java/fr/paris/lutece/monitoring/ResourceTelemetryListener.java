@@ -0,0 +1,176 @@
+package fr.paris.lutece.monitoring;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aligne la telemetrie des conteneurs sur les evenements de debut / fin de chaque test.
+ *
+ * En fin de run (si {@link ContainerStatsSampler} a collecte des mesures), ecrit dans target/telemetry/ :
+ * - timeseries.csv : toutes les mesures
+ * - resources-per-test.csv : par test et conteneur, CPU moyen / max, RSS max, throttling,
+ *   reseau et disque consommes pendant le test
+ * - resources.html : graphiques CPU / memoire du run avec les tests en surimpression
+ *
+ * Enregistre via META-INF/services/org.junit.platform.launcher.TestExecutionListener.
+ */
+public class ResourceTelemetryListener implements TestExecutionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceTelemetryListener.class);
+
+    private static final Path TELEMETRY_PATH = Paths.get("target/telemetry");
+
+    /**
+     * Fenetre d'execution d'un test.
+     */
+    static final class TestWindow {
+        final String name;
+        final long startMs;
+        final long endMs;
+        final String status;
+
+        TestWindow(String name, long startMs, long endMs, String status) {
+            this.name = name;
+            this.startMs = startMs;
+            this.endMs = endMs;
+            this.status = status;
+        }
+    }
+
+    private final Map<String, Long> starts = new ConcurrentHashMap<>();
+    private final List<TestWindow> windows = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (isTestMethod(testIdentifier)) {
+            starts.put(testIdentifier.getUniqueId(), System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+        Long start = starts.remove(testIdentifier.getUniqueId());
+        if (start != null) {
+            windows.add(new TestWindow(testName(testIdentifier), start, System.currentTimeMillis(),
+                result.getStatus().name()));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        ContainerStatsSampler.stop();
+        Map<String, List<ContainerSample>> series = ContainerStatsSampler.series();
+        if (series.values().stream().allMatch(List::isEmpty)) {
+            return;
+        }
+        List<TestWindow> tests;
+        synchronized (windows) {
+            tests = new ArrayList<>(windows);
+        }
+        try {
+            Files.createDirectories(TELEMETRY_PATH);
+            writeTimeSeries(series);
+            writePerTest(series, tests);
+            Files.writeString(TELEMETRY_PATH.resolve("resources.html"), ResourceChart.render(series, tests));
+            LOGGER.info("Telemetrie des conteneurs: {}", TELEMETRY_PATH.resolve("resources.html"));
+        } catch (IOException e) {
+            LOGGER.warn("Telemetrie non ecrite: {}", e.getMessage());
+        }
+    }
+
+    private void writeTimeSeries(Map<String, List<ContainerSample>> series) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(TELEMETRY_PATH.resolve("timeseries.csv"))) {
+            writer.write(ContainerSample.csvHeader() + System.lineSeparator());
+            for (Map.Entry<String, List<ContainerSample>> entry : series.entrySet()) {
+                for (ContainerSample sample : entry.getValue()) {
+                    writer.write(sample.toCsv(entry.getKey()) + System.lineSeparator());
+                }
+            }
+        }
+    }
+
+    private void writePerTest(Map<String, List<ContainerSample>> series, List<TestWindow> tests) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(TELEMETRY_PATH.resolve("resources-per-test.csv"))) {
+            writer.write("test,status,duration_ms,container,cpu_avg_percent,cpu_max_percent,rss_max_mb,"
+                + "throttled_ms,net_rx_kb,net_tx_kb,block_read_kb,block_write_kb" + System.lineSeparator());
+            for (TestWindow test : tests) {
+                for (Map.Entry<String, List<ContainerSample>> entry : series.entrySet()) {
+                    List<ContainerSample> samples = entry.getValue();
+                    if (samples.isEmpty()) {
+                        continue;
+                    }
+                    // Compteurs cumules : difference entre la derniere mesure avant et apres le test
+                    ContainerSample before = lastBefore(samples, test.startMs);
+                    ContainerSample after = lastBefore(samples, test.endMs);
+                    double cpuSum = 0;
+                    double cpuMax = 0;
+                    long rssMax = 0;
+                    int count = 0;
+                    for (ContainerSample sample : samples) {
+                        if (sample.timestampMs >= test.startMs && sample.timestampMs <= test.endMs) {
+                            cpuSum += sample.cpuPercent;
+                            cpuMax = Math.max(cpuMax, sample.cpuPercent);
+                            rssMax = Math.max(rssMax, sample.rssBytes);
+                            count++;
+                        }
+                    }
+                    if (count == 0) {
+                        // Test plus court que l'intervalle d'echantillonnage
+                        cpuSum = cpuMax = after.cpuPercent;
+                        rssMax = after.rssBytes;
+                        count = 1;
+                    }
+                    writer.write(String.format(Locale.ROOT, "\"%s\",%s,%d,%s,%.1f,%.1f,%.1f,%d,%d,%d,%d,%d%n",
+                        test.name.replace("\"", "'"), test.status, test.endMs - test.startMs, entry.getKey(),
+                        cpuSum / count, cpuMax, rssMax / 1048576.0,
+                        after.throttledMs - before.throttledMs,
+                        (after.netRxBytes - before.netRxBytes) >> 10,
+                        (after.netTxBytes - before.netTxBytes) >> 10,
+                        (after.blockReadBytes - before.blockReadBytes) >> 10,
+                        (after.blockWriteBytes - before.blockWriteBytes) >> 10));
+                }
+            }
+        }
+    }
+
+    /**
+     * Derniere mesure anterieure a l'instant donne (la premiere mesure a defaut).
+     */
+    private static ContainerSample lastBefore(List<ContainerSample> samples, long timestampMs) {
+        ContainerSample result = samples.get(0);
+        for (ContainerSample sample : samples) {
+            if (sample.timestampMs > timestampMs) {
+                break;
+            }
+            result = sample;
+        }
+        return result;
+    }
+
+    static boolean isTestMethod(TestIdentifier testIdentifier) {
+        return testIdentifier.isTest() && testIdentifier.getSource().filter(MethodSource.class::isInstance).isPresent();
+    }
+
+    static String testName(TestIdentifier testIdentifier) {
+        MethodSource source = (MethodSource) testIdentifier.getSource().orElseThrow();
+        String className = source.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + source.getMethodName();
+    }
+}
@@ -0,0 +1,139 @@
+package fr.paris.lutece.monitoring;
+
+import fr.paris.lutece.containers.LuteceContainer;
+import fr.paris.lutece.containers.LuteceJvm;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Profil serveur de la JVM Lutece, borne a une classe de test ou a un tir de charge.
+ *
+ * Avec JFR dans la JVM du conteneur : enregistrement demarre a l'ouverture, puis a la fermeture
+ * &lt;nom&gt;.jfr copie sur l'hote et resume dans &lt;nom&gt;-profile.txt ({@link JfrSummary}).
+ * Sinon : thread dumps echantillonnes toutes les profiling.sample.interval.ms ({@link ThreadDumpProfile}).
+ *
+ * Inactif si profiling.enabled=false ou sans conteneur Lutece (URL externe).
+ */
+public final class ServerProfile implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerProfile.class);
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final boolean ENABLED = CONFIG.getOptionalValue("profiling.enabled", Boolean.class).orElse(false);
+    private static final String SETTINGS = CONFIG.getOptionalValue("profiling.jfr.settings", String.class).orElse("profile");
+    private static final long SAMPLE_INTERVAL_MS = CONFIG.getOptionalValue("profiling.sample.interval.ms", Long.class).orElse(500L);
+    private static final int TOP = CONFIG.getOptionalValue("profiling.top", Integer.class).orElse(20);
+
+    private static LuteceContainer container;
+
+    private final String name;
+    private final Path directory;
+    private final LuteceJvm jvm;
+    private final boolean jfr;
+    private ThreadDumpProfile threadDumps;
+    private Thread sampler;
+    private volatile boolean running = true;
+
+    private ServerProfile(String name, Path directory, LuteceJvm jvm, boolean jfr) {
+        this.name = name;
+        this.directory = directory;
+        this.jvm = jvm;
+        this.jfr = jfr;
+    }
+
+    /**
+     * Declare le conteneur Lutece. Appele par ContainerSetup et ContainerBaseTest apres son demarrage.
+     */
+    public static void attach(LuteceContainer lutece) {
+        container = lutece;
+    }
+
+    public static boolean isAvailable() {
+        return ENABLED && container != null && container.isRunning();
+    }
+
+    /**
+     * Demarre le profil ; rien n'est fait si le profilage est inactif.
+     *
+     * @param name      nom de l'enregistrement et des fichiers produits
+     * @param directory repertoire de sortie sur l'hote
+     */
+    public static ServerProfile start(String name, Path directory) {
+        if (!isAvailable()) {
+            return new ServerProfile(name, directory, null, false);
+        }
+        String recording = name.replaceAll("[^A-Za-z0-9_.-]", "_");
+        LuteceJvm jvm = container.jvm();
+        try {
+            if (jvm.supportsJfr()) {
+                jvm.startRecording(recording, SETTINGS);
+                return new ServerProfile(recording, directory, jvm, true);
+            }
+            if (jvm.supportsThreadDump()) {
+                ServerProfile profile = new ServerProfile(recording, directory, jvm, false);
+                profile.startSampling();
+                return profile;
+            }
+            LOGGER.warn("Profil serveur '{}' impossible : ni JFR ni Thread.print dans la JVM Lutece", name);
+        } catch (IllegalStateException e) {
+            LOGGER.warn("Profil serveur '{}' non demarre: {}", name, e.getMessage());
+        }
+        return new ServerProfile(name, directory, null, false);
+    }
+
+    @Override
+    public void close() {
+        if (jvm == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path summary = directory.resolve(name + "-profile.txt");
+            if (jfr) {
+                Path recording = directory.resolve(name + ".jfr");
+                try {
+                    jvm.dumpRecording(name, recording);
+                } finally {
+                    jvm.stopRecording(name);
+                }
+                Files.writeString(summary, JfrSummary.summarize(recording, TOP));
+            } else {
+                running = false;
+                sampler.interrupt();
+                sampler.join(5000);
+                Files.writeString(summary, threadDumps.summarize(TOP));
+            }
+            LOGGER.info("Profil serveur '{}': {}", name, summary);
+        } catch (Exception e) {
+            LOGGER.warn("Profil serveur '{}' non ecrit: {}", name, e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void startSampling() {
+        threadDumps = new ThreadDumpProfile();
+        sampler = new Thread(() -> {
+            while (running) {
+                try {
+                    threadDumps.add(jvm.threadDump());
+                } catch (IllegalStateException e) {
+                    LOGGER.debug("Thread dump impossible: {}", e.getMessage());
+                }
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "server-profile-" + name);
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+}
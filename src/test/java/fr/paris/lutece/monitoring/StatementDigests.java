@@ -0,0 +1,134 @@
+package fr.paris.lutece.monitoring;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantane de performance_schema.events_statements_summary_by_digest pour le schema de Lutece,
+ * et difference entre deux instantanes (requetes executees pendant un test).
+ */
+public final class StatementDigests {
+
+    private static final String QUERY = "SELECT DIGEST, DIGEST_TEXT, COUNT_STAR, SUM_TIMER_WAIT, "
+        + "SUM_ROWS_EXAMINED, SUM_ROWS_SENT FROM performance_schema.events_statements_summary_by_digest "
+        + "WHERE SCHEMA_NAME = ?";
+
+    /**
+     * Statistiques cumulees d'une forme de requete (DIGEST).
+     */
+    public static final class Digest {
+        final String text;
+        final long count;
+        final long timerWaitPs;
+        final long rowsExamined;
+        final long rowsSent;
+
+        Digest(String text, long count, long timerWaitPs, long rowsExamined, long rowsSent) {
+            this.text = text;
+            this.count = count;
+            this.timerWaitPs = timerWaitPs;
+            this.rowsExamined = rowsExamined;
+            this.rowsSent = rowsSent;
+        }
+
+        public String text() {
+            return text;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double totalLatencyMs() {
+            return timerWaitPs / 1e9;
+        }
+
+        public long rowsExamined() {
+            return rowsExamined;
+        }
+
+        public long rowsSent() {
+            return rowsSent;
+        }
+    }
+
+    private final Map<String, Digest> digests;
+
+    private StatementDigests(Map<String, Digest> digests) {
+        this.digests = digests;
+    }
+
+    public static StatementDigests snapshot(Connection connection, String schema) throws SQLException {
+        Map<String, Digest> digests = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+            statement.setString(1, schema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String key = rs.getString("DIGEST") != null ? rs.getString("DIGEST") : rs.getString("DIGEST_TEXT");
+                    digests.put(key, new Digest(rs.getString("DIGEST_TEXT"), rs.getLong("COUNT_STAR"),
+                        rs.getLong("SUM_TIMER_WAIT"), rs.getLong("SUM_ROWS_EXAMINED"), rs.getLong("SUM_ROWS_SENT")));
+                }
+            }
+        }
+        return new StatementDigests(digests);
+    }
+
+    /**
+     * Requetes executees depuis l'instantane before (formes dont le compteur a augmente).
+     */
+    public StatementDigests since(StatementDigests before) {
+        Map<String, Digest> delta = new HashMap<>();
+        for (Map.Entry<String, Digest> entry : digests.entrySet()) {
+            Digest now = entry.getValue();
+            Digest previous = before.digests.get(entry.getKey());
+            long count = now.count - (previous == null ? 0 : previous.count);
+            if (count > 0) {
+                delta.put(entry.getKey(), previous == null ? now : new Digest(now.text, count,
+                    now.timerWaitPs - previous.timerWaitPs,
+                    now.rowsExamined - previous.rowsExamined,
+                    now.rowsSent - previous.rowsSent));
+            }
+        }
+        return new StatementDigests(delta);
+    }
+
+    public long totalCount() {
+        return digests.values().stream().mapToLong(d -> d.count).sum();
+    }
+
+    public long totalRowsExamined() {
+        return digests.values().stream().mapToLong(d -> d.rowsExamined).sum();
+    }
+
+    public double totalLatencyMs() {
+        return digests.values().stream().mapToDouble(Digest::totalLatencyMs).sum();
+    }
+
+    /**
+     * Les n formes de requete les plus couteuses selon le critere donne.
+     */
+    public List<Digest> top(Comparator<Digest> order, int n) {
+        List<Digest> sorted = new ArrayList<>(digests.values());
+        sorted.sort(order.reversed());
+        return sorted.subList(0, Math.min(n, sorted.size()));
+    }
+
+    public static Comparator<Digest> byLatency() {
+        return Comparator.comparingLong(d -> d.timerWaitPs);
+    }
+
+    public static Comparator<Digest> byRowsExamined() {
+        return Comparator.comparingLong(d -> d.rowsExamined);
+    }
+
+    public static Comparator<Digest> byCount() {
+        return Comparator.comparingLong(d -> d.count);
+    }
+}
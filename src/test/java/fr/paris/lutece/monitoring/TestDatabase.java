@@ -0,0 +1,79 @@
+package fr.paris.lutece.monitoring;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.testcontainers.containers.MariaDBContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Acces JDBC d'observation a la base de Lutece (performance_schema, information_schema...).
+ *
+ * En mode conteneur, ContainerSetup declare la base MariaDB via {@link #attach} ; la connexion se fait
+ * en root sur performance_schema pour ne pas polluer les statistiques du schema applicatif.
+ * En mode externe, monitoring.db.url / monitoring.db.user / monitoring.db.password activent l'acces.
+ */
+public final class TestDatabase {
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+
+    private static MariaDBContainer<?> container;
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Declare la base du conteneur. Appele par ContainerSetup et ContainerBaseTest apres le demarrage de MariaDB.
+     */
+    public static void attach(MariaDBContainer<?> mariadb) {
+        container = mariadb;
+    }
+
+    /**
+     * Vrai si une base est observable (conteneur demarre ou URL externe configuree).
+     */
+    public static boolean isAvailable() {
+        return (container != null && container.isRunning())
+            || CONFIG.getOptionalValue("monitoring.db.url", String.class).isPresent();
+    }
+
+    /**
+     * Nom du schema applicatif de Lutece.
+     */
+    public static String schema() {
+        if (container != null) {
+            return container.getDatabaseName();
+        }
+        return CONFIG.getOptionalValue("monitoring.db.schema", String.class).orElse("core");
+    }
+
+    /**
+     * Connexion sur performance_schema (a fermer par l'appelant).
+     */
+    public static Connection connect() throws SQLException {
+        return connect(new Properties());
+    }
+
+    /**
+     * Connexion sur performance_schema avec des proprietes du pilote en plus (allowLocalInfile...).
+     * Les tables applicatives sont a prefixer par {@link #schema()}.
+     */
+    public static Connection connect(Properties options) throws SQLException {
+        Properties properties = new Properties();
+        properties.putAll(options);
+        if (container != null && container.isRunning()) {
+            String url = "jdbc:mariadb://" + container.getHost() + ":" + container.getMappedPort(3306)
+                + "/performance_schema";
+            // L'image MariaDB de Testcontainers utilise le mot de passe applicatif pour root
+            properties.setProperty("user", "root");
+            properties.setProperty("password", container.getPassword());
+            return DriverManager.getConnection(url, properties);
+        }
+        properties.setProperty("user", CONFIG.getOptionalValue("monitoring.db.user", String.class).orElse("root"));
+        properties.setProperty("password", CONFIG.getOptionalValue("monitoring.db.password", String.class).orElse(""));
+        return DriverManager.getConnection(CONFIG.getValue("monitoring.db.url", String.class), properties);
+    }
+}
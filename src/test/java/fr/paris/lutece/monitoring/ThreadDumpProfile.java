@@ -0,0 +1,110 @@
+package fr.paris.lutece.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Profil par echantillonnage de thread dumps, quand la JVM du conteneur ne propose pas JFR (OpenJ9 ancien).
+ *
+ * Chaque dump (format HotSpot ou OpenJ9) compte les frames du haut des threads actifs, la premiere
+ * frame Lutece et les moniteurs attendus par les threads bloques. Les threads en attente d'E/S
+ * reseau (accept, poll, lecture de socket) sont ignores. Pas de sites d'allocation dans ce mode.
+ */
+final class ThreadDumpProfile {
+
+    private static final String APPLICATION_PACKAGE = "fr.paris.lutece.";
+
+    // HotSpot : "java.lang.Thread.State: RUNNABLE" ; OpenJ9 : "state:R" dans l'en-tete du thread
+    private static final Pattern HOTSPOT_STATE = Pattern.compile("java\\.lang\\.Thread\\.State: (\\w+)");
+    private static final Pattern OPENJ9_STATE = Pattern.compile("state:(\\w+)");
+    private static final Pattern FRAME = Pattern.compile("^\\s*at ([^(\\s]+)(?:\\(([^)]*)\\))?");
+    private static final Pattern WAITING_TO_LOCK = Pattern.compile("waiting to lock <[^>]*> \\(a ([^)]+)\\)|blocked on: ([\\w/.$]+)");
+
+    private static final String[] IDLE_FRAMES = {
+        "sun.nio.ch.EPoll", "sun.nio.ch.Net.poll", "sun.nio.ch.Net.accept", "java.net.SocketInputStream.socketRead",
+        "sun.nio.ch.SocketDispatcher.read", "java.net.PlainSocketImpl", "sun.nio.ch.KQueue", "sun.nio.ch.WEPoll",
+    };
+
+    private final JfrSummary.ProfileTable selfCpu = new JfrSummary.ProfileTable();
+    private final JfrSummary.ProfileTable luteceCpu = new JfrSummary.ProfileTable();
+    private final JfrSummary.ProfileTable blocked = new JfrSummary.ProfileTable();
+    private int dumps;
+
+    synchronized void add(String dump) {
+        dumps++;
+        for (String thread : dump.split("\\R(?=\")")) {
+            analyze(thread);
+        }
+    }
+
+    synchronized String summarize(int top) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Thread dumps: %d (JFR indisponible dans la JVM du conteneur)%n", dumps));
+        selfCpu.append(summary, "Frames du haut des threads actifs", top, "echant.", 1);
+        luteceCpu.append(summary, "Premiere frame Lutece des threads actifs", top, "echant.", 1);
+        blocked.append(summary, "Threads bloques (moniteur <- frame)", top, "echant.", 1);
+        return summary.toString();
+    }
+
+    private void analyze(String thread) {
+        String[] lines = thread.split("\\R");
+        if (lines.length == 0 || !lines[0].startsWith("\"")) {
+            return;
+        }
+        String state = state(thread);
+        List<String> frames = new ArrayList<>();
+        String monitor = null;
+        for (String line : lines) {
+            Matcher frame = FRAME.matcher(line);
+            if (frame.find()) {
+                String location = frame.group(2);
+                String method = frame.group(1).replace('/', '.');
+                frames.add(location != null && location.contains(":")
+                    ? method + ":" + location.substring(location.lastIndexOf(':') + 1)
+                    : method);
+            }
+            Matcher lock = WAITING_TO_LOCK.matcher(line);
+            if (monitor == null && lock.find()) {
+                monitor = (lock.group(1) != null ? lock.group(1) : lock.group(2)).replace('/', '.');
+            }
+        }
+        if (frames.isEmpty()) {
+            return;
+        }
+        if (state.startsWith("BLOCKED") || state.equals("B")) {
+            blocked.add((monitor == null ? "?" : monitor) + " <- " + firstApplicationFrame(frames), 1);
+        } else if ((state.startsWith("RUNNABLE") || state.equals("R")) && !isIdle(frames.get(0))) {
+            selfCpu.add(frames.get(0), 1);
+            luteceCpu.add(firstApplicationFrame(frames), 1);
+        }
+    }
+
+    private static String state(String thread) {
+        Matcher hotspot = HOTSPOT_STATE.matcher(thread);
+        if (hotspot.find()) {
+            return hotspot.group(1);
+        }
+        Matcher openj9 = OPENJ9_STATE.matcher(thread);
+        return openj9.find() ? openj9.group(1) : "";
+    }
+
+    private static String firstApplicationFrame(List<String> frames) {
+        for (String frame : frames) {
+            if (frame.startsWith(APPLICATION_PACKAGE)) {
+                return frame;
+            }
+        }
+        return "(hors Lutece) " + frames.get(0);
+    }
+
+    private static boolean isIdle(String frame) {
+        for (String idle : IDLE_FRAMES) {
+            if (frame.startsWith(idle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package fr.paris.lutece.monitoring;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Span OpenTelemetry recu par {@link OtlpReceiver} (identifiants en hexadecimal, horaires en
+ * nanosecondes depuis l'epoque).
+ */
+public final class TraceSpan {
+
+    private final String service;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final long startNanos;
+    private final long endNanos;
+    private final Map<String, String> attributes;
+
+    TraceSpan(String service, String traceId, String spanId, String parentSpanId, String name,
+              long startNanos, long endNanos, Map<String, String> attributes) {
+        this.service = service;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    public String service() {
+        return service;
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    public String spanId() {
+        return spanId;
+    }
+
+    /**
+     * Span parent, chaine vide pour une racine.
+     */
+    public String parentSpanId() {
+        return parentSpanId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public long endNanos() {
+        return endNanos;
+    }
+
+    public double durationMs() {
+        return (endNanos - startNanos) / 1_000_000.0;
+    }
+
+    public Map<String, String> attributes() {
+        return attributes;
+    }
+
+    /**
+     * Libelle lisible : requete SQL, route HTTP ou nom du span.
+     */
+    public String label() {
+        String statement = attributes.get("db.statement");
+        if (statement == null) {
+            statement = attributes.get("db.query.text");
+        }
+        if (statement != null) {
+            return "SQL " + statement.replaceAll("\\s+", " ");
+        }
+        String target = attributes.getOrDefault("url.path", attributes.get("http.target"));
+        if (target != null && !name.contains(target)) {
+            return name + " " + target;
+        }
+        return name;
+    }
+}
@@ -20,92 +20,122 @@ public class AdminMenuPage {
      * Vérifie si on est bien connecté (menu visible).
      */
     public boolean isLoggedIn() {
-        // Attendre que la page charge
-        page.waitForLoadState();
-        return page.url().contains("AdminMenu") || 
-               page.locator(".lutece-admin-menu, #admin-menu, nav").isVisible();
+        return PageActions.run(page, "AdminMenuPage.isLoggedIn", () -> {
+            // Attendre que la page charge
+            page.waitForLoadState();
+            return page.url().contains("AdminMenu") || 
+                   page.locator(".lutece-admin-menu, #admin-menu, nav").isVisible();
+        });
     }
 
     /**
      * Clique sur le menu Système.
      */
     public AdminMenuPage clickSystemMenu() {
-        page.getByRole(AriaRole.BUTTON, 
-            new Page.GetByRoleOptions().setName(" Contenu")).click();
-        return this;
+        return PageActions.run(page, "AdminMenuPage.clickSystemMenu", () -> {
+            page.getByRole(AriaRole.BUTTON, 
+                new Page.GetByRoleOptions().setName(" Contenu")).click();
+            return this;
+        });
     }
 
     /**
      * Clique sur le menu Gestionnaires.
      */
     public AdminMenuPage clickGestionnairesMenu() {
-        page.getByRole(AriaRole.BUTTON, 
-            new Page.GetByRoleOptions().setName(" Gestionnaires")).click();
-        return this;
+        return PageActions.run(page, "AdminMenuPage.clickGestionnairesMenu", () -> {
+            page.getByRole(AriaRole.BUTTON, 
+                new Page.GetByRoleOptions().setName(" Gestionnaires")).click();
+            return this;
+        });
     }
 
     /**
      * Clique sur le menu Site.
      */
     public AdminMenuPage clickSiteMenu() {
-        page.getByRole(AriaRole.BUTTON, 
-            new Page.GetByRoleOptions().setName(" Site")).click();
-        return this;
+        return PageActions.run(page, "AdminMenuPage.clickSiteMenu", () -> {
+            page.getByRole(AriaRole.BUTTON, 
+                new Page.GetByRoleOptions().setName(" Site")).click();
+            return this;
+        });
     }
 
     /**
      * Clique sur le menu Charte.
      */
     public AdminMenuPage clickCharteMenu() {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName(" Charte")).click();
-        return this;
+        return PageActions.run(page, "AdminMenuPage.clickCharteMenu", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName(" Charte")).click();
+            return this;
+        });
     }
 
     /**
      * Clique sur le menu Applications.
      */
     public AdminMenuPage clickApplicationsMenu() {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName(" Applications")).click();
-        return this;
+        return PageActions.run(page, "AdminMenuPage.clickApplicationsMenu", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName(" Applications")).click();
+            return this;
+        });
     }
 
     /**
      * Navigue vers la gestion des workflows.
      */
     public void goToWorkflowManagement() {
-        // Navigation directe pour plus de fiabilité et rapidité
-        page.navigate(baseUrl + "/jsp/admin/plugins/workflow/ManageWorkflow.jsp");
-        page.waitForLoadState();
+        PageActions.run(page, "AdminMenuPage.goToWorkflowManagement", () -> {
+            // Navigation directe pour plus de fiabilité et rapidité
+            page.navigate(baseUrl + "/jsp/admin/plugins/workflow/ManageWorkflow.jsp");
+            page.waitForLoadState();
+        });
     }
 
     /**
      * Navigue vers la gestion des formulaires.
      */
     public void goToFormsManagement() {
-        // Navigation directe pour plus de fiabilité et rapidité
-        page.navigate(baseUrl + "/jsp/admin/plugins/forms/ManageForms.jsp");
-        page.waitForLoadState();
+        PageActions.run(page, "AdminMenuPage.goToFormsManagement", () -> {
+            // Navigation directe pour plus de fiabilité et rapidité
+            page.navigate(baseUrl + "/jsp/admin/plugins/forms/ManageForms.jsp");
+            page.waitForLoadState();
+        });
+    }
+
+    /**
+     * Navigue vers la gestion des caches.
+     */
+    public CacheManagementPage goToCacheManagement() {
+        return PageActions.run(page, "AdminMenuPage.goToCacheManagement", () -> {
+            // Navigation directe pour plus de fiabilité et rapidité
+            return new CacheManagementPage(page, baseUrl).navigate();
+        });
     }
 
     /**
      * Accède à la gestion des propriétés du site.
      */
     public SitePropertiesPage goToSiteProperties() {
-        clickSystemMenu();
-        page.getByRole(AriaRole.LINK, 
-            new Page.GetByRoleOptions().setName("Gestion des propriétés du site")).first().click();
-        return new SitePropertiesPage(page, baseUrl);
+        return PageActions.run(page, "AdminMenuPage.goToSiteProperties", () -> {
+            clickSystemMenu();
+            page.getByRole(AriaRole.LINK, 
+                new Page.GetByRoleOptions().setName("Gestion des propriétés du site")).first().click();
+            return new SitePropertiesPage(page, baseUrl);
+        });
     }
 
     /**
      * Se déconnecte.
      */
     public LoginPage logout() {
-        // Adapter selon l'UI de votre Lutece
-        page.locator("a[href*='logout'], .logout-link, #logout").click();
-        return new LoginPage(page, baseUrl);
+        return PageActions.run(page, "AdminMenuPage.logout", () -> {
+            // Adapter selon l'UI de votre Lutece
+            page.locator("a[href*='logout'], .logout-link, #logout").click();
+            return new LoginPage(page, baseUrl);
+        });
     }
 
     /**
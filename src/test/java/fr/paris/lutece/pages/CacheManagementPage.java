@@ -0,0 +1,106 @@
+package fr.paris.lutece.pages;
+
+import com.microsoft.playwright.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page Object pour la page de gestion des caches (Système > Gestion des caches).
+ *
+ * Équivalent navigateur de {@link fr.paris.lutece.load.CacheAdmin} : les benchmarks passent par
+ * HTTP, les tests E2E et le diagnostic manuel par cette page.
+ */
+public class CacheManagementPage {
+
+    public static final String PATH = "/jsp/admin/system/ManageCaches.jsp";
+
+    private final Page page;
+    private final String baseUrl;
+
+    public CacheManagementPage(Page page, String baseUrl) {
+        this.page = page;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Navigue vers la page de gestion des caches.
+     */
+    public CacheManagementPage navigate() {
+        return PageActions.run(page, "CacheManagementPage.navigate", () -> {
+            page.navigate(baseUrl + PATH);
+            page.waitForLoadState();
+            return this;
+        });
+    }
+
+    /**
+     * Vérifie si la page est chargée (au moins un service de cache listé).
+     */
+    public boolean isDisplayed() {
+        return PageActions.run(page, "CacheManagementPage.isDisplayed", () -> {
+            page.waitForLoadState();
+            return page.url().contains("ManageCaches") && page.locator("text=CacheService").count() > 0;
+        });
+    }
+
+    /**
+     * Texte de la ligne de chacun des caches demandés (statut, nombre d'objets...), caches absents ignorés.
+     */
+    public Map<String, String> getCacheRows(List<String> caches) {
+        return PageActions.run(page, "CacheManagementPage.getCacheRows", () -> {
+            Map<String, String> rows = new LinkedHashMap<>();
+            for (String cache : caches) {
+                Locator row = row(cache);
+                if (row.count() > 0) {
+                    rows.put(cache, row.first().innerText().replaceAll("\\s+", " ").trim());
+                }
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Vérifie si un cache est listé sur la page.
+     */
+    public boolean hasCache(String cache) {
+        return PageActions.run(page, "CacheManagementPage.hasCache", () -> row(cache).count() > 0);
+    }
+
+    /**
+     * Vide un cache via le bouton ou lien de sa ligne.
+     */
+    public CacheManagementPage resetCache(String cache, String label) {
+        return PageActions.run(page, "CacheManagementPage.resetCache", () -> {
+            clickInRow(cache, label);
+            return this;
+        });
+    }
+
+    /**
+     * Active ou désactive un cache via le bouton ou lien de sa ligne.
+     */
+    public CacheManagementPage toggleCache(String cache, String label) {
+        return PageActions.run(page, "CacheManagementPage.toggleCache", () -> {
+            clickInRow(cache, label);
+            return this;
+        });
+    }
+
+    private Locator row(String cache) {
+        return page.locator("tr, .list-group-item, .card").filter(new Locator.FilterOptions().setHasText(cache))
+            .filter(new Locator.FilterOptions().setHasNot(page.locator("tr")));
+    }
+
+    private void clickInRow(String cache, String label) {
+        Locator target = row(cache).first()
+            .locator("a, button, input[type=submit]")
+            .filter(new Locator.FilterOptions().setHasText(label));
+        if (target.count() == 0) {
+            target = row(cache).first().locator("[title^='" + label + "'], input[value^='" + label + "']");
+        }
+        target.first().click();
+        page.waitForLoadState();
+    }
+}
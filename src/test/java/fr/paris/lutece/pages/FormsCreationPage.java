@@ -20,9 +20,11 @@ public class FormsCreationPage {
      * Remplit le titre du formulaire.
      */
     public FormsCreationPage fillTitle(String title) {
-        page.locator("input[name=\"title\"]").click();
-        page.locator("input[name=\"title\"]").fill(title);
-        return this;
+        return PageActions.run(page, "FormsCreationPage.fillTitle", () -> {
+            page.locator("input[name=\"title\"]").click();
+            page.locator("input[name=\"title\"]").fill(title);
+            return this;
+        });
     }
 
     /**
@@ -30,43 +32,51 @@ public class FormsCreationPage {
      * Utilise page.evaluate() pour contourner les problemes avec flatpickr.
      */
     public FormsCreationPage setStartDate(String date) {
-        page.evaluate("(date) => {\n"
-            + "  const inputs = document.querySelectorAll('input.flatpickr-input');\n"
-            + "  if (inputs[0] && inputs[0]._flatpickr) {\n"
-            + "    inputs[0]._flatpickr.setDate(date, true);\n"
-            + "  }\n"
-            + "}", date);
-        return this;
+        return PageActions.run(page, "FormsCreationPage.setStartDate", () -> {
+            page.evaluate("(date) => {\n"
+                + "  const inputs = document.querySelectorAll('input.flatpickr-input');\n"
+                + "  if (inputs[0] && inputs[0]._flatpickr) {\n"
+                + "    inputs[0]._flatpickr.setDate(date, true);\n"
+                + "  }\n"
+                + "}", date);
+            return this;
+        });
     }
 
     /**
      * Definit la date de fin de disponibilite via flatpickr.
      */
     public FormsCreationPage setEndDate(String date) {
-        page.evaluate("(date) => {\n"
-            + "  const inputs = document.querySelectorAll('input.flatpickr-input');\n"
-            + "  if (inputs[1] && inputs[1]._flatpickr) {\n"
-            + "    inputs[1]._flatpickr.setDate(date, true);\n"
-            + "  }\n"
-            + "}", date);
-        return this;
+        return PageActions.run(page, "FormsCreationPage.setEndDate", () -> {
+            page.evaluate("(date) => {\n"
+                + "  const inputs = document.querySelectorAll('input.flatpickr-input');\n"
+                + "  if (inputs[1] && inputs[1]._flatpickr) {\n"
+                + "    inputs[1]._flatpickr.setDate(date, true);\n"
+                + "  }\n"
+                + "}", date);
+            return this;
+        });
     }
 
     /**
      * Selectionne le workflow dans le dropdown par son libelle.
      */
     public FormsCreationPage selectWorkflow(String workflowName) {
-        page.locator("#idWorkflow").selectOption(
-            new SelectOption().setLabel(workflowName));
-        return this;
+        return PageActions.run(page, "FormsCreationPage.selectWorkflow", () -> {
+            page.locator("#idWorkflow").selectOption(
+                new SelectOption().setLabel(workflowName));
+            return this;
+        });
     }
 
     /**
      * Clique sur "Creer le formulaire".
      */
     public FormsEditPage clickCreateForm() {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Créer le formulaire")).click();
-        return new FormsEditPage(page, baseUrl);
+        return PageActions.run(page, "FormsCreationPage.clickCreateForm", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Créer le formulaire")).click();
+            return new FormsEditPage(page, baseUrl);
+        });
     }
 }
@@ -20,221 +20,255 @@ public class FormsEditPage {
      * Clique sur l'onglet Etapes.
      */
     public FormsEditPage clickStepsTab() {
-        page.getByRole(AriaRole.TAB,
-            new Page.GetByRoleOptions().setName("Etapes")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.clickStepsTab", () -> {
+            page.getByRole(AriaRole.TAB,
+                new Page.GetByRoleOptions().setName("Etapes")).click();
+            return this;
+        });
     }
 
     /**
      * Clique sur l'onglet Parametres.
      */
     public FormsEditPage clickParametersTab() {
-        page.getByRole(AriaRole.TAB,
-            new Page.GetByRoleOptions().setName("Paramètres")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.clickParametersTab", () -> {
+            page.getByRole(AriaRole.TAB,
+                new Page.GetByRoleOptions().setName("Paramètres")).click();
+            return this;
+        });
     }
 
     /**
      * Ajoute une etape via l'iframe.
      */
     public FormsEditPage addStep(String title, boolean isFinal) {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Ajouter une étape")).click();
-        FrameLocator iframe = page.frameLocator("iframe[title=\"Ajouter une étape\"]");
-        iframe.locator("#step-title").click();
-        iframe.locator("#step-title").fill(title);
-        if (isFinal) {
-            iframe.getByRole(AriaRole.CHECKBOX,
-                new FrameLocator.GetByRoleOptions().setName("Finale")).check();
-        }
-        iframe.getByRole(AriaRole.BUTTON,
-            new FrameLocator.GetByRoleOptions().setName("OK")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.addStep", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Ajouter une étape")).click();
+            FrameLocator iframe = page.frameLocator("iframe[title=\"Ajouter une étape\"]");
+            iframe.locator("#step-title").click();
+            iframe.locator("#step-title").fill(title);
+            if (isFinal) {
+                iframe.getByRole(AriaRole.CHECKBOX,
+                    new FrameLocator.GetByRoleOptions().setName("Finale")).check();
+            }
+            iframe.getByRole(AriaRole.BUTTON,
+                new FrameLocator.GetByRoleOptions().setName("OK")).click();
+            return this;
+        });
     }
 
     /**
      * Ouvre l'edition d'une etape par son nom (clic sur le lien du nom).
      */
     public FormsEditPage openStepEditByName(String stepName) {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName(stepName).setExact(true)).last().click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.openStepEditByName", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName(stepName).setExact(true)).last().click();
+            return this;
+        });
     }
 
     /**
      * Clique sur "Modifier l'etape" (lien direct).
      */
     public FormsEditPage clickModifyStep() {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Modifier l'étape")).last().click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.clickModifyStep", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Modifier l'étape")).last().click();
+            return this;
+        });
     }
 
     /**
      * Clique sur l'onglet "Liste des Questions".
      */
     public FormsEditPage clickQuestionsTab() {
-        page.getByRole(AriaRole.TAB,
-            new Page.GetByRoleOptions().setName("Liste des Questions")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.clickQuestionsTab", () -> {
+            page.getByRole(AriaRole.TAB,
+                new Page.GetByRoleOptions().setName("Liste des Questions")).click();
+            return this;
+        });
     }
 
     /**
      * Clique sur l'onglet "Parametres de l'etape".
      */
     public FormsEditPage clickStepParametersTab() {
-        page.getByRole(AriaRole.TAB,
-            new Page.GetByRoleOptions().setName("Paramètres de l'étape")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.clickStepParametersTab", () -> {
+            page.getByRole(AriaRole.TAB,
+                new Page.GetByRoleOptions().setName("Paramètres de l'étape")).click();
+            return this;
+        });
     }
 
     /**
      * Ajoute une question de type texte court.
      */
     public FormsEditPage addTextQuestion(String title) {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Ajouter une question")).click();
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Texte court")).click();
-        page.getByRole(AriaRole.TEXTBOX,
-            new Page.GetByRoleOptions().setName("Titre *")).click();
-        page.getByRole(AriaRole.TEXTBOX,
-            new Page.GetByRoleOptions().setName("Titre *")).fill(title);
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Enregistrer")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.addTextQuestion", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Ajouter une question")).click();
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Texte court")).click();
+            page.getByRole(AriaRole.TEXTBOX,
+                new Page.GetByRoleOptions().setName("Titre *")).click();
+            page.getByRole(AriaRole.TEXTBOX,
+                new Page.GetByRoleOptions().setName("Titre *")).fill(title);
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Enregistrer")).click();
+            return this;
+        });
     }
 
     /**
      * Ajoute une question de type nombre.
      */
     public FormsEditPage addNumberQuestion(String title) {
-        page.locator("#question-list").getByRole(AriaRole.BUTTON,
-            new Locator.GetByRoleOptions().setName("Actions")).first().click();
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Ajouter une question")).click();
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Nombre")).click();
-        page.getByRole(AriaRole.TEXTBOX,
-            new Page.GetByRoleOptions().setName("Titre *")).click();
-        page.getByRole(AriaRole.TEXTBOX,
-            new Page.GetByRoleOptions().setName("Titre *")).fill(title);
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Enregistrer")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.addNumberQuestion", () -> {
+            page.locator("#question-list").getByRole(AriaRole.BUTTON,
+                new Locator.GetByRoleOptions().setName("Actions")).first().click();
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Ajouter une question")).click();
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Nombre")).click();
+            page.getByRole(AriaRole.TEXTBOX,
+                new Page.GetByRoleOptions().setName("Titre *")).click();
+            page.getByRole(AriaRole.TEXTBOX,
+                new Page.GetByRoleOptions().setName("Titre *")).fill(title);
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Enregistrer")).click();
+            return this;
+        });
     }
 
     /**
      * Ajoute une question de type date.
      */
     public FormsEditPage addDateQuestion(String title) {
-        page.locator("#question-list").getByRole(AriaRole.BUTTON,
-            new Locator.GetByRoleOptions().setName("Actions")).first().click();
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Ajouter une question")).click();
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Date")).click();
-        page.getByRole(AriaRole.TEXTBOX,
-            new Page.GetByRoleOptions().setName("Titre *")).click();
-        page.getByRole(AriaRole.TEXTBOX,
-            new Page.GetByRoleOptions().setName("Titre *")).fill(title);
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Enregistrer")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.addDateQuestion", () -> {
+            page.locator("#question-list").getByRole(AriaRole.BUTTON,
+                new Locator.GetByRoleOptions().setName("Actions")).first().click();
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Ajouter une question")).click();
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Date")).click();
+            page.getByRole(AriaRole.TEXTBOX,
+                new Page.GetByRoleOptions().setName("Titre *")).click();
+            page.getByRole(AriaRole.TEXTBOX,
+                new Page.GetByRoleOptions().setName("Titre *")).fill(title);
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Enregistrer")).click();
+            return this;
+        });
     }
 
     /**
      * Ajoute une question de type commentaire avec texte riche.
      */
     public FormsEditPage addCommentQuestion(String customCode, String commentText) {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Ajouter une question")).click();
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Commentaire")).click();
-        page.getByRole(AriaRole.TEXTBOX,
-            new Page.GetByRoleOptions().setName("Code personnalisé")).click();
-        page.getByRole(AriaRole.TEXTBOX,
-            new Page.GetByRoleOptions().setName("Code personnalisé")).fill(customCode);
-        // Saisir le texte dans l'iframe Rich Text Area
-        FrameLocator richTextIframe = page.frameLocator("iframe[title=\"Rich Text Area\"]");
-        richTextIframe.locator("html").click();
-        richTextIframe.getByLabel("Zone de texte riche. Appuyez").fill(commentText);
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Enregistrer")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.addCommentQuestion", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Ajouter une question")).click();
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Commentaire")).click();
+            page.getByRole(AriaRole.TEXTBOX,
+                new Page.GetByRoleOptions().setName("Code personnalisé")).click();
+            page.getByRole(AriaRole.TEXTBOX,
+                new Page.GetByRoleOptions().setName("Code personnalisé")).fill(customCode);
+            // Saisir le texte dans l'iframe Rich Text Area
+            FrameLocator richTextIframe = page.frameLocator("iframe[title=\"Rich Text Area\"]");
+            richTextIframe.locator("html").click();
+            richTextIframe.getByLabel("Zone de texte riche. Appuyez").fill(commentText);
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Enregistrer")).click();
+            return this;
+        });
     }
 
     /**
      * Decoche la case "Finale" d'une etape et valide.
      */
     public FormsEditPage uncheckFinalAndSave() {
-        page.getByRole(AriaRole.CHECKBOX,
-            new Page.GetByRoleOptions().setName("Finale")).uncheck();
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("OK")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.uncheckFinalAndSave", () -> {
+            page.getByRole(AriaRole.CHECKBOX,
+                new Page.GetByRoleOptions().setName("Finale")).uncheck();
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("OK")).click();
+            return this;
+        });
     }
 
     /**
      * Configure la transition entre etapes via l'iframe Offcanvas.
      */
     public FormsEditPage configureStepTransition() {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Ajouter une liaison")).click();
-        FrameLocator offcanvasIframe = page.frameLocator("iframe[title=\"Offcanvas\"]");
-        offcanvasIframe.getByRole(AriaRole.BUTTON,
-            new FrameLocator.GetByRoleOptions().setName("OK")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.configureStepTransition", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Ajouter une liaison")).click();
+            FrameLocator offcanvasIframe = page.frameLocator("iframe[title=\"Offcanvas\"]");
+            offcanvasIframe.getByRole(AriaRole.BUTTON,
+                new FrameLocator.GetByRoleOptions().setName("OK")).click();
+            return this;
+        });
     }
 
     /**
      * Publie le formulaire sur le portail via la page d'accueil LUTECE.
      */
     public FormsEditPage publishOnPortal(String formName, String startDate) {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("LUTECE").setExact(true)).click();
-        page.locator(".list-group-item")
-            .filter(new Locator.FilterOptions().setHasText(formName))
-            .locator(".dropdown > .btn-action").click();
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Editer la publication du")).click();
-        // Definir la date de publication via flatpickr
-        page.evaluate("(date) => {\n"
-            + "  const input = document.querySelector('input.flatpickr-input');\n"
-            + "  if (input && input._flatpickr) {\n"
-            + "    input._flatpickr.setDate(date, true);\n"
-            + "  }\n"
-            + "}", startDate);
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("OK")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.publishOnPortal", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("LUTECE").setExact(true)).click();
+            page.locator(".list-group-item")
+                .filter(new Locator.FilterOptions().setHasText(formName))
+                .locator(".dropdown > .btn-action").click();
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Editer la publication du")).click();
+            // Definir la date de publication via flatpickr
+            page.evaluate("(date) => {\n"
+                + "  const input = document.querySelector('input.flatpickr-input');\n"
+                + "  if (input && input._flatpickr) {\n"
+                + "    input._flatpickr.setDate(date, true);\n"
+                + "  }\n"
+                + "}", startDate);
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("OK")).click();
+            return this;
+        });
     }
 
     /**
      * Affiche les etapes du formulaire.
      */
     public FormsEditPage clickShowSteps() {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName(" Afficher les étapes")).click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.clickShowSteps", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName(" Afficher les étapes")).click();
+            return this;
+        });
     }
 
     /**
      * Clique sur un formulaire par son nom (dernier element correspondant).
      */
     public FormsEditPage clickFormByName(String formName) {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName(formName)).last().click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.clickFormByName", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName(formName)).last().click();
+            return this;
+        });
     }
 
     /**
      * Clique sur une etape par son nom (dernier element correspondant).
      */
     public FormsEditPage clickStepByName(String stepName) {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName(stepName).setExact(true)).last().click();
-        return this;
+        return PageActions.run(page, "FormsEditPage.clickStepByName", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName(stepName).setExact(true)).last().click();
+            return this;
+        });
     }
 
 }
@@ -20,14 +20,16 @@ public class FormsFrontOfficePage {
      * Ferme l'offcanvas s'il est present (backdrop bloquant les interactions).
      */
     public FormsFrontOfficePage dismissOffcanvasIfPresent() {
-        page.waitForLoadState();
-        Locator backdrop = page.locator(".offcanvas-backdrop");
-        if (backdrop.count() > 0) {
-            page.keyboard().press("Escape");
-            backdrop.waitFor(new Locator.WaitForOptions()
-                .setState(com.microsoft.playwright.options.WaitForSelectorState.HIDDEN));
-        }
-        return this;
+        return PageActions.run(page, "FormsFrontOfficePage.dismissOffcanvasIfPresent", () -> {
+            page.waitForLoadState();
+            Locator backdrop = page.locator(".offcanvas-backdrop");
+            if (backdrop.count() > 0) {
+                page.keyboard().press("Escape");
+                backdrop.waitFor(new Locator.WaitForOptions()
+                    .setState(com.microsoft.playwright.options.WaitForSelectorState.HIDDEN));
+            }
+            return this;
+        });
     }
 
     /**
@@ -35,47 +37,49 @@ public class FormsFrontOfficePage {
      * Utilise plusieurs strategies pour trouver le champ.
      */
     public FormsFrontOfficePage fillTextField(String label, String value) {
-        page.waitForLoadState();
-        // Strategie 1: getByRole avec le label
-        Locator byRole = page.getByRole(AriaRole.TEXTBOX,
-            new Page.GetByRoleOptions().setName(label));
-        if (byRole.count() > 0) {
-            byRole.first().click();
-            byRole.first().fill(value);
-            return this;
-        }
-        // Strategie 2: getByLabel
-        Locator byLabel = page.getByLabel(label);
-        if (byLabel.count() > 0) {
-            byLabel.first().click();
-            byLabel.first().fill(value);
-            return this;
-        }
-        // Strategie 3: locator par placeholder ou aria-label
-        Locator byPlaceholder = page.locator("input[type='text'][placeholder*='" + label + "'], input[type='text'][aria-label*='" + label + "']");
-        if (byPlaceholder.count() > 0) {
-            byPlaceholder.first().click();
-            byPlaceholder.first().fill(value);
-            return this;
-        }
-        // Strategie 4: premier champ texte (sans :visible qui n'est pas valide en CSS)
-        Locator allTextInputs = page.locator("input[type='text']");
-        for (int i = 0; i < allTextInputs.count(); i++) {
-            Locator input = allTextInputs.nth(i);
-            if (input.isVisible()) {
-                input.click();
-                input.fill(value);
+        return PageActions.run(page, "FormsFrontOfficePage.fillTextField", () -> {
+            page.waitForLoadState();
+            // Strategie 1: getByRole avec le label
+            Locator byRole = page.getByRole(AriaRole.TEXTBOX,
+                new Page.GetByRoleOptions().setName(label));
+            if (byRole.count() > 0) {
+                byRole.first().click();
+                byRole.first().fill(value);
                 return this;
             }
-        }
-        // Fallback: textarea si pas d'input text
-        Locator textArea = page.locator("textarea");
-        if (textArea.count() > 0 && textArea.first().isVisible()) {
-            textArea.first().click();
-            textArea.first().fill(value);
-            return this;
-        }
-        throw new RuntimeException("Aucun champ texte trouve pour le label: " + label);
+            // Strategie 2: getByLabel
+            Locator byLabel = page.getByLabel(label);
+            if (byLabel.count() > 0) {
+                byLabel.first().click();
+                byLabel.first().fill(value);
+                return this;
+            }
+            // Strategie 3: locator par placeholder ou aria-label
+            Locator byPlaceholder = page.locator("input[type='text'][placeholder*='" + label + "'], input[type='text'][aria-label*='" + label + "']");
+            if (byPlaceholder.count() > 0) {
+                byPlaceholder.first().click();
+                byPlaceholder.first().fill(value);
+                return this;
+            }
+            // Strategie 4: premier champ texte (sans :visible qui n'est pas valide en CSS)
+            Locator allTextInputs = page.locator("input[type='text']");
+            for (int i = 0; i < allTextInputs.count(); i++) {
+                Locator input = allTextInputs.nth(i);
+                if (input.isVisible()) {
+                    input.click();
+                    input.fill(value);
+                    return this;
+                }
+            }
+            // Fallback: textarea si pas d'input text
+            Locator textArea = page.locator("textarea");
+            if (textArea.count() > 0 && textArea.first().isVisible()) {
+                textArea.first().click();
+                textArea.first().fill(value);
+                return this;
+            }
+            throw new RuntimeException("Aucun champ texte trouve pour le label: " + label);
+        });
     }
 
     /**
@@ -83,70 +87,80 @@ public class FormsFrontOfficePage {
      * Utilise plusieurs strategies pour trouver le champ.
      */
     public FormsFrontOfficePage fillNumberField(String label, String value) {
-        page.waitForLoadState();
-        // Strategie 1: getByRole avec le label
-        Locator byRole = page.getByRole(AriaRole.SPINBUTTON,
-            new Page.GetByRoleOptions().setName(label));
-        if (byRole.count() > 0) {
-            byRole.first().click();
-            byRole.first().fill(value);
-            return this;
-        }
-        // Strategie 2: getByLabel
-        Locator byLabel = page.getByLabel(label);
-        if (byLabel.count() > 0) {
-            byLabel.first().click();
-            byLabel.first().fill(value);
-            return this;
-        }
-        // Strategie 3: premier champ number visible
-        Locator allNumberInputs = page.locator("input[type='number']");
-        for (int i = 0; i < allNumberInputs.count(); i++) {
-            Locator input = allNumberInputs.nth(i);
-            if (input.isVisible()) {
-                input.click();
-                input.fill(value);
+        return PageActions.run(page, "FormsFrontOfficePage.fillNumberField", () -> {
+            page.waitForLoadState();
+            // Strategie 1: getByRole avec le label
+            Locator byRole = page.getByRole(AriaRole.SPINBUTTON,
+                new Page.GetByRoleOptions().setName(label));
+            if (byRole.count() > 0) {
+                byRole.first().click();
+                byRole.first().fill(value);
+                return this;
+            }
+            // Strategie 2: getByLabel
+            Locator byLabel = page.getByLabel(label);
+            if (byLabel.count() > 0) {
+                byLabel.first().click();
+                byLabel.first().fill(value);
                 return this;
             }
-        }
-        throw new RuntimeException("Aucun champ nombre trouve pour le label: " + label);
+            // Strategie 3: premier champ number visible
+            Locator allNumberInputs = page.locator("input[type='number']");
+            for (int i = 0; i < allNumberInputs.count(); i++) {
+                Locator input = allNumberInputs.nth(i);
+                if (input.isVisible()) {
+                    input.click();
+                    input.fill(value);
+                    return this;
+                }
+            }
+            throw new RuntimeException("Aucun champ nombre trouve pour le label: " + label);
+        });
     }
 
     /**
      * Remplit un champ date (flatpickr) via JavaScript.
      */
     public FormsFrontOfficePage fillDateField(String value) {
-        Locator input = page.locator("input.flatpickr-input");
-        if (input.count() > 0) {
-            input.first().evaluate("(el, date) => { if (el._flatpickr) { el._flatpickr.setDate(date, true); } else { el.value = date; el.dispatchEvent(new Event('change')); } }", value);
-        }
-        return this;
+        return PageActions.run(page, "FormsFrontOfficePage.fillDateField", () -> {
+            Locator input = page.locator("input.flatpickr-input");
+            if (input.count() > 0) {
+                input.first().evaluate("(el, date) => { if (el._flatpickr) { el._flatpickr.setDate(date, true); } else { el.value = date; el.dispatchEvent(new Event('change')); } }", value);
+            }
+            return this;
+        });
     }
 
     /**
      * Clique sur "Etape suivante".
      */
     public FormsFrontOfficePage clickNextStep() {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Etape suivante")).click();
-        return this;
+        return PageActions.run(page, "FormsFrontOfficePage.clickNextStep", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Etape suivante")).click();
+            return this;
+        });
     }
 
     /**
      * Clique sur "Voir le recapitulatif".
      */
     public FormsFrontOfficePage clickViewSummary() {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Voir le récapitulatif")).click();
-        return this;
+        return PageActions.run(page, "FormsFrontOfficePage.clickViewSummary", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Voir le récapitulatif")).click();
+            return this;
+        });
     }
 
     /**
      * Clique sur "Valider le recapitulatif".
      */
     public void clickValidateSummary() {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Valider le récapitulatif")).click();
+        PageActions.run(page, "FormsFrontOfficePage.clickValidateSummary", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Valider le récapitulatif")).click();
+        });
     }
 
     /**
@@ -20,19 +20,23 @@ public class FormsListPage {
      * Verifie que la page de gestion des formulaires est affichee.
      */
     public boolean isDisplayed() {
-        page.waitForLoadState();
-        return page.url().contains("ManageForms") ||
-               page.getByRole(AriaRole.LINK,
-                   new Page.GetByRoleOptions().setName("Ajouter un Formulaire")).first().isVisible();
+        return PageActions.run(page, "FormsListPage.isDisplayed", () -> {
+            page.waitForLoadState();
+            return page.url().contains("ManageForms") ||
+                   page.getByRole(AriaRole.LINK,
+                       new Page.GetByRoleOptions().setName("Ajouter un Formulaire")).first().isVisible();
+        });
     }
 
     /**
      * Clique sur "Ajouter un Formulaire".
      */
     public FormsCreationPage clickAddForm() {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Ajouter un Formulaire")).first().click();
-        return new FormsCreationPage(page, baseUrl);
+        return PageActions.run(page, "FormsListPage.clickAddForm", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Ajouter un Formulaire")).first().click();
+            return new FormsCreationPage(page, baseUrl);
+        });
     }
 
     /**
@@ -40,48 +44,58 @@ public class FormsListPage {
      * Retourne la page popup ouverte.
      */
     public FormsFrontOfficePage clickAccessFrontOfficeForm(String formName) {
-        openActionsDropdown(formName);
-        Page popup = page.waitForPopup(() -> {
-            page.getByRole(AriaRole.LINK,
-                new Page.GetByRoleOptions().setName("Accéder au formulaire FO")).click();
+        return PageActions.run(page, "FormsListPage.clickAccessFrontOfficeForm", () -> {
+            openActionsDropdown(formName);
+            Page popup = page.waitForPopup(() -> {
+                page.getByRole(AriaRole.LINK,
+                    new Page.GetByRoleOptions().setName("Accéder au formulaire FO")).click();
+            });
+            return new FormsFrontOfficePage(popup, baseUrl);
         });
-        return new FormsFrontOfficePage(popup, baseUrl);
     }
 
     /**
      * Clique sur "Voir les reponses" dans le dropdown ouvert.
      */
     public FormsResponsesPage clickViewResponses() {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Voir les réponses")).first().click();
-        return new FormsResponsesPage(page, baseUrl);
+        return PageActions.run(page, "FormsListPage.clickViewResponses", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Voir les réponses")).first().click();
+            return new FormsResponsesPage(page, baseUrl);
+        });
     }
 
     /**
      * Ouvre le menu dropdown d'actions du formulaire identifie par son nom.
      */
     public FormsListPage openActionsDropdown(String formName) {
-        page.locator(".list-group-item")
-            .filter(new Locator.FilterOptions().setHasText(formName))
-            .locator(".dropdown > .btn-action").click();
-        return this;
+        return PageActions.run(page, "FormsListPage.openActionsDropdown", () -> {
+            page.locator(".list-group-item")
+                .filter(new Locator.FilterOptions().setHasText(formName))
+                .locator(".dropdown > .btn-action").click();
+            return this;
+        });
     }
 
     /**
      * Clique sur "Editer la publication du formulaire" dans le dropdown.
      */
     public FormsListPage clickEditPublication() {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Editer la publication du")).click();
-        return this;
+        return PageActions.run(page, "FormsListPage.clickEditPublication", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Editer la publication du")).click();
+            return this;
+        });
     }
 
     /**
      * Navigue vers la page d'accueil LUTECE.
      */
     public FormsListPage clickLuteceHome() {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("LUTECE").setExact(true)).click();
-        return this;
+        return PageActions.run(page, "FormsListPage.clickLuteceHome", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("LUTECE").setExact(true)).click();
+            return this;
+        });
     }
 }
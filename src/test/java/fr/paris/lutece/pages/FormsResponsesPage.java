@@ -20,33 +20,41 @@ public class FormsResponsesPage {
      * Clique sur la reponse identifiee par le nom du formulaire dans le tableau.
      */
     public FormsResponsesPage clickFirstResponse(String formName) {
-        page.getByRole(AriaRole.CELL,
-            new Page.GetByRoleOptions().setName(formName)).first().click();
-        return this;
+        return PageActions.run(page, "FormsResponsesPage.clickFirstResponse", () -> {
+            page.getByRole(AriaRole.CELL,
+                new Page.GetByRoleOptions().setName(formName)).first().click();
+            return this;
+        });
     }
 
     /**
      * Clique sur l'action workflow (ex: "Valider Valider").
      */
     public FormsResponsesPage clickWorkflowAction(String actionLabel) {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName(actionLabel)).click();
-        return this;
+        return PageActions.run(page, "FormsResponsesPage.clickWorkflowAction", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName(actionLabel)).click();
+            return this;
+        });
     }
 
     /**
      * Confirme l'action du workflow.
      */
     public void confirmAction() {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Valider")).click();
+        PageActions.run(page, "FormsResponsesPage.confirmAction", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Valider")).click();
+        });
     }
 
     /**
      * Verifie que la page des reponses est affichee.
      */
     public boolean isDisplayed() {
-        page.waitForLoadState();
-        return page.url().contains("forms") || page.url().contains("Forms");
+        return PageActions.run(page, "FormsResponsesPage.isDisplayed", () -> {
+            page.waitForLoadState();
+            return page.url().contains("forms") || page.url().contains("Forms");
+        });
     }
 }
@@ -25,57 +25,71 @@ public class LoginPage {
      * Navigue vers la page de login.
      */
     public LoginPage navigate() {
-        page.navigate(baseUrl + "/jsp/admin/AdminLogin.jsp");
-        return this;
+        return PageActions.run(page, "LoginPage.navigate", () -> {
+            page.navigate(baseUrl + "/jsp/admin/AdminLogin.jsp");
+            return this;
+        });
     }
 
     /**
      * Remplit le champ code d'accès.
      */
     public LoginPage fillUsername(String username) {
-        page.getByRole(AriaRole.TEXTBOX, 
-            new Page.GetByRoleOptions().setName(USERNAME_FIELD)).fill(username);
-        return this;
+        return PageActions.run(page, "LoginPage.fillUsername", () -> {
+            page.getByRole(AriaRole.TEXTBOX, 
+                new Page.GetByRoleOptions().setName(USERNAME_FIELD)).fill(username);
+            return this;
+        });
     }
 
     /**
      * Remplit le champ mot de passe.
      */
     public LoginPage fillPassword(String password) {
-        page.getByRole(AriaRole.TEXTBOX, 
-            new Page.GetByRoleOptions().setName(PASSWORD_FIELD)).fill(password);
-        return this;
+        return PageActions.run(page, "LoginPage.fillPassword", () -> {
+            page.getByRole(AriaRole.TEXTBOX, 
+                new Page.GetByRoleOptions().setName(PASSWORD_FIELD)).fill(password);
+            return this;
+        });
     }
 
     /**
      * Clique sur le bouton de connexion.
      */
     public void clickLogin() {
-        page.getByRole(AriaRole.BUTTON, 
-            new Page.GetByRoleOptions().setName(LOGIN_BUTTON)).click();
+        PageActions.run(page, "LoginPage.clickLogin", () -> {
+            page.getByRole(AriaRole.BUTTON, 
+                new Page.GetByRoleOptions().setName(LOGIN_BUTTON)).click();
+        });
     }
 
     /**
      * Effectue une connexion complète.
      */
     public AdminMenuPage loginAs(String username, String password) {
-        fillUsername(username);
-        fillPassword(password);
-        clickLogin();
-        return new AdminMenuPage(page, baseUrl);
+        return PageActions.run(page, "LoginPage.loginAs", () -> {
+            fillUsername(username);
+            fillPassword(password);
+            clickLogin();
+            return new AdminMenuPage(page, baseUrl);
+        });
     }
 
     /**
      * Vérifie si un message d'erreur est affiché.
      */
     public boolean hasErrorMessage() {
-        return page.locator(".card-status-start.bg-danger").isVisible();
+        return PageActions.run(page, "LoginPage.hasErrorMessage", () -> {
+            return page.locator(".card-status-start.bg-danger").isVisible();
+        });
     }
 
     /**
      * Récupère le texte du message d'erreur.
      */
     public String getErrorMessage() {
-        return page.locator(".card-status-start.bg-danger").textContent();
+        return PageActions.run(page, "LoginPage.getErrorMessage", () -> {
+            return page.locator(".card-status-start.bg-danger").textContent();
+        });
     }
 }
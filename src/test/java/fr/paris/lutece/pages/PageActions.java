@@ -0,0 +1,91 @@
+package fr.paris.lutece.pages;
+
+import com.microsoft.playwright.Page;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Point d'entree commun des actions des Page Objects.
+ *
+ * Chaque action publique d'un Page Object s'execute via {@link #run}, ce qui permet aux
+ * ecouteurs enregistres (politique de timeout, mesures, traces...) d'intervenir avant et apres
+ * chaque action nommee "Classe.methode". Les actions imbriquees sont gerees par une pile par thread.
+ */
+public final class PageActions {
+
+    /**
+     * Ecouteur des actions des Page Objects.
+     */
+    public interface Listener {
+
+        default void beforeAction(Page page, String action) {
+        }
+
+        /**
+         * @param durationNanos duree de l'action
+         * @param error         exception levee par l'action, null si elle a reussi
+         */
+        default void afterAction(Page page, String action, long durationNanos, Throwable error) {
+        }
+    }
+
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Deque<String>> CURRENT = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private PageActions() {
+    }
+
+    public static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Action en cours sur le thread courant (la plus interne), null hors action.
+     */
+    public static String currentAction() {
+        return CURRENT.get().peek();
+    }
+
+    /**
+     * Execute une action retournant une valeur (en general le Page Object suivant).
+     */
+    public static <T> T run(Page page, String action, Supplier<T> body) {
+        Deque<String> stack = CURRENT.get();
+        stack.push(action);
+        for (Listener listener : LISTENERS) {
+            listener.beforeAction(page, action);
+        }
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return body.get();
+        } catch (RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - start;
+            stack.pop();
+            for (Listener listener : LISTENERS) {
+                listener.afterAction(page, action, duration, error);
+            }
+        }
+    }
+
+    /**
+     * Execute une action sans valeur de retour.
+     */
+    public static void run(Page page, String action, Runnable body) {
+        run(page, action, () -> {
+            body.run();
+            return null;
+        });
+    }
+}
@@ -20,41 +20,51 @@ public class SitePropertiesPage {
      * Vérifie si la page est chargée.
      */
     public boolean isDisplayed() {
-        page.waitForLoadState();
-        return page.getByRole(AriaRole.TAB, 
-            new Page.GetByRoleOptions().setName("Propriétés par défaut du site")).isVisible();
+        return PageActions.run(page, "SitePropertiesPage.isDisplayed", () -> {
+            page.waitForLoadState();
+            return page.getByRole(AriaRole.TAB, 
+                new Page.GetByRoleOptions().setName("Propriétés par défaut du site")).isVisible();
+        });
     }
 
     /**
      * Clique sur l'onglet "Propriétés par défaut du site".
      */
     public SitePropertiesPage clickDefaultPropertiesTab() {
-        page.getByRole(AriaRole.TAB, 
-            new Page.GetByRoleOptions().setName("Propriétés par défaut du site")).click();
-        return this;
+        return PageActions.run(page, "SitePropertiesPage.clickDefaultPropertiesTab", () -> {
+            page.getByRole(AriaRole.TAB, 
+                new Page.GetByRoleOptions().setName("Propriétés par défaut du site")).click();
+            return this;
+        });
     }
 
     /**
      * Vérifie si l'onglet des propriétés par défaut est actif.
      */
     public boolean isDefaultPropertiesTabActive() {
-        Locator tab = page.getByRole(AriaRole.TAB, 
-            new Page.GetByRoleOptions().setName("Propriétés par défaut du site"));
-        String ariaSelected = tab.getAttribute("aria-selected");
-        return "true".equals(ariaSelected);
+        return PageActions.run(page, "SitePropertiesPage.isDefaultPropertiesTabActive", () -> {
+            Locator tab = page.getByRole(AriaRole.TAB, 
+                new Page.GetByRoleOptions().setName("Propriétés par défaut du site"));
+            String ariaSelected = tab.getAttribute("aria-selected");
+            return "true".equals(ariaSelected);
+        });
     }
 
     /**
      * Récupère le titre de la page.
      */
     public String getPageTitle() {
-        return page.title();
+        return PageActions.run(page, "SitePropertiesPage.getPageTitle", () -> {
+            return page.title();
+        });
     }
 
     /**
      * Vérifie si un élément spécifique est présent sur la page.
      */
     public boolean hasElement(String selector) {
-        return page.locator(selector).isVisible();
+        return PageActions.run(page, "SitePropertiesPage.hasElement", () -> {
+            return page.locator(selector).isVisible();
+        });
     }
 }
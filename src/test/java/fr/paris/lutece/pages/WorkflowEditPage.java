@@ -2,6 +2,7 @@ package fr.paris.lutece.pages;
 
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.*;
+import fr.paris.lutece.config.Artifacts;
 
 /**
  * Page Object pour l'edition d'un workflow (etats, actions, taches).
@@ -21,23 +22,18 @@ public class WorkflowEditPage {
      * dans la liste des workflows.
      */
     public WorkflowEditPage clickModifyWorkflow(String workflowName) {
-        page.waitForLoadState();
+        return PageActions.run(page, "WorkflowEditPage.clickModifyWorkflow", () -> {
+            page.waitForLoadState();
 
-        // Cliquer directement sur le nom du workflow pour ouvrir la page d'édition
-        page.locator("a:has-text('" + workflowName + "')").first().click();
-        page.waitForLoadState();
+            // Cliquer directement sur le nom du workflow pour ouvrir la page d'édition
+            page.locator("a:has-text('" + workflowName + "')").first().click();
+            page.waitForLoadState();
 
-        // Debug: capture d'écran après navigation
-        try {
-            java.nio.file.Files.createDirectories(java.nio.file.Paths.get("target/screenshots"));
-            page.screenshot(new Page.ScreenshotOptions()
-                .setPath(java.nio.file.Paths.get("target/screenshots/debug-workflow-edit.png"))
-                .setFullPage(true));
-        } catch (Exception e) {
-            // ignore
-        }
+            // Debug: capture d'écran après navigation (conservée uniquement en cas d'échec)
+            Artifacts.capture(page, "debug-workflow-edit");
 
-        return this;
+            return this;
+        });
     }
 
     /**
@@ -45,9 +41,11 @@ public class WorkflowEditPage {
      * Utilise le lien unique present sur la page.
      */
     public WorkflowEditPage clickModifyWorkflowLink() {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Modifier le workflow")).click();
-        return this;
+        return PageActions.run(page, "WorkflowEditPage.clickModifyWorkflowLink", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Modifier le workflow")).click();
+            return this;
+        });
     }
 
     /**
@@ -55,56 +53,58 @@ public class WorkflowEditPage {
      * Navigue d'abord vers la liste si pas déjà sur une page workflow, puis clique sur modifier.
      */
     public WorkflowEditPage ensureOnEditPage(String workflowName) {
-        page.waitForLoadState();
-
-        // Si on est sur la page de liste, cliquer sur modifier
-        if (page.url().contains("ManageWorkflow.jsp") && !page.url().contains("id_workflow")) {
-            clickModifyWorkflow(workflowName);
-        }
-        // Si on n'est pas sur une page workflow du tout, naviguer vers la liste d'abord
-        else if (!page.url().contains("workflow")) {
-            page.navigate(baseUrl + "/jsp/admin/plugins/workflow/ManageWorkflow.jsp");
+        return PageActions.run(page, "WorkflowEditPage.ensureOnEditPage", () -> {
             page.waitForLoadState();
-            clickModifyWorkflow(workflowName);
-        }
-        // Sinon on est déjà sur la page d'édition
-        return this;
+
+            // Si on est sur la page de liste, cliquer sur modifier
+            if (page.url().contains("ManageWorkflow.jsp") && !page.url().contains("id_workflow")) {
+                clickModifyWorkflow(workflowName);
+            }
+            // Si on n'est pas sur une page workflow du tout, naviguer vers la liste d'abord
+            else if (!page.url().contains("workflow")) {
+                page.navigate(baseUrl + "/jsp/admin/plugins/workflow/ManageWorkflow.jsp");
+                page.waitForLoadState();
+                clickModifyWorkflow(workflowName);
+            }
+            // Sinon on est déjà sur la page d'édition
+            return this;
+        });
     }
 
     /**
      * Ajoute un etat au workflow.
      */
     public WorkflowEditPage addState(String name, String description, boolean isInitial) {
-        // C'est un lien, pas un bouton
-        page.locator("a:has-text('Ajouter un état')").click();
-        page.waitForLoadState();
+        return PageActions.run(page, "WorkflowEditPage.addState", () -> {
+            // C'est un lien, pas un bouton
+            page.locator("a:has-text('Ajouter un état')").click();
+            page.waitForLoadState();
 
-        // Debug screenshot
-        try {
-            page.screenshot(new Page.ScreenshotOptions()
-                .setPath(java.nio.file.Paths.get("target/screenshots/debug-add-state.png"))
-                .setFullPage(true));
-        } catch (Exception e) {}
-
-        page.locator("input[name='name']").fill(name);
-        page.locator("textarea[name='description']").fill(description);
-        if (isInitial) {
-            // La checkbox a id="is_initial_state" et name="is_initial_state"
-            page.locator("input#is_initial_state, input[name='is_initial_state']").first().check();
-        }
-        page.locator("button:has-text('Enregistrer'), input[value='Enregistrer']").first().click();
-        page.waitForLoadState();
-        dismissAdminMessage();
-        return this;
+            // Debug screenshot (conservé uniquement en cas d'échec)
+            Artifacts.capture(page, "debug-add-state");
+
+            page.locator("input[name='name']").fill(name);
+            page.locator("textarea[name='description']").fill(description);
+            if (isInitial) {
+                // La checkbox a id="is_initial_state" et name="is_initial_state"
+                page.locator("input#is_initial_state, input[name='is_initial_state']").first().check();
+            }
+            page.locator("button:has-text('Enregistrer'), input[value='Enregistrer']").first().click();
+            page.waitForLoadState();
+            dismissAdminMessage();
+            return this;
+        });
     }
 
     /**
      * Clique sur l'onglet Actions.
      */
     public WorkflowEditPage clickActionsTab() {
-        page.getByRole(AriaRole.TAB,
-            new Page.GetByRoleOptions().setName("Actions")).click();
-        return this;
+        return PageActions.run(page, "WorkflowEditPage.clickActionsTab", () -> {
+            page.getByRole(AriaRole.TAB,
+                new Page.GetByRoleOptions().setName("Actions")).click();
+            return this;
+        });
     }
 
     /**
@@ -134,47 +134,57 @@ public class WorkflowEditPage {
      * Clique sur "Modifier l'action" pour acceder a la configuration de la tache.
      */
     public WorkflowEditPage clickModifyAction() {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Modifier l'action")).click();
-        return this;
+        return PageActions.run(page, "WorkflowEditPage.clickModifyAction", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Modifier l'action")).click();
+            return this;
+        });
     }
 
     /**
      * Selectionne un type de tache dans le dropdown.
      */
     public WorkflowEditPage selectTask(String taskType) {
-        page.getByLabel("Nouvelle tâche").selectOption(taskType);
-        return this;
+        return PageActions.run(page, "WorkflowEditPage.selectTask", () -> {
+            page.getByLabel("Nouvelle tâche").selectOption(taskType);
+            return this;
+        });
     }
 
     /**
      * Clique sur le bouton Inserer pour ajouter la tache.
      */
     public WorkflowEditPage clickInsertTask() {
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Insérer")).click();
-        return this;
+        return PageActions.run(page, "WorkflowEditPage.clickInsertTask", () -> {
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Insérer")).click();
+            return this;
+        });
     }
 
     /**
      * Publie le workflow en cochant le radio Publie et en sauvegardant.
      */
     public void publishWorkflow() {
-        page.getByRole(AriaRole.RADIO,
-            new Page.GetByRoleOptions().setName("Publié").setExact(true)).check();
-        page.getByRole(AriaRole.BUTTON,
-            new Page.GetByRoleOptions().setName("Enregistrer")).click();
-        page.waitForLoadState();
-        dismissAdminMessage();
+        PageActions.run(page, "WorkflowEditPage.publishWorkflow", () -> {
+            page.getByRole(AriaRole.RADIO,
+                new Page.GetByRoleOptions().setName("Publié").setExact(true)).check();
+            page.getByRole(AriaRole.BUTTON,
+                new Page.GetByRoleOptions().setName("Enregistrer")).click();
+            page.waitForLoadState();
+            dismissAdminMessage();
+        });
     }
 
     /**
      * Retourne a la liste des workflows.
      */
     public WorkflowListPage goBackToList() {
-        page.getByRole(AriaRole.LINK,
-            new Page.GetByRoleOptions().setName("Gestion des workflows")).click();
-        return new WorkflowListPage(page, baseUrl);
+        return PageActions.run(page, "WorkflowEditPage.goBackToList", () -> {
+            page.getByRole(AriaRole.LINK,
+                new Page.GetByRoleOptions().setName("Gestion des workflows")).click();
+            return new WorkflowListPage(page, baseUrl);
+        });
     }
 
     /**
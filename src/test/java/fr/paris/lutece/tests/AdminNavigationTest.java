@@ -79,4 +79,16 @@ public class AdminNavigationTest extends BaseTest {
                    new Page.GetByRoleOptions().setName(" Gestionnaires")).isVisible(),
                    "Le menu Gestionnaires devrait être accessible");
     }
+
+    @Test
+    @Order(5)
+    @DisplayName("Accès à la gestion des caches")
+    void testAccessCacheManagement() {
+        // When
+        CacheManagementPage cachePage = adminMenu.goToCacheManagement();
+
+        // Then
+        assertTrue(cachePage.isDisplayed(),
+                   "La page de gestion des caches devrait être affichée");
+    }
 }
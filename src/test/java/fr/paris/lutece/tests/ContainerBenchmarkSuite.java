@@ -0,0 +1,46 @@
+package fr.paris.lutece.tests;
+
+import fr.paris.lutece.tests.perf.CacheInvalidationBenchmark;
+import fr.paris.lutece.tests.perf.CacheWarmupBenchmark;
+import fr.paris.lutece.tests.perf.FormEditorScalingBenchmark;
+import fr.paris.lutece.tests.perf.MultiviewScalingBenchmark;
+import fr.paris.lutece.tests.perf.PropagationLatencyBenchmark;
+import fr.paris.lutece.tests.perf.RbacScalingBenchmark;
+import fr.paris.lutece.tests.perf.SoakBenchmark;
+import fr.paris.lutece.tests.perf.WorkflowActionThroughputBenchmark;
+import fr.paris.lutece.tests.perf.WorkflowEditorScalingBenchmark;
+import org.junit.platform.suite.api.SelectClasses;
+import org.junit.platform.suite.api.Suite;
+import org.junit.platform.suite.api.SuiteDisplayName;
+
+/**
+ * Benchmarks sur conteneurs : prepare l'environnement comme ContainerIntegrationSuite (RBAC et etat
+ * d'authentification, workflow, formulaire publie, premiere soumission) puis lance le benchmark
+ * choisi par -Dbenchmark (nom simple de la classe, voir {@link fr.paris.lutece.junit.BenchmarkFilter}).
+ * Sans -Dbenchmark, la suite n'execute rien.
+ *
+ * Usage:
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=SoakBenchmark -Dsoak.duration=14400
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=MultiviewScalingBenchmark -Ddataset.sizes=10000,100000
+ */
+@Suite
+@SuiteDisplayName("Suite Container benchmarks")
+@SelectClasses({
+    ContainerSetup.class,                       // 1. Démarre les conteneurs Docker
+    RbacConfigurationTestt.class,               // 2. Configure RBAC (sauvegarde la session BO)
+    WorkflowCreationTest.class,                 // 3. Crée le workflow
+    FormsCreationTest.class,                    // 4. Crée et publie le formulaire
+    FormsSubmissionTest.class,                  // 5. Soumet le formulaire
+    // 6. Benchmark choisi par -Dbenchmark
+    MultiviewScalingBenchmark.class,            // Charge les réponses et mesure MultiviewForms par palier
+    FormEditorScalingBenchmark.class,           // Génère des formulaires volumineux et mesure l'éditeur
+    WorkflowEditorScalingBenchmark.class,       // Génère des workflows volumineux et mesure l'éditeur
+    WorkflowActionThroughputBenchmark.class,    // Charge les réponses et mesure le débit de l'action
+    PropagationLatencyBenchmark.class,          // Mesure le délai de visibilité en BO
+    CacheInvalidationBenchmark.class,           // Publie, dépublie, modifie et mesure la visibilité en FO
+    CacheWarmupBenchmark.class,                 // Vide les caches, parcourt à froid puis à chaud
+    RbacScalingBenchmark.class,                 // Génère rôles et droits, mesure les écrans BO par taille
+    SoakBenchmark.class                         // Tir d'endurance avec suivi du tas
+})
+public class ContainerBenchmarkSuite {
+}
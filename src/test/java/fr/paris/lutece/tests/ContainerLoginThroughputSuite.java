@@ -0,0 +1,23 @@
+package fr.paris.lutece.tests;
+
+import fr.paris.lutece.tests.perf.LoginThroughputBenchmark;
+import org.junit.platform.suite.api.SelectClasses;
+import org.junit.platform.suite.api.Suite;
+import org.junit.platform.suite.api.SuiteDisplayName;
+
+/**
+ * Debit de connexion BO sur conteneurs : demarre Lutece et MariaDB (comptes crees en base,
+ * CPU du conteneur lu par l'API stats de Docker) puis lance LoginThroughputBenchmark, qui verifie
+ * d'abord la connexion admin sur cette instance.
+ *
+ * Usage:
+ *   mvn test -Dtest=ContainerLoginThroughputSuite -Dlogin.bench.hash.iterations=10000,210000
+ */
+@Suite
+@SuiteDisplayName("Suite Container debit de connexion")
+@SelectClasses({
+    ContainerSetup.class,               // 1. Démarre les conteneurs Docker
+    LoginThroughputBenchmark.class      // 2. Connexions concurrentes par nombre d'itérations du hachage
+})
+public class ContainerLoginThroughputSuite {
+}
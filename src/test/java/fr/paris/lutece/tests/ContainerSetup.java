@@ -1,7 +1,20 @@
 package fr.paris.lutece.tests;
 
 import fr.paris.lutece.containers.LuteceContainer;
+import fr.paris.lutece.junit.Checkpoints;
+import fr.paris.lutece.junit.FailFastExtension;
+import fr.paris.lutece.junit.RunningSuite;
+import fr.paris.lutece.junit.SuiteGraph;
+import fr.paris.lutece.config.RequestTimings;
+import fr.paris.lutece.config.TraceContext;
+import fr.paris.lutece.monitoring.AccessLog;
+import fr.paris.lutece.monitoring.ContainerStatsSampler;
+import fr.paris.lutece.monitoring.OtlpReceiver;
+import fr.paris.lutece.monitoring.ServerProfile;
+import fr.paris.lutece.monitoring.TestDatabase;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.MariaDBContainer;
@@ -15,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  */
 @DisplayName("Setup Conteneurs Docker")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ExtendWith(FailFastExtension.class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class ContainerSetup {
 
@@ -46,10 +60,21 @@ public class ContainerSetup {
             .withNetworkAliases("mariadb")
             .withDatabaseName("core")
             .withUsername("lutece")
-            .withPassword("lutece");
+            .withPassword("lutece")
+            // performance_schema : digests de requetes par test (StatementDigestExtension), verrous de metadonnees (LockMonitor)
+            .withCommand("--performance-schema=ON",
+                "--performance-schema-consumer-events-statements-current=ON",
+                "--performance-schema-consumer-statements-digest=ON",
+                "--performance-schema-instrument=statement/%=ON",
+                "--performance-schema-instrument=wait/lock/metadata/sql/mdl=ON");
         mariadb.start();
         LOGGER.info("MariaDB démarré sur: {}:{}", mariadb.getHost(), mariadb.getMappedPort(3306));
 
+        // Checkpoints des suites : restaurer la base avant Lutece en cas de reprise (-Dresume.from)
+        Checkpoints.attachDatabase(mariadb);
+        Checkpoints.restoreDatabase(mariadb);
+        TestDatabase.attach(mariadb);
+
         // Récupérer les paramètres de l'image
         String luteceImage = System.getProperty("lutece.image", "nexus-docker-fastdeploy.api.paris.mdp/bild/f98/site-deontologie:1.0.0-SNAPSHOT");
         String contextRoot = System.getProperty("lutece.context.root", "/lutece");
@@ -61,8 +86,23 @@ public class ContainerSetup {
         lutece = new LuteceContainer(luteceImage, contextRoot)
             .withSharedNetwork(network, "lutece")
             .withMariaDB("mariadb", 3306, "core", "lutece", dbPassword);
+        if (ConfigProvider.getConfig().getOptionalValue("metrics.enabled", Boolean.class)
+                .orElseGet(() -> SuiteGraph.get().isBenchmarkSuite(RunningSuite.name()))) {
+            // Profil de test : /metrics pour LibertyMetricsScraper pendant les tirs (suites de benchmark)
+            lutece.withMetrics();
+        }
+        if (RequestTimings.isEnabled()) {
+            // Journal d'acces Liberty : temps serveur par requete (TimingBreakdownExtension)
+            lutece.withAccessLog();
+        }
+        if (TraceContext.isEnabled()) {
+            // Traces OpenTelemetry exportees vers le recepteur OTLP local (TraceExtension)
+            lutece.withTelemetry(OtlpReceiver.start(), TraceContext.javaAgent().orElse(null));
+        }
 
         lutece.start();
+        ServerProfile.attach(lutece);
+        AccessLog.attach(lutece);
 
         // Attendre que Lutece soit prêt
         waitForApplication();
@@ -73,6 +113,9 @@ public class ContainerSetup {
         // Mettre à jour BaseTest.BASE_URL pour les classes de test
         fr.paris.lutece.config.BaseTest.updateBaseUrl(baseUrl);
 
+        // Télémétrie CPU / mémoire / réseau / disque pendant les tests (target/telemetry)
+        ContainerStatsSampler.start(lutece, mariadb);
+
         containersStarted = true;
         LOGGER.info("=== Environnement prêt - URL: {} ===", baseUrl);
 
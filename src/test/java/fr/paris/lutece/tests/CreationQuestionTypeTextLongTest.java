@@ -1,6 +1,8 @@
 package fr.paris.lutece.tests;
 
+import fr.paris.lutece.config.Artifacts;
 import fr.paris.lutece.config.BaseTest;
+import fr.paris.lutece.config.TimeoutPolicy;
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.*;
 import org.junit.jupiter.api.*;
@@ -68,12 +70,9 @@ public class CreationQuestionTypeTextLongTest extends BaseTest {
         System.out.println("============================");
 
         // Creer un nouveau contexte
-        context = browser.newContext(new Browser.NewContextOptions()
-            .setViewportSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)
-            .setLocale(LOCALE)
-            .setIgnoreHTTPSErrors(true));
+        context = Artifacts.newContext(browser, contextOptions());
         page = context.newPage();
-        page.setDefaultTimeout(TIMEOUT);
+        TimeoutPolicy.setDefaultTimeout(page, TIMEOUT);
     }
 
     @AfterAll
@@ -1,8 +1,15 @@
 package fr.paris.lutece.tests;
 
+import fr.paris.lutece.config.Artifacts;
 import fr.paris.lutece.config.BaseTest;
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.config.TimeoutPolicy;
 import fr.paris.lutece.pages.*;
+import fr.paris.lutece.junit.CheckpointExtension;
+import fr.paris.lutece.junit.DependsOnSteps;
+import fr.paris.lutece.junit.FailFastExtension;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -11,6 +18,7 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 @DisplayName("Tests de creation de formulaire")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ExtendWith({CheckpointExtension.class, FailFastExtension.class})
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class FormsCreationTest extends BaseTest {
 
@@ -39,18 +47,9 @@ public class FormsCreationTest extends BaseTest {
         // Ne rien faire : le contexte est ferme dans closeOnce
     }
 
-    private static String readRunSuffix() {
-        try {
-            return java.nio.file.Files.readString(
-                java.nio.file.Paths.get("target/test-run-suffix.txt")).trim();
-        } catch (Exception e) {
-            return System.getProperty("test.run.suffix", "0");
-        }
-    }
-
     @BeforeAll
     void loginOnce() {
-        runSuffix = readRunSuffix();
+        runSuffix = ScenarioContext.readRunSuffix();
         formTitle = config.getValue("test.forms.title", String.class) + " " + runSuffix;
         workflowName = config.getValue("test.workflow.name", String.class) + " " + runSuffix;
 
@@ -58,17 +57,14 @@ public class FormsCreationTest extends BaseTest {
         if (hasAuthState()) {
             context = createAuthenticatedContext();
             page = context.newPage();
-            page.setDefaultTimeout(TIMEOUT);
+            TimeoutPolicy.setDefaultTimeout(page, TIMEOUT);
             page.navigate(BASE_URL + "/jsp/admin/AdminMenu.jsp");
             page.waitForLoadState();
         } else {
             // Pas d'etat sauvegarde - faire un login complet
-            context = browser.newContext(new com.microsoft.playwright.Browser.NewContextOptions()
-                .setViewportSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)
-                .setLocale(LOCALE)
-                .setIgnoreHTTPSErrors(true));
+            context = Artifacts.newContext(browser, contextOptions());
             page = context.newPage();
-            page.setDefaultTimeout(TIMEOUT);
+            TimeoutPolicy.setDefaultTimeout(page, TIMEOUT);
 
             var loginPage = new LoginPage(page, BASE_URL);
             loginPage.navigate();
@@ -138,8 +134,7 @@ public class FormsCreationTest extends BaseTest {
             } else if (url.contains("id=")) {
                 formId = url.split("id=")[1].split("&")[0].split("#")[0];
             }
-            java.nio.file.Files.writeString(
-                java.nio.file.Paths.get("target/test-form-id.txt"), formId);
+            ScenarioContext.writeFormId(formId);
         } catch (Exception e) {
             // ignore
         }
@@ -223,6 +218,7 @@ public class FormsCreationTest extends BaseTest {
 
     @Test
     @Order(7)
+    @DependsOnSteps({2, 3})
     @DisplayName("Ajout d'une question commentaire a l'etape finale")
     void testAddCommentQuestion() {
         // Given - Re-naviguer vers le formulaire puis l'etape finale
@@ -243,6 +239,7 @@ public class FormsCreationTest extends BaseTest {
 
     @Test
     @Order(8)
+    @DependsOnSteps({2, 3, 5})
     @DisplayName("Configuration de la transition entre etapes")
     void testConfigureStepTransition() {
         // Given
@@ -1,8 +1,14 @@
 package fr.paris.lutece.tests;
 
+import fr.paris.lutece.config.Artifacts;
 import fr.paris.lutece.config.BaseTest;
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.config.TimeoutPolicy;
 import fr.paris.lutece.pages.*;
+import fr.paris.lutece.junit.CheckpointExtension;
+import fr.paris.lutece.junit.FailFastExtension;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import com.microsoft.playwright.Locator;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -13,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 @DisplayName("Tests de soumission de formulaire")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ExtendWith({CheckpointExtension.class, FailFastExtension.class})
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class FormsSubmissionTest extends BaseTest {
 
@@ -33,36 +40,15 @@ public class FormsSubmissionTest extends BaseTest {
         // Ne rien faire : le contexte est ferme dans cleanup
     }
 
-    private static String readRunSuffix() {
-        try {
-            return java.nio.file.Files.readString(
-                java.nio.file.Paths.get("target/test-run-suffix.txt")).trim();
-        } catch (Exception e) {
-            return System.getProperty("test.run.suffix", "0");
-        }
-    }
-
-    private static String readFormId() {
-        try {
-            return java.nio.file.Files.readString(
-                java.nio.file.Paths.get("target/test-form-id.txt")).trim();
-        } catch (Exception e) {
-            return "1"; // Fallback
-        }
-    }
-
     @BeforeAll
     void setup() {
-        String runSuffix = readRunSuffix();
+        String runSuffix = ScenarioContext.readRunSuffix();
         formTitle = config.getValue("test.forms.title", String.class) + " " + runSuffix;
 
         // Front Office - pas besoin d'authentification
-        context = browser.newContext(new com.microsoft.playwright.Browser.NewContextOptions()
-            .setViewportSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)
-            .setLocale(LOCALE)
-            .setIgnoreHTTPSErrors(true));
+        context = Artifacts.newContext(browser, contextOptions());
         page = context.newPage();
-        page.setDefaultTimeout(TIMEOUT);
+        TimeoutPolicy.setDefaultTimeout(page, TIMEOUT);
     }
 
     @AfterAll
@@ -77,7 +63,7 @@ public class FormsSubmissionTest extends BaseTest {
     @DisplayName("Soumission du formulaire en front office")
     void testSubmitFormInFrontOffice() {
         // Given - Acceder a la page des formulaires FO
-        String formId = readFormId();
+        String formId = ScenarioContext.readFormId();
         String foUrl = BASE_URL + "/jsp/site/Portal.jsp?page=forms&view=formView&id_form=" + formId;
         page.navigate(foUrl);
         page.waitForLoadState();
@@ -104,14 +90,8 @@ public class FormsSubmissionTest extends BaseTest {
                                 page.locator("textarea").count() > 0;
 
         if (!hasFormFields) {
-            // Prendre un screenshot pour debug
-            try {
-                java.nio.file.Files.createDirectories(java.nio.file.Paths.get("target/screenshots"));
-                page.screenshot(new com.microsoft.playwright.Page.ScreenshotOptions()
-                    .setPath(java.nio.file.Paths.get("target/screenshots/fo-form-not-found.png")));
-            } catch (Exception e) {
-                // ignore
-            }
+            // Capture de debug (ecrite uniquement si le test echoue)
+            Artifacts.capture(page, "fo-form-not-found");
             // Skip le test si les champs ne sont pas disponibles
             Assumptions.assumeTrue(hasFormFields,
                 "Les champs du formulaire ne sont pas disponibles en front office. URL: " + page.url());
@@ -137,14 +117,8 @@ public class FormsSubmissionTest extends BaseTest {
             assertTrue(page.url().contains("forms") || page.content().contains("formulaire"),
                 "La soumission devrait etre effectuee");
         } catch (Exception e) {
-            // Prendre un screenshot en cas d'erreur
-            try {
-                java.nio.file.Files.createDirectories(java.nio.file.Paths.get("target/screenshots"));
-                page.screenshot(new com.microsoft.playwright.Page.ScreenshotOptions()
-                    .setPath(java.nio.file.Paths.get("target/screenshots/fo-submission-error.png")));
-            } catch (Exception ex) {
-                // ignore
-            }
+            // Capture de l'etat au moment de l'erreur, jointe aux artefacts d'echec
+            Artifacts.capture(page, "fo-submission-error");
             throw e;
         }
     }
@@ -1,10 +1,18 @@
 package fr.paris.lutece.tests;
 
+import fr.paris.lutece.config.Artifacts;
+import fr.paris.lutece.config.BrowserSession;
+import fr.paris.lutece.config.HarRecording;
+import fr.paris.lutece.config.TimeoutPolicy;
 import fr.paris.lutece.containers.LuteceContainer;
+import fr.paris.lutece.junit.FailureArtifactsExtension;
+import fr.paris.lutece.junit.HarRecordingExtension;
+import fr.paris.lutece.monitoring.ContainerStatsSampler;
 import fr.paris.lutece.pages.AdminMenuPage;
 import fr.paris.lutece.pages.LoginPage;
 import com.microsoft.playwright.*;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.MariaDBContainer;
@@ -20,7 +28,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @Testcontainers
 @DisplayName("Test de connexion BO avec Testcontainers")
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
-public class LoginContainerTest {
+@ExtendWith({FailureArtifactsExtension.class, HarRecordingExtension.class})
+public class LoginContainerTest implements BrowserSession {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoginContainerTest.class);
 
@@ -47,6 +56,16 @@ public class LoginContainerTest {
 
     private String baseUrl;
 
+    @Override
+    public BrowserContext getBrowserContext() {
+        return context;
+    }
+
+    @Override
+    public Page getPage() {
+        return page;
+    }
+
     @BeforeAll
     void setup() {
         LOGGER.info("=== Démarrage de l'environnement Testcontainers ===");
@@ -63,6 +82,7 @@ public class LoginContainerTest {
         lutece.start();
         baseUrl = lutece.getBaseURL();
         LOGGER.info("Lutece démarré sur: {}", baseUrl);
+        ContainerStatsSampler.start(lutece, mariadb);
 
         // Attendre que l'application soit prête
         waitForApplication();
@@ -72,13 +92,13 @@ public class LoginContainerTest {
         browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
             .setHeadless(true));
 
-        context = browser.newContext(new Browser.NewContextOptions()
+        context = Artifacts.newContext(browser, HarRecording.configure(new Browser.NewContextOptions()
             .setViewportSize(1920, 1080)
             .setLocale("fr-FR")
-            .setIgnoreHTTPSErrors(true));
+            .setIgnoreHTTPSErrors(true), baseUrl));
 
         page = context.newPage();
-        page.setDefaultTimeout(30000);
+        TimeoutPolicy.setDefaultTimeout(page, 30000);
     }
 
     private void waitForApplication() {
@@ -104,6 +124,7 @@ public class LoginContainerTest {
         if (context != null) context.close();
         if (browser != null) browser.close();
         if (playwright != null) playwright.close();
+        ContainerStatsSampler.stop();
         if (lutece != null && lutece.isRunning()) lutece.stop();
     }
 
@@ -115,9 +136,8 @@ public class LoginContainerTest {
         LoginPage loginPage = new LoginPage(page, baseUrl);
         loginPage.navigate();
 
-        // Screenshot de la page de login
-        page.screenshot(new Page.ScreenshotOptions()
-            .setPath(java.nio.file.Paths.get("target/screenshots/container-login-page.png")));
+        // Capture de la page de login (ecrite uniquement en cas d'echec)
+        Artifacts.capture(page, "container-login-page");
 
         LOGGER.info("Page de login chargée: {}", page.url());
 
@@ -127,9 +147,8 @@ public class LoginContainerTest {
         // Attendre le chargement
         page.waitForLoadState();
 
-        // Screenshot après connexion
-        page.screenshot(new Page.ScreenshotOptions()
-            .setPath(java.nio.file.Paths.get("target/screenshots/container-after-login.png")));
+        // Capture après connexion (écrite uniquement en cas d'échec)
+        Artifacts.capture(page, "container-after-login");
 
         LOGGER.info("Après connexion - URL: {}", page.url());
 
@@ -1,11 +1,17 @@
 package fr.paris.lutece.tests;
 
+import fr.paris.lutece.config.Artifacts;
 import fr.paris.lutece.config.BaseTest;
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.config.TimeoutPolicy;
+import fr.paris.lutece.junit.CheckpointExtension;
+import fr.paris.lutece.junit.DependsOnSteps;
+import fr.paris.lutece.junit.FailFastExtension;
 import fr.paris.lutece.pages.LoginPage;
-import com.microsoft.playwright.Browser;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.options.AriaRole;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 @DisplayName("Configuration RBAC")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ExtendWith({CheckpointExtension.class, FailFastExtension.class})
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class RbacConfigurationTestt extends BaseTest {
 
@@ -51,22 +58,13 @@ public class RbacConfigurationTestt extends BaseTest {
         // En mode container, utiliser le suffixe du contexte, sinon en generer un
             runSuffix = String.valueOf(System.currentTimeMillis() % 100000);
 
-        context = browser.newContext(new Browser.NewContextOptions()
-            .setViewportSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)
-            .setLocale(LOCALE)
-            .setIgnoreHTTPSErrors(true));
+        context = Artifacts.newContext(browser, contextOptions());
 
         page = context.newPage();
-        page.setDefaultTimeout(TIMEOUT);
+        TimeoutPolicy.setDefaultTimeout(page, TIMEOUT);
 
         // Partager le suffixe avec les autres classes de test
-        System.setProperty("test.run.suffix", runSuffix);
-        try {
-            java.nio.file.Files.writeString(
-                java.nio.file.Paths.get("target/test-run-suffix.txt"), runSuffix);
-        } catch (Exception e) {
-            // ignore
-        }
+        ScenarioContext.writeRunSuffix(runSuffix);
 
         LOGGER.info("Context cree pour les tests RBAC - Run suffix: {}", runSuffix);
     }
@@ -184,6 +182,7 @@ public class RbacConfigurationTestt extends BaseTest {
 
     @Test
     @Order(4)
+    @DependsOnSteps(1)
     @DisplayName("4. Configuration des droits utilisateur")
     void testConfigureUserRights() {
         LOGGER.info("Configuration des droits utilisateur");
@@ -224,19 +223,13 @@ public class RbacConfigurationTestt extends BaseTest {
     }
 
     private void takeScreenshotDebug(String name) {
-        try {
-            java.nio.file.Files.createDirectories(java.nio.file.Paths.get("target/screenshots"));
-            page.screenshot(new Page.ScreenshotOptions()
-                .setPath(java.nio.file.Paths.get("target/screenshots/" + name + ".png"))
-                .setFullPage(true));
-            LOGGER.info("Screenshot saved: target/screenshots/{}.png", name);
-        } catch (Exception e) {
-            LOGGER.warn("Failed to take screenshot: {}", e.getMessage());
-        }
+        // Gardee en memoire, ecrite uniquement si le test echoue
+        Artifacts.capture(page, name);
     }
 
     @Test
     @Order(5)
+    @DependsOnSteps(1)
     @DisplayName("5. Configuration des groupes de fonctionnalites")
     void testConfigureFeatureGroups() {
         LOGGER.info("Configuration des groupes de fonctionnalites");
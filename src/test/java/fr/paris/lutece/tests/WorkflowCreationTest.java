@@ -1,8 +1,14 @@
 package fr.paris.lutece.tests;
 
+import fr.paris.lutece.config.Artifacts;
 import fr.paris.lutece.config.BaseTest;
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.config.TimeoutPolicy;
 import fr.paris.lutece.pages.*;
+import fr.paris.lutece.junit.CheckpointExtension;
+import fr.paris.lutece.junit.FailFastExtension;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -11,6 +17,7 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 @DisplayName("Tests de creation de workflow")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ExtendWith({CheckpointExtension.class, FailFastExtension.class})
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class WorkflowCreationTest extends BaseTest {
 
@@ -41,29 +48,20 @@ public class WorkflowCreationTest extends BaseTest {
     @BeforeAll
     void loginOnce() {
         // Partager le suffixe avec les autres classes de test
-        System.setProperty("test.run.suffix", RUN_SUFFIX);
-        try {
-            java.nio.file.Files.writeString(
-                java.nio.file.Paths.get("target/test-run-suffix.txt"), RUN_SUFFIX);
-        } catch (Exception e) {
-            // ignore
-        }
+        ScenarioContext.writeRunSuffix(RUN_SUFFIX);
 
         // Reutiliser l'etat d'authentification si disponible, sinon faire un login
         if (hasAuthState()) {
             context = createAuthenticatedContext();
             page = context.newPage();
-            page.setDefaultTimeout(TIMEOUT);
+            TimeoutPolicy.setDefaultTimeout(page, TIMEOUT);
             page.navigate(BASE_URL + "/jsp/admin/AdminMenu.jsp");
             page.waitForLoadState();
             adminMenu = new AdminMenuPage(page, BASE_URL);
         } else {
-            context = browser.newContext(new com.microsoft.playwright.Browser.NewContextOptions()
-                .setViewportSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)
-                .setLocale(LOCALE)
-                .setIgnoreHTTPSErrors(true));
+            context = Artifacts.newContext(browser, contextOptions());
             page = context.newPage();
-            page.setDefaultTimeout(TIMEOUT);
+            TimeoutPolicy.setDefaultTimeout(page, TIMEOUT);
 
             loginPage = new LoginPage(page, BASE_URL);
             loginPage.navigate();
@@ -0,0 +1,299 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.load.AdminSession;
+import fr.paris.lutece.load.CacheAdmin;
+import fr.paris.lutece.load.HtmlForm;
+import fr.paris.lutece.load.HttpSession;
+import fr.paris.lutece.load.LatencyRecorder;
+import fr.paris.lutece.load.LoadException;
+import fr.paris.lutece.load.LoadExecutors;
+import fr.paris.lutece.load.LoadReport;
+import fr.paris.lutece.load.VirtualUser;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delai d'invalidation des caches a la publication, depublication et modification d'un formulaire,
+ * et baisse du debit du portail pendant l'invalidation.
+ *
+ * Pour chaque mode de cache.modes (enabled / disabled : caches cache.services actives ou desactives
+ * par {@link CacheAdmin}), cache.load.users utilisateurs FO demandent Portal.jsp?page=forms en
+ * boucle pendant que l'administrateur enchaine cache.cycles fois : modification du titre,
+ * depublication (date de fin passee), republication. Chaque changement passe par la page de
+ * modification du formulaire en BO (le service forms invalide alors ses caches). Mesures :
+ * - delai de visibilite : de la fin de l'enregistrement BO a la premiere page FO qui reflete le
+ *   changement (sonde hors charge, toutes les cache.poll.ms) ;
+ * - baisse de debit : requetes FO par seconde pendant [changement, visibilite + 1 s] rapportees a
+ *   la moyenne des cache.settle.s secondes precedentes.
+ * Lancement via ContainerBenchmarkSuite :
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=CacheInvalidationBenchmark -Dcache.load.users=50
+ * Resultats : target/load/cache-invalidation/ (changes.csv, throughput-<mode>.csv, un rapport par mode)
+ */
+@DisplayName("Caches : delai d'invalidation a la publication d'un formulaire")
+public class CacheInvalidationBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationBenchmark.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    static final String STEP_PORTAL = "portal-forms";
+    static final String CHANGE_EDIT = "edit";
+    static final String CHANGE_UNPUBLISH = "unpublish";
+    static final String CHANGE_PUBLISH = "publish";
+
+    private static final String PORTAL_PATH = "/jsp/site/Portal.jsp?page=forms";
+
+    @Test
+    @DisplayName("Visibilite des changements et debit du portail, caches actives et desactives")
+    void cacheInvalidation() throws Exception {
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        String formId = config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId);
+        List<String> caches = Arrays.asList(config.getValue("cache.services", String.class).split("\\s*,\\s*"));
+        HttpSession admin = AdminSession.login(baseUrl,
+            config.getValue("test.admin.username", String.class),
+            config.getValue("test.admin.password", String.class));
+        String modifyUrl = baseUrl + config.getValue("cache.form.modify.path", String.class).replace("{form}", formId);
+        String originalTitle = currentTitle(admin, modifyUrl);
+
+        Path directory = LoadReport.directory("cache-invalidation");
+        List<String> changes = new ArrayList<>();
+        changes.add("mode,cycle,change,visible_ms,baseline_rps,during_rps,drop_pct");
+        int visible = 0;
+        // Etat d'origine de chaque cache, deduit du premier basculement
+        List<String> initiallyEnabled = new ArrayList<>();
+        List<String> initiallyDisabled = new ArrayList<>();
+        try {
+            for (String mode : config.getValue("cache.modes", String.class).split(",")) {
+                mode = mode.trim();
+                boolean enabled = "enabled".equals(mode);
+                Map<String, String> toggled = CacheAdmin.setEnabled(admin, baseUrl, caches, enabled);
+                if (initiallyEnabled.isEmpty() && initiallyDisabled.isEmpty()) {
+                    toggled.forEach((cache, outcome) -> {
+                        if (!CacheAdmin.NOT_FOUND.equals(outcome)) {
+                            // Inchange : le cache etait deja dans l'etat demande
+                            boolean wasEnabled = CacheAdmin.UNCHANGED.equals(outcome) == enabled;
+                            (wasEnabled ? initiallyEnabled : initiallyDisabled).add(cache);
+                        }
+                    });
+                }
+                visible += runMode(mode, toggled, admin, baseUrl, modifyUrl, originalTitle, changes, directory);
+            }
+        } finally {
+            // Etat initial : titre d'origine, formulaire publie, caches dans leur etat d'origine
+            applyChange(admin, modifyUrl, originalTitle, true);
+            if (!initiallyEnabled.isEmpty()) {
+                CacheAdmin.setEnabled(admin, baseUrl, initiallyEnabled, true);
+            }
+            if (!initiallyDisabled.isEmpty()) {
+                CacheAdmin.setEnabled(admin, baseUrl, initiallyDisabled, false);
+            }
+        }
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("changes.csv"), changes);
+        LOGGER.info("Invalidation des caches : {}", directory.resolve("changes.csv"));
+        assertTrue(visible > 0, "Aucun changement visible en FO dans le delai (voir " + directory + ")");
+    }
+
+    /**
+     * Changement applique en BO et condition de sa visibilite dans la page FO.
+     */
+    private static final class Change {
+        final String name;
+        final String title;
+        final boolean published;
+        final Predicate<String> applied;
+
+        Change(String name, String title, boolean published, Predicate<String> applied) {
+            this.name = name;
+            this.title = title;
+            this.published = published;
+            this.applied = applied;
+        }
+    }
+
+    private int runMode(String mode, Map<String, String> toggled, HttpSession admin, String baseUrl, String modifyUrl,
+                        String originalTitle, List<String> changes, Path directory) throws Exception {
+        String portalUrl = baseUrl + PORTAL_PATH;
+        int settle = config.getValue("cache.settle.s", Integer.class);
+        LatencyRecorder recorder = new LatencyRecorder();
+        Map<Long, LongAdder> perSecond = new ConcurrentHashMap<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        long modeStart = System.nanoTime();
+        ExecutorService executor = startPortalLoad(portalUrl, recorder, perSecond, running, modeStart);
+        int visible = 0;
+        HttpSession probe = new HttpSession();
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(settle));
+            for (int cycle = 1; cycle <= config.getValue("cache.cycles", Integer.class); cycle++) {
+                String edited = originalTitle + " " + mode + cycle;
+                List<Change> steps = List.of(
+                    new Change(CHANGE_EDIT, edited, true, page -> page.contains(edited)),
+                    new Change(CHANGE_UNPUBLISH, edited, false, page -> !page.contains(edited)),
+                    new Change(CHANGE_PUBLISH, originalTitle, true, page -> page.contains(originalTitle)));
+                for (Change step : steps) {
+                    String change = step.name;
+                    long baselineEnd = second(modeStart);
+                    double baseline = rate(perSecond, baselineEnd - settle, baselineEnd);
+                    applyChange(admin, modifyUrl, step.title, step.published);
+                    long changed = System.nanoTime();
+                    long visibleNanos = waitVisible(probe, portalUrl, step.applied, changed);
+                    long end = visibleNanos >= 0 ? changed + visibleNanos : System.nanoTime();
+                    // Fenetre pleine d'une seconde apres la visibilite, puis retour au regime stable
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(settle));
+                    double during = rate(perSecond, second(modeStart, changed), second(modeStart, end) + 1);
+                    if (visibleNanos >= 0) {
+                        visible++;
+                        recorder.record("visible-" + change, visibleNanos);
+                    } else {
+                        recorder.recordError("visible-" + change, new LoadException(change + " non visible dans le delai"));
+                    }
+                    changes.add(String.join(",", mode, String.valueOf(cycle), change,
+                        visibleNanos >= 0 ? String.format(Locale.ROOT, "%.0f", visibleNanos / 1e6) : "",
+                        String.format(Locale.ROOT, "%.1f", baseline), String.format(Locale.ROOT, "%.1f", during),
+                        baseline > 0 ? String.format(Locale.ROOT, "%.1f", (1 - during / baseline) * 100) : ""));
+                }
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - modeStart;
+        LoadReport.write("cache-invalidation/" + mode, String.format("Invalidation des caches - mode %s - caches %s - %d utilisateurs FO",
+            mode, toggled, config.getValue("cache.load.users", Integer.class)), recorder, elapsed);
+        List<String> series = new ArrayList<>();
+        series.add("second,requests");
+        perSecond.entrySet().stream().sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> series.add(entry.getKey() + "," + entry.getValue().sum()));
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("throughput-" + mode + ".csv"), series);
+        return visible;
+    }
+
+    /**
+     * Utilisateurs FO en boucle sur Portal.jsp?page=forms, requetes reussies comptees par seconde.
+     */
+    private static ExecutorService startPortalLoad(String portalUrl, LatencyRecorder recorder,
+                                                   Map<Long, LongAdder> perSecond, AtomicBoolean running,
+                                                   long start) {
+        ExecutorService executor = LoadExecutors.perTask("cache-invalidation");
+        for (int i = 0; i < config.getValue("cache.load.users", Integer.class); i++) {
+            VirtualUser user = new VirtualUser(i, recorder);
+            executor.submit(() -> {
+                while (running.get()) {
+                    try {
+                        user.step(STEP_PORTAL, () -> user.session().get(portalUrl).assertOk());
+                        perSecond.computeIfAbsent(second(start), k -> new LongAdder()).increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        // Erreur comptee par le recorder
+                    }
+                }
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Enregistre le formulaire en BO avec le titre donne, publie (debut hier, sans fin) ou depublie
+     * (fin hier).
+     */
+    private static void applyChange(HttpSession admin, String modifyUrl, String title, boolean published)
+            throws IOException, InterruptedException {
+        Document page = authenticated(admin.get(modifyUrl));
+        String button = config.getValue("cache.form.save.button", String.class);
+        String yesterday = LocalDate.now().minusDays(1)
+            .format(DateTimeFormatter.ofPattern(config.getValue("cache.form.date.format", String.class)));
+        HtmlForm form = HtmlForm.withButton(page, button)
+            .set(config.getValue("cache.form.title.field", String.class), title)
+            .set(config.getValue("cache.form.end.field", String.class), published ? "" : yesterday);
+        if (published) {
+            form.set(config.getValue("cache.form.start.field", String.class), yesterday);
+        }
+        authenticated(admin.submit(form.submit(button)));
+    }
+
+    private static String currentTitle(HttpSession admin, String modifyUrl) throws IOException, InterruptedException {
+        Document page = authenticated(admin.get(modifyUrl));
+        String field = config.getValue("cache.form.title.field", String.class);
+        Element input = page.selectFirst("input[name=" + field + "], textarea[name=" + field + "]");
+        if (input == null) {
+            throw new LoadException("Champ " + field + " introuvable sur " + modifyUrl);
+        }
+        return input.tagName().equals("textarea") ? input.text() : input.attr("value");
+    }
+
+    /**
+     * Delai jusqu'a la premiere page FO verifiant applied, -1 apres cache.timeout.s.
+     */
+    private static long waitVisible(HttpSession probe, String portalUrl, Predicate<String> applied, long changed)
+            throws InterruptedException {
+        long deadline = changed + TimeUnit.SECONDS.toNanos(config.getValue("cache.timeout.s", Integer.class));
+        long poll = config.getValue("cache.poll.ms", Integer.class);
+        while (System.nanoTime() < deadline) {
+            try {
+                if (applied.test(probe.get(portalUrl).assertOk().body())) {
+                    return System.nanoTime() - changed;
+                }
+            } catch (IOException | LoadException e) {
+                LOGGER.debug("Sonde FO en echec: {}", e.getMessage());
+            }
+            Thread.sleep(poll);
+        }
+        return -1;
+    }
+
+    private static double rate(Map<Long, LongAdder> perSecond, long fromSecond, long toSecond) {
+        long total = 0;
+        long seconds = Math.max(1, toSecond - fromSecond);
+        for (long s = fromSecond; s < fromSecond + seconds; s++) {
+            LongAdder count = perSecond.get(s);
+            total += count == null ? 0 : count.sum();
+        }
+        return (double) total / seconds;
+    }
+
+    private static long second(long start) {
+        return second(start, System.nanoTime());
+    }
+
+    private static long second(long start, long now) {
+        return TimeUnit.NANOSECONDS.toSeconds(now - start);
+    }
+
+    private static Document authenticated(HttpSession.Response response) {
+        Document document = response.assertOk().document();
+        if (AdminSession.isLoginPage(document)) {
+            throw new LoadException("Session BO perdue sur " + response.uri());
+        }
+        return document;
+    }
+}
@@ -0,0 +1,170 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.load.AdminSession;
+import fr.paris.lutece.load.CacheAdmin;
+import fr.paris.lutece.load.CacheAdmin.CacheStats;
+import fr.paris.lutece.load.HttpSession;
+import fr.paris.lutece.load.LatencyRecorder;
+import fr.paris.lutece.load.LoadException;
+import fr.paris.lutece.load.LoadReport;
+import org.HdrHistogram.Histogram;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parcours de navigation caches froids puis chauds : gain de latence par page et taux de succes
+ * par cache.
+ *
+ * Chaque passage (cache.cold.runs) vide les caches cache.services par {@link CacheAdmin#reset},
+ * ouvre des sessions neuves (FO anonyme, BO connectee) et parcourt une fois les pages
+ * cache.navigation.paths (froid), puis cache.warm.passes fois de plus (chaud). Les statistiques
+ * des caches sont relevees avant et apres chaque phase ; les succes et defauts d'une phase sont la
+ * difference des compteurs. Une page dont le gain est nul alors que son cache est actif signale
+ * un cache qui ne sert pas (cle trop fine, invalidation trop frequente).
+ * Lancement via ContainerBenchmarkSuite :
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=CacheWarmupBenchmark -Dcache.warm.passes=20
+ * Resultats : target/load/cache-warmup/ (paths.csv, caches.csv, summary.txt)
+ */
+@DisplayName("Caches : parcours a froid et a chaud")
+public class CacheWarmupBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheWarmupBenchmark.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    static final String PHASE_COLD = "cold";
+    static final String PHASE_WARM = "warm";
+
+    private static final String FRONT_OFFICE = "fo";
+
+    @Test
+    @DisplayName("Latence et taux de succes des caches, a froid puis a chaud")
+    void cacheWarmup() throws Exception {
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        String formId = config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId);
+        List<String> caches = Arrays.asList(config.getValue("cache.services", String.class).split("\\s*,\\s*"));
+        int coldRuns = config.getValue("cache.cold.runs", Integer.class);
+        int warmPasses = config.getValue("cache.warm.passes", Integer.class);
+        String label = config.getOptionalValue("cache.warmup.label", String.class)
+            .orElseGet(() -> System.getProperty("lutece.image", "local"));
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (String entry : config.getValue("cache.navigation.paths", String.class).split("\\s*,\\s*")) {
+            paths.put(entry.replace("{form}", formId), entry.substring(0, entry.indexOf(':')));
+        }
+        String username = config.getValue("test.admin.username", String.class);
+        String password = config.getValue("test.admin.password", String.class);
+        HttpSession admin = AdminSession.login(baseUrl, username, password);
+        // Les caches desactives ne se remplissent pas : la comparaison n'aurait pas de sens
+        CacheAdmin.setEnabled(admin, baseUrl, caches, true);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        List<String> cacheLines = new ArrayList<>();
+        cacheLines.add("label,run,phase,cache,hits,misses,hit_ratio,size");
+        long start = System.nanoTime();
+        for (int run = 1; run <= coldRuns; run++) {
+            Map<String, String> reset = CacheAdmin.reset(admin, baseUrl, caches);
+            LOGGER.info("Passage {} : caches vides {}", run, reset);
+            HttpSession front = new HttpSession();
+            HttpSession back = AdminSession.login(baseUrl, username, password);
+
+            Map<String, CacheStats> before = CacheAdmin.stats(admin, baseUrl, caches);
+            navigate(PHASE_COLD, paths, front, back, baseUrl, recorder);
+            Map<String, CacheStats> afterCold = CacheAdmin.stats(admin, baseUrl, caches);
+            for (int pass = 0; pass < warmPasses; pass++) {
+                navigate(PHASE_WARM, paths, front, back, baseUrl, recorder);
+            }
+            Map<String, CacheStats> afterWarm = CacheAdmin.stats(admin, baseUrl, caches);
+
+            statsLines(cacheLines, label, run, PHASE_COLD, before, afterCold);
+            statsLines(cacheLines, label, run, PHASE_WARM, afterCold, afterWarm);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Path directory = LoadReport.directory("cache-warmup");
+        List<String> pathLines = new ArrayList<>();
+        pathLines.add("label,side,path,cold_p50_ms,cold_max_ms,warm_p50_ms,warm_p90_ms,delta_ms,speedup");
+        int compared = 0;
+        for (Map.Entry<String, String> entry : paths.entrySet()) {
+            String path = entry.getKey().substring(entry.getKey().indexOf(':') + 1);
+            Histogram cold = recorder.histograms().get(step(PHASE_COLD, entry.getKey()));
+            Histogram warm = recorder.histograms().get(step(PHASE_WARM, entry.getKey()));
+            if (cold == null || warm == null) {
+                LOGGER.warn("Pas de mesure froid/chaud pour {} : {}", path,
+                    recorder.lastError(step(PHASE_COLD, entry.getKey())));
+                continue;
+            }
+            double coldMs = cold.getValueAtPercentile(50) / 1000.0;
+            double warmMs = warm.getValueAtPercentile(50) / 1000.0;
+            pathLines.add(String.join(",", label.replace(',', ' '), entry.getValue(), '"' + path + '"',
+                String.format(Locale.ROOT, "%.1f", coldMs),
+                String.format(Locale.ROOT, "%.1f", cold.getMaxValue() / 1000.0),
+                String.format(Locale.ROOT, "%.1f", warmMs),
+                String.format(Locale.ROOT, "%.1f", warm.getValueAtPercentile(90) / 1000.0),
+                String.format(Locale.ROOT, "%.1f", coldMs - warmMs),
+                warmMs > 0 ? String.format(Locale.ROOT, "%.2f", coldMs / warmMs) : ""));
+            compared++;
+        }
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("paths.csv"), pathLines);
+        Files.write(directory.resolve("caches.csv"), cacheLines);
+        LoadReport.write("cache-warmup", String.format("Caches froids / chauds - %s - %d passages - %d passes chaudes - caches %s",
+            label, coldRuns, warmPasses, caches), recorder, elapsed);
+        LOGGER.info("Parcours froid / chaud : {}", directory);
+        assertTrue(compared > 0, "Aucune page mesuree a froid et a chaud (voir " + directory + ")");
+    }
+
+    /**
+     * Un passage sur chaque page, FO en session anonyme, BO en session connectee.
+     */
+    private static void navigate(String phase, Map<String, String> paths, HttpSession front, HttpSession back,
+                                 String baseUrl, LatencyRecorder recorder) throws InterruptedException {
+        for (Map.Entry<String, String> entry : paths.entrySet()) {
+            String step = step(phase, entry.getKey());
+            HttpSession session = FRONT_OFFICE.equals(entry.getValue()) ? front : back;
+            String url = baseUrl + entry.getKey().substring(entry.getKey().indexOf(':') + 1);
+            long begin = System.nanoTime();
+            try {
+                HttpSession.Response response = session.get(url).assertOk();
+                if (session == back && AdminSession.isLoginPage(response.document())) {
+                    throw new LoadException("Session BO perdue sur " + url);
+                }
+                recorder.record(step, System.nanoTime() - begin);
+            } catch (IOException | RuntimeException e) {
+                recorder.recordError(step, e);
+            }
+        }
+    }
+
+    private static String step(String phase, String entry) {
+        return phase + ":" + entry;
+    }
+
+    private static void statsLines(List<String> lines, String label, int run, String phase,
+                                   Map<String, CacheStats> before, Map<String, CacheStats> after) {
+        for (CacheStats stats : after.values()) {
+            CacheStats phaseStats = stats.since(before.get(stats.name()));
+            double ratio = phaseStats.hitRatio();
+            lines.add(String.join(",", label.replace(',', ' '), String.valueOf(run), phase, stats.name(),
+                String.valueOf(phaseStats.hits()), String.valueOf(phaseStats.misses()),
+                Double.isNaN(ratio) ? "" : String.format(Locale.ROOT, "%.3f", ratio),
+                String.valueOf(phaseStats.size())));
+        }
+    }
+}
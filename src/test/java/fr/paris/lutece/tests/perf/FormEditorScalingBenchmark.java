@@ -0,0 +1,213 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.datasets.FormDefinitionGenerator;
+import fr.paris.lutece.load.AdminSession;
+import fr.paris.lutece.load.HttpSession;
+import fr.paris.lutece.load.LatencyRecorder;
+import fr.paris.lutece.load.LoadException;
+import fr.paris.lutece.load.LoadReport;
+import fr.paris.lutece.monitoring.TestDatabase;
+import org.HdrHistogram.Histogram;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Latence de l'editeur de formulaires BO (etapes, questions, ajout de question, transitions)
+ * quand la taille du formulaire croit.
+ *
+ * Pour chaque taille de forms.scaling.sizes (etapes:questions), un formulaire est genere en base
+ * par {@link FormDefinitionGenerator} a partir du formulaire cree par FormsCreationTest, puis chaque
+ * ecran est mesure forms.scaling.samples fois par un administrateur seul. Les ecrans de questions et
+ * de transitions portent sur l'etape du milieu ; le lien "Ajouter une question" est lu dans la liste
+ * des questions. Les courbes sont etiquetees par forms.scaling.label (defaut : image Lutece testee),
+ * pour comparer les versions de Lutece.
+ * Lancement via ContainerBenchmarkSuite :
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=FormEditorScalingBenchmark -Dforms.scaling.sizes=2:4,10:100,40:400
+ * Resultats : target/load/form-editor-scaling/ (scaling.csv cumule, un rapport par taille)
+ */
+@DisplayName("Volumetrie : editeur de formulaires selon le nombre d'etapes et de questions")
+public class FormEditorScalingBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FormEditorScalingBenchmark.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    static final String STEP_STEPS = "editor-steps";
+    static final String STEP_QUESTIONS = "editor-questions";
+    static final String STEP_ADD_QUESTION = "editor-add-question";
+    static final String STEP_TRANSITIONS = "editor-transitions";
+    private static final String[] STEPS = {STEP_STEPS, STEP_QUESTIONS, STEP_ADD_QUESTION, STEP_TRANSITIONS};
+
+    private static final String CSV_HEADER = "label,steps,questions,conditions,generate_s,";
+
+    @Test
+    @DisplayName("Courbe latence / taille de l'editeur de formulaires")
+    void formEditorScaling() throws Exception {
+        assumeTrue(TestDatabase.isAvailable(), "Base non observable : lancer via ContainerBenchmarkSuite -Dbenchmark=FormEditorScalingBenchmark ou monitoring.db.url");
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        int templateFormId = Integer.parseInt(config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId));
+        int samples = config.getValue("forms.scaling.samples", Integer.class);
+        double conditionalRatio = config.getValue("forms.scaling.conditional.ratio", Double.class);
+        String validator = config.getValue("forms.scaling.conditional.validator", String.class);
+        String label = config.getOptionalValue("forms.scaling.label", String.class)
+            .orElseGet(() -> System.getProperty("lutece.image", "local"));
+
+        Path directory = LoadReport.directory("form-editor-scaling");
+        List<String> lines = new ArrayList<>();
+        long errors = 0;
+
+        try (Connection connection = TestDatabase.connect()) {
+            FormDefinitionGenerator generator = FormDefinitionGenerator.fromTemplate(connection, TestDatabase.schema(),
+                templateFormId, config.getValue("dataset.seed", Long.class));
+            HttpSession admin = AdminSession.login(baseUrl,
+                config.getValue("test.admin.username", String.class),
+                config.getValue("test.admin.password", String.class));
+
+            for (String size : config.getValue("forms.scaling.sizes", String.class).split(",")) {
+                String[] parts = size.trim().split(":");
+                int stepCount = Integer.parseInt(parts[0]);
+                int questionCount = Integer.parseInt(parts[1]);
+                long start = System.nanoTime();
+                FormDefinitionGenerator.FormDefinition form = generator.generate(stepCount, questionCount,
+                    conditionalRatio, validator);
+                double generateSeconds = (System.nanoTime() - start) / 1e9;
+
+                LatencyRecorder recorder = new LatencyRecorder();
+                long measureStart = System.nanoTime();
+                measure(admin, baseUrl, form, samples, recorder);
+                LoadReport.write("form-editor-scaling/" + stepCount + "x" + questionCount,
+                    String.format("Editeur de formulaires - %s - formulaire %d - %d etapes, %d questions, %d conditions - %d mesures par ecran",
+                        label, form.formId(), stepCount, questionCount, form.conditions(), samples),
+                    recorder, System.nanoTime() - measureStart);
+                lines.add(String.join(",", label.replace(',', ' '), String.valueOf(stepCount), String.valueOf(questionCount),
+                    String.valueOf(form.conditions()), String.format(Locale.ROOT, "%.1f", generateSeconds)) + "," + csvValues(recorder));
+                for (String step : STEPS) {
+                    errors += recorder.errors(step);
+                }
+            }
+        }
+        // Cumul d'une execution a l'autre : une ligne par version et par taille
+        Path csv = directory.resolve("scaling.csv");
+        Files.createDirectories(directory);
+        if (!Files.exists(csv)) {
+            Files.writeString(csv, CSV_HEADER + String.join(",", csvHeaders()) + System.lineSeparator());
+        }
+        Files.write(csv, lines, StandardOpenOption.APPEND);
+        LOGGER.info("Courbe latence / taille ({}) : {}", label, csv);
+        assertEquals(0, errors, "Echecs sur les ecrans de l'editeur (voir les rapports par taille)");
+    }
+
+    private void measure(HttpSession admin, String baseUrl, FormDefinitionGenerator.FormDefinition form,
+                         int samples, LatencyRecorder recorder) {
+        String stepsUrl = baseUrl + path("forms.scaling.steps.path", form);
+        String questionsUrl = baseUrl + path("forms.scaling.questions.path", form);
+        String transitionsUrl = baseUrl + path("forms.scaling.transitions.path", form);
+        // Premier passage hors mesure (compilation JSP, caches des entrees)
+        timed(recorder, null, () -> fetch(admin, stepsUrl));
+        Document warm = timed(recorder, null, () -> fetch(admin, questionsUrl));
+        timed(recorder, null, () -> fetch(admin, transitionsUrl));
+        String addQuestionUrl = warm == null ? null : addQuestionLink(warm);
+        if (addQuestionUrl == null) {
+            LOGGER.warn("Lien \"Ajouter une question\" introuvable dans {} : ecran non mesure", questionsUrl);
+        }
+        for (int i = 0; i < samples; i++) {
+            timed(recorder, STEP_STEPS, () -> fetch(admin, stepsUrl));
+            timed(recorder, STEP_QUESTIONS, () -> fetch(admin, questionsUrl));
+            if (addQuestionUrl != null) {
+                timed(recorder, STEP_ADD_QUESTION, () -> fetch(admin, addQuestionUrl));
+            }
+            timed(recorder, STEP_TRANSITIONS, () -> fetch(admin, transitionsUrl));
+        }
+    }
+
+    /**
+     * Premier lien de creation de question de la page (forms.scaling.add.question.selector).
+     */
+    private static String addQuestionLink(Document questions) {
+        Element link = questions.selectFirst(config.getValue("forms.scaling.add.question.selector", String.class));
+        return link == null ? null : link.absUrl("href");
+    }
+
+    /**
+     * Chemin configure, {form} et {step} (etape du milieu) remplaces.
+     */
+    private static String path(String key, FormDefinitionGenerator.FormDefinition form) {
+        return config.getValue(key, String.class)
+            .replace("{form}", String.valueOf(form.formId()))
+            .replace("{step}", String.valueOf(form.middleStep()));
+    }
+
+    private static <T> T timed(LatencyRecorder recorder, String step, Callable<T> action) {
+        long start = System.nanoTime();
+        try {
+            T result = action.call();
+            if (step != null) {
+                recorder.record(step, System.nanoTime() - start);
+            }
+            return result;
+        } catch (Exception e) {
+            if (step != null) {
+                recorder.recordError(step, e);
+            }
+            LOGGER.debug("Echec {}: {}", step, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Document fetch(HttpSession admin, String url) throws IOException, InterruptedException {
+        HttpSession.Response response = admin.get(url);
+        Document document = response.assertOk().document();
+        if (AdminSession.isLoginPage(document)) {
+            throw new LoadException("Session BO perdue sur " + response.uri());
+        }
+        return document;
+    }
+
+    private static List<String> csvHeaders() {
+        List<String> headers = new ArrayList<>();
+        for (String step : STEPS) {
+            String prefix = step.replace("editor-", "").replace('-', '_');
+            headers.add(prefix + "_p50_ms");
+            headers.add(prefix + "_p90_ms");
+            headers.add(prefix + "_max_ms");
+        }
+        return headers;
+    }
+
+    private static String csvValues(LatencyRecorder recorder) {
+        List<String> values = new ArrayList<>();
+        for (String step : STEPS) {
+            Histogram histogram = recorder.histograms().get(step);
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                values.add("");
+                values.add("");
+                values.add("");
+            } else {
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(50) / 1000.0));
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(90) / 1000.0));
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getMaxValue() / 1000.0));
+            }
+        }
+        return String.join(",", values);
+    }
+}
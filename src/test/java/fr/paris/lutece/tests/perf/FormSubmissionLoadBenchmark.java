@@ -0,0 +1,53 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.load.FormSubmissionScenario;
+import fr.paris.lutece.load.LoadResult;
+import fr.paris.lutece.load.LoadRunner;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tir de charge protocolaire sur la soumission FO d'un formulaire (hors surefire par defaut).
+ *
+ * Prerequis : un formulaire publie (FormsCreationTest ecrit son id dans target/test-form-id.txt),
+ * ou -Dload.form.id. Lancement :
+ *   mvn test -Dtest=FormSubmissionLoadBenchmark -Dload.users=2000 -Dload.duration=120
+ */
+@DisplayName("Charge : soumission FO d'un formulaire")
+class FormSubmissionLoadBenchmark {
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    @Test
+    @DisplayName("Debit et latences par etape de la soumission FO")
+    void submitFormUnderLoad() throws InterruptedException {
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        String formId = config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId);
+
+        FormSubmissionScenario scenario = new FormSubmissionScenario(baseUrl, formId,
+            config.getValue("test.forms.question.text", String.class),
+            config.getValue("test.forms.submit.text", String.class),
+            config.getValue("test.forms.question.number", String.class),
+            config.getValue("test.forms.submit.number", String.class),
+            config.getValue("test.forms.submit.date", String.class));
+
+        LoadResult result = new LoadRunner("fo-submission", scenario,
+            config.getValue("load.users", Integer.class),
+            Duration.ofSeconds(config.getValue("load.rampup", Integer.class)),
+            Duration.ofSeconds(config.getValue("load.duration", Integer.class)))
+            .run();
+
+        double maxErrorRate = config.getValue("load.max.error.rate", Double.class);
+        assertTrue(result.iterations() > 0, "Aucune soumission terminee pendant le tir");
+        assertTrue(result.errorRate() <= maxErrorRate,
+            String.format("Taux d'erreur %.2f%% superieur au seuil %.2f%%",
+                result.errorRate() * 100, maxErrorRate * 100));
+    }
+}
@@ -0,0 +1,62 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.HarRecording;
+import fr.paris.lutece.load.HarScenario;
+import fr.paris.lutece.load.LoadResult;
+import fr.paris.lutece.load.LoadRunner;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rejoue en charge le HAR enregistre d'un test Playwright.
+ *
+ * 1. Enregistrer : mvn test -Dtest=WorkflowFormsIntegrationSuite -Dtest.har.record=true
+ * 2. Rejouer    : mvn test -Dtest=HarReplayBenchmark -Dload.har=WorkflowCreationTest -Dload.users=50
+ */
+@DisplayName("Charge : rejeu d'un HAR Playwright")
+class HarReplayBenchmark {
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    @Test
+    @DisplayName("Rejeu protocolaire d'un test enregistre")
+    void replayHar() throws IOException, InterruptedException {
+        String name = config.getValue("load.har", String.class);
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+
+        Properties metadata = new Properties();
+        if (Files.exists(HarRecording.metadataFile(name))) {
+            try (Reader reader = Files.newBufferedReader(HarRecording.metadataFile(name))) {
+                metadata.load(reader);
+            }
+        }
+        HarScenario scenario = HarScenario.fromHar(HarRecording.harFile(name),
+            metadata.getProperty("base.url", baseUrl),
+            metadata.getProperty("run.suffix"),
+            baseUrl,
+            config.getValue("test.admin.username", String.class),
+            config.getValue("test.admin.password", String.class));
+        assertTrue(scenario.size() > 0, "Aucune requete rejouable dans " + HarRecording.harFile(name));
+
+        LoadResult result = new LoadRunner("har-" + name, scenario,
+            config.getValue("load.users", Integer.class),
+            Duration.ofSeconds(config.getValue("load.rampup", Integer.class)),
+            Duration.ofSeconds(config.getValue("load.duration", Integer.class)))
+            .run();
+
+        double maxErrorRate = config.getValue("load.max.error.rate", Double.class);
+        assertTrue(result.errorRate() <= maxErrorRate,
+            String.format("Taux d'erreur %.2f%% superieur au seuil %.2f%%",
+                result.errorRate() * 100, maxErrorRate * 100));
+    }
+}
@@ -0,0 +1,173 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.datasets.AdminUserDataset;
+import fr.paris.lutece.load.AdminSession;
+import fr.paris.lutece.load.LoadProfile;
+import fr.paris.lutece.load.LoadReport;
+import fr.paris.lutece.load.LoadResult;
+import fr.paris.lutece.load.LoginScenario;
+import fr.paris.lutece.load.OpenModelScheduler;
+import fr.paris.lutece.load.WorkloadMix;
+import fr.paris.lutece.monitoring.ContainerStatsSampler;
+import fr.paris.lutece.monitoring.TestDatabase;
+import org.HdrHistogram.Histogram;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Debit de la page de connexion BO et cout du hachage des mots de passe.
+ *
+ * Pour chaque nombre d'iterations PBKDF2 de login.bench.hash.iterations, login.bench.users comptes
+ * sont crees par {@link AdminUserDataset} (mot de passe hache a ce nombre d'iterations), puis des
+ * connexions arrivent en modele ouvert a chaque taux de login.bench.rates pendant
+ * login.bench.step.duration secondes. Melange des cas de LoginTest : identifiants valides, mot de
+ * passe errone, utilisateur inexistant (login.bench.mix.*). Les paliers d'un nombre d'iterations
+ * s'arretent quand le taux d'erreur depasse login.bench.stop.error.rate (saturation).
+ *
+ * Mesures par palier : debit atteint, latences par cas (depuis l'arrivee prevue), CPU moyen du
+ * conteneur lutece (API stats de Docker) et CPU par connexion = CPU moyen x duree / connexions.
+ * Le seuil d'echecs de connexion par IP est leve le temps du tir, puis retabli. La connexion admin
+ * est verifiee sur l'instance mesuree avant de creer les comptes.
+ * Lancement via ContainerLoginThroughputSuite :
+ *   mvn test -Dtest=ContainerLoginThroughputSuite -Dlogin.bench.hash.iterations=10000,210000
+ * Resultats : target/load/login-throughput/ (results.csv cumule, un rapport par palier)
+ */
+@DisplayName("Connexion BO : debit et cout du hachage")
+public class LoginThroughputBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoginThroughputBenchmark.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    static final String CASE_VALID = "login-valid";
+    static final String CASE_INVALID = "login-invalid";
+    static final String CASE_UNKNOWN = "login-unknown";
+
+    private static final String USER_PREFIX = "loadlogin_";
+    private static final String CSV_HEADER = "label,iterations,rate,achieved_rps,error_rate,"
+        + "valid_p50_ms,valid_p90_ms,valid_p99_ms,invalid_p50_ms,invalid_p90_ms,unknown_p50_ms,unknown_p90_ms,"
+        + "cpu_pct,cpu_ms_per_login";
+
+    @Test
+    @DisplayName("Debit et latence de connexion par nombre d'iterations du hachage")
+    void loginThroughput() throws Exception {
+        assumeTrue(TestDatabase.isAvailable(), "Base non observable : lancer via ContainerLoginThroughputSuite ou monitoring.db.url");
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        String password = config.getValue("login.bench.password", String.class);
+        int users = config.getValue("login.bench.users", Integer.class);
+        Duration stepDuration = Duration.ofSeconds(config.getValue("login.bench.step.duration", Integer.class));
+        double stopErrorRate = config.getValue("login.bench.stop.error.rate", Double.class);
+        String logoutPath = config.getOptionalValue("login.bench.logout.path", String.class).orElse("");
+        String label = config.getOptionalValue("login.bench.label", String.class)
+            .orElseGet(() -> System.getProperty("lutece.image", "local"));
+
+        Path directory = LoadReport.directory("login-throughput");
+        Files.createDirectories(directory);
+        Path csv = directory.resolve("results.csv");
+        if (!Files.exists(csv)) {
+            Files.write(csv, List.of(CSV_HEADER));
+        }
+        List<String> lines = new ArrayList<>();
+        long logins = 0;
+
+        String adminUsername = config.getValue("test.admin.username", String.class);
+        AdminSession.login(baseUrl, adminUsername, config.getValue("test.admin.password", String.class));
+
+        try (Connection connection = TestDatabase.connect()) {
+            AdminUserDataset dataset = AdminUserDataset.fromTemplate(connection, TestDatabase.schema(), adminUsername);
+            LOGGER.info("Iterations du mot de passe de l'image : {}", dataset.templateIterations());
+            String lockout = dataset.relaxLockout(config.getValue("login.bench.failures.max", Integer.class));
+            try {
+                for (String iterationsValue : config.getValue("login.bench.hash.iterations", String.class).split(",")) {
+                    int iterations = Integer.parseInt(iterationsValue.trim());
+                    String prefix = USER_PREFIX + iterations + "_";
+                    List<String> accessCodes = dataset.seed(prefix, users, password, iterations);
+                    WorkloadMix mix = new WorkloadMix()
+                        .add(CASE_VALID, new LoginScenario(baseUrl, accessCodes, password, true, logoutPath),
+                            config.getValue("login.bench.mix.valid", Double.class))
+                        .add(CASE_INVALID, new LoginScenario(baseUrl, accessCodes, password + "-errone", false, ""),
+                            config.getValue("login.bench.mix.invalid", Double.class))
+                        .add(CASE_UNKNOWN, new LoginScenario(baseUrl, List.of("utilisateur_inexistant"), password, false, ""),
+                            config.getValue("login.bench.mix.unknown", Double.class));
+                    try {
+                        for (String rateValue : config.getValue("login.bench.rates", String.class).split(",")) {
+                            double rate = Double.parseDouble(rateValue.trim());
+                            LoadResult result = runStep(mix, iterations, rate, stepDuration, label, lines);
+                            logins += result.iterations() - result.failedIterations();
+                            if (result.errorRate() > stopErrorRate) {
+                                LOGGER.warn("Saturation a {} connexions/s ({} iterations) : erreurs {} %, paliers suivants ignores",
+                                    rate, iterations, String.format(Locale.ROOT, "%.1f", result.errorRate() * 100));
+                                break;
+                            }
+                            dataset.clearConnectionsLog();
+                        }
+                    } finally {
+                        dataset.delete(prefix);
+                    }
+                }
+            } finally {
+                dataset.restoreLockout(lockout);
+            }
+        } finally {
+            if (!lines.isEmpty()) {
+                Files.write(csv, lines, StandardOpenOption.APPEND);
+            }
+        }
+        LOGGER.info("Debit de connexion ({}) : {}", label, csv);
+        assertTrue(logins > 0, "Aucune connexion aboutie (voir " + directory + ")");
+    }
+
+    private LoadResult runStep(WorkloadMix mix, int iterations, double rate, Duration duration, String label,
+                               List<String> lines) throws InterruptedException {
+        String name = String.format(Locale.ROOT, "login-throughput/%d-%s", iterations, format(rate, "%.0f"));
+        long fromMs = System.currentTimeMillis();
+        LoadResult result = new OpenModelScheduler(name, mix, LoadProfile.ramp(rate, rate, duration),
+            config.getValue("load.open.window", Integer.class),
+            config.getValue("login.bench.max.inflight", Integer.class),
+            config.getValue("load.open.poisson", Boolean.class))
+            .run();
+        long toMs = System.currentTimeMillis();
+
+        OptionalDouble cpu = ContainerStatsSampler.meanCpuPercent("lutece", fromMs, toMs);
+        long completed = result.iterations() - result.failedIterations();
+        String cpuPerLogin = cpu.isPresent() && completed > 0
+            ? format(cpu.getAsDouble() / 100 * (toMs - fromMs) / completed, "%.1f") : "";
+        lines.add(String.join(",", label.replace(',', ' '), String.valueOf(iterations), format(rate, "%.1f"),
+            format(result.throughput(), "%.1f"), format(result.errorRate(), "%.4f"),
+            percentile(result, CASE_VALID, 50), percentile(result, CASE_VALID, 90), percentile(result, CASE_VALID, 99),
+            percentile(result, CASE_INVALID, 50), percentile(result, CASE_INVALID, 90),
+            percentile(result, CASE_UNKNOWN, 50), percentile(result, CASE_UNKNOWN, 90),
+            cpu.isPresent() ? format(cpu.getAsDouble(), "%.1f") : "", cpuPerLogin));
+        LOGGER.info("{} iterations, {} connexions/s : {} /s atteints, CPU {} %, {} ms CPU par connexion", iterations,
+            rate, format(result.throughput(), "%.1f"), cpu.isPresent() ? format(cpu.getAsDouble(), "%.0f") : "?",
+            cpuPerLogin.isEmpty() ? "?" : cpuPerLogin);
+        return result;
+    }
+
+    private static String percentile(LoadResult result, String step, double percentile) {
+        Histogram histogram = result.recorder().histograms().get(step);
+        return histogram == null || histogram.getTotalCount() == 0
+            ? "" : format(histogram.getValueAtPercentile(percentile) / 1000.0, "%.1f");
+    }
+
+    private static String format(double value, String pattern) {
+        return String.format(Locale.ROOT, pattern, value);
+    }
+}
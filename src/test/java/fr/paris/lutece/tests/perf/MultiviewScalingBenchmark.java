@@ -0,0 +1,263 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.datasets.ResponseDataset;
+import fr.paris.lutece.load.AdminSession;
+import fr.paris.lutece.load.HtmlForm;
+import fr.paris.lutece.load.HttpSession;
+import fr.paris.lutece.load.LatencyRecorder;
+import fr.paris.lutece.load.LoadException;
+import fr.paris.lutece.load.LoadReport;
+import fr.paris.lutece.monitoring.TestDatabase;
+import org.HdrHistogram.Histogram;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Latence de MultiviewForms (liste, filtre, tri, derniere page) quand le nombre de reponses croit.
+ *
+ * Pour chaque palier de dataset.sizes, le jeu de reponses synthetiques du formulaire est complete
+ * ({@link ResponseDataset}, LOAD DATA LOCAL INFILE dans MariaDB) puis chaque operation est mesuree
+ * dataset.samples fois par un administrateur seul. Les liens de tri et de pagination et le formulaire
+ * de filtre sont lus dans la page, pour suivre la version installee du plugin.
+ * Lancement via ContainerBenchmarkSuite (base observable par TestDatabase) :
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=MultiviewScalingBenchmark -Ddataset.sizes=10000,100000,1000000
+ * Resultats : target/load/multiview-scaling/ (scaling.csv, un rapport par palier)
+ */
+@DisplayName("Volumetrie : MultiviewForms selon le nombre de reponses")
+public class MultiviewScalingBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiviewScalingBenchmark.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    static final String STEP_LIST = "multiview-list";
+    static final String STEP_FILTER = "multiview-filter";
+    static final String STEP_SORT = "multiview-sort";
+    static final String STEP_LAST_PAGE = "multiview-last-page";
+    private static final String[] STEPS = {STEP_LIST, STEP_FILTER, STEP_SORT, STEP_LAST_PAGE};
+
+    private static final Pattern PAGE_INDEX = Pattern.compile("page_index=(\\d+)");
+
+    @Test
+    @DisplayName("Courbe latence / volume de MultiviewForms")
+    void multiviewScaling() throws Exception {
+        assumeTrue(TestDatabase.isAvailable(), "Base non observable : lancer via ContainerBenchmarkSuite -Dbenchmark=MultiviewScalingBenchmark ou monitoring.db.url");
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        int formId = Integer.parseInt(config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId));
+        String multiviewPath = config.getValue("load.bo.multiview.path", String.class);
+        int samples = config.getValue("dataset.samples", Integer.class);
+        int batchSize = config.getValue("dataset.batch.size", Integer.class);
+
+        Properties options = new Properties();
+        options.setProperty("allowLocalInfile", "true");
+        Path directory = LoadReport.directory("multiview-scaling");
+        List<String> lines = new ArrayList<>();
+        lines.add("responses,load_s," + String.join(",", csvHeaders()));
+        long errors = 0;
+
+        try (Connection connection = TestDatabase.connect(options)) {
+            ResponseDataset dataset = ResponseDataset.forForm(connection, TestDatabase.schema(), formId,
+                config.getValue("dataset.seed", Long.class));
+            HttpSession admin = AdminSession.login(baseUrl,
+                config.getValue("test.admin.username", String.class),
+                config.getValue("test.admin.password", String.class));
+
+            for (String value : config.getValue("dataset.sizes", String.class).split(",")) {
+                long size = Long.parseLong(value.trim());
+                long start = System.nanoTime();
+                long added = dataset.growTo(connection, size, batchSize);
+                double loadSeconds = (System.nanoTime() - start) / 1e9;
+                long responses = dataset.count(connection);
+                LOGGER.info("Palier {} : {} reponses ajoutees en {} s", responses, added, Math.round(loadSeconds));
+                reindex(admin, baseUrl);
+
+                LatencyRecorder recorder = new LatencyRecorder();
+                long measureStart = System.nanoTime();
+                measure(admin, baseUrl + multiviewPath, samples, recorder);
+                LoadReport.write("multiview-scaling/" + responses,
+                    String.format("MultiviewForms - formulaire %d - %d reponses - %d mesures par operation",
+                        formId, responses, samples),
+                    recorder, System.nanoTime() - measureStart);
+                lines.add(responses + "," + String.format(Locale.ROOT, "%.1f", loadSeconds) + "," + csvValues(recorder));
+                errors += recorder.errors(STEP_LIST);
+            }
+        }
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("scaling.csv"), lines);
+        LOGGER.info("Courbe latence / volume : {}", directory.resolve("scaling.csv"));
+        assertEquals(0, errors, "Echecs de chargement de la liste MultiviewForms (voir les rapports par palier)");
+    }
+
+    private void measure(HttpSession admin, String listUrl, int samples, LatencyRecorder recorder) {
+        // Premiere page hors mesure (caches applicatifs, compilation JSP)
+        timed(recorder, null, () -> fetch(admin, listUrl));
+        for (int i = 0; i < samples; i++) {
+            Document list = timed(recorder, STEP_LIST, () -> fetch(admin, listUrl));
+            if (list == null) {
+                continue;
+            }
+            int sample = i;
+            String sortUrl = sortLink(list, sample);
+            if (sortUrl != null) {
+                timed(recorder, STEP_SORT, () -> fetch(admin, sortUrl));
+            }
+            String lastPageUrl = lastPageLink(list);
+            if (lastPageUrl != null) {
+                timed(recorder, STEP_LAST_PAGE, () -> fetch(admin, lastPageUrl));
+            }
+            HtmlForm.Submission filter = filterSubmission(list, sample);
+            if (filter != null) {
+                timed(recorder, STEP_FILTER, () -> authenticated(admin.submit(filter)));
+            }
+        }
+    }
+
+    /**
+     * Lien de tri d'une colonne (les colonnes sont parcourues a tour de role).
+     */
+    private static String sortLink(Document list, int sample) {
+        Elements links = list.select("a[href*=sorted_attribute_name]");
+        return links.isEmpty() ? null : links.get(sample % links.size()).absUrl("href");
+    }
+
+    /**
+     * Lien de pagination de plus grand page_index (cout des grands decalages).
+     */
+    private static String lastPageLink(Document list) {
+        String best = null;
+        int bestIndex = 1;
+        for (Element link : list.select("a[href*=page_index]")) {
+            Matcher matcher = PAGE_INDEX.matcher(link.attr("href"));
+            if (matcher.find() && Integer.parseInt(matcher.group(1)) > bestIndex) {
+                bestIndex = Integer.parseInt(matcher.group(1));
+                best = link.absUrl("href");
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Soumission du formulaire de filtre avec une option d'une des listes deroulantes (a tour de role).
+     */
+    private static HtmlForm.Submission filterSubmission(Document list, int sample) {
+        String button = config.getValue("dataset.multiview.filter.button", String.class);
+        HtmlForm form;
+        try {
+            form = HtmlForm.withButton(list, button);
+        } catch (LoadException e) {
+            return null;
+        }
+        List<String[]> choices = new ArrayList<>();
+        for (Element select : list.select("form select[name]")) {
+            for (Element option : select.select("option[value]")) {
+                if (!option.attr("value").isEmpty() && !"-1".equals(option.attr("value"))) {
+                    choices.add(new String[] {select.attr("name"), option.attr("value")});
+                }
+            }
+        }
+        if (choices.isEmpty()) {
+            return null;
+        }
+        String[] choice = choices.get(sample % choices.size());
+        return form.set(choice[0], choice[1]).submit(button);
+    }
+
+    /**
+     * Lance le daemon d'indexation dataset.reindex.daemon (index Lucene des reponses) et attend
+     * dataset.reindex.wait secondes. Sans daemon configure, les reponses sont lues en base.
+     */
+    private static void reindex(HttpSession admin, String baseUrl) throws IOException, InterruptedException {
+        String daemon = config.getOptionalValue("dataset.reindex.daemon", String.class).orElse("");
+        if (daemon.isEmpty()) {
+            return;
+        }
+        Document daemons = fetch(admin, baseUrl + "/jsp/admin/system/ManageDaemons.jsp");
+        Element run = daemons.selectFirst("a[href*=daemon=" + daemon + "][href*=RUN]");
+        if (run == null) {
+            LOGGER.warn("Daemon {} introuvable dans ManageDaemons.jsp : pas de reindexation", daemon);
+            return;
+        }
+        fetch(admin, run.absUrl("href"));
+        Thread.sleep(config.getValue("dataset.reindex.wait", Integer.class) * 1000L);
+    }
+
+    private static <T> T timed(LatencyRecorder recorder, String step, Callable<T> action) {
+        long start = System.nanoTime();
+        try {
+            T result = action.call();
+            if (step != null) {
+                recorder.record(step, System.nanoTime() - start);
+            }
+            return result;
+        } catch (Exception e) {
+            if (step != null) {
+                recorder.recordError(step, e);
+            }
+            LOGGER.debug("Echec {}: {}", step, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Document fetch(HttpSession admin, String url) throws IOException, InterruptedException {
+        return authenticated(admin.get(url));
+    }
+
+    private static Document authenticated(HttpSession.Response response) {
+        Document document = response.assertOk().document();
+        if (AdminSession.isLoginPage(document)) {
+            throw new LoadException("Session BO perdue sur " + response.uri());
+        }
+        return document;
+    }
+
+    private static List<String> csvHeaders() {
+        List<String> headers = new ArrayList<>();
+        for (String step : STEPS) {
+            String prefix = step.replace("multiview-", "").replace('-', '_');
+            headers.add(prefix + "_p50_ms");
+            headers.add(prefix + "_p90_ms");
+            headers.add(prefix + "_max_ms");
+        }
+        return headers;
+    }
+
+    private static String csvValues(LatencyRecorder recorder) {
+        List<String> values = new ArrayList<>();
+        for (String step : STEPS) {
+            Histogram histogram = recorder.histograms().get(step);
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                values.add("");
+                values.add("");
+                values.add("");
+            } else {
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(50) / 1000.0));
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(90) / 1000.0));
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getMaxValue() / 1000.0));
+            }
+        }
+        return String.join(",", values);
+    }
+}
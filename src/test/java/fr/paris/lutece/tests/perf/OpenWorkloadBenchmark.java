@@ -0,0 +1,57 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.load.BackOfficeBrowsingScenario;
+import fr.paris.lutece.load.FormSubmissionScenario;
+import fr.paris.lutece.load.LoadProfile;
+import fr.paris.lutece.load.LoadResult;
+import fr.paris.lutece.load.OpenModelScheduler;
+import fr.paris.lutece.load.WorkloadMix;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tir en modele ouvert sur un melange FO / BO, pour tracer la courbe latence / debit de l'instance.
+ *
+ * Profil et melange : load.open.* (microprofile-config.properties). Lancement :
+ *   mvn test -Dtest=OpenWorkloadBenchmark -Dload.open.profile=step -Dload.open.rate.to=80
+ * Resultat : target/load/open-workload/curve.csv
+ */
+@DisplayName("Charge : modele ouvert FO / BO")
+class OpenWorkloadBenchmark {
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    @Test
+    @DisplayName("Courbe latence / debit sous un melange soumissions FO et navigation BO")
+    void openWorkload() throws InterruptedException {
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        String formId = config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId);
+
+        WorkloadMix mix = new WorkloadMix()
+            .add("fo-submission", new FormSubmissionScenario(baseUrl, formId,
+                    config.getValue("test.forms.question.text", String.class),
+                    config.getValue("test.forms.submit.text", String.class),
+                    config.getValue("test.forms.question.number", String.class),
+                    config.getValue("test.forms.submit.number", String.class),
+                    config.getValue("test.forms.submit.date", String.class)),
+                config.getValue("load.open.mix.fo", Double.class))
+            .add("bo-browsing", new BackOfficeBrowsingScenario(baseUrl,
+                    config.getValue("test.admin.username", String.class),
+                    config.getValue("test.admin.password", String.class),
+                    config.getValue("load.bo.multiview.path", String.class)),
+                config.getValue("load.open.mix.bo", Double.class));
+
+        LoadResult result = new OpenModelScheduler("open-workload", mix, LoadProfile.fromConfig(config),
+            config.getValue("load.open.window", Integer.class),
+            config.getValue("load.open.max.inflight", Integer.class),
+            config.getValue("load.open.poisson", Boolean.class))
+            .run();
+
+        assertTrue(result.iterations() > 0, "Aucune arrivee pendant le tir");
+    }
+}
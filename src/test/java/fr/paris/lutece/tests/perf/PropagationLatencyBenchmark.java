@@ -0,0 +1,314 @@
+package fr.paris.lutece.tests.perf;
+
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.options.LoadState;
+import com.microsoft.playwright.options.RequestOptions;
+import fr.paris.lutece.config.Artifacts;
+import fr.paris.lutece.config.BaseTest;
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.config.TimeoutPolicy;
+import fr.paris.lutece.load.FormSubmissionScenario;
+import fr.paris.lutece.load.HtmlForm;
+import fr.paris.lutece.load.LatencyRecorder;
+import fr.paris.lutece.load.LoadException;
+import fr.paris.lutece.load.LoadReport;
+import fr.paris.lutece.load.LoadResult;
+import fr.paris.lutece.load.LoadRunner;
+import fr.paris.lutece.monitoring.TestDatabase;
+import fr.paris.lutece.pages.FormsFrontOfficePage;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Delai de visibilite en BO d'une soumission FO, sous une charge de soumissions en arriere-plan.
+ *
+ * Chaque echantillon soumet le formulaire dans le navigateur (FormsFrontOfficePage) avec un jeton
+ * unique dans la question texte ; l'instant de reference est la fin de clickValidateSummary. On
+ * interroge ensuite toutes les propagation.poll.ms millisecondes :
+ * - la base : reponse enregistree (identifiant retrouve par le jeton) ;
+ * - la liste MultiviewForms, via le contexte API authentifie du navigateur : lien de la reponse ;
+ * - si propagation.search.field est renseigne, la recherche plein texte de MultiviewForms sur le
+ *   jeton, servie par l'index des reponses (FORMS_SEARCH_INDEXATION) : l'ecart avec la liste
+ *   mesure le retard d'indexation.
+ * La charge d'arriere-plan (propagation.load.users, 0 pour aucune) rejoue FormSubmissionScenario
+ * pendant les mesures. Lancement via ContainerBenchmarkSuite :
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=PropagationLatencyBenchmark -Dpropagation.samples=50 -Dpropagation.load.users=20
+ * Resultats : target/load/propagation/ (summary.txt, samples.csv, histogrammes par etape)
+ */
+@DisplayName("Propagation : delai de visibilite en BO d'une soumission FO")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PropagationLatencyBenchmark extends BaseTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PropagationLatencyBenchmark.class);
+
+    static final String STEP_SUBMIT = "fo-submit";
+    static final String STEP_STORED = "visible-db";
+    static final String STEP_LIST = "visible-list";
+    static final String STEP_SEARCH = "visible-search";
+
+    private static final String QUESTION_TEXT = config.getValue("test.forms.question.text", String.class);
+    private static final String QUESTION_NUMBER = config.getValue("test.forms.question.number", String.class);
+    private static final String SUBMIT_NUMBER = config.getValue("test.forms.submit.number", String.class);
+    private static final String SUBMIT_DATE = config.getValue("test.forms.submit.date", String.class);
+
+    private BrowserContext adminContext;
+
+    @Override
+    protected void createContextAndPage() {
+        // Contextes crees une seule fois dans setup
+    }
+
+    @Override
+    protected void closeContext() {
+        // Contextes fermes dans cleanup
+    }
+
+    @BeforeAll
+    void setup() {
+        assumeTrue(hasAuthState(), "Etat d'authentification BO absent : lancer via ContainerBenchmarkSuite -Dbenchmark=PropagationLatencyBenchmark");
+        context = Artifacts.newContext(browser, contextOptions());
+        page = context.newPage();
+        TimeoutPolicy.setDefaultTimeout(page, TIMEOUT);
+        adminContext = createAuthenticatedContext();
+    }
+
+    @AfterAll
+    void cleanup() {
+        if (adminContext != null) {
+            adminContext.close();
+        }
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Distribution du delai soumission FO -> visibilite BO")
+    void propagationLatency() throws Exception {
+        assumeTrue(TestDatabase.isAvailable(), "Base non observable : lancer via ContainerBenchmarkSuite -Dbenchmark=PropagationLatencyBenchmark ou monitoring.db.url");
+        String formId = config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId);
+        int samples = config.getValue("propagation.samples", Integer.class);
+        int users = config.getValue("propagation.load.users", Integer.class);
+
+        CompletableFuture<LoadResult> background = users > 0 ? startBackgroundLoad(formId, users) : null;
+        if (background != null) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(config.getValue("load.rampup", Integer.class)));
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        List<String> lines = new ArrayList<>();
+        lines.add("sample,submit_ms,db_ms,list_ms,search_ms");
+        long start = System.nanoTime();
+        int visible = 0;
+        try (Connection connection = TestDatabase.connect()) {
+            for (int i = 0; i < samples; i++) {
+                Sample sample = measure(connection, formId, recorder);
+                lines.add(String.join(",", String.valueOf(i + 1), millis(sample.submitNanos), millis(sample.storedNanos),
+                    millis(sample.listNanos), millis(sample.searchNanos)));
+                if (sample.listNanos >= 0) {
+                    visible++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        String loadSummary = "sans charge d'arriere-plan";
+        if (background != null) {
+            LoadResult result = background.get();
+            loadSummary = String.format(Locale.ROOT, "charge d'arriere-plan : %d utilisateurs, %.1f soumissions/s, %.1f %% d'erreurs",
+                users, result.throughput(), result.errorRate() * 100);
+        }
+        Path directory = LoadReport.directory("propagation");
+        LoadReport.write("propagation", String.format("Propagation FO -> BO - formulaire %s - %d echantillons, %d visibles en liste - %s",
+            formId, samples, visible, loadSummary), recorder, elapsed);
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("samples.csv"), lines);
+        assertTrue(visible > 0, "Aucune soumission visible dans MultiviewForms dans le delai (voir " + directory + ")");
+    }
+
+    /**
+     * Instants de visibilite d'un echantillon, en nanosecondes apres la soumission (-1 : non vu).
+     */
+    private static final class Sample {
+        long submitNanos = -1;
+        long storedNanos = -1;
+        long listNanos = -1;
+        long searchNanos = -1;
+    }
+
+    private Sample measure(Connection connection, String formId, LatencyRecorder recorder) throws Exception {
+        Sample sample = new Sample();
+        String token = "propagation" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+
+        long submitStart = System.nanoTime();
+        submit(formId, token);
+        long submitted = System.nanoTime();
+        sample.submitNanos = submitted - submitStart;
+        recorder.record(STEP_SUBMIT, sample.submitNanos);
+
+        String searchField = config.getOptionalValue("propagation.search.field", String.class).orElse("");
+        long deadline = submitted + TimeUnit.SECONDS.toNanos(config.getValue("propagation.timeout.s", Integer.class));
+        long pollMillis = config.getValue("propagation.poll.ms", Integer.class);
+        String responseId = null;
+        while (System.nanoTime() < deadline
+                && (sample.listNanos < 0 || (!searchField.isEmpty() && sample.searchNanos < 0))) {
+            if (responseId == null) {
+                responseId = findResponse(connection, token);
+                if (responseId != null) {
+                    sample.storedNanos = System.nanoTime() - submitted;
+                }
+            }
+            if (responseId != null && sample.listNanos < 0 && listShows(responseId)) {
+                sample.listNanos = System.nanoTime() - submitted;
+            }
+            if (responseId != null && !searchField.isEmpty() && sample.searchNanos < 0 && searchFinds(searchField, token, responseId)) {
+                sample.searchNanos = System.nanoTime() - submitted;
+            }
+            Thread.sleep(pollMillis);
+        }
+        record(recorder, STEP_STORED, sample.storedNanos, token);
+        record(recorder, STEP_LIST, sample.listNanos, token);
+        if (!searchField.isEmpty()) {
+            record(recorder, STEP_SEARCH, sample.searchNanos, token);
+        }
+        return sample;
+    }
+
+    /**
+     * Soumission FO comme FormsSubmissionTest, le jeton dans la question texte.
+     */
+    private void submit(String formId, String token) {
+        page.navigate(BASE_URL + "/jsp/site/Portal.jsp?page=forms&view=formView&id_form=" + formId);
+        page.waitForLoadState();
+        FormsFrontOfficePage foPage = new FormsFrontOfficePage(page, BASE_URL);
+        foPage.dismissOffcanvasIfPresent();
+        foPage.fillTextField(QUESTION_TEXT, token);
+        foPage.fillNumberField(QUESTION_NUMBER, SUBMIT_NUMBER);
+        Locator date = page.locator("input.flatpickr-input");
+        if (date.count() > 0) {
+            foPage.fillDateField(SUBMIT_DATE);
+        }
+        foPage.clickNextStep();
+        foPage.clickViewSummary();
+        foPage.clickValidateSummary();
+        page.waitForLoadState(LoadState.NETWORKIDLE);
+    }
+
+    /**
+     * Identifiant de la reponse portant le jeton, null tant qu'elle n'est pas enregistree.
+     */
+    private static String findResponse(Connection connection, String token) throws SQLException {
+        String schema = TestDatabase.schema();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT qr.id_form_response FROM `" + schema + "`.genatt_response r"
+                    + " JOIN `" + schema + "`.forms_question_entry_response qer ON qer.id_entry_response = r.id_response"
+                    + " JOIN `" + schema + "`.forms_question_response qr ON qr.id_question_response = qer.id_question_response"
+                    + " WHERE r.response_value = ? LIMIT 1")) {
+            statement.setString(1, token);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * La premiere page de MultiviewForms contient-elle le lien de la reponse ?
+     */
+    private boolean listShows(String responseId) {
+        Document list = get(BASE_URL + config.getValue("load.bo.multiview.path", String.class));
+        return list.selectFirst("a[href*=id_form_response=" + responseId + "]") != null;
+    }
+
+    /**
+     * La recherche plein texte de MultiviewForms sur le jeton trouve-t-elle la reponse ?
+     */
+    private boolean searchFinds(String searchField, String token, String responseId) {
+        String button = config.getValue("dataset.multiview.filter.button", String.class);
+        Document list = get(BASE_URL + config.getValue("load.bo.multiview.path", String.class));
+        HtmlForm.Submission search;
+        try {
+            search = HtmlForm.withButton(list, button).set(searchField, token).submit(button);
+        } catch (LoadException e) {
+            LOGGER.debug("Recherche MultiviewForms indisponible: {}", e.getMessage());
+            return false;
+        }
+        Document result;
+        if ("get".equalsIgnoreCase(search.method())) {
+            result = get(search.uri() + (search.uri().getQuery() == null ? "?" : "&") + search.urlEncoded());
+        } else {
+            APIResponse response = adminContext.request().fetch(search.uri().toString(), RequestOptions.create()
+                .setMethod("POST")
+                .setHeader("Content-Type", "application/x-www-form-urlencoded")
+                .setData(search.urlEncoded()));
+            result = parse(response);
+        }
+        return result.selectFirst("a[href*=id_form_response=" + responseId + "]") != null;
+    }
+
+    private Document get(String url) {
+        return parse(adminContext.request().get(url));
+    }
+
+    private static Document parse(APIResponse response) {
+        if (!response.ok()) {
+            throw new LoadException("HTTP " + response.status() + " sur " + response.url());
+        }
+        return Jsoup.parse(response.text(), response.url());
+    }
+
+    private static void record(LatencyRecorder recorder, String step, long nanos, String token) {
+        if (nanos >= 0) {
+            recorder.record(step, nanos);
+        } else {
+            recorder.recordError(step, new LoadException("Reponse " + token + " non visible dans le delai"));
+        }
+    }
+
+    private CompletableFuture<LoadResult> startBackgroundLoad(String formId, int users) {
+        FormSubmissionScenario scenario = new FormSubmissionScenario(BASE_URL, formId,
+            QUESTION_TEXT,
+            config.getValue("test.forms.submit.text", String.class),
+            QUESTION_NUMBER, SUBMIT_NUMBER, SUBMIT_DATE);
+        LoadRunner runner = new LoadRunner("propagation/background", scenario, users,
+            Duration.ofSeconds(config.getValue("load.rampup", Integer.class)),
+            Duration.ofSeconds(config.getValue("propagation.load.duration", Integer.class)));
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return runner.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static String millis(long nanos) {
+        return nanos < 0 ? "" : String.format(Locale.ROOT, "%.0f", nanos / 1e6);
+    }
+}
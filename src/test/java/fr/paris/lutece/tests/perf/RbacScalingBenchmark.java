@@ -0,0 +1,198 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.datasets.RbacDatasetGenerator;
+import fr.paris.lutece.load.AdminSession;
+import fr.paris.lutece.load.HttpSession;
+import fr.paris.lutece.load.LatencyRecorder;
+import fr.paris.lutece.load.LoadException;
+import fr.paris.lutece.load.LoadReport;
+import fr.paris.lutece.monitoring.StatementDigests;
+import fr.paris.lutece.monitoring.TestDatabase;
+import org.HdrHistogram.Histogram;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Latence des ecrans BO en fonction du volume RBAC de l'administrateur (roles, controles de
+ * ressources, droits, groupes de travail).
+ *
+ * Pour chaque taille de rbac.scaling.sizes (roles:controles par role:droits:groupes), le jeu est
+ * genere en base par {@link RbacDatasetGenerator} et attribue a l'administrateur, qui se reconnecte
+ * (ses roles et droits sont charges a la connexion). Chaque ecran de rbac.scaling.paths (menu BO,
+ * liste des formulaires, droits de l'utilisateur) est ensuite demande rbac.scaling.samples fois.
+ * Le nombre de requetes SQL par affichage (performance_schema) montre si les permissions sont
+ * evaluees requete par requete : il croit alors avec le nombre de roles. Le jeu genere est retire
+ * en fin de tir. Les courbes sont etiquetees par rbac.scaling.label (defaut : image Lutece testee).
+ * Lancement via ContainerBenchmarkSuite :
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=RbacScalingBenchmark -Drbac.scaling.sizes=0:0:0:0,500:20:1000:300
+ * Resultats : target/load/rbac-scaling/ (scaling.csv cumule, un rapport par taille)
+ */
+@DisplayName("RBAC : latence des ecrans BO selon le nombre de roles et de droits")
+public class RbacScalingBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RbacScalingBenchmark.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    private static final String CSV_HEADER = "label,roles,controls,rights,workgroups,generate_s,";
+
+    @Test
+    @DisplayName("Courbe latence / volume RBAC du menu, de la liste des formulaires et des droits")
+    void rbacScaling() throws Exception {
+        assumeTrue(TestDatabase.isAvailable(), "Base non observable : lancer via ContainerBenchmarkSuite -Dbenchmark=RbacScalingBenchmark ou monitoring.db.url");
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        String username = config.getValue("test.admin.username", String.class);
+        String password = config.getValue("test.admin.password", String.class);
+        int samples = config.getValue("rbac.scaling.samples", Integer.class);
+        String label = config.getOptionalValue("rbac.scaling.label", String.class)
+            .orElseGet(() -> System.getProperty("lutece.image", "local"));
+
+        Path directory = LoadReport.directory("rbac-scaling");
+        List<String> lines = new ArrayList<>();
+        Map<String, String> screens = new LinkedHashMap<>();
+        long errors = 0;
+
+        try (Connection connection = TestDatabase.connect()) {
+            RbacDatasetGenerator generator = RbacDatasetGenerator.forUser(connection, TestDatabase.schema(), username);
+            for (String entry : config.getValue("rbac.scaling.paths", String.class).split(",")) {
+                String[] parts = entry.trim().split(":", 2);
+                screens.put(parts[0], parts[1].replace("{user}", String.valueOf(generator.userId())));
+            }
+            try {
+                for (String size : config.getValue("rbac.scaling.sizes", String.class).split(",")) {
+                    String[] parts = size.trim().split(":");
+                    long start = System.nanoTime();
+                    RbacDatasetGenerator.RbacDataset dataset = generator.generate(Integer.parseInt(parts[0]),
+                        Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                    double generateSeconds = (System.nanoTime() - start) / 1e9;
+
+                    // Nouvelle session : roles et droits relus a la connexion
+                    HttpSession admin = AdminSession.login(baseUrl, username, password);
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    Map<String, Double> queries = new LinkedHashMap<>();
+                    long measureStart = System.nanoTime();
+                    for (Map.Entry<String, String> screen : screens.entrySet()) {
+                        queries.put(screen.getKey(),
+                            measure(connection, admin, screen.getKey(), baseUrl + screen.getValue(), samples, recorder));
+                        errors += recorder.errors(screen.getKey());
+                    }
+                    String name = String.format("%d-%d-%d-%d", dataset.roles(), dataset.controls(), dataset.rights(),
+                        dataset.workgroups());
+                    LoadReport.write("rbac-scaling/" + name,
+                        String.format("Volume RBAC - %s - %d roles, %d controles, %d droits, %d groupes - %d mesures par ecran",
+                            label, dataset.roles(), dataset.controls(), dataset.rights(), dataset.workgroups(), samples),
+                        recorder, System.nanoTime() - measureStart);
+                    lines.add(String.join(",", label.replace(',', ' '), String.valueOf(dataset.roles()),
+                        String.valueOf(dataset.controls()), String.valueOf(dataset.rights()),
+                        String.valueOf(dataset.workgroups()), String.format(Locale.ROOT, "%.1f", generateSeconds))
+                        + "," + csvValues(screens.keySet(), recorder, queries));
+                }
+            } finally {
+                generator.clear();
+            }
+        }
+        // Cumul d'une execution a l'autre : une ligne par version et par taille
+        Path csv = directory.resolve("scaling.csv");
+        Files.createDirectories(directory);
+        if (!Files.exists(csv)) {
+            Files.writeString(csv, CSV_HEADER + String.join(",", csvHeaders(screens.keySet())) + System.lineSeparator());
+        }
+        Files.write(csv, lines, StandardOpenOption.APPEND);
+        LOGGER.info("Courbe latence / volume RBAC ({}) : {}", label, csv);
+        assertEquals(0, errors, "Echecs sur les ecrans BO (voir les rapports par taille)");
+    }
+
+    /**
+     * Mesure un ecran et retourne le nombre moyen de requetes SQL par affichage (-1 sans performance_schema).
+     */
+    private static double measure(Connection connection, HttpSession admin, String step, String url, int samples,
+                                  LatencyRecorder recorder) {
+        // Premier passage hors mesure (compilation JSP, caches)
+        fetch(admin, url, null, recorder);
+        StatementDigests before = snapshot(connection);
+        for (int i = 0; i < samples; i++) {
+            fetch(admin, url, step, recorder);
+        }
+        StatementDigests after = snapshot(connection);
+        return before == null || after == null ? -1 : (double) after.since(before).totalCount() / samples;
+    }
+
+    private static void fetch(HttpSession admin, String url, String step, LatencyRecorder recorder) {
+        long start = System.nanoTime();
+        try {
+            HttpSession.Response response = admin.get(url);
+            if (AdminSession.isLoginPage(response.assertOk().document())) {
+                throw new LoadException("Session BO perdue sur " + response.uri());
+            }
+            if (step != null) {
+                recorder.record(step, System.nanoTime() - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadException("Mesure interrompue sur " + url);
+        } catch (IOException | RuntimeException e) {
+            if (step != null) {
+                recorder.recordError(step, e);
+            }
+            LOGGER.debug("Echec {}: {}", step, e.getMessage());
+        }
+    }
+
+    private static StatementDigests snapshot(Connection connection) {
+        try {
+            return StatementDigests.snapshot(connection, TestDatabase.schema());
+        } catch (SQLException e) {
+            LOGGER.debug("performance_schema indisponible : {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<String> csvHeaders(Iterable<String> screens) {
+        List<String> headers = new ArrayList<>();
+        for (String screen : screens) {
+            headers.add(screen + "_p50_ms");
+            headers.add(screen + "_p90_ms");
+            headers.add(screen + "_max_ms");
+            headers.add(screen + "_queries");
+        }
+        return headers;
+    }
+
+    private static String csvValues(Iterable<String> screens, LatencyRecorder recorder, Map<String, Double> queries) {
+        List<String> values = new ArrayList<>();
+        for (String screen : screens) {
+            Histogram histogram = recorder.histograms().get(screen);
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                values.add("");
+                values.add("");
+                values.add("");
+            } else {
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(50) / 1000.0));
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(90) / 1000.0));
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getMaxValue() / 1000.0));
+            }
+            double perRequest = queries.getOrDefault(screen, -1.0);
+            values.add(perRequest < 0 ? "" : String.format(Locale.ROOT, "%.1f", perRequest));
+        }
+        return String.join(",", values);
+    }
+}
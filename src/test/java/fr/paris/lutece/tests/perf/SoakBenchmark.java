@@ -0,0 +1,107 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.containers.LuteceContainer;
+import fr.paris.lutece.load.FormSubmissionScenario;
+import fr.paris.lutece.load.LoadReport;
+import fr.paris.lutece.load.LoadResult;
+import fr.paris.lutece.load.LoadRunner;
+import fr.paris.lutece.load.ResponseValidationScenario;
+import fr.paris.lutece.load.Scenario;
+import fr.paris.lutece.monitoring.HeapHistogramSampler;
+import fr.paris.lutece.monitoring.HeapSample;
+import fr.paris.lutece.monitoring.LeakReport;
+import fr.paris.lutece.tests.ContainerSetup;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tir d'endurance : soumissions FO et validations BO repetees pendant des heures, avec suivi du
+ * tas de la JVM Lutece pour detecter les fuites memoire.
+ *
+ * Chaque iteration soumet le formulaire ; une iteration sur soak.validation.every valide aussi une
+ * reponse en BO. L'histogramme des classes est pris toutes les soak.sample.interval secondes
+ * (jcmd GC.class_histogram dans le conteneur). Lancement via ContainerBenchmarkSuite (conteneurs,
+ * workflow et formulaire crees par la suite) :
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=SoakBenchmark -Dsoak.duration=14400
+ * Resultats : target/load/soak/ (summary.txt, heap.csv, leak-suspects.txt)
+ */
+@DisplayName("Endurance : croissance du tas sous trafic FO / BO")
+public class SoakBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoakBenchmark.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    @Test
+    @DisplayName("Suspects de fuite memoire par croissance pour 1 000 soumissions")
+    void soak() throws Exception {
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        String formId = config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId);
+        int validationEvery = config.getValue("soak.validation.every", Integer.class);
+
+        FormSubmissionScenario submission = new FormSubmissionScenario(baseUrl, formId,
+            config.getValue("test.forms.question.text", String.class),
+            config.getValue("test.forms.submit.text", String.class),
+            config.getValue("test.forms.question.number", String.class),
+            config.getValue("test.forms.submit.number", String.class),
+            config.getValue("test.forms.submit.date", String.class));
+        ResponseValidationScenario validation = new ResponseValidationScenario(baseUrl,
+            config.getValue("test.admin.username", String.class),
+            config.getValue("test.admin.password", String.class),
+            config.getValue("load.bo.multiview.path", String.class),
+            config.getValue("test.workflow.action.name", String.class));
+
+        LongAdder submissions = new LongAdder();
+        Scenario scenario = user -> {
+            submission.run(user);
+            submissions.increment();
+            if (validationEvery > 0 && submissions.sum() % validationEvery == 0) {
+                validation.run(user);
+            }
+        };
+
+        LuteceContainer lutece = ContainerSetup.getLuteceContainer();
+        HeapHistogramSampler sampler = lutece != null && lutece.isRunning()
+            ? HeapHistogramSampler.start(lutece.jvm(), submissions::sum,
+                Duration.ofSeconds(config.getValue("soak.sample.interval", Integer.class)))
+            : null;
+        if (sampler == null) {
+            LOGGER.warn("Pas de conteneur Lutece : endurance sans suivi du tas (lancer via ContainerBenchmarkSuite -Dbenchmark=SoakBenchmark)");
+        }
+
+        LoadResult result = new LoadRunner("soak", scenario,
+            config.getValue("soak.users", Integer.class),
+            Duration.ofSeconds(config.getValue("load.rampup", Integer.class)),
+            Duration.ofSeconds(config.getValue("soak.duration", Integer.class)))
+            .run();
+
+        if (sampler != null) {
+            List<HeapSample> samples = sampler.stop();
+            List<LeakReport.Suspect> suspects = LeakReport.write(LoadReport.directory("soak"), samples,
+                config.getValue("soak.warmup.samples", Integer.class),
+                config.getValue("soak.monotonic.ratio", Double.class),
+                config.getValue("soak.top", Integer.class));
+            if (!suspects.isEmpty()) {
+                LOGGER.warn("Premier suspect de fuite: {} (+{} Ko / 1000 soumissions)",
+                    suspects.get(0).className(), Math.round(suspects.get(0).bytesPer1000() / 1024));
+            }
+        }
+
+        double maxErrorRate = config.getValue("load.max.error.rate", Double.class);
+        assertTrue(result.iterations() > 0, "Aucune iteration terminee pendant le tir d'endurance");
+        assertTrue(result.errorRate() <= maxErrorRate,
+            String.format("Taux d'erreur %.2f%% superieur au seuil %.2f%%",
+                result.errorRate() * 100, maxErrorRate * 100));
+    }
+}
@@ -0,0 +1,382 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.datasets.ResponseDataset;
+import fr.paris.lutece.load.AdminSession;
+import fr.paris.lutece.load.HtmlForm;
+import fr.paris.lutece.load.HttpSession;
+import fr.paris.lutece.load.LatencyRecorder;
+import fr.paris.lutece.load.LoadException;
+import fr.paris.lutece.load.LoadExecutors;
+import fr.paris.lutece.load.LoadReport;
+import fr.paris.lutece.load.ResponseValidationScenario;
+import fr.paris.lutece.load.VirtualUser;
+import fr.paris.lutece.monitoring.TestDatabase;
+import org.HdrHistogram.Histogram;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Debit de l'action de workflow (test.workflow.action.name) sur un grand nombre de reponses.
+ *
+ * workflow.throughput.responses reponses a l'etat initial sont chargees par {@link ResponseDataset}
+ * pour chaque mode, puis traitees :
+ * - une par une : pour chaque niveau de workflow.throughput.concurrency, autant d'administrateurs
+ *   que le niveau se partagent les reponses ({@link ResponseValidationScenario#forResponses} :
+ *   ouverture de la reponse, action, confirmation de la tache) ;
+ * - en masse : pour chaque taille de workflow.throughput.mass.batches, les reponses sont cochees par
+ *   lots dans MultiviewForms et l'action de masse est soumise (formulaire lu dans la page).
+ * Par mode : actions/s (reponses sorties de l'etat initial, lues en base), latences par etape,
+ * croissance de workflow_resource_history (lignes et octets).
+ * Lancement via ContainerBenchmarkSuite :
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=WorkflowActionThroughputBenchmark -Dworkflow.throughput.responses=2000
+ * Resultats : target/load/workflow-throughput/ (throughput.csv, un rapport par mode)
+ */
+@DisplayName("Debit : action de workflow sur de nombreuses reponses")
+public class WorkflowActionThroughputBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowActionThroughputBenchmark.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    static final String STEP_ITERATION = "workflow-single";
+    static final String STEP_MASS_LIST = "workflow-mass-list";
+    static final String STEP_MASS_SUBMIT = "workflow-mass-submit";
+    static final String STEP_MASS_CONFIRM = "workflow-mass-confirm";
+    static final String STEP_MASS_BATCH = "workflow-mass-batch";
+
+    private static final String HISTORY_TABLE = "workflow_resource_history";
+
+    @Test
+    @DisplayName("Actions par seconde, une par une et en masse")
+    void workflowActionThroughput() throws Exception {
+        assumeTrue(TestDatabase.isAvailable(), "Base non observable : lancer via ContainerBenchmarkSuite -Dbenchmark=WorkflowActionThroughputBenchmark ou monitoring.db.url");
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        int formId = Integer.parseInt(config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId));
+        int responses = config.getValue("workflow.throughput.responses", Integer.class);
+
+        Properties options = new Properties();
+        options.setProperty("allowLocalInfile", "true");
+        Path directory = LoadReport.directory("workflow-throughput");
+        List<String> lines = new ArrayList<>();
+        lines.add("mode,level,responses,processed,elapsed_s,actions_per_s,p50_ms,p99_ms,max_ms,errors,"
+            + "history_rows,history_rows_per_action,history_bytes_per_action");
+        long processedTotal = 0;
+
+        try (Connection connection = TestDatabase.connect(options)) {
+            ResponseDataset dataset = ResponseDataset.forForm(connection, TestDatabase.schema(), formId,
+                config.getValue("dataset.seed", Long.class)).allInInitialState();
+            assumeTrue(dataset.workflowId() > 0, "Formulaire " + formId + " sans workflow");
+
+            for (String level : config.getValue("workflow.throughput.concurrency", String.class).split(",")) {
+                int concurrency = Integer.parseInt(level.trim());
+                List<Integer> ids = seed(connection, dataset, responses);
+                History before = History.read(connection, dataset.workflowId());
+                LatencyRecorder recorder = new LatencyRecorder();
+                long start = System.nanoTime();
+                processOneByOne(baseUrl, ids, concurrency, recorder);
+                long elapsed = System.nanoTime() - start;
+                processedTotal += summarize(connection, dataset, "single", concurrency, ids, before, recorder,
+                    STEP_ITERATION, elapsed, lines);
+            }
+
+            enableMassAction(connection, dataset.workflowId());
+            HttpSession admin = AdminSession.login(baseUrl,
+                config.getValue("test.admin.username", String.class),
+                config.getValue("test.admin.password", String.class));
+            for (String value : config.getValue("workflow.throughput.mass.batches", String.class).split(",")) {
+                int batch = Integer.parseInt(value.trim());
+                List<Integer> ids = seed(connection, dataset, responses);
+                History before = History.read(connection, dataset.workflowId());
+                LatencyRecorder recorder = new LatencyRecorder();
+                long start = System.nanoTime();
+                if (!processMass(admin, baseUrl, ids, batch, recorder)) {
+                    LOGGER.warn("Action de masse '{}' introuvable dans MultiviewForms : mode masse non mesure",
+                        config.getValue("test.workflow.action.name", String.class));
+                    break;
+                }
+                long elapsed = System.nanoTime() - start;
+                processedTotal += summarize(connection, dataset, "mass", batch, ids, before, recorder,
+                    STEP_MASS_BATCH, elapsed, lines);
+            }
+        }
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("throughput.csv"), lines);
+        LOGGER.info("Debit de l'action de workflow : {}", directory.resolve("throughput.csv"));
+        assertTrue(processedTotal > 0, "Aucune reponse traitee (voir les rapports par mode)");
+    }
+
+    /**
+     * Charge count reponses a l'etat initial et retourne leurs identifiants (les count plus recents
+     * a l'etat initial).
+     */
+    private static List<Integer> seed(Connection connection, ResponseDataset dataset, int count) throws SQLException {
+        dataset.load(connection, count, config.getValue("dataset.batch.size", Integer.class));
+        List<Integer> ids = dataset.initialStateResponses(connection, Integer.MAX_VALUE);
+        return new ArrayList<>(ids.subList(Math.max(0, ids.size() - count), ids.size()));
+    }
+
+    /**
+     * concurrency administrateurs se partagent les reponses ; chacun ouvre, actionne et confirme.
+     */
+    private static void processOneByOne(String baseUrl, List<Integer> ids, int concurrency, LatencyRecorder recorder)
+            throws InterruptedException {
+        Queue<Integer> pending = new ConcurrentLinkedQueue<>(ids);
+        ExecutorService executor = LoadExecutors.perTask("workflow-throughput");
+        for (int i = 0; i < concurrency; i++) {
+            int id = i;
+            executor.submit(() -> {
+                // File propre au travailleur : le scenario trouve toujours la reponse qu'on vient d'y deposer
+                Queue<Integer> current = new ArrayDeque<>(1);
+                ResponseValidationScenario scenario = ResponseValidationScenario.forResponses(baseUrl,
+                    config.getValue("test.admin.username", String.class),
+                    config.getValue("test.admin.password", String.class),
+                    config.getValue("workflow.throughput.response.path", String.class),
+                    config.getValue("test.workflow.action.name", String.class), current);
+                VirtualUser user = new VirtualUser(id, recorder);
+                Integer response;
+                while ((response = pending.poll()) != null) {
+                    current.offer(response);
+                    try {
+                        user.step(STEP_ITERATION, () -> {
+                            scenario.run(user);
+                            return null;
+                        });
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        current.clear();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(config.getValue("workflow.throughput.timeout.minutes", Integer.class), TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+            LOGGER.warn("Traitement une par une interrompu apres le delai, {} reponses restantes", pending.size());
+        }
+    }
+
+    /**
+     * Marque l'action comme action de masse (colonne is_mass_action des versions recentes du plugin
+     * workflow). Les workflows etant mis en cache par Lutece, le changement peut n'etre visible
+     * qu'apres expiration du cache : l'action peut aussi etre cochee "action de masse" dans le modele.
+     */
+    private static void enableMassAction(Connection connection, int workflowId) {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE `" + TestDatabase.schema() + "`.workflow_action SET is_mass_action = 1 WHERE id_workflow = ? AND name = ?")) {
+            statement.setInt(1, workflowId);
+            statement.setString(2, config.getValue("test.workflow.action.name", String.class));
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            LOGGER.debug("Action de masse non activee en base: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Traite les reponses par lots via l'action de masse de MultiviewForms ; false si l'action de
+     * masse n'est pas proposee.
+     */
+    private static boolean processMass(HttpSession admin, String baseUrl, List<Integer> ids, int batch,
+                                       LatencyRecorder recorder) throws Exception {
+        VirtualUser user = new VirtualUser(0, recorder);
+        String listUrl = baseUrl + config.getValue("load.bo.multiview.path", String.class);
+        for (int from = 0; from < ids.size(); from += batch) {
+            List<Integer> lot = ids.subList(from, Math.min(ids.size(), from + batch));
+            Document list = user.step(STEP_MASS_LIST, () -> authenticated(admin.get(listUrl)));
+            MassAction mass = MassAction.find(list);
+            if (mass == null) {
+                return false;
+            }
+            try {
+                user.step(STEP_MASS_BATCH, () -> {
+                    Document result = user.step(STEP_MASS_SUBMIT, () -> authenticated(admin.submit(mass.submission(lot))));
+                    HtmlForm confirmation = taskForm(result);
+                    if (confirmation != null) {
+                        user.step(STEP_MASS_CONFIRM, () -> authenticated(admin.submit(
+                            confirmation.submit(config.getValue("workflow.throughput.mass.confirm.button", String.class)))));
+                    }
+                    return null;
+                });
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                LOGGER.debug("Lot de {} reponses en echec: {}", lot.size(), e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Formulaire d'action de masse de la liste : cases a cocher des reponses et declenchement de
+     * l'action, soit par un bouton a son libelle, soit par une liste d'actions et
+     * workflow.throughput.mass.button.
+     */
+    private static final class MassAction {
+        private final HtmlForm form;
+        private final String checkbox;
+        private final String button;
+
+        private MassAction(HtmlForm form, String checkbox, String button) {
+            this.form = form;
+            this.checkbox = checkbox;
+            this.button = button;
+        }
+
+        static MassAction find(Document list) {
+            String action = config.getValue("test.workflow.action.name", String.class).toLowerCase(Locale.ROOT);
+            for (Element form : list.select("form")) {
+                Element checkbox = form.selectFirst("input[type=checkbox][name][value~=^\\d+$]");
+                if (checkbox == null) {
+                    continue;
+                }
+                for (Element button : form.select("button, input[type=submit]")) {
+                    String text = button.tagName().equals("button") ? button.text() : button.attr("value");
+                    if (text.toLowerCase(Locale.ROOT).contains(action)) {
+                        return new MassAction(HtmlForm.withButton(list, text), checkbox.attr("name"), text);
+                    }
+                }
+                for (Element option : form.select("select[name] option[value]")) {
+                    if (option.text().toLowerCase(Locale.ROOT).contains(action)) {
+                        String button = config.getValue("workflow.throughput.mass.button", String.class);
+                        try {
+                            HtmlForm html = HtmlForm.withButton(list, button)
+                                .set(option.parent().attr("name"), option.attr("value"));
+                            return new MassAction(html, checkbox.attr("name"), button);
+                        } catch (LoadException e) {
+                            LOGGER.warn("Action '{}' proposee en masse mais bouton '{}' introuvable", action, button);
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        HtmlForm.Submission submission(List<Integer> responses) {
+            form.remove(checkbox);
+            for (Integer response : responses) {
+                form.add(checkbox, String.valueOf(response));
+            }
+            return form.submit(button);
+        }
+    }
+
+    /**
+     * Lignes et taille de workflow_resource_history pour le workflow.
+     */
+    private static final class History {
+        final long rows;
+        final long bytes;
+
+        private History(long rows, long bytes) {
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+
+        static History read(Connection connection, int workflowId) throws SQLException {
+            String schema = TestDatabase.schema();
+            long rows;
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT COUNT(*) FROM `" + schema + "`." + HISTORY_TABLE + " WHERE resource_type = ? AND id_workflow = ?")) {
+                statement.setString(1, ResponseDataset.RESOURCE_TYPE);
+                statement.setInt(2, workflowId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    rows = rs.getLong(1);
+                }
+            }
+            // Taille estimee par InnoDB, rafraichie par ANALYZE
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE TABLE `" + schema + "`." + HISTORY_TABLE);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT data_length + index_length FROM information_schema.tables WHERE table_schema = ? AND table_name = ?")) {
+                statement.setString(1, schema);
+                statement.setString(2, HISTORY_TABLE);
+                try (ResultSet rs = statement.executeQuery()) {
+                    return new History(rows, rs.next() ? rs.getLong(1) : 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ecrit le rapport du mode, ajoute sa ligne a lines et retourne le nombre de reponses traitees.
+     */
+    private static long summarize(Connection connection, ResponseDataset dataset, String mode, int level,
+                                  List<Integer> ids, History before, LatencyRecorder recorder, String step,
+                                  long elapsedNanos, List<String> lines) throws SQLException {
+        Set<Integer> remaining = new HashSet<>(dataset.initialStateResponses(connection, Integer.MAX_VALUE));
+        long processed = ids.stream().filter(id -> !remaining.contains(id)).count();
+        History after = History.read(connection, dataset.workflowId());
+        double seconds = elapsedNanos / 1e9;
+        long historyRows = after.rows - before.rows;
+        String name = "workflow-throughput/" + mode + "-" + level;
+        LoadReport.write(name, String.format(Locale.ROOT,
+                "Action de workflow - %s %d - %d reponses, %d traitees en %.1f s (%.2f actions/s)%n"
+                    + "workflow_resource_history : +%d lignes, +%d octets",
+                mode, level, ids.size(), processed, seconds, processed / seconds, historyRows, after.bytes - before.bytes),
+            recorder, elapsedNanos);
+        Histogram histogram = recorder.histograms().get(step);
+        boolean measured = histogram != null && histogram.getTotalCount() > 0;
+        lines.add(String.join(",", mode, String.valueOf(level), String.valueOf(ids.size()), String.valueOf(processed),
+            String.format(Locale.ROOT, "%.1f", seconds),
+            String.format(Locale.ROOT, "%.2f", processed / seconds),
+            measured ? String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(50) / 1000.0) : "",
+            measured ? String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(99) / 1000.0) : "",
+            measured ? String.format(Locale.ROOT, "%.1f", histogram.getMaxValue() / 1000.0) : "",
+            String.valueOf(recorder.errors(step)),
+            String.valueOf(historyRows),
+            processed > 0 ? String.format(Locale.ROOT, "%.2f", (double) historyRows / processed) : "",
+            processed > 0 ? String.valueOf((after.bytes - before.bytes) / processed) : ""));
+        return processed;
+    }
+
+    /**
+     * Formulaire de tache affiche apres l'action, null si l'action a ete executee directement.
+     */
+    private static HtmlForm taskForm(Document page) {
+        try {
+            return HtmlForm.withButton(page, config.getValue("workflow.throughput.mass.confirm.button", String.class));
+        } catch (LoadException e) {
+            return null;
+        }
+    }
+
+    private static Document authenticated(HttpSession.Response response) {
+        Document document = response.assertOk().document();
+        if (AdminSession.isLoginPage(document)) {
+            throw new LoadException("Session BO perdue sur " + response.uri());
+        }
+        return document;
+    }
+}
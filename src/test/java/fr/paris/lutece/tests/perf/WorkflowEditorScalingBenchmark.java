@@ -0,0 +1,223 @@
+package fr.paris.lutece.tests.perf;
+
+import fr.paris.lutece.config.ScenarioContext;
+import fr.paris.lutece.datasets.WorkflowDefinitionGenerator;
+import fr.paris.lutece.load.AdminSession;
+import fr.paris.lutece.load.HtmlForm;
+import fr.paris.lutece.load.HttpSession;
+import fr.paris.lutece.load.LatencyRecorder;
+import fr.paris.lutece.load.LoadException;
+import fr.paris.lutece.load.LoadReport;
+import fr.paris.lutece.monitoring.TestDatabase;
+import org.HdrHistogram.Histogram;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Latence de l'editeur de workflows BO (edition, onglet Actions, edition d'action, insertion de
+ * tache) quand la taille du workflow croit.
+ *
+ * Pour chaque taille de workflow.scaling.sizes (etats:actions:taches par action), un workflow est
+ * genere en base par {@link WorkflowDefinitionGenerator} a partir du workflow cree par
+ * WorkflowCreationTest, puis chaque ecran est mesure workflow.scaling.samples fois par un
+ * administrateur seul. L'edition d'action et l'insertion de tache portent sur l'action du milieu ;
+ * l'insertion soumet le formulaire "Inserer" avec test.workflow.task.type, puis les taches inserees
+ * sont supprimees en base pour que chaque mesure voie la meme action.
+ * Lancement via ContainerBenchmarkSuite :
+ *   mvn test -Dtest=ContainerBenchmarkSuite -Dbenchmark=WorkflowEditorScalingBenchmark -Dworkflow.scaling.sizes=2:1:1,20:60:5,60:200:20
+ * Resultats : target/load/workflow-editor-scaling/ (scaling.csv cumule, un rapport par taille)
+ */
+@DisplayName("Volumetrie : editeur de workflows selon le nombre d'etats, d'actions et de taches")
+public class WorkflowEditorScalingBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowEditorScalingBenchmark.class);
+
+    private static final Config config = ConfigProvider.getConfig();
+
+    static final String STEP_EDIT = "workflow-edit";
+    static final String STEP_ACTIONS = "workflow-actions";
+    static final String STEP_ACTION_EDIT = "workflow-action-edit";
+    static final String STEP_TASK_INSERT = "workflow-task-insert";
+    private static final String[] STEPS = {STEP_EDIT, STEP_ACTIONS, STEP_ACTION_EDIT, STEP_TASK_INSERT};
+
+    private static final String CSV_HEADER = "label,states,actions,tasks,generate_s,";
+    private static final String INSERT_BUTTON = "Insérer";
+    private static final String TASK_LABEL = "Nouvelle tâche";
+
+    @Test
+    @DisplayName("Courbe latence / taille de l'editeur de workflows")
+    void workflowEditorScaling() throws Exception {
+        assumeTrue(TestDatabase.isAvailable(), "Base non observable : lancer via ContainerBenchmarkSuite -Dbenchmark=WorkflowEditorScalingBenchmark ou monitoring.db.url");
+        String baseUrl = config.getValue("lutece.base.url", String.class);
+        int templateFormId = Integer.parseInt(config.getOptionalValue("load.form.id", String.class).orElseGet(ScenarioContext::readFormId));
+        int samples = config.getValue("workflow.scaling.samples", Integer.class);
+        String label = config.getOptionalValue("workflow.scaling.label", String.class)
+            .orElseGet(() -> System.getProperty("lutece.image", "local"));
+
+        Path directory = LoadReport.directory("workflow-editor-scaling");
+        List<String> lines = new ArrayList<>();
+        long errors = 0;
+
+        try (Connection connection = TestDatabase.connect()) {
+            WorkflowDefinitionGenerator generator = WorkflowDefinitionGenerator.fromFormWorkflow(connection,
+                TestDatabase.schema(), templateFormId, config.getValue("dataset.seed", Long.class));
+            HttpSession admin = AdminSession.login(baseUrl,
+                config.getValue("test.admin.username", String.class),
+                config.getValue("test.admin.password", String.class));
+
+            for (String size : config.getValue("workflow.scaling.sizes", String.class).split(",")) {
+                String[] parts = size.trim().split(":");
+                int stateCount = Integer.parseInt(parts[0]);
+                int actionCount = Integer.parseInt(parts[1]);
+                int tasksPerAction = Integer.parseInt(parts[2]);
+                long start = System.nanoTime();
+                WorkflowDefinitionGenerator.WorkflowDefinition workflow = generator.generate(stateCount, actionCount,
+                    tasksPerAction);
+                double generateSeconds = (System.nanoTime() - start) / 1e9;
+
+                LatencyRecorder recorder = new LatencyRecorder();
+                long measureStart = System.nanoTime();
+                measure(admin, baseUrl, generator, workflow, tasksPerAction, samples, recorder);
+                LoadReport.write("workflow-editor-scaling/" + stateCount + "x" + actionCount + "x" + tasksPerAction,
+                    String.format("Editeur de workflows - %s - workflow %d - %d etats, %d actions, %d taches - %d mesures par ecran",
+                        label, workflow.workflowId(), stateCount, actionCount, workflow.tasks(), samples),
+                    recorder, System.nanoTime() - measureStart);
+                lines.add(String.join(",", label.replace(',', ' '), String.valueOf(stateCount), String.valueOf(actionCount),
+                    String.valueOf(workflow.tasks()), String.format(Locale.ROOT, "%.1f", generateSeconds)) + "," + csvValues(recorder));
+                for (String step : STEPS) {
+                    errors += recorder.errors(step);
+                }
+            }
+        }
+        // Cumul d'une execution a l'autre : une ligne par version et par taille
+        Path csv = directory.resolve("scaling.csv");
+        Files.createDirectories(directory);
+        if (!Files.exists(csv)) {
+            Files.writeString(csv, CSV_HEADER + String.join(",", csvHeaders()) + System.lineSeparator());
+        }
+        Files.write(csv, lines, StandardOpenOption.APPEND);
+        LOGGER.info("Courbe latence / taille ({}) : {}", label, csv);
+        assertEquals(0, errors, "Echecs sur les ecrans de l'editeur de workflows (voir les rapports par taille)");
+    }
+
+    private void measure(HttpSession admin, String baseUrl, WorkflowDefinitionGenerator generator,
+                         WorkflowDefinitionGenerator.WorkflowDefinition workflow, int tasksPerAction, int samples,
+                         LatencyRecorder recorder) throws Exception {
+        String editUrl = baseUrl + path("workflow.scaling.edit.path", workflow);
+        String actionsUrl = baseUrl + path("workflow.scaling.actions.path", workflow);
+        String actionUrl = baseUrl + path("workflow.scaling.action.path", workflow);
+        String taskType = config.getValue("test.workflow.task.type", String.class);
+        // Premier passage hors mesure (compilation JSP, caches du workflow)
+        timed(recorder, null, () -> fetch(admin, editUrl));
+        timed(recorder, null, () -> fetch(admin, actionsUrl));
+        timed(recorder, null, () -> fetch(admin, actionUrl));
+        for (int i = 0; i < samples; i++) {
+            timed(recorder, STEP_EDIT, () -> fetch(admin, editUrl));
+            timed(recorder, STEP_ACTIONS, () -> fetch(admin, actionsUrl));
+            Document action = timed(recorder, STEP_ACTION_EDIT, () -> fetch(admin, actionUrl));
+            if (action != null) {
+                HtmlForm.Submission insert = insertTask(action, taskType);
+                if (insert != null) {
+                    timed(recorder, STEP_TASK_INSERT, () -> authenticated(admin.submit(insert)));
+                    generator.trimTasks(workflow.middleAction(), tasksPerAction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Soumission du formulaire d'insertion de tache de la page d'action, null s'il est absent.
+     */
+    private static HtmlForm.Submission insertTask(Document action, String taskType) {
+        try {
+            return HtmlForm.withButton(action, INSERT_BUTTON).fillByLabel(TASK_LABEL, taskType).submit(INSERT_BUTTON);
+        } catch (LoadException e) {
+            LOGGER.warn("Insertion de tache impossible sur {} : {}", action.location(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Chemin configure, {workflow} et {action} (action du milieu) remplaces.
+     */
+    private static String path(String key, WorkflowDefinitionGenerator.WorkflowDefinition workflow) {
+        return config.getValue(key, String.class)
+            .replace("{workflow}", String.valueOf(workflow.workflowId()))
+            .replace("{action}", String.valueOf(workflow.middleAction()));
+    }
+
+    private static <T> T timed(LatencyRecorder recorder, String step, Callable<T> action) {
+        long start = System.nanoTime();
+        try {
+            T result = action.call();
+            if (step != null) {
+                recorder.record(step, System.nanoTime() - start);
+            }
+            return result;
+        } catch (Exception e) {
+            if (step != null) {
+                recorder.recordError(step, e);
+            }
+            LOGGER.debug("Echec {}: {}", step, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Document fetch(HttpSession admin, String url) throws IOException, InterruptedException {
+        return authenticated(admin.get(url));
+    }
+
+    private static Document authenticated(HttpSession.Response response) {
+        Document document = response.assertOk().document();
+        if (AdminSession.isLoginPage(document)) {
+            throw new LoadException("Session BO perdue sur " + response.uri());
+        }
+        return document;
+    }
+
+    private static List<String> csvHeaders() {
+        List<String> headers = new ArrayList<>();
+        for (String step : STEPS) {
+            String prefix = step.replace("workflow-", "").replace('-', '_');
+            headers.add(prefix + "_p50_ms");
+            headers.add(prefix + "_p90_ms");
+            headers.add(prefix + "_max_ms");
+        }
+        return headers;
+    }
+
+    private static String csvValues(LatencyRecorder recorder) {
+        List<String> values = new ArrayList<>();
+        for (String step : STEPS) {
+            Histogram histogram = recorder.histograms().get(step);
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                values.add("");
+                values.add("");
+                values.add("");
+            } else {
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(50) / 1000.0));
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getValueAtPercentile(90) / 1000.0));
+                values.add(String.format(Locale.ROOT, "%.1f", histogram.getMaxValue() / 1000.0));
+            }
+        }
+        return String.join(",", values);
+    }
+}